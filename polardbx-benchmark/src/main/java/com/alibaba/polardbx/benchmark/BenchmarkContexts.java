@@ -0,0 +1,97 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark;
+
+import com.alibaba.polardbx.executor.operator.ConsumerExecutor;
+import com.alibaba.polardbx.executor.operator.Executor;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.memory.MemoryManager;
+import com.alibaba.polardbx.optimizer.memory.MemoryPool;
+import com.alibaba.polardbx.optimizer.memory.MemorySetting;
+import com.alibaba.polardbx.optimizer.memory.MemoryType;
+import com.alibaba.polardbx.optimizer.spill.QuerySpillSpaceMonitor;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Execution context and driving loops shared by the operator benchmarks
+ */
+public final class BenchmarkContexts {
+
+    private static final AtomicInteger POOL_ID = new AtomicInteger();
+
+    private BenchmarkContexts() {
+    }
+
+    /**
+     * A context with its own unlimited query memory pool, release it by {@link #release}
+     */
+    public static ExecutionContext create() {
+        ExecutionContext context = new ExecutionContext();
+        context.setMemoryPool(
+            MemoryManager.getInstance().getGlobalMemoryPool().getOrCreatePool(
+                "benchmark_" + POOL_ID.incrementAndGet(), MemorySetting.UNLIMITED_SIZE, MemoryType.QUERY));
+        context.setQuerySpillSpaceMonitor(new QuerySpillSpaceMonitor());
+        return context;
+    }
+
+    public static void release(ExecutionContext context) {
+        MemoryPool pool = context.getMemoryPool();
+        if (pool != null) {
+            pool.destroy();
+        }
+    }
+
+    /**
+     * Drive a blocking operator the way a pipeline driver does: consume all input, build, then
+     * drain the output into the black hole.
+     *
+     * @return number of output rows
+     */
+    public static long consumeAndDrain(Executor output, Executor input, Blackhole blackhole) {
+        ConsumerExecutor consumer = (ConsumerExecutor) output;
+        input.open();
+        consumer.openConsume();
+        Chunk chunk;
+        while ((chunk = input.nextChunk()) != null) {
+            consumer.consumeChunk(chunk);
+        }
+        consumer.buildConsume();
+        input.close();
+        return drain(output, blackhole);
+    }
+
+    /**
+     * @return number of output rows
+     */
+    public static long drain(Executor output, Blackhole blackhole) {
+        long rows = 0;
+        output.open();
+        try {
+            Chunk chunk;
+            while ((chunk = output.nextChunk()) != null) {
+                rows += chunk.getPositionCount();
+                blackhole.consume(chunk);
+            }
+        } finally {
+            output.close();
+        }
+        return rows;
+    }
+}
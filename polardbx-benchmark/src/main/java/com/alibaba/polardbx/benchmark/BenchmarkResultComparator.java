@@ -0,0 +1,157 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files and fails when any benchmark regressed by more than
+ * the threshold, e.g. before upgrading a dependency or merging an executor change:
+ * <pre>
+ * java -cp benchmarks.jar com.alibaba.polardbx.benchmark.BenchmarkResultComparator \
+ *     baseline.json jmh-result.json 0.1
+ * </pre>
+ * Benchmarks are matched by name and parameters, those missing on either side are ignored.
+ */
+public class BenchmarkResultComparator {
+
+    public static final double DEFAULT_THRESHOLD = 0.1;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkResultComparator <baseline.json> <current.json> [threshold]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+        Map<String, Score> baseline = load(read(args[0]));
+        Map<String, Score> current = load(read(args[1]));
+
+        List<Change> changes = compare(baseline, current);
+        int regressions = 0;
+        for (Change change : changes) {
+            boolean regressed = change.isRegression(threshold);
+            if (regressed) {
+                regressions++;
+            }
+            System.out.println(String.format("%-10s %s: %.3f -> %.3f %s (%+.1f%%)",
+                regressed ? "REGRESSION" : "ok", change.key, change.baseline.value, change.current.value,
+                change.current.unit, change.relativeChange() * 100));
+        }
+        System.out.println(String.format("%d benchmarks compared, %d regressed by more than %.1f%%",
+            changes.size(), regressions, threshold * 100));
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static String read(String path) throws IOException {
+        return new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parse the JMH JSON result format into scores keyed by benchmark name and parameters
+     */
+    public static Map<String, Score> load(String json) {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        JSONArray results = JSON.parseArray(json);
+        for (int i = 0; i < results.size(); i++) {
+            JSONObject result = results.getJSONObject(i);
+            JSONObject metric = result.getJSONObject("primaryMetric");
+            String mode = result.getString("mode");
+            scores.put(key(result), new Score(metric.getDoubleValue("score"), metric.getString("scoreUnit"),
+                "thrpt".equals(mode)));
+        }
+        return scores;
+    }
+
+    private static String key(JSONObject result) {
+        StringBuilder key = new StringBuilder(result.getString("benchmark"));
+        JSONObject params = result.getJSONObject("params");
+        if (params != null && !params.isEmpty()) {
+            // sort the params so the key does not depend on the order JMH wrote them in
+            Map<String, Object> sorted = new TreeMap<>(params);
+            key.append(sorted);
+        }
+        return key.toString();
+    }
+
+    public static List<Change> compare(Map<String, Score> baseline, Map<String, Score> current) {
+        List<Change> changes = new ArrayList<>();
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score base = baseline.get(entry.getKey());
+            if (base != null && base.value > 0) {
+                changes.add(new Change(entry.getKey(), base, entry.getValue()));
+            }
+        }
+        return changes;
+    }
+
+    public static class Score {
+        final double value;
+        final String unit;
+        /**
+         * Throughput is better when higher, average/sample/single shot time when lower
+         */
+        final boolean higherIsBetter;
+
+        Score(double value, String unit, boolean higherIsBetter) {
+            this.value = value;
+            this.unit = unit;
+            this.higherIsBetter = higherIsBetter;
+        }
+    }
+
+    public static class Change {
+        final String key;
+        final Score baseline;
+        final Score current;
+
+        Change(String key, Score baseline, Score current) {
+            this.key = key;
+            this.baseline = baseline;
+            this.current = current;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * @return relative change of the score, positive means slower
+         */
+        public double relativeChange() {
+            double change = (current.value - baseline.value) / baseline.value;
+            return current.higherIsBetter ? -change : change;
+        }
+
+        public boolean isRegression(double threshold) {
+            return relativeChange() > threshold;
+        }
+    }
+}
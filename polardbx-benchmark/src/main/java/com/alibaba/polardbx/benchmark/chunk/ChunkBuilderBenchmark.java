@@ -0,0 +1,136 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark.chunk;
+
+import com.alibaba.polardbx.benchmark.BenchmarkContexts;
+import com.alibaba.polardbx.benchmark.data.ColumnSpec;
+import com.alibaba.polardbx.benchmark.data.ColumnType;
+import com.alibaba.polardbx.benchmark.data.DataGenerator;
+import com.alibaba.polardbx.optimizer.chunk.Block;
+import com.alibaba.polardbx.optimizer.chunk.BlockBuilder;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.ChunkBuilder;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building chunks value by value through block builders, and copying positions between blocks
+ * the way operators materialize their output.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ChunkBuilderBenchmark {
+
+    @Param({"INT", "LONG", "DOUBLE", "DECIMAL", "VARCHAR"})
+    public ColumnType type;
+
+    @Param({"0", "0.2"})
+    public double nullRatio;
+
+    @Param({"65536"})
+    public int rowCount;
+
+    private ExecutionContext context;
+    private ColumnSpec[] columns;
+    private int[] ranks;
+    private List<Chunk> chunks;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContexts.create();
+        columns = new ColumnSpec[] {ColumnSpec.of(type, rowCount, 0d, nullRatio)};
+        ranks = DataGenerator.ranks(columns[0], rowCount, 42L);
+        chunks = DataGenerator.generate(context, rowCount, 42L, columns);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkContexts.release(context);
+    }
+
+    @Benchmark
+    public long writeValues(Blackhole blackhole) {
+        ChunkBuilder builder =
+            new ChunkBuilder(DataGenerator.dataTypes(columns), context.getExecutorChunkLimit(), context);
+        BlockBuilder blockBuilder = builder.getBlockBuilder(0);
+        long rows = 0;
+        for (int rank : ranks) {
+            if (rank < 0) {
+                blockBuilder.appendNull();
+            } else {
+                type.write(blockBuilder, rank);
+            }
+            builder.declarePosition();
+            if (builder.isFull()) {
+                rows += flush(builder, blackhole);
+                blockBuilder = builder.getBlockBuilder(0);
+            }
+        }
+        if (!builder.isEmpty()) {
+            rows += flush(builder, blackhole);
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public long copyPositions(Blackhole blackhole) {
+        ChunkBuilder builder =
+            new ChunkBuilder(DataGenerator.dataTypes(columns), context.getExecutorChunkLimit(), context);
+        long rows = 0;
+        for (Chunk chunk : chunks) {
+            Block block = chunk.getBlock(0);
+            for (int position = 0; position < chunk.getPositionCount(); position++) {
+                builder.appendTo(block, 0, position);
+                builder.declarePosition();
+                if (builder.isFull()) {
+                    rows += flush(builder, blackhole);
+                }
+            }
+        }
+        if (!builder.isEmpty()) {
+            rows += flush(builder, blackhole);
+        }
+        return rows;
+    }
+
+    private static int flush(ChunkBuilder builder, Blackhole blackhole) {
+        Chunk chunk = builder.build();
+        builder.reset();
+        blackhole.consume(chunk);
+        return chunk.getPositionCount();
+    }
+}
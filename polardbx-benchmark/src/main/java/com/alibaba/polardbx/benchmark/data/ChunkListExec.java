@@ -0,0 +1,76 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark.data;
+
+import com.alibaba.polardbx.executor.operator.Executor;
+import com.alibaba.polardbx.executor.operator.ProducerExecutor;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.List;
+
+/**
+ * Replays pre-generated chunks as the input of an operator. The chunks are shared, so a
+ * single data set can feed every invocation of a benchmark.
+ */
+public class ChunkListExec implements Executor {
+
+    private final List<DataType> dataTypes;
+    private final List<Chunk> chunks;
+    private int index;
+
+    public ChunkListExec(List<DataType> dataTypes, List<Chunk> chunks) {
+        this.dataTypes = dataTypes;
+        this.chunks = chunks;
+    }
+
+    @Override
+    public void open() {
+        index = 0;
+    }
+
+    @Override
+    public Chunk nextChunk() {
+        return index < chunks.size() ? chunks.get(index++) : null;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public List<DataType> getDataTypes() {
+        return dataTypes;
+    }
+
+    @Override
+    public List<Executor> getInputs() {
+        return ImmutableList.of();
+    }
+
+    @Override
+    public boolean produceIsFinished() {
+        return index >= chunks.size();
+    }
+
+    @Override
+    public ListenableFuture<?> produceIsBlocked() {
+        return ProducerExecutor.NOT_BLOCKED;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark.data;
+
+/**
+ * How to generate one column: its type, the number of distinct values, the Zipf skew of the
+ * value frequencies and the ratio of nulls.
+ */
+public final class ColumnSpec {
+
+    private final ColumnType type;
+
+    private final int cardinality;
+
+    private final double skew;
+
+    private final double nullRatio;
+
+    private final boolean unique;
+
+    private ColumnSpec(ColumnType type, int cardinality, double skew, double nullRatio) {
+        this(type, cardinality, skew, nullRatio, false);
+    }
+
+    private ColumnSpec(ColumnType type, int cardinality, double skew, double nullRatio, boolean unique) {
+        this.type = type;
+        this.cardinality = cardinality;
+        this.skew = skew;
+        this.nullRatio = nullRatio;
+        this.unique = unique;
+    }
+
+    public static ColumnSpec of(ColumnType type, int cardinality, double skew) {
+        return new ColumnSpec(type, cardinality, skew, 0d);
+    }
+
+    public static ColumnSpec of(ColumnType type, int cardinality, double skew, double nullRatio) {
+        return new ColumnSpec(type, cardinality, skew, nullRatio);
+    }
+
+    /**
+     * A column of distinct values in random order, e.g. a primary key
+     */
+    public static ColumnSpec unique(ColumnType type, int rowCount) {
+        return new ColumnSpec(type, rowCount, 0d, 0d, true);
+    }
+
+    public ColumnType getType() {
+        return type;
+    }
+
+    public int getCardinality() {
+        return cardinality;
+    }
+
+    public double getSkew() {
+        return skew;
+    }
+
+    public double getNullRatio() {
+        return nullRatio;
+    }
+
+    public boolean isUnique() {
+        return unique;
+    }
+}
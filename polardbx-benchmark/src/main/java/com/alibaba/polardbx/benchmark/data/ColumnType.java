@@ -0,0 +1,85 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark.data;
+
+import com.alibaba.polardbx.common.datatype.Decimal;
+import com.alibaba.polardbx.optimizer.chunk.BlockBuilder;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+
+/**
+ * Column types supported by the data generators. A generated value is derived from its rank
+ * in [0, cardinality), so ordering and equality of ranks carry over to the typed values.
+ */
+public enum ColumnType {
+    INT(DataTypes.IntegerType) {
+        @Override
+        public void write(BlockBuilder builder, int rank) {
+            builder.writeInt(rank);
+        }
+    },
+    LONG(DataTypes.LongType) {
+        @Override
+        public void write(BlockBuilder builder, int rank) {
+            // spread the ranks over the whole positive range, keeping the order
+            builder.writeLong(((long) rank << 20) | (rank & 0xFFFFF));
+        }
+    },
+    DOUBLE(DataTypes.DoubleType) {
+        @Override
+        public void write(BlockBuilder builder, int rank) {
+            builder.writeDouble(rank + 0.25d);
+        }
+    },
+    DECIMAL(DataTypes.DecimalType) {
+        @Override
+        public void write(BlockBuilder builder, int rank) {
+            builder.writeDecimal(new Decimal(rank * 100L + 25, 2));
+        }
+    },
+    VARCHAR(DataTypes.StringType) {
+        @Override
+        public void write(BlockBuilder builder, int rank) {
+            builder.writeString(paddedString(rank));
+        }
+    };
+
+    private static final String VARCHAR_PREFIX = "polardbx_benchmark_0000000000";
+
+    /**
+     * Zero padded so that the strings sort like their ranks
+     */
+    private static String paddedString(int rank) {
+        String digits = Integer.toString(rank);
+        return VARCHAR_PREFIX.substring(0, VARCHAR_PREFIX.length() - digits.length()) + digits;
+    }
+
+    private final DataType dataType;
+
+    ColumnType(DataType dataType) {
+        this.dataType = dataType;
+    }
+
+    public DataType getDataType() {
+        return dataType;
+    }
+
+    /**
+     * Write the value of the given rank, values of different ranks are distinct
+     */
+    public abstract void write(BlockBuilder builder, int rank);
+}
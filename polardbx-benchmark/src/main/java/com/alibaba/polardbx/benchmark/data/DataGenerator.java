@@ -0,0 +1,145 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark.data;
+
+import com.alibaba.polardbx.optimizer.chunk.BlockBuilder;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.ChunkBuilder;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates deterministic chunks for benchmarks. The same seed and specs always produce
+ * the same data, so results of different runs are comparable.
+ */
+public final class DataGenerator {
+
+    private DataGenerator() {
+    }
+
+    public static List<DataType> dataTypes(ColumnSpec... columns) {
+        List<DataType> types = new ArrayList<>(columns.length);
+        for (ColumnSpec column : columns) {
+            types.add(column.getType().getDataType());
+        }
+        return types;
+    }
+
+    public static List<Chunk> generate(ExecutionContext context, int rowCount, long seed, ColumnSpec... columns) {
+        return generate(context, rowCount, context.getExecutorChunkLimit(), seed, columns);
+    }
+
+    public static List<Chunk> generate(ExecutionContext context, int rowCount, int chunkSize, long seed,
+                                       ColumnSpec... columns) {
+        List<DataType> types = dataTypes(columns);
+        ColumnSource[] sources = new ColumnSource[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            sources[i] = new ColumnSource(columns[i], seed * 31 + i);
+        }
+
+        List<Chunk> chunks = new ArrayList<>((rowCount + chunkSize - 1) / chunkSize);
+        ChunkBuilder builder = new ChunkBuilder(types, chunkSize, context);
+        for (int row = 0; row < rowCount; row++) {
+            for (int i = 0; i < columns.length; i++) {
+                sources[i].writeNext(builder.getBlockBuilder(i));
+            }
+            builder.declarePosition();
+            if (builder.isFull()) {
+                chunks.add(builder.build());
+                builder.reset();
+            }
+        }
+        if (!builder.isEmpty()) {
+            chunks.add(builder.build());
+        }
+        return chunks;
+    }
+
+    /**
+     * Generates the ranks of one column, so a benchmark can write them through its own builder
+     */
+    public static int[] ranks(ColumnSpec column, int rowCount, long seed) {
+        ColumnSource source = new ColumnSource(column, seed);
+        int[] ranks = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            ranks[i] = source.nextRank();
+        }
+        return ranks;
+    }
+
+    private static final class ColumnSource {
+        private final ColumnSpec spec;
+        private final ZipfSampler sampler;
+        private final Random nulls;
+        private final int[] permutation;
+        private int position;
+
+        ColumnSource(ColumnSpec spec, long seed) {
+            this.spec = spec;
+            this.nulls = new Random(seed ^ 0x5DEECE66DL);
+            if (spec.isUnique()) {
+                this.sampler = null;
+                this.permutation = shuffled(spec.getCardinality(), new Random(seed));
+            } else {
+                this.sampler = new ZipfSampler(spec.getCardinality(), spec.getSkew(), seed);
+                this.permutation = null;
+            }
+        }
+
+        /**
+         * @return rank of the next value, -1 for null
+         */
+        int nextRank() {
+            if (spec.getNullRatio() > 0 && nulls.nextDouble() < spec.getNullRatio()) {
+                return -1;
+            }
+            if (permutation != null) {
+                int rank = permutation[position];
+                position = (position + 1) % permutation.length;
+                return rank;
+            }
+            return sampler.next();
+        }
+
+        void writeNext(BlockBuilder builder) {
+            int rank = nextRank();
+            if (rank < 0) {
+                builder.appendNull();
+            } else {
+                spec.getType().write(builder, rank);
+            }
+        }
+
+        private static int[] shuffled(int n, Random random) {
+            int[] values = new int[n];
+            for (int i = 0; i < n; i++) {
+                values[i] = i;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = values[i];
+                values[i] = values[j];
+                values[j] = tmp;
+            }
+            return values;
+        }
+    }
+}
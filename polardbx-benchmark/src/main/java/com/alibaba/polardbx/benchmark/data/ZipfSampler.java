@@ -0,0 +1,66 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark.data;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Draws ranks in [0, cardinality) following a Zipf distribution, where rank k has a weight
+ * proportional to 1 / (k + 1) ^ skew. A skew of 0 gives the uniform distribution.
+ */
+public final class ZipfSampler {
+
+    private final int cardinality;
+
+    private final double[] cdf;
+
+    private final Random random;
+
+    public ZipfSampler(int cardinality, double skew, long seed) {
+        if (cardinality <= 0) {
+            throw new IllegalArgumentException("cardinality must be positive: " + cardinality);
+        }
+        if (skew < 0) {
+            throw new IllegalArgumentException("skew must not be negative: " + skew);
+        }
+        this.cardinality = cardinality;
+        this.random = new Random(seed);
+        if (skew == 0) {
+            this.cdf = null;
+        } else {
+            this.cdf = new double[cardinality];
+            double sum = 0;
+            for (int k = 0; k < cardinality; k++) {
+                sum += 1d / Math.pow(k + 1, skew);
+                cdf[k] = sum;
+            }
+            for (int k = 0; k < cardinality; k++) {
+                cdf[k] /= sum;
+            }
+        }
+    }
+
+    public int next() {
+        if (cdf == null) {
+            return random.nextInt(cardinality);
+        }
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        index = index >= 0 ? index : -index - 1;
+        return Math.min(index, cardinality - 1);
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark.exchange;
+
+import com.alibaba.polardbx.benchmark.BenchmarkContexts;
+import com.alibaba.polardbx.benchmark.data.ColumnSpec;
+import com.alibaba.polardbx.benchmark.data.ColumnType;
+import com.alibaba.polardbx.benchmark.data.DataGenerator;
+import com.alibaba.polardbx.executor.mpp.execution.EmptyMemSystemListener;
+import com.alibaba.polardbx.executor.mpp.execution.buffer.OutputBufferMemoryManager;
+import com.alibaba.polardbx.executor.mpp.operator.LocalBufferExec;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+
+/**
+ * Random local exchange between as many producer as consumer drivers, each on its own thread. LOCKED is
+ * the former buffer which took a monitor for every chunk, kept here as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LocalExchangeBenchmark {
+
+    @Param({"LOCK_FREE", "LOCKED"})
+    public String buffer;
+
+    @Param({"8", "16", "32", "64"})
+    public int drivers;
+
+    @Param({"20000"})
+    public int chunksPerDriver;
+
+    private static final long MAX_BUFFERED_BYTES = 64L << 20;
+
+    private ExecutionContext context;
+    private List<DataType> types;
+    private Chunk chunk;
+    private ExecutorService threads;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContexts.create();
+        ColumnSpec[] columns = {ColumnSpec.of(ColumnType.LONG, 1000, 0d)};
+        types = DataGenerator.dataTypes(columns);
+        chunk = DataGenerator.generate(context, 1024, 42L, columns).get(0);
+        threads = Executors.newFixedThreadPool(drivers * 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        threads.shutdownNow();
+        BenchmarkContexts.release(context);
+    }
+
+    @Benchmark
+    public long exchange(Blackhole blackhole) throws Exception {
+        boolean locked = "LOCKED".equals(buffer);
+        OutputBufferMemoryManager memoryManager = locked
+            ? new LockedMemoryManager(MAX_BUFFERED_BYTES)
+            : new OutputBufferMemoryManager(MAX_BUFFERED_BYTES, new EmptyMemSystemListener(), directExecutor());
+        List<LocalBufferExec> buffers = new ArrayList<>(drivers);
+        for (int i = 0; i < drivers; i++) {
+            buffers.add(locked
+                ? new LockedBufferExec(memoryManager, types)
+                : new LocalBufferExec(memoryManager, types, false));
+        }
+
+        AtomicInteger runningProducers = new AtomicInteger(drivers);
+        List<Future<Long>> results = new ArrayList<>(drivers * 2);
+        for (int i = 0; i < drivers; i++) {
+            results.add(threads.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int n = 0; n < chunksPerDriver; n++) {
+                    ListenableFuture<?> notFull = memoryManager.getNotFullFuture();
+                    if (!notFull.isDone()) {
+                        notFull.get();
+                    }
+                    buffers.get(random.nextInt(drivers)).consumeChunk(chunk);
+                }
+                if (runningProducers.decrementAndGet() == 0) {
+                    buffers.forEach(LocalBufferExec::buildConsume);
+                }
+                return 0L;
+            }));
+        }
+        for (LocalBufferExec consumer : buffers) {
+            results.add(threads.submit(() -> {
+                long rows = 0;
+                while (true) {
+                    Chunk next = consumer.nextChunk();
+                    if (next != null) {
+                        rows += next.getPositionCount();
+                    } else if (consumer.produceIsFinished()) {
+                        return rows;
+                    } else {
+                        consumer.produceIsBlocked().get();
+                    }
+                }
+            }));
+        }
+
+        long rows = 0;
+        for (Future<Long> result : results) {
+            rows += result.get();
+        }
+        blackhole.consume(rows);
+        return rows;
+    }
+
+    private static class LockedMemoryManager extends OutputBufferMemoryManager {
+
+        LockedMemoryManager(long maxBufferedBytes) {
+            super(maxBufferedBytes, new EmptyMemSystemListener(), directExecutor());
+        }
+
+        @Override
+        public synchronized void updateMemoryUsage(long bytesAdded) {
+            super.updateMemoryUsage(bytesAdded);
+        }
+
+        @Override
+        public synchronized ListenableFuture<?> getNotFullFuture() {
+            return super.getNotFullFuture();
+        }
+    }
+
+    /**
+     * The buffer before the local exchange became lock free
+     */
+    private static class LockedBufferExec extends LocalBufferExec {
+
+        private final BlockingQueue<Chunk> lockedBuffer = new LinkedBlockingQueue<>();
+        private SettableFuture<?> blockedFuture = NOT_EMPTY;
+        private boolean finished;
+
+        LockedBufferExec(OutputBufferMemoryManager memoryManager, List<DataType> types) {
+            super(memoryManager, types, false);
+        }
+
+        @Override
+        public void consumeChunk(Chunk chunk) {
+            SettableFuture<?> future;
+            synchronized (lock) {
+                if (!finished) {
+                    bufferMemoryManager.updateMemoryUsage(chunk.getSizeInBytes());
+                    lockedBuffer.add(chunk);
+                }
+                future = blockedFuture;
+                blockedFuture = NOT_EMPTY;
+            }
+            future.set(null);
+        }
+
+        @Override
+        public void buildConsume() {
+            SettableFuture<?> future;
+            synchronized (lock) {
+                finished = true;
+                future = blockedFuture;
+                blockedFuture = NOT_EMPTY;
+            }
+            future.set(null);
+        }
+
+        @Override
+        public boolean produceIsFinished() {
+            synchronized (lock) {
+                return finished && lockedBuffer.isEmpty();
+            }
+        }
+
+        @Override
+        public Chunk nextChunk() {
+            Chunk ret = lockedBuffer.poll();
+            if (ret != null) {
+                bufferMemoryManager.updateMemoryUsage(-ret.getSizeInBytes());
+            }
+            return ret;
+        }
+
+        @Override
+        public ListenableFuture<?> produceIsBlocked() {
+            synchronized (lock) {
+                if (!finished && lockedBuffer.isEmpty() && blockedFuture.isDone()) {
+                    blockedFuture = SettableFuture.create();
+                }
+                return blockedFuture;
+            }
+        }
+    }
+}
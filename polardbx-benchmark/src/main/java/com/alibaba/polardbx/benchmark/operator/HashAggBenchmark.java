@@ -0,0 +1,107 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark.operator;
+
+import com.alibaba.polardbx.benchmark.BenchmarkContexts;
+import com.alibaba.polardbx.benchmark.data.ChunkListExec;
+import com.alibaba.polardbx.benchmark.data.ColumnSpec;
+import com.alibaba.polardbx.benchmark.data.ColumnType;
+import com.alibaba.polardbx.benchmark.data.DataGenerator;
+import com.alibaba.polardbx.executor.operator.HashAggExec;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.expression.calc.Aggregator;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.CountRow;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Long2LongSum0;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * select k, count(*), sum0(v) from t group by k
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HashAggBenchmark {
+
+    @Param({"INT", "LONG", "DECIMAL", "VARCHAR"})
+    public ColumnType keyType;
+
+    @Param({"16", "65536"})
+    public int cardinality;
+
+    @Param({"0", "1.2"})
+    public double skew;
+
+    @Param({"1000000"})
+    public int rowCount;
+
+    private ExecutionContext context;
+    private List<DataType> inputTypes;
+    private List<Chunk> chunks;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContexts.create();
+        ColumnSpec[] columns = {
+            ColumnSpec.of(keyType, cardinality, skew),
+            ColumnSpec.of(ColumnType.LONG, rowCount, 0d)};
+        inputTypes = DataGenerator.dataTypes(columns);
+        chunks = DataGenerator.generate(context, rowCount, 42L, columns);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkContexts.release(context);
+    }
+
+    @Benchmark
+    public long groupBy(Blackhole blackhole) {
+        List<Aggregator> aggregators = new ArrayList<>();
+        aggregators.add(new CountRow(new int[0], false, -1));
+        aggregators.add(new Long2LongSum0(1, false, DataTypes.LongType, DataTypes.LongType, -1));
+        List<DataType> outputTypes = new ArrayList<>();
+        outputTypes.add(keyType.getDataType());
+        outputTypes.add(DataTypes.LongType);
+        outputTypes.add(DataTypes.LongType);
+
+        HashAggExec exec = new HashAggExec(inputTypes, new int[] {0}, aggregators, outputTypes,
+            Math.min(cardinality, 1 << 16), context);
+        return BenchmarkContexts.consumeAndDrain(exec, new ChunkListExec(inputTypes, chunks), blackhole);
+    }
+}
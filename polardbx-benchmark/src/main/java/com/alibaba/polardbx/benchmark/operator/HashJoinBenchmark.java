@@ -0,0 +1,110 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark.operator;
+
+import com.alibaba.polardbx.benchmark.BenchmarkContexts;
+import com.alibaba.polardbx.benchmark.data.ChunkListExec;
+import com.alibaba.polardbx.benchmark.data.ColumnSpec;
+import com.alibaba.polardbx.benchmark.data.ColumnType;
+import com.alibaba.polardbx.benchmark.data.DataGenerator;
+import com.alibaba.polardbx.executor.operator.ParallelHashJoinExec;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.join.EquiJoinKey;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inner equi-join of a probe side with Zipf distributed keys against a build side with
+ * distinct keys, both build and probe are measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HashJoinBenchmark {
+
+    @Param({"INT", "LONG", "VARCHAR"})
+    public ColumnType keyType;
+
+    @Param({"1000", "100000"})
+    public int buildRows;
+
+    @Param({"0", "1.2"})
+    public double skew;
+
+    @Param({"1000000"})
+    public int probeRows;
+
+    private ExecutionContext context;
+    private List<DataType> buildTypes;
+    private List<DataType> probeTypes;
+    private List<Chunk> buildChunks;
+    private List<Chunk> probeChunks;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContexts.create();
+        ColumnSpec[] build = {
+            ColumnSpec.unique(keyType, buildRows),
+            ColumnSpec.of(ColumnType.LONG, buildRows, 0d)};
+        // probe keys are drawn from twice the build key domain, so about half of them miss
+        ColumnSpec[] probe = {
+            ColumnSpec.of(keyType, buildRows * 2, skew),
+            ColumnSpec.of(ColumnType.LONG, probeRows, 0d)};
+        buildTypes = DataGenerator.dataTypes(build);
+        probeTypes = DataGenerator.dataTypes(probe);
+        buildChunks = DataGenerator.generate(context, buildRows, 7L, build);
+        probeChunks = DataGenerator.generate(context, probeRows, 42L, probe);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkContexts.release(context);
+    }
+
+    @Benchmark
+    public long innerJoin(Blackhole blackhole) {
+        ChunkListExec inner = new ChunkListExec(buildTypes, buildChunks);
+        ChunkListExec outer = new ChunkListExec(probeTypes, probeChunks);
+        List<EquiJoinKey> joinKeys =
+            Collections.singletonList(new EquiJoinKey(0, 0, keyType.getDataType(), false, false));
+        ParallelHashJoinExec exec = new ParallelHashJoinExec(new ParallelHashJoinExec.Synchronizer(1, false),
+            outer, inner, JoinRelType.INNER, false, joinKeys, null, null, false, context, 0);
+        return BenchmarkContexts.consumeAndDrain(exec, inner, blackhole);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark.operator;
+
+import com.alibaba.polardbx.benchmark.BenchmarkContexts;
+import com.alibaba.polardbx.benchmark.data.ChunkListExec;
+import com.alibaba.polardbx.benchmark.data.ColumnSpec;
+import com.alibaba.polardbx.benchmark.data.ColumnType;
+import com.alibaba.polardbx.benchmark.data.DataGenerator;
+import com.alibaba.polardbx.executor.operator.SpilledTopNExec;
+import com.alibaba.polardbx.executor.utils.OrderByOption;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import org.apache.calcite.rel.RelFieldCollation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * order by k desc, v limit n, which keeps a bounded heap instead of sorting everything
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TopNBenchmark {
+
+    @Param({"INT", "LONG", "DOUBLE", "DECIMAL", "VARCHAR"})
+    public ColumnType keyType;
+
+    @Param({"1000", "1000000"})
+    public int cardinality;
+
+    @Param({"0", "1.2"})
+    public double skew;
+
+    @Param({"1000000"})
+    public int rowCount;
+
+    @Param({"10", "10000"})
+    public int limit;
+
+    private ExecutionContext context;
+    private List<DataType> inputTypes;
+    private List<Chunk> chunks;
+    private List<OrderByOption> orderBys;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContexts.create();
+        ColumnSpec[] columns = {
+            ColumnSpec.of(keyType, cardinality, skew),
+            ColumnSpec.of(ColumnType.LONG, rowCount, 0d)};
+        inputTypes = DataGenerator.dataTypes(columns);
+        chunks = DataGenerator.generate(context, rowCount, 42L, columns);
+        orderBys = Arrays.asList(
+            new OrderByOption(0, RelFieldCollation.Direction.DESCENDING,
+                RelFieldCollation.NullDirection.UNSPECIFIED),
+            new OrderByOption(1, RelFieldCollation.Direction.ASCENDING, RelFieldCollation.NullDirection.UNSPECIFIED));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkContexts.release(context);
+    }
+
+    @Benchmark
+    public long topN(Blackhole blackhole) {
+        SpilledTopNExec exec = new SpilledTopNExec(inputTypes, orderBys, limit, context);
+        return BenchmarkContexts.consumeAndDrain(exec, new ChunkListExec(inputTypes, chunks), blackhole);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark.parser;
+
+import com.alibaba.polardbx.druid.sql.ast.SQLStatement;
+import com.alibaba.polardbx.druid.sql.dialect.mysql.parser.MySqlStatementParser;
+import com.alibaba.polardbx.druid.sql.parser.ByteString;
+import com.alibaba.polardbx.druid.sql.parser.SQLParserFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing statements of increasing size with the features enabled by the server
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MySqlParserBenchmark {
+
+    private static final SQLParserFeature[] FEATURES = {
+        SQLParserFeature.TDDLHint,
+        SQLParserFeature.EnableCurrentUserExpr,
+        SQLParserFeature.DRDSAsyncDDL,
+        SQLParserFeature.DrdsMisc,
+        SQLParserFeature.DRDSBaseline,
+        SQLParserFeature.DrdsGSI,
+        SQLParserFeature.DrdsCCL};
+
+    public enum Query {
+        POINT_SELECT("select c1, c2, c3 from t1 where id = 1"),
+        INSERT_VALUES(null) {
+            @Override
+            String sql() {
+                StringBuilder sql = new StringBuilder("insert into t1 (id, c1, c2, c3) values ");
+                for (int i = 0; i < 100; i++) {
+                    sql.append(i == 0 ? "" : ", ").append('(').append(i).append(", 'name_").append(i)
+                        .append("', ").append(i * 1.5).append(", now())");
+                }
+                return sql.toString();
+            }
+        },
+        JOIN_AGG("/*+TDDL:cmd_extra(ENABLE_MPP=true)*/ select a.c1, count(*), sum(b.c2) from t1 a "
+            + "join t2 b on a.id = b.aid left join t3 c on b.id = c.bid "
+            + "where a.c3 between '2021-01-01' and '2021-12-31' and c.c4 in (1, 2, 3, 4, 5) "
+            + "group by a.c1 having count(*) > 10 order by 2 desc limit 100"),
+        SUBQUERY("select * from t1 where c1 in (select c1 from t2 where t2.c2 = t1.c2 and exists "
+            + "(select 1 from t3 where t3.id = t2.id and t3.c5 like 'abc%')) and c3 > (select avg(c3) from t1) "
+            + "union all select * from t4 where c1 is not null"),
+        CREATE_TABLE("create table if not exists t1 (id bigint not null auto_increment, c1 varchar(64) not null, "
+            + "c2 decimal(10, 2) default 0, c3 datetime default current_timestamp, primary key (id), "
+            + "global index g_c1 (c1) covering (c2) dbpartition by hash(c1), key k_c3 (c3)) "
+            + "engine = innodb default charset = utf8mb4 dbpartition by hash(id) tbpartition by hash(id) "
+            + "tbpartitions 4");
+
+        private final String sql;
+
+        Query(String sql) {
+            this.sql = sql;
+        }
+
+        String sql() {
+            return sql;
+        }
+    }
+
+    @Param({"POINT_SELECT", "INSERT_VALUES", "JOIN_AGG", "SUBQUERY", "CREATE_TABLE"})
+    public Query query;
+
+    private String sql;
+    private ByteString bytes;
+
+    @Setup
+    public void setup() {
+        sql = query.sql();
+        bytes = ByteString.from(sql);
+    }
+
+    @Benchmark
+    public List<SQLStatement> parseString() {
+        return new MySqlStatementParser(sql, FEATURES).parseStatementList();
+    }
+
+    @Benchmark
+    public List<SQLStatement> parseByteString() {
+        return new MySqlStatementParser(bytes, FEATURES).parseStatementList();
+    }
+}
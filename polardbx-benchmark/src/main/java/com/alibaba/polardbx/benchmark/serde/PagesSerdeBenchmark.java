@@ -0,0 +1,119 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark.serde;
+
+import com.alibaba.polardbx.benchmark.BenchmarkContexts;
+import com.alibaba.polardbx.benchmark.data.ColumnSpec;
+import com.alibaba.polardbx.benchmark.data.ColumnType;
+import com.alibaba.polardbx.benchmark.data.DataGenerator;
+import com.alibaba.polardbx.executor.mpp.execution.buffer.PagesSerde;
+import com.alibaba.polardbx.executor.mpp.execution.buffer.PagesSerdeFactory;
+import com.alibaba.polardbx.executor.mpp.execution.buffer.SerializedChunk;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exchange page serialization for every compression mode. Low cardinality and high skew
+ * are where the encoded and adaptive modes are expected to pay off.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PagesSerdeBenchmark {
+
+    @Param({"NONE", "LZ4", "SNAPPY", "ENCODED", "ADAPTIVE"})
+    public PagesSerdeFactory.CompressionMode compression;
+
+    @Param({"INT", "LONG", "DOUBLE", "DECIMAL", "VARCHAR"})
+    public ColumnType type;
+
+    @Param({"16", "1000000"})
+    public int cardinality;
+
+    @Param({"0", "1.2"})
+    public double skew;
+
+    @Param({"65536"})
+    public int rowCount;
+
+    private ExecutionContext context;
+    private PagesSerde serde;
+    private List<Chunk> chunks;
+    private List<SerializedChunk> serialized;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContexts.create();
+        ColumnSpec[] columns = {
+            ColumnSpec.of(type, cardinality, skew, 0.05d),
+            ColumnSpec.of(ColumnType.LONG, rowCount, 0d)};
+        chunks = DataGenerator.generate(context, rowCount, 42L, columns);
+        serde = new PagesSerdeFactory(compression).createPagesSerde(DataGenerator.dataTypes(columns));
+        serialized = new ArrayList<>(chunks.size());
+        for (Chunk chunk : chunks) {
+            serialized.add(serde.serialize(false, chunk));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkContexts.release(context);
+    }
+
+    @Benchmark
+    public long serialize(Blackhole blackhole) {
+        long bytes = 0;
+        for (Chunk chunk : chunks) {
+            SerializedChunk page = serde.serialize(false, chunk);
+            bytes += page.getSizeInBytes();
+            blackhole.consume(page);
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public long deserialize(Blackhole blackhole) {
+        long rows = 0;
+        for (SerializedChunk page : serialized) {
+            Chunk chunk = serde.deserialize(page);
+            rows += chunk.getPositionCount();
+            blackhole.consume(chunk);
+        }
+        return rows;
+    }
+}
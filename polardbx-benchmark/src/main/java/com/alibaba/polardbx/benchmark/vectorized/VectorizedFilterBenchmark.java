@@ -0,0 +1,161 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark.vectorized;
+
+import com.alibaba.polardbx.benchmark.BenchmarkContexts;
+import com.alibaba.polardbx.benchmark.data.ChunkListExec;
+import com.alibaba.polardbx.benchmark.data.ColumnSpec;
+import com.alibaba.polardbx.benchmark.data.ColumnType;
+import com.alibaba.polardbx.benchmark.data.DataGenerator;
+import com.alibaba.polardbx.common.utils.Pair;
+import com.alibaba.polardbx.executor.operator.VectorizedFilterExec;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.build.VectorizedExpressionBuilder;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.MutableChunk;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.TddlJavaTypeFactoryImpl;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rel.type.RelDataTypeFactory;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.fun.SqlStdOperatorTable;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generated vectorized filters: a column compared with a constant, whose selectivity is
+ * controlled by the constant, and a column compared with another column.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class VectorizedFilterBenchmark {
+
+    private static final int CARDINALITY = 10000;
+
+    @Param({"INT", "LONG", "DOUBLE"})
+    public ColumnType type;
+
+    /**
+     * Expected ratio of selected rows for the constant filter, exact when skew is 0
+     */
+    @Param({"0.01", "0.5", "0.99"})
+    public double selectivity;
+
+    @Param({"0", "1.2"})
+    public double skew;
+
+    @Param({"0.1"})
+    public double nullRatio;
+
+    @Param({"1000000"})
+    public int rowCount;
+
+    private ExecutionContext context;
+    private List<DataType> inputTypes;
+    private List<Chunk> chunks;
+    private Pair<VectorizedExpression, MutableChunk> constantFilter;
+    private Pair<VectorizedExpression, MutableChunk> columnFilter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContexts.create();
+        ColumnSpec[] columns = {
+            ColumnSpec.of(type, CARDINALITY, skew, nullRatio),
+            ColumnSpec.of(type, CARDINALITY, 0d, nullRatio)};
+        inputTypes = DataGenerator.dataTypes(columns);
+        chunks = DataGenerator.generate(context, rowCount, 42L, columns);
+
+        List<DataType<?>> types = new ArrayList<>();
+        for (DataType dataType : inputTypes) {
+            types.add((DataType<?>) dataType);
+        }
+        RelDataTypeFactory typeFactory = new TddlJavaTypeFactoryImpl();
+        RexBuilder builder = new RexBuilder(typeFactory);
+        RelDataType relType = typeFactory.createSqlType(sqlType());
+        RexNode column0 = builder.makeInputRef(relType, 0);
+        RexNode column1 = builder.makeInputRef(relType, 1);
+
+        int threshold = (int) (CARDINALITY * (1 - selectivity));
+        RexNode literal = type == ColumnType.DOUBLE ?
+            builder.makeApproxLiteral(BigDecimal.valueOf(threshold)) :
+            builder.makeExactLiteral(BigDecimal.valueOf(type == ColumnType.LONG ?
+                ((long) threshold << 20) | threshold : threshold), relType);
+
+        constantFilter = VectorizedExpressionBuilder.buildVectorizedExpression(types,
+            builder.makeCall(SqlStdOperatorTable.GREATER_THAN_OR_EQUAL, column0, literal), context);
+        columnFilter = VectorizedExpressionBuilder.buildVectorizedExpression(types,
+            builder.makeCall(SqlStdOperatorTable.GREATER_THAN, column0, column1), context);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkContexts.release(context);
+    }
+
+    @Benchmark
+    public long columnGreaterOrEqualConstant(Blackhole blackhole) {
+        return filter(constantFilter, blackhole);
+    }
+
+    @Benchmark
+    public long columnGreaterThanColumn(Blackhole blackhole) {
+        return filter(columnFilter, blackhole);
+    }
+
+    private long filter(Pair<VectorizedExpression, MutableChunk> condition, Blackhole blackhole) {
+        VectorizedFilterExec exec = new VectorizedFilterExec(new ChunkListExec(inputTypes, chunks),
+            condition.getKey(), condition.getValue(), context);
+        return BenchmarkContexts.drain(exec, blackhole);
+    }
+
+    private SqlTypeName sqlType() {
+        switch (type) {
+        case INT:
+            return SqlTypeName.INTEGER;
+        case LONG:
+            return SqlTypeName.BIGINT;
+        case DOUBLE:
+            return SqlTypeName.DOUBLE;
+        default:
+            throw new IllegalArgumentException("Unsupported filter column type: " + type);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class BenchmarkResultComparatorTest {
+
+    private static String result(String benchmark, String mode, double score, String... params) {
+        StringBuilder json = new StringBuilder("{\"benchmark\":\"").append(benchmark).append("\",\"mode\":\"")
+            .append(mode).append("\",\"params\":{");
+        for (int i = 0; i < params.length; i += 2) {
+            json.append(i == 0 ? "" : ",").append('"').append(params[i]).append("\":\"").append(params[i + 1])
+                .append('"');
+        }
+        return json.append("},\"primaryMetric\":{\"score\":").append(score)
+            .append(",\"scoreError\":0.1,\"scoreUnit\":\"ops/s\"}}").toString();
+    }
+
+    @Test
+    public void testRegressionDirection() {
+        Map<String, BenchmarkResultComparator.Score> baseline = BenchmarkResultComparator.load("["
+            + result("a.thrpt", "thrpt", 100, "type", "INT") + ","
+            + result("b.avgt", "avgt", 100, "type", "INT") + "]");
+        Map<String, BenchmarkResultComparator.Score> current = BenchmarkResultComparator.load("["
+            + result("a.thrpt", "thrpt", 80, "type", "INT") + ","
+            + result("b.avgt", "avgt", 80, "type", "INT") + "]");
+
+        List<BenchmarkResultComparator.Change> changes = BenchmarkResultComparator.compare(baseline, current);
+        Assert.assertEquals(2, changes.size());
+        // lower throughput is a regression
+        Assert.assertTrue(changes.get(0).isRegression(0.1));
+        Assert.assertEquals(0.2, changes.get(0).relativeChange(), 1e-9);
+        // lower average time is an improvement
+        Assert.assertFalse(changes.get(1).isRegression(0.1));
+        Assert.assertEquals(-0.2, changes.get(1).relativeChange(), 1e-9);
+    }
+
+    @Test
+    public void testMatchByParams() {
+        Map<String, BenchmarkResultComparator.Score> baseline = BenchmarkResultComparator.load("["
+            + result("a", "avgt", 100, "type", "INT", "skew", "0") + ","
+            + result("a", "avgt", 100, "type", "LONG", "skew", "0") + "]");
+        // same params written in another order, plus a benchmark missing from the baseline
+        Map<String, BenchmarkResultComparator.Score> current = BenchmarkResultComparator.load("["
+            + result("a", "avgt", 105, "skew", "0", "type", "INT") + ","
+            + result("a", "avgt", 100, "skew", "1.2", "type", "INT") + "]");
+
+        List<BenchmarkResultComparator.Change> changes = BenchmarkResultComparator.compare(baseline, current);
+        Assert.assertEquals(1, changes.size());
+        Assert.assertFalse(changes.get(0).isRegression(0.1));
+        Assert.assertTrue(changes.get(0).isRegression(0.01));
+    }
+}
@@ -346,8 +346,63 @@ public class DecimalConverter {
 
         resultLen = len;
         byte[] results = new byte[resultLen];
+        writeString(from, results, 0, bufPos0, intg, frac, intLen, fracLen, filler);
 
-        int bytePos = 0;
+        return Pair.of(results, error);
+    }
+
+    /**
+     * Same as decimal2String(from, 0, 0, 0), but writes the string into the given buffer instead of
+     * allocating a new array, so that values can be encoded one after another without garbage.
+     *
+     * @param buffer must have at least {@link #maxStringSize(DecimalStructure)} bytes from offset
+     * @return the length of the string
+     */
+    public static int decimal2String(DecimalStructure from, byte[] buffer, int offset) {
+        int resultLen = stringSize(from);
+
+        int[] removedResults = from.removeLeadingZeros();
+        int bufPos0 = removedResults[0];
+        int intg = removedResults[1];
+        int frac = from.getFractions();
+
+        if (intg + frac == 0) {
+            intg = 1;
+            bufPos0 = 0;
+        }
+
+        int intLen = intg == 0 ? 1 : intg;
+        int fracLen = frac;
+        int len = (from.isNeg() ? 1 : 0) + intLen + (frac != 0 ? 1 : 0) + fracLen;
+        if (len > resultLen) {
+            int j = len - resultLen;
+            if (frac != 0 && j >= frac + 1) {
+                j--;
+            }
+            if (j > frac) {
+                intLen = (intg -= (j - frac));
+                frac = 0;
+            } else {
+                frac -= j;
+            }
+            fracLen = frac;
+            len = (from.isNeg() ? 1 : 0) + intLen + (frac != 0 ? 1 : 0) + fracLen;
+        }
+
+        writeString(from, buffer, offset, bufPos0, intg, frac, intLen, fracLen, (byte) 0);
+        return len;
+    }
+
+    /**
+     * Upper bound of the length of decimal2String(from, 0, 0, 0)
+     */
+    public static int maxStringSize(DecimalStructure from) {
+        return stringSize(from);
+    }
+
+    private static void writeString(DecimalStructure from, byte[] results, int offset, int bufPos0, int intg,
+                                    int frac, int intLen, int fracLen, byte filler) {
+        int bytePos = offset;
         int fill;
         if (from.isNeg()) {
             results[bytePos++] = '-';
@@ -390,8 +445,6 @@ public class DecimalConverter {
         } else {
             results[bytePos] = '0';
         }
-
-        return Pair.of(results, error);
     }
 
     public static int parseString(Slice slice, DecimalStructure result, boolean fixed) {
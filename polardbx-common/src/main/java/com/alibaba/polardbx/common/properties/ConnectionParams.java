@@ -189,6 +189,25 @@ public class ConnectionParams {
         10000L,
         false);
 
+    public static final LongConfigParam TSO_PREFETCH_COUNT = new LongConfigParam(
+        ConnectionProperties.TSO_PREFETCH_COUNT,
+        0L,
+        4096L,
+        64L,
+        true);
+
+    public static final LongConfigParam TSO_SNAPSHOT_LEASE_MILLIS = new LongConfigParam(
+        ConnectionProperties.TSO_SNAPSHOT_LEASE_MILLIS,
+        0L,
+        1000L,
+        0L,
+        true);
+
+    public static final BooleanConfigParam ENABLE_CHUNK_RESULT_ENCODER = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_CHUNK_RESULT_ENCODER,
+        true,
+        true);
+
     public static final LongConfigParam MAX_TRX_DURATION = new LongConfigParam(
         ConnectionProperties.MAX_TRX_DURATION,
         null,
@@ -249,6 +268,20 @@ public class ConnectionParams {
             true,
             true);
 
+    public static final IntConfigParam LOAD_DATA_PARSER_PARALLELISM =
+        new IntConfigParam(ConnectionProperties.LOAD_DATA_PARSER_PARALLELISM,
+            1,
+            64,
+            4,
+            true);
+
+    public static final LongConfigParam LOAD_DATA_PROGRESS_INTERVAL =
+        new LongConfigParam(ConnectionProperties.LOAD_DATA_PROGRESS_INTERVAL,
+            0L,
+            null,
+            10000L,
+            true);
+
     public static final StringConfigParam LOAD_DATA_HANDLE_EMPTY_CHAR =
         new StringConfigParam(ConnectionProperties.LOAD_DATA_HANDLE_EMPTY_CHAR,
             PropUtil.LOAD_NULL_MODE.DEFAULT_VALUE_MODE.toString(),
@@ -379,6 +412,25 @@ public class ConnectionParams {
         false,
         false);
 
+    public static final BooleanConfigParam ENABLE_GLOBAL_TX_LOG_GROUP_COMMIT = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_GLOBAL_TX_LOG_GROUP_COMMIT,
+        true,
+        true);
+
+    public static final LongConfigParam GLOBAL_TX_LOG_GROUP_COMMIT_WINDOW = new LongConfigParam(
+        ConnectionProperties.GLOBAL_TX_LOG_GROUP_COMMIT_WINDOW,
+        0L,
+        100000L,
+        0L,
+        true);
+
+    public static final IntConfigParam GLOBAL_TX_LOG_GROUP_COMMIT_MAX_BATCH = new IntConfigParam(
+        ConnectionProperties.GLOBAL_TX_LOG_GROUP_COMMIT_MAX_BATCH,
+        1,
+        4096,
+        128,
+        true);
+
     public static final BooleanConfigParam TRUNCATE_TABLE_WITH_GSI = new BooleanConfigParam(
         ConnectionProperties.TRUNCATE_TABLE_WITH_GSI,
         false,
@@ -975,6 +1027,11 @@ public class ConnectionParams {
             true,
             true);
 
+    public static final BooleanConfigParam ENABLE_AGGREGATION_VECTORIZATION =
+        new BooleanConfigParam(ConnectionProperties.ENABLE_AGGREGATION_VECTORIZATION,
+            true,
+            true);
+
     public static final BooleanConfigParam ENABLE_SPM_BACKGROUND_TASK = new BooleanConfigParam(
         ConnectionProperties.ENABLE_SPM_BACKGROUND_TASK,
         true,
@@ -1074,12 +1131,22 @@ public class ConnectionParams {
     public static final LongConfigParam PER_QUERY_MEMORY_LIMIT = new LongConfigParam(
         ConnectionProperties.PER_QUERY_MEMORY_LIMIT, 0L, Long.MAX_VALUE, -1L, true);
 
+    public static final LongConfigParam QUERY_MEMORY_LEASE_SIZE = new LongConfigParam(
+        ConnectionProperties.QUERY_MEMORY_LEASE_SIZE, 0L, Long.MAX_VALUE,
+        8 * 1024 * 1024L, true);
+
     public static final BooleanConfigParam BLOCK_CONCURRENT = new BooleanConfigParam(
         ConnectionProperties.BLOCK_CONCURRENT, false, true);
 
     public static final BooleanConfigParam PLAN_CACHE = new BooleanConfigParam(ConnectionProperties.PLAN_CACHE, true,
         true);
 
+    public static final BooleanConfigParam SQL_FINGERPRINT_CACHE = new BooleanConfigParam(
+        ConnectionProperties.SQL_FINGERPRINT_CACHE, true, true);
+
+    public static final BooleanConfigParam ENABLE_POST_PLAN_TEMPLATE = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_POST_PLAN_TEMPLATE, true, true);
+
     public static final BooleanConfigParam SKIP_READONLY_CHECK = new BooleanConfigParam(
         ConnectionProperties.SKIP_READONLY_CHECK, false, true);
 
@@ -1113,6 +1180,9 @@ public class ConnectionParams {
     public static final BooleanConfigParam MPP_TASK_LOCAL_BUFFER_ENABLED = new BooleanConfigParam(
         ConnectionProperties.MPP_TASK_LOCAL_BUFFER_ENABLED, true, true);
 
+    public static final StringConfigParam MPP_EXCHANGE_COMPRESSION_MODE = new StringConfigParam(
+        ConnectionProperties.MPP_EXCHANGE_COMPRESSION_MODE, "NONE", true);
+
     public static final BooleanConfigParam MPP_QUERY_PHASED_EXEC_SCHEDULE_ENABLE = new BooleanConfigParam(
         ConnectionProperties.MPP_QUERY_PHASED_EXEC_SCHEDULE_ENABLE, false, true);
 
@@ -1248,6 +1318,9 @@ public class ConnectionParams {
     public static final BooleanConfigParam ENABLE_SPILL = new BooleanConfigParam(
         ConnectionProperties.ENABLE_SPILL, false, true);
 
+    public static final BooleanConfigParam ENABLE_NORMALIZED_KEY_SORT = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_NORMALIZED_KEY_SORT, true, true);
+
     public static final IntConfigParam HYBRID_HASH_JOIN_BUCKET_NUM = new IntConfigParam(
         ConnectionProperties.HYBRID_HASH_JOIN_BUCKET_NUM, 1, Integer.MAX_VALUE,
         4, true);
@@ -1506,6 +1579,11 @@ public class ConnectionParams {
     public static final FloatConfigParam RUNTIME_FILTER_FPP = new FloatConfigParam(
         ConnectionProperties.RUNTIME_FILTER_FPP, 0.f, 0.99f, 0.03f, false);
 
+    public static final BooleanConfigParam ENABLE_BLOCKED_BLOOM_FILTER = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_BLOCKED_BLOOM_FILTER, false, true);
+
+    public static final BooleanConfigParam ENABLE_COMPACT_BLOOM_FILTER_DATA = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_COMPACT_BLOOM_FILTER_DATA, false, true);
 
     public static final BooleanConfigParam STORAGE_SUPPORTS_BLOOM_FILTER = new BooleanConfigParam(
         ConnectionProperties.STORAGE_SUPPORTS_BLOOM_FILTER, false, false);
@@ -1697,6 +1775,12 @@ public class ConnectionParams {
     public static final StringConfigParam STATISTIC_NDV_SKETCH_SAMPLE_RATE = new StringConfigParam(
         ConnectionProperties.STATISTIC_NDV_SKETCH_SAMPLE_RATE, null, true);
 
+    public static final BooleanConfigParam ENABLE_NDV_SKETCH_INCREMENTAL = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_NDV_SKETCH_INCREMENTAL, false, true);
+
+    public static final IntConfigParam STATISTIC_NDV_SKETCH_DML_MAX_ROWS = new IntConfigParam(
+        ConnectionProperties.STATISTIC_NDV_SKETCH_DML_MAX_ROWS, 0, Integer.MAX_VALUE, 1000, true);
+
     public static final IntConfigParam CDC_STARTUP_MODE = new IntConfigParam(
         ConnectionProperties.CDC_STARTUP_MODE, 0, 2, 1, true);
 
@@ -22,6 +22,16 @@ public class ConnectionProperties {
     public static final String PLAN_CACHE = "PLAN_CACHE";
     public static final String PREPARE_OPTIMIZE = "PREPARE_OPTIMIZE";
 
+    /**
+     * 按词法指纹缓存参数化结果, 相同形态的SQL命中后跳过完整的语法解析
+     */
+    public static final String SQL_FINGERPRINT_CACHE = "SQL_FINGERPRINT_CACHE";
+
+    /**
+     * 在缓存的执行计划上保存下推模板, 单分片的点查/点更新只做路由和参数绑定
+     */
+    public static final String ENABLE_POST_PLAN_TEMPLATE = "ENABLE_POST_PLAN_TEMPLATE";
+
     public static final String ENABLE_RECYCLEBIN = "ENABLE_RECYCLEBIN";
 
     public static final String SHOW_TABLES_CACHE = "SHOW_TABLES_CACHE";
@@ -72,6 +82,21 @@ public class ConnectionProperties {
 
     public static final String GET_TSO_TIMEOUT = "GET_TSO_TIMEOUT";
 
+    /**
+     * How many extra timestamps each TSO batch reserves for snapshot reads
+     */
+    public static final String TSO_PREFETCH_COUNT = "TSO_PREFETCH_COUNT";
+
+    /**
+     * How long (ms) prefetched timestamps may be used as read-only snapshots, 0 means disabled
+     */
+    public static final String TSO_SNAPSHOT_LEASE_MILLIS = "TSO_SNAPSHOT_LEASE_MILLIS";
+
+    /**
+     * Encode result rows straight from chunk blocks into the output buffer
+     */
+    public static final String ENABLE_CHUNK_RESULT_ENCODER = "ENABLE_CHUNK_RESULT_ENCODER";
+
     public static final String MAX_TRX_DURATION = "MAX_TRX_DURATION";
 
     public static final String EXPLAIN_X_PLAN = "EXPLAIN_X_PLAN";
@@ -124,6 +149,16 @@ public class ConnectionProperties {
 
     public static final String LOAD_DATA_USE_BATCH_MODE = "LOAD_DATA_USE_BATCH_MODE";
 
+    /**
+     * LOAD DATA 解析线程数, 1 表示在收包线程内串行解析
+     */
+    public static final String LOAD_DATA_PARSER_PARALLELISM = "LOAD_DATA_PARSER_PARALLELISM";
+
+    /**
+     * LOAD DATA 进度日志的打印间隔(ms), 0 表示只在结束时打印
+     */
+    public static final String LOAD_DATA_PROGRESS_INTERVAL = "LOAD_DATA_PROGRESS_INTERVAL";
+
     public static final String SQL_DELAY_CUTOFF = "SQL_DELAY_CUTOFF";
 
     public static final String DB_PRIV = "DB_PRIV";
@@ -172,6 +207,11 @@ public class ConnectionProperties {
 
     public static final String GROUP_SEQ_CHECK_INTERVAL = "GROUP_SEQ_CHECK_INTERVAL";
 
+    /**
+     * Group sequence 当前区间剩余值低于该百分比时开始异步预取下一个区间, 0 表示不预取
+     */
+    public static final String GROUP_SEQ_PREFETCH_WATERMARK = "GROUP_SEQ_PREFETCH_WATERMARK";
+
     public static final String JOIN_BLOCK_SIZE = "JOIN_BLOCK_SIZE";
 
     public static final String LOOKUP_JOIN_MAX_BATCH_SIZE = "LOOKUP_JOIN_MAX_BATCH_SIZE";
@@ -374,6 +414,21 @@ public class ConnectionProperties {
 
     public static final String TSO_OMIT_GLOBAL_TX_LOG = "TSO_OMIT_GLOBAL_TX_LOG";
 
+    /**
+     * TSO 事务的 global tx log 按主库组提交, 并发提交的日志合并为一条多行 INSERT
+     */
+    public static final String ENABLE_GLOBAL_TX_LOG_GROUP_COMMIT = "ENABLE_GLOBAL_TX_LOG_GROUP_COMMIT";
+
+    /**
+     * 组提交时等待更多日志加入的时间窗口(微秒), 0 表示只合并上一批写入期间到达的日志
+     */
+    public static final String GLOBAL_TX_LOG_GROUP_COMMIT_WINDOW = "GLOBAL_TX_LOG_GROUP_COMMIT_WINDOW";
+
+    /**
+     * 组提交单条 INSERT 最多写入的日志条数
+     */
+    public static final String GLOBAL_TX_LOG_GROUP_COMMIT_MAX_BATCH = "GLOBAL_TX_LOG_GROUP_COMMIT_MAX_BATCH";
+
     public static final String TRUNCATE_TABLE_WITH_GSI = "TRUNCATE_TABLE_WITH_GSI";
 
     public static final String ALLOW_ADD_GSI = "ALLOW_ADD_GSI";
@@ -527,6 +582,11 @@ public class ConnectionProperties {
 
     public static final String ENABLE_EXPRESSION_VECTORIZATION = "ENABLE_EXPRESSION_VECTORIZATION";
 
+    /**
+     * Accumulate hash aggregation block by block with generated kernels
+     */
+    public static final String ENABLE_AGGREGATION_VECTORIZATION = "ENABLE_AGGREGATION_VECTORIZATION";
+
     public static final String PLAN_EXTERNALIZE_TEST = "PLAN_EXTERNALIZE_TEST";
 
     public static final String ENABLE_SPM = "ENABLE_SPM";
@@ -724,6 +784,11 @@ public class ConnectionProperties {
 
     public static final String MPP_TASK_LOCAL_BUFFER_ENABLED = "MPP_TASK_LOCAL_BUFFER_ENABLED";
 
+    /**
+     * codec of the mpp exchange pages: NONE, LZ4, SNAPPY, ENCODED or ADAPTIVE
+     */
+    public static final String MPP_EXCHANGE_COMPRESSION_MODE = "MPP_EXCHANGE_COMPRESSION_MODE";
+
     public static final String MPP_TABLESCAN_DS_MAX_SIZE = "MPP_TABLESCAN_DS_MAX_SIZE";
 
     public static final String MPP_TABLESCAN_CONNECTION_STRATEGY = "MPP_TABLESCAN_CONNECTION_STRATEGY";
@@ -777,6 +842,11 @@ public class ConnectionProperties {
 
     public static final String PER_QUERY_MEMORY_LIMIT = "PER_QUERY_MEMORY_LIMIT";
 
+    /**
+     * 查询内存池每次向上层内存池预留的内存大小，落在预留内存内的申请不再逐级加锁到全局内存池，0表示不预留
+     */
+    public static final String QUERY_MEMORY_LEASE_SIZE = "QUERY_MEMORY_LEASE_SIZE";
+
     public static final String SCHEMA_MEMORY_LIMIT = "SCHEMA_MEMORY_LIMIT";
 
     public static final String GLOBAL_MEMORY_LIMIT = "GLOBAL_MEMORY_LIMIT";
@@ -803,6 +873,11 @@ public class ConnectionProperties {
 
     public static final String ENABLE_SPILL = "ENABLE_SPILL";
 
+    /**
+     * sort by normalized keys of the leading ORDER BY column before falling back to row comparison
+     */
+    public static final String ENABLE_NORMALIZED_KEY_SORT = "ENABLE_NORMALIZED_KEY_SORT";
+
     public static final String MPP_MAX_SPILL_THREADS = "MPP_MAX_SPILL_THREADS";
 
     public static final String MPP_SPILL_PATHS = "MPP_SPILL_PATHS";
@@ -815,6 +890,16 @@ public class ConnectionProperties {
 
     public static final String MPP_MAX_SPILL_FD_THRESHOLD = "MPP_MAX_SPILL_FD_THRESHOLD";
 
+    /**
+     * codec of the spilled pages: NONE, LZ4, SNAPPY, ENCODED or ADAPTIVE
+     */
+    public static final String MPP_SPILL_COMPRESSION_MODE = "MPP_SPILL_COMPRESSION_MODE";
+
+    /**
+     * buffer size of each spill file stream, also the read-ahead of each run when merging spilled runs
+     */
+    public static final String MPP_SPILL_IO_BUFFER_SIZE = "MPP_SPILL_IO_BUFFER_SIZE";
+
     public static final String HYBRID_HASH_JOIN_BUCKET_NUM = "HYBRID_HASH_JOIN_BUCKET_NUM";
 
     public static final String HYBRID_HASH_JOIN_RECURSIVE_BUCKET_NUM = "HYBRID_HASH_JOIN_RECURSIVE_BUCKET_NUM";
@@ -953,6 +1038,17 @@ public class ConnectionProperties {
 
     public static final String RUNTIME_FILTER_FPP = "RUNTIME_FILTER_FPP";
 
+    /**
+     * Use split block bloom filters for runtime filters that are not pushed down to the storage, requires every node
+     * to know the xxhash64 hash method
+     */
+    public static final String ENABLE_BLOCKED_BLOOM_FILTER = "ENABLE_BLOCKED_BLOOM_FILTER";
+
+    /**
+     * Ship runtime filter bitmaps zero-run-length encoded, requires every node to understand the encoding
+     */
+    public static final String ENABLE_COMPACT_BLOOM_FILTER_DATA = "ENABLE_COMPACT_BLOOM_FILTER_DATA";
+
     public static final String STORAGE_SUPPORTS_BLOOM_FILTER = "STORAGE_SUPPORTS_BLOOM_FILTER";
 
     public static final String WAIT_BLOOM_FILTER_TIMEOUT_MS = "WAIT_BLOOM_FILTER_TIMEOUT_MS";
@@ -1069,6 +1165,16 @@ public class ConnectionProperties {
 
     public static final String STATISTIC_NDV_SKETCH_SAMPLE_RATE = "STATISTIC_NDV_SKETCH_SAMPLE_RATE";
 
+    /**
+     * maintain ndv sketches incrementally from dml executed on CN, rescan shards only when drifted
+     */
+    public static final String ENABLE_NDV_SKETCH_INCREMENTAL = "ENABLE_NDV_SKETCH_INCREMENTAL";
+
+    /**
+     * max rows of one insert fed into the incremental ndv sketches, the rest only count towards drift detection
+     */
+    public static final String STATISTIC_NDV_SKETCH_DML_MAX_ROWS = "STATISTIC_NDV_SKETCH_DML_MAX_ROWS";
+
     public static final String AUTO_COLLECT_NDV_SKETCH = "AUTO_COLLECT_NDV_SKETCH";
 
     public static final String CDC_STARTUP_MODE = "CDC_STARTUP_MODE";
@@ -43,6 +43,18 @@ public class DynamicConfig {
                 autoPartitionPartitions = parseValue(value, Long.class, autoPartitionPartitionsDefault);
                 break;
 
+            case ConnectionProperties.TSO_PREFETCH_COUNT:
+                tsoPrefetchCount = parseValue(value, Long.class, tsoPrefetchCountDefault);
+                break;
+
+            case ConnectionProperties.TSO_SNAPSHOT_LEASE_MILLIS:
+                tsoSnapshotLeaseMillis = parseValue(value, Long.class, tsoSnapshotLeaseMillisDefault);
+                break;
+
+            case ConnectionProperties.ENABLE_CHUNK_RESULT_ENCODER:
+                enableChunkResultEncoder = parseValue(value, Boolean.class, enableChunkResultEncoderDefault);
+                break;
+
             default:
                 break;
             }
@@ -81,6 +93,30 @@ public class DynamicConfig {
         return autoPartitionPartitions;
     }
 
+    private static final long tsoPrefetchCountDefault =
+        parseValue(ConnectionParams.TSO_PREFETCH_COUNT.getDefault(), Long.class, 64L);
+    private volatile long tsoPrefetchCount = tsoPrefetchCountDefault;
+
+    public long getTsoPrefetchCount() {
+        return tsoPrefetchCount;
+    }
+
+    private static final long tsoSnapshotLeaseMillisDefault =
+        parseValue(ConnectionParams.TSO_SNAPSHOT_LEASE_MILLIS.getDefault(), Long.class, 0L);
+    private volatile long tsoSnapshotLeaseMillis = tsoSnapshotLeaseMillisDefault;
+
+    public long getTsoSnapshotLeaseMillis() {
+        return tsoSnapshotLeaseMillis;
+    }
+
+    private static final boolean enableChunkResultEncoderDefault =
+        parseValue(ConnectionParams.ENABLE_CHUNK_RESULT_ENCODER.getDefault(), Boolean.class, true);
+    private volatile boolean enableChunkResultEncoder = enableChunkResultEncoderDefault;
+
+    public boolean isEnableChunkResultEncoder() {
+        return enableChunkResultEncoder;
+    }
+
     public static <T> T parseValue(String value, Class<T> type, T defaultValue) {
         if (value == null) {
             return defaultValue;
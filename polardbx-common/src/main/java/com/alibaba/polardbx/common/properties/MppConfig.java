@@ -78,6 +78,8 @@ import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_QU
 import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_QUERY_REMOTE_TASK_MIN_ERROR;
 import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_REMOTE_TASK_CALLBACK_THREAD_SIZE;
 import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_SCHEMA_MAX_MEM;
+import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_SPILL_COMPRESSION_MODE;
+import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_SPILL_IO_BUFFER_SIZE;
 import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_SPILL_PATHS;
 import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_SPLIT_RUN_QUANTA;
 import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_STATUS_REFRESH_MAX_WAIT;
@@ -304,6 +306,12 @@ public class MppConfig {
                 learnerLoadThreshold = parseValue(
                     value, Integer.class, DEFAULT_MPP_LEARNER_LOAD_THRESHOLD);
                 break;
+            case MPP_SPILL_COMPRESSION_MODE:
+                spillCompressionMode = parseValue(value, String.class, DEFAULT_SPILL_COMPRESSION_MODE);
+                break;
+            case MPP_SPILL_IO_BUFFER_SIZE:
+                spillIoBufferSize = parseValue(value, Integer.class, DEFAULT_SPILL_IO_BUFFER_SIZE);
+                break;
             case MPP_SPILL_PATHS:
                 List<String> spillPathsSplit = ImmutableList.copyOf(
                     Splitter.on(",").trimResults().omitEmptyStrings().split(value));
@@ -741,6 +749,20 @@ public class MppConfig {
         return maxQuerySpillSpaceThreshold;
     }
 
+    private static final String DEFAULT_SPILL_COMPRESSION_MODE = "NONE";
+    private String spillCompressionMode = DEFAULT_SPILL_COMPRESSION_MODE;
+
+    public String getSpillCompressionMode() {
+        return spillCompressionMode;
+    }
+
+    private static final int DEFAULT_SPILL_IO_BUFFER_SIZE = 128 * 1024;
+    private int spillIoBufferSize = DEFAULT_SPILL_IO_BUFFER_SIZE;
+
+    public int getSpillIoBufferSize() {
+        return spillIoBufferSize;
+    }
+
     private static final int DEFAULT_MPP_LEARNER_DELAY_THRESHOLD = 5;
     private int learnerDelayThreshold = DEFAULT_MPP_LEARNER_DELAY_THRESHOLD;
 
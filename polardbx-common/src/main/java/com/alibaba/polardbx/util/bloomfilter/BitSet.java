@@ -65,6 +65,25 @@ class BitSet {
         return true;
     }
 
+    /**
+     * Set all bits of mask in the long word at longIndex.
+     */
+    public void setBits(int longIndex, long mask) {
+        long oldValue;
+        long newValue;
+        do {
+            oldValue = data[longIndex];
+            newValue = oldValue | mask;
+            if (oldValue == newValue) {
+                return;
+            }
+        } while (!compareAndSet(longIndex, oldValue, newValue));
+    }
+
+    public boolean containsBits(int longIndex, long mask) {
+        return (data[longIndex] & mask) == mask;
+    }
+
     private boolean compareAndSet(int i, long oldValue, long newValue) {
         return UnsafeUtil.UNSAFE.compareAndSwapLong(data, byteOffset(i), oldValue, newValue);
     }
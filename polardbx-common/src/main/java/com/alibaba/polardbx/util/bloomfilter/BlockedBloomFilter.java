@@ -0,0 +1,132 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.util.bloomfilter;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashCode;
+
+/**
+ * Split block bloom filter: the upper 32 bits of a 64-bit hash select a block of 256 bits
+ * (four longs, half a cache line), and the lower 32 bits set exactly one bit in each of
+ * the eight 32-bit words of that block. Put and probe touch a single block and need no
+ * modulo or per-key stream, at the cost of a slightly higher false positive rate than
+ * a classic filter with the same number of bits.
+ * <p>
+ * The bit layout differs from {@link BloomFilter}, so the storage can not evaluate it.
+ */
+public class BlockedBloomFilter extends BloomFilter {
+    private static final int LONGS_PER_BLOCK = 4;
+    private static final int BITS_PER_BLOCK = LONGS_PER_BLOCK * Long.SIZE;
+    private static final int WORDS_PER_BLOCK = 8;
+
+    private static final int[] SALT = {
+        0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d,
+        0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31};
+
+    private final BitSet bitset;
+    private final long numBlocks;
+
+    private BlockedBloomFilter(HashMethod hashMethod, BitSet bitset) {
+        super(hashMethod, WORDS_PER_BLOCK, bitset);
+        Preconditions.checkArgument(bitset.getData().length % LONGS_PER_BLOCK == 0,
+            "Bitmap length must be a multiple of the block size!");
+        this.bitset = bitset;
+        this.numBlocks = bitset.getData().length / LONGS_PER_BLOCK;
+    }
+
+    @Override
+    public void put(HashCode hashCode) {
+        put(hashCode.asLong());
+    }
+
+    @Override
+    public boolean mightContain(HashCode hashCode) {
+        return mightContain(hashCode.asLong());
+    }
+
+    public void put(long hash) {
+        int base = blockOffset(hash);
+        int key = (int) hash;
+        for (int i = 0; i < LONGS_PER_BLOCK; i++) {
+            bitset.setBits(base + i, mask(key, i));
+        }
+    }
+
+    public boolean mightContain(long hash) {
+        int base = blockOffset(hash);
+        int key = (int) hash;
+        for (int i = 0; i < LONGS_PER_BLOCK; i++) {
+            if (!bitset.containsBits(base + i, mask(key, i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void putAll(long[] hashes, int count) {
+        for (int i = 0; i < count; i++) {
+            put(hashes[i]);
+        }
+    }
+
+    /**
+     * Keep the positions whose hash might be contained.
+     *
+     * @param hashes hash of each selected position, hashes[i] belongs to selection[i]
+     * @param selection selected positions, compacted in place
+     * @param count number of selected positions
+     * @return number of positions left in selection
+     */
+    public int mightContainAll(long[] hashes, int[] selection, int count) {
+        int selected = 0;
+        for (int i = 0; i < count; i++) {
+            if (mightContain(hashes[i])) {
+                selection[selected++] = selection[i];
+            }
+        }
+        return selected;
+    }
+
+    @Override
+    public boolean isBlocked() {
+        return true;
+    }
+
+    private int blockOffset(long hash) {
+        return (int) (((hash >>> 32) * numBlocks) >>> 32) * LONGS_PER_BLOCK;
+    }
+
+    /**
+     * Bits of the two 32-bit words stored in the i-th long of a block.
+     */
+    private static long mask(int key, int i) {
+        int low = (key * SALT[2 * i]) >>> 27;
+        int high = (key * SALT[2 * i + 1]) >>> 27;
+        return (1L << low) | (1L << (high + Integer.SIZE));
+    }
+
+    public static BlockedBloomFilter createEmpty(long expectedInsertions, double fpp) {
+        long numBits = optimalNumOfBits(expectedInsertions, fpp);
+        int numBlocks = (int) Math.max(1, (numBits + BITS_PER_BLOCK - 1) / BITS_PER_BLOCK);
+        return new BlockedBloomFilter(XxHash64Method.create(),
+            new BitSet(new long[Math.multiplyExact(numBlocks, LONGS_PER_BLOCK)]));
+    }
+
+    public static BlockedBloomFilter createWithData(HashMethodInfo hashMethodInfo, long[] data) {
+        return new BlockedBloomFilter(HashMethodFactory.build(hashMethodInfo), new BitSet(data));
+    }
+}
@@ -35,7 +35,7 @@ public class BloomFilter {
 
     private final int numBits;
 
-    private BloomFilter(HashMethod hashMethod, int numHashFunctions, BitSet bitset) {
+    BloomFilter(HashMethod hashMethod, int numHashFunctions, BitSet bitset) {
         this.hashMethod = hashMethod;
         this.numHashFunctions = numHashFunctions;
         this.bitset = bitset;
@@ -59,6 +59,7 @@ public class BloomFilter {
     }
 
     public void merge(BloomFilter other) {
+        Preconditions.checkArgument(other.isBlocked() == isBlocked(), "Bloom filter layout not match!");
         Preconditions.checkArgument(other.numBits == numBits, "Number of bits not match!");
         Preconditions.checkArgument(other.numHashFunctions == numHashFunctions, "Number of hash functions not match!");
         Preconditions.checkArgument(other.hashMethod.equals(hashMethod), "Hash method not match!");
@@ -70,6 +71,14 @@ public class BloomFilter {
         return numHashFunctions;
     }
 
+    /**
+     * Whether bits are laid out in cache-line sized blocks, see {@link BlockedBloomFilter}.
+     * Such filters can only be probed inside the compute node.
+     */
+    public boolean isBlocked() {
+        return false;
+    }
+
     public long[] getBitmap() {
         return bitset.getData();
     }
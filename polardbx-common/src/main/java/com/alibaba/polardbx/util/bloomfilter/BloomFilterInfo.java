@@ -17,6 +17,8 @@
 package com.alibaba.polardbx.util.bloomfilter;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Preconditions;
 
@@ -29,18 +31,45 @@ public class BloomFilterInfo {
     private final int hashFuncNum;
     private final long[] data;
     private final HashMethodInfo hashMethodInfo;
+    private final boolean blocked;
+    private final boolean compact;
     private byte[] bytesData;
+    private byte[] compactData;
 
+    public BloomFilterInfo(Integer id, long[] data, int hashFuncNum, HashMethodInfo hashMethodInfo) {
+        this(id, data, hashFuncNum, hashMethodInfo, false);
+    }
+
+    public BloomFilterInfo(Integer id, long[] data, int hashFuncNum, HashMethodInfo hashMethodInfo,
+                           boolean blocked) {
+        this(id, data, hashFuncNum, hashMethodInfo, blocked, false);
+    }
+
+    public BloomFilterInfo(Integer id, long[] data, int hashFuncNum, HashMethodInfo hashMethodInfo,
+                           boolean blocked, boolean compact) {
+        this.id = id;
+        this.data = data;
+        this.hashFuncNum = hashFuncNum;
+        this.hashMethodInfo = hashMethodInfo;
+        this.blocked = blocked;
+        this.compact = compact;
+    }
+
+    /**
+     * The bitmap is shipped either as the plain long array {@code data} or, when {@code compact} is set,
+     * as {@code compactData}, its zero-run-length encoded form. Both are accepted on read so nodes of
+     * different versions can talk to each other; only enable the compact form once every node reads it.
+     */
     @JsonCreator
     public BloomFilterInfo(
         @JsonProperty("id") Integer id,
         @JsonProperty("data") long[] data,
+        @JsonProperty("compactData") byte[] compactData,
         @JsonProperty("hashFuncNum") int hashFuncNum,
-        @JsonProperty("hashMethodInfo") HashMethodInfo hashMethodInfo) {
-        this.id = id;
-        this.data = data;
-        this.hashFuncNum = hashFuncNum;
-        this.hashMethodInfo = hashMethodInfo;
+        @JsonProperty("hashMethodInfo") HashMethodInfo hashMethodInfo,
+        @JsonProperty("blocked") boolean blocked) {
+        this(id, data != null ? data : (compactData != null ? decodeCompact(compactData) : null), hashFuncNum,
+            hashMethodInfo, blocked);
     }
 
     @JsonProperty
@@ -48,16 +77,41 @@ public class BloomFilterInfo {
         return id;
     }
 
-    @JsonProperty
+    @JsonIgnore
     public long[] getData() {
         return data;
     }
 
+    @JsonProperty("data")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public long[] getPlainData() {
+        return compact ? null : data;
+    }
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public byte[] getCompactData() {
+        if (!compact || data == null) {
+            return null;
+        }
+        synchronized (this) {
+            if (compactData == null) {
+                compactData = encodeCompact(data);
+            }
+            return compactData;
+        }
+    }
+
     @JsonProperty
     public int getHashFuncNum() {
         return hashFuncNum;
     }
 
+    @JsonProperty
+    public boolean isBlocked() {
+        return blocked;
+    }
+
     public int getDataLenInBits() {
         return data.length * 64;
     }
@@ -81,6 +135,7 @@ public class BloomFilterInfo {
         Preconditions.checkArgument(this.id.equals(other.id), "Bloom filter info id should be same!");
         Preconditions.checkArgument(this.hashMethodInfo.equals(other.hashMethodInfo),
             "Bloom filter hash method info should be same!");
+        Preconditions.checkArgument(this.blocked == other.blocked, "Bloom filter layout should be same!");
         Preconditions.checkArgument(this.hashFuncNum == other.hashFuncNum,
             "Bloom filter info hash function num should be same!");
         Preconditions.checkArgument(data.length == other.getData().length, "Bit array length must match!");
@@ -92,9 +147,13 @@ public class BloomFilterInfo {
         }
 
         this.bytesData = null;
+        this.compactData = null;
     }
 
     public BloomFilter toBloomFilter() {
+        if (blocked) {
+            return BlockedBloomFilter.createWithData(hashMethodInfo, data);
+        }
         return BloomFilter.createWithData(hashMethodInfo, hashFuncNum, data);
     }
 
@@ -103,6 +162,7 @@ public class BloomFilterInfo {
         return "BloomFilterInfo{" +
             "id=" + id +
             ", hashFuncNum=" + hashFuncNum +
+            ", blocked=" + blocked +
             '}';
     }
 
@@ -115,4 +175,70 @@ public class BloomFilterInfo {
         }
         return buffer;
     }
+
+    /**
+     * Encode the bitmap as alternating runs: varint count of zero longs, varint count of
+     * non-zero longs followed by those longs in little endian. Runtime filters sized by
+     * estimated NDV are often mostly empty, so this is much smaller than the JSON long array.
+     */
+    static byte[] encodeCompact(long[] data) {
+        ByteBuffer bb = ByteBuffer.allocate(5 + data.length * (LONG_BYTES_SIZE + 10));
+        bb.order(ByteOrder.LITTLE_ENDIAN);
+        writeVarInt(bb, data.length);
+        int i = 0;
+        while (i < data.length) {
+            int zeroStart = i;
+            while (i < data.length && data[i] == 0) {
+                i++;
+            }
+            int literalStart = i;
+            while (i < data.length && data[i] != 0) {
+                i++;
+            }
+            writeVarInt(bb, literalStart - zeroStart);
+            writeVarInt(bb, i - literalStart);
+            for (int j = literalStart; j < i; j++) {
+                bb.putLong(data[j]);
+            }
+        }
+        byte[] result = new byte[bb.position()];
+        System.arraycopy(bb.array(), 0, result, 0, result.length);
+        return result;
+    }
+
+    static long[] decodeCompact(byte[] compactData) {
+        ByteBuffer bb = ByteBuffer.wrap(compactData);
+        bb.order(ByteOrder.LITTLE_ENDIAN);
+        long[] data = new long[readVarInt(bb)];
+        int i = 0;
+        while (bb.hasRemaining()) {
+            i += readVarInt(bb);
+            int literals = readVarInt(bb);
+            Preconditions.checkArgument(i + literals <= data.length, "Corrupted bloom filter data!");
+            for (int j = 0; j < literals; j++) {
+                data[i++] = bb.getLong();
+            }
+        }
+        return data;
+    }
+
+    private static void writeVarInt(ByteBuffer bb, int value) {
+        while ((value & ~0x7F) != 0) {
+            bb.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        bb.put((byte) value);
+    }
+
+    private static int readVarInt(ByteBuffer bb) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bb.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
 }
@@ -22,6 +22,9 @@ public class HashMethodFactory {
         if (Murmur3_128Method.METHOD_NAME.equals(hashMethodInfo.getMethodName())) {
             return Murmur3_128Method.create(hashMethodInfo.getArgs());
         }
+        if (XxHash64Method.METHOD_NAME.equals(hashMethodInfo.getMethodName())) {
+            return XxHash64Method.create(hashMethodInfo.getArgs());
+        }
         throw new IllegalArgumentException("Unrecognized hash method name: " + hashMethodInfo);
     }
 }
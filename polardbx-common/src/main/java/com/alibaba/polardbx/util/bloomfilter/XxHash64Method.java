@@ -0,0 +1,132 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.util.bloomfilter;
+
+import com.google.common.hash.HashCode;
+import io.airlift.slice.Slice;
+import io.airlift.slice.XxHash64;
+
+import java.nio.ByteBuffer;
+import java.util.stream.LongStream;
+
+/**
+ * 64-bit xxhash for runtime filters evaluated inside the compute node.
+ * A row hash folds the hash of every put value as {@code h = 31 * h + hash(value)},
+ * so the same hash can be computed column by column over whole blocks,
+ * see {@link #hashLong(long)}, {@link #hashBytes(Slice)} and {@link #combine(long, long)}.
+ */
+public class XxHash64Method implements HashMethod {
+    public static final String METHOD_NAME = "xxhash64";
+
+    private static final XxHash64Method SINGLETON = new XxHash64Method();
+
+    private final HashMethodInfo metadata = new HashMethodInfo(METHOD_NAME);
+
+    private XxHash64Method() {
+    }
+
+    public static XxHash64Method create(Object... args) {
+        return SINGLETON;
+    }
+
+    public static long hashLong(long value) {
+        return XxHash64.hash(value);
+    }
+
+    public static long hashBytes(byte[] bytes, int off, int len) {
+        return XxHash64.hash(bytes, off, len);
+    }
+
+    public static long hashBytes(Slice slice) {
+        return XxHash64.hash(slice);
+    }
+
+    public static long combine(long rowHash, long valueHash) {
+        return 31 * rowHash + valueHash;
+    }
+
+    @Override
+    public HashMethodInfo metadata() {
+        return metadata;
+    }
+
+    @Override
+    public TddlHasher newHasher() {
+        return new XxHash64TddlHasher();
+    }
+
+    @Override
+    public LongStream computeHashCodes(HashCode hashCode, int numFunctions) {
+        long hash = hashCode.asLong();
+        long hash1 = hash & 0xFFFFFFFFL;
+        long hash2 = hash >>> 32;
+        return LongStream.range(0, numFunctions).map(i -> (hash1 + i * hash2) & Long.MAX_VALUE);
+    }
+
+    private static class XxHash64TddlHasher implements TddlHasher {
+        private long hash;
+
+        private TddlHasher putHash(long valueHash) {
+            hash = combine(hash, valueHash);
+            return this;
+        }
+
+        @Override
+        public TddlHasher putByte(byte b) {
+            return putLong(b);
+        }
+
+        @Override
+        public TddlHasher putBytes(byte[] bytes, int off, int len) {
+            return putHash(hashBytes(bytes, off, len));
+        }
+
+        @Override
+        public TddlHasher putBytes(ByteBuffer bytes) {
+            byte[] copy = new byte[bytes.remaining()];
+            bytes.get(copy);
+            return putBytes(copy, 0, copy.length);
+        }
+
+        @Override
+        public TddlHasher putLong(long l) {
+            return putHash(hashLong(l));
+        }
+
+        @Override
+        public TddlHasher putDouble(double d) {
+            return putLong(Double.doubleToLongBits(d));
+        }
+
+        @Override
+        public TddlHasher putBoolean(boolean b) {
+            return putLong(b ? 1 : 0);
+        }
+
+        @Override
+        public TddlHasher putChar(char c) {
+            return putLong(c);
+        }
+
+        @Override
+        public HashCode hash() {
+            HashCode ret = HashCode.fromLong(hash);
+            hash = 0;
+            return ret;
+        }
+    }
+}
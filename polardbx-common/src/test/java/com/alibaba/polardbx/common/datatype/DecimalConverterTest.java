@@ -33,6 +33,11 @@ public class DecimalConverterTest {
 
         String res = d.toString();
         Assert.assertEquals(to, res);
+
+        // the same string written into a reused buffer
+        byte[] buffer = new byte[DecimalConverter.maxStringSize(d) + 3];
+        int len = DecimalConverter.decimal2String(d, buffer, 3);
+        Assert.assertEquals(to, new String(buffer, 3, len));
     }
 
     @Test
@@ -185,6 +190,9 @@ public class DecimalConverterTest {
         int e = DecimalConverter.longToDecimal(from, d);
         Assert.assertEquals(error, e);
         Assert.assertEquals(to, d.toString());
+
+        byte[] buffer = new byte[DecimalConverter.maxStringSize(d)];
+        Assert.assertEquals(to, new String(buffer, 0, DecimalConverter.decimal2String(d, buffer, 0)));
     }
 
     @Test
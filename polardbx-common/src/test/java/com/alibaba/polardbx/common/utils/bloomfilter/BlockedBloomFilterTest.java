@@ -0,0 +1,155 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.common.utils.bloomfilter;
+
+import com.alibaba.polardbx.util.bloomfilter.BlockedBloomFilter;
+import com.alibaba.polardbx.util.bloomfilter.BloomFilter;
+import com.alibaba.polardbx.util.bloomfilter.BloomFilterInfo;
+import com.alibaba.polardbx.util.bloomfilter.TddlHasher;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BlockedBloomFilterTest {
+    private static final int NUM_ELEMENT = 1_000_000;
+
+    @Test
+    public void testCheckContainsAfterPut() {
+        BlockedBloomFilter bloomFilter = BlockedBloomFilter.createEmpty(NUM_ELEMENT, 0.03);
+
+        HashSet<Long> allValues = new HashSet<>(NUM_ELEMENT);
+        Random random = new Random(0);
+
+        TddlHasher hasher = bloomFilter.newHasher();
+
+        for (int i = 0; i < NUM_ELEMENT; i++) {
+            long value = random.nextLong();
+            allValues.add(value);
+            bloomFilter.put(hasher.putLong(value).hash());
+        }
+
+        for (Long value : allValues) {
+            assertTrue(bloomFilter.mightContain(hasher.putLong(value).hash()));
+        }
+
+        long falsePositiveCount = 0;
+        for (int i = 0; i < NUM_ELEMENT; i++) {
+            long value = random.nextLong();
+            boolean contains = allValues.contains(value);
+            boolean guess = bloomFilter.mightContain(hasher.putLong(value).hash());
+
+            if (!contains && guess) {
+                falsePositiveCount += 1;
+            }
+        }
+
+        assertTrue((falsePositiveCount * 1.0 / NUM_ELEMENT) < 0.05);
+    }
+
+    @Test
+    public void testBatchProbe() {
+        BlockedBloomFilter bloomFilter = BlockedBloomFilter.createEmpty(1000, 0.03);
+        TddlHasher hasher = bloomFilter.newHasher();
+
+        long[] hashes = new long[100];
+        int[] selection = new int[100];
+        for (int i = 0; i < 100; i++) {
+            hashes[i] = hasher.putLong(i).hash().asLong();
+            selection[i] = i;
+        }
+        bloomFilter.putAll(hashes, 50);
+
+        int selected = bloomFilter.mightContainAll(hashes, selection, 100);
+        assertTrue(selected >= 50 && selected < 60);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, selection[i]);
+        }
+    }
+
+    @Test
+    public void testMerge() {
+        Random random = new Random(0);
+        HashSet<Long> values = new HashSet<>(20);
+
+        BlockedBloomFilter bloomFilter1 = BlockedBloomFilter.createEmpty(1000, 0.03);
+        BlockedBloomFilter bloomFilter2 = BlockedBloomFilter.createEmpty(1000, 0.03);
+        TddlHasher hasher = bloomFilter1.newHasher();
+
+        for (int i = 0; i < 10; i++) {
+            long value = random.nextLong();
+            values.add(value);
+            bloomFilter1.put(hasher.putLong(value).hash());
+        }
+        for (int i = 0; i < 10; i++) {
+            long value = random.nextLong();
+            values.add(value);
+            bloomFilter2.put(hasher.putLong(value).hash());
+        }
+
+        bloomFilter1.merge(bloomFilter2);
+
+        for (long value : values) {
+            assertTrue(bloomFilter1.mightContain(hasher.putLong(value).hash()));
+        }
+    }
+
+    @Test
+    public void testCompactData() {
+        BlockedBloomFilter bloomFilter = BlockedBloomFilter.createEmpty(100_000, 0.03);
+        TddlHasher hasher = bloomFilter.newHasher();
+        for (int i = 0; i < 100; i++) {
+            bloomFilter.put(hasher.putLong(i).hash());
+        }
+
+        BloomFilterInfo plain = new BloomFilterInfo(1, bloomFilter.getBitmap(), bloomFilter.getNumHashFunctions(),
+            bloomFilter.getHashMethodInfo(), bloomFilter.isBlocked());
+        assertNull(plain.getCompactData());
+        assertArrayEquals(bloomFilter.getBitmap(), plain.getPlainData());
+
+        BloomFilterInfo info = new BloomFilterInfo(1, bloomFilter.getBitmap(), bloomFilter.getNumHashFunctions(),
+            bloomFilter.getHashMethodInfo(), bloomFilter.isBlocked(), true);
+        assertNull(info.getPlainData());
+        byte[] compactData = info.getCompactData();
+        assertTrue(compactData.length < bloomFilter.getBitmap().length);
+        assertSame(compactData, info.getCompactData());
+
+        // a node that does not know compactData still sends the plain array
+        BloomFilterInfo fromOldNode =
+            new BloomFilterInfo(1, plain.getPlainData(), null, info.getHashFuncNum(), info.getHashMethodInfo(), true);
+        assertArrayEquals(bloomFilter.getBitmap(), fromOldNode.getData());
+
+        BloomFilterInfo received =
+            new BloomFilterInfo(1, null, compactData, info.getHashFuncNum(), info.getHashMethodInfo(), true);
+        assertArrayEquals(bloomFilter.getBitmap(), received.getData());
+
+        BloomFilter receivedFilter = received.toBloomFilter();
+        assertTrue(receivedFilter.isBlocked());
+        TddlHasher receivedHasher = receivedFilter.newHasher();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(receivedFilter.mightContain(receivedHasher.putLong(i).hash()));
+        }
+        assertFalse(receivedFilter.mightContain(receivedHasher.putString("abcd").hash()));
+    }
+}
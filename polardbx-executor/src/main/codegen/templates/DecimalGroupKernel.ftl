@@ -0,0 +1,91 @@
+<@pp.dropOutputFile />
+
+<#list aggKernels.decimal.functions as function>
+
+    <#assign className = "${function.classHeader}DecimalGroupKernel">
+    <@pp.changeOutputFile name="/com/alibaba/polardbx/executor/vectorized/aggregate/${className}.java" />
+package com.alibaba.polardbx.executor.vectorized.aggregate;
+
+import com.alibaba.polardbx.common.datatype.Decimal;
+import com.alibaba.polardbx.optimizer.chunk.*;
+import com.alibaba.polardbx.optimizer.state.${function.stateType};
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*/
+@SuppressWarnings("unused")
+public class ${className} implements GroupAggregationKernel {
+    private final ${function.stateType} groupState;
+
+    public ${className}(${function.stateType} groupState) {
+        this.groupState = groupState;
+    }
+
+    @Override
+    public boolean supports(Block block) {
+        return block instanceof DecimalBlock;
+    }
+
+    @Override
+    public void accumulate(Block block, int[] groupIds, int[] selection, int positionCount) {
+        DecimalBlock inputBlock = (DecimalBlock) block;
+        boolean[] nulls = inputBlock.nulls();
+        int offset = inputBlock.getArrayOffset();
+
+        if (selection != null) {
+            if (nulls != null) {
+                for (int i = 0; i < positionCount; i++) {
+                    int j = selection[i];
+                    if (!nulls[j + offset]) {
+                        update(groupIds[j], inputBlock.getDecimal(j));
+                    }
+                }
+            } else {
+                for (int i = 0; i < positionCount; i++) {
+                    int j = selection[i];
+                    update(groupIds[j], inputBlock.getDecimal(j));
+                }
+            }
+        } else {
+            if (nulls != null) {
+                for (int i = 0; i < positionCount; i++) {
+                    if (!nulls[i + offset]) {
+                        update(groupIds[i], inputBlock.getDecimal(i));
+                    }
+                }
+            } else {
+                for (int i = 0; i < positionCount; i++) {
+                    update(groupIds[i], inputBlock.getDecimal(i));
+                }
+            }
+        }
+    }
+
+    private void update(int groupId, Decimal value) {
+    <#if function.classHeader == "Avg">
+        if (groupState.isNull(groupId)) {
+            groupState.set(groupId, value, 1);
+        } else {
+            groupState.set(groupId, groupState.getDecimal(groupId).add(value), groupState.getLong(groupId) + 1);
+        }
+    <#else>
+        if (groupState.isNull(groupId)) {
+            groupState.set(groupId, value);
+        <#if function.classHeader == "Sum">
+        } else {
+            groupState.set(groupId, value.add(groupState.get(groupId)));
+        }
+        <#elseif function.classHeader == "Max">
+        } else if (value.compareTo(groupState.get(groupId)) > 0) {
+            groupState.set(groupId, value);
+        }
+        <#else>
+        } else if (value.compareTo(groupState.get(groupId)) < 0) {
+            groupState.set(groupId, value);
+        }
+        </#if>
+    </#if>
+    }
+}
+
+</#list>
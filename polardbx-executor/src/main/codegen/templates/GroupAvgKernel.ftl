@@ -0,0 +1,143 @@
+<@pp.dropOutputFile />
+
+<#list aggKernels.avg.types as type>
+
+    <#assign className = "${aggKernels.avg.classHeader}${type.inputDataType}GroupKernel">
+    <@pp.changeOutputFile name="/com/alibaba/polardbx/executor/vectorized/aggregate/${className}.java" />
+package com.alibaba.polardbx.executor.vectorized.aggregate;
+
+<#if type.decimalState>
+import com.alibaba.polardbx.common.datatype.Decimal;
+</#if>
+import com.alibaba.polardbx.optimizer.chunk.*;
+import com.alibaba.polardbx.optimizer.state.${type.stateType};
+
+<#if type.decimalState>
+import java.util.Arrays;
+</#if>
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*/
+@SuppressWarnings("unused")
+public class ${className} implements GroupAggregationKernel {
+    private final ${type.stateType} groupState;
+<#if type.decimalState>
+
+    /**
+     * Sum and count of each group within one call, merged into the decimal state once per touched group
+     */
+    private long[] partialSums = new long[0];
+    private long[] partialCounts = new long[0];
+    private int[] touchedGroups = new int[0];
+    private int touchedCount;
+</#if>
+
+    public ${className}(${type.stateType} groupState) {
+        this.groupState = groupState;
+    }
+
+    @Override
+    public boolean supports(Block block) {
+        return block instanceof ${type.inputVectorType};
+    }
+
+    @Override
+    public void accumulate(Block block, int[] groupIds, int[] selection, int positionCount) {
+        ${type.inputVectorType} inputBlock = (${type.inputVectorType}) block;
+        ${type.inputType}[] values = inputBlock.${type.inputType}Array();
+        boolean[] nulls = inputBlock.nulls();
+        int offset = inputBlock.getArrayOffset();
+<#if type.decimalState>
+
+        if (touchedGroups.length < positionCount) {
+            touchedGroups = new int[positionCount];
+        }
+        touchedCount = 0;
+</#if>
+
+        if (selection != null) {
+            if (nulls != null) {
+                for (int i = 0; i < positionCount; i++) {
+                    int j = selection[i];
+                    if (!nulls[j + offset]) {
+                        update(groupIds[j], values[j + offset]);
+                    }
+                }
+            } else {
+                for (int i = 0; i < positionCount; i++) {
+                    int j = selection[i];
+                    update(groupIds[j], values[j + offset]);
+                }
+            }
+        } else {
+            if (nulls != null) {
+                for (int i = 0; i < positionCount; i++) {
+                    if (!nulls[i + offset]) {
+                        update(groupIds[i], values[i + offset]);
+                    }
+                }
+            } else {
+                for (int i = 0; i < positionCount; i++) {
+                    update(groupIds[i], values[i + offset]);
+                }
+            }
+        }
+<#if type.decimalState>
+
+        for (int i = 0; i < touchedCount; i++) {
+            int groupId = touchedGroups[i];
+            merge(groupId, Decimal.fromLong(partialSums[groupId]), partialCounts[groupId]);
+            partialSums[groupId] = 0;
+            partialCounts[groupId] = 0;
+        }
+</#if>
+    }
+<#if type.decimalState>
+
+    private void update(int groupId, long value) {
+        if (groupId >= partialCounts.length) {
+            int newLength = Math.max(groupId + 1, partialCounts.length * 2);
+            partialSums = Arrays.copyOf(partialSums, newLength);
+            partialCounts = Arrays.copyOf(partialCounts, newLength);
+        }
+        long count = partialCounts[groupId];
+        if (count == 0) {
+            touchedGroups[touchedCount++] = groupId;
+        }
+        partialCounts[groupId] = count + 1;
+    <#if type.checkOverflow>
+        long sum = partialSums[groupId];
+        long result = sum + value;
+        // HD 2-12 Overflow iff both arguments have the opposite sign of the result
+        if (((sum ^ result) & (value ^ result)) < 0) {
+            merge(groupId, Decimal.fromLong(sum).add(Decimal.fromLong(value)), 0);
+            partialSums[groupId] = 0;
+        } else {
+            partialSums[groupId] = result;
+        }
+    <#else>
+        partialSums[groupId] += value;
+    </#if>
+    }
+
+    private void merge(int groupId, Decimal sum, long count) {
+        if (groupState.isNull(groupId)) {
+            groupState.set(groupId, sum, count);
+        } else {
+            groupState.set(groupId, groupState.getDecimal(groupId).add(sum), groupState.getLong(groupId) + count);
+        }
+    }
+<#else>
+
+    private void update(int groupId, ${type.inputType} value) {
+        if (groupState.isNull(groupId)) {
+            groupState.set(groupId, value, 1);
+        } else {
+            groupState.set(groupId, groupState.getDouble(groupId) + value, groupState.getLong(groupId) + 1);
+        }
+    }
+</#if>
+}
+
+</#list>
@@ -0,0 +1,77 @@
+<@pp.dropOutputFile />
+
+<#list aggKernels.sum.types as type>
+
+    <#assign className = "${aggKernels.sum.classHeader}${type.inputDataType}GroupKernel">
+    <@pp.changeOutputFile name="/com/alibaba/polardbx/executor/vectorized/aggregate/${className}.java" />
+package com.alibaba.polardbx.executor.vectorized.aggregate;
+
+import com.alibaba.polardbx.optimizer.chunk.*;
+import com.alibaba.polardbx.optimizer.state.${type.stateType};
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*/
+@SuppressWarnings("unused")
+public class ${className} implements GroupAggregationKernel {
+    private final ${type.stateType} groupState;
+
+    public ${className}(${type.stateType} groupState) {
+        this.groupState = groupState;
+    }
+
+    @Override
+    public boolean supports(Block block) {
+        return block instanceof ${type.inputVectorType};
+    }
+
+    @Override
+    public void accumulate(Block block, int[] groupIds, int[] selection, int positionCount) {
+        ${type.inputVectorType} inputBlock = (${type.inputVectorType}) block;
+        ${type.inputType}[] values = inputBlock.${type.inputType}Array();
+        boolean[] nulls = inputBlock.nulls();
+        int offset = inputBlock.getArrayOffset();
+
+        if (selection != null) {
+            if (nulls != null) {
+                for (int i = 0; i < positionCount; i++) {
+                    int j = selection[i];
+                    if (!nulls[j + offset]) {
+                        update(groupIds[j], values[j + offset]);
+                    }
+                }
+            } else {
+                for (int i = 0; i < positionCount; i++) {
+                    int j = selection[i];
+                    update(groupIds[j], values[j + offset]);
+                }
+            }
+        } else {
+            if (nulls != null) {
+                for (int i = 0; i < positionCount; i++) {
+                    if (!nulls[i + offset]) {
+                        update(groupIds[i], values[i + offset]);
+                    }
+                }
+            } else {
+                for (int i = 0; i < positionCount; i++) {
+                    update(groupIds[i], values[i + offset]);
+                }
+            }
+        }
+    }
+
+    private void update(int groupId, ${type.inputType} value) {
+    <#if type.nullableState>
+        if (groupState.isNull(groupId)) {
+            groupState.set(groupId, value);
+        } else {
+            groupState.set(groupId, groupState.get(groupId) + value);
+        }
+    <#else>
+        groupState.set(groupId, groupState.get(groupId) + value);
+    </#if>
+    }
+}
+
+</#list>
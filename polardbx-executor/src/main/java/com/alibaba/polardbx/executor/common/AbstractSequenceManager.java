@@ -87,6 +87,11 @@ public abstract class AbstractSequenceManager extends AbstractLifecycle implemen
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public long[] getGroupSeqRefillStats(String schemaName, String seqName) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public boolean isCustomUnitGroupSeqSupported(String schemaName) {
         throw new UnsupportedOperationException();
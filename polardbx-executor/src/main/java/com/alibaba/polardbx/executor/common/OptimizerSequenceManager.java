@@ -105,6 +105,12 @@ public class OptimizerSequenceManager extends AbstractLifecycle implements ISequ
             .getMinValueFromCurrentSeqRange(schemaName, seqName);
     }
 
+    @Override
+    public long[] getGroupSeqRefillStats(String schemaName, String seqName) {
+        return ExecutorContext.getContext(schemaName).getSequenceManager()
+            .getGroupSeqRefillStats(schemaName, seqName);
+    }
+
     @Override
     public boolean isCustomUnitGroupSeqSupported(String schemaName) {
         return ExecutorContext.getContext(schemaName).getSequenceManager().isCustomUnitGroupSeqSupported(schemaName);
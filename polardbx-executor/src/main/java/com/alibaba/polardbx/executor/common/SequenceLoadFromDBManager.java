@@ -130,6 +130,8 @@ public class SequenceLoadFromDBManager extends AbstractSequenceManager {
 
     private long checkInterval = GROUP_SEQ_UPDATE_INTERVAL;
 
+    private int prefetchWatermark = GroupSequence.DEFAULT_PREFETCH_WATERMARK;
+
     public SequenceLoadFromDBManager(String appName, String schemaName, String unitName, TddlRuleManager rule,
                                      Map<String, Object> connectionProperties) {
         this.appName = appName;
@@ -143,6 +145,12 @@ public class SequenceLoadFromDBManager extends AbstractSequenceManager {
             this.step = DEFAULT_INNER_STEP;
         }
 
+        this.prefetchWatermark = (int) GeneralUtil.getPropertyLong(connectionProperties,
+            ConnectionProperties.GROUP_SEQ_PREFETCH_WATERMARK, GroupSequence.DEFAULT_PREFETCH_WATERMARK);
+        if (this.prefetchWatermark < 0 || this.prefetchWatermark > 100) {
+            this.prefetchWatermark = GroupSequence.DEFAULT_PREFETCH_WATERMARK;
+        }
+
         if (ConfigDataMode.isMasterMode()) {
             checkInterval = GeneralUtil.getPropertyLong(connectionProperties,
                 ConnectionProperties.GROUP_SEQ_CHECK_INTERVAL,
@@ -371,6 +379,19 @@ public class SequenceLoadFromDBManager extends AbstractSequenceManager {
         return DEFAULT_INNER_STEP;
     }
 
+    @Override
+    public long[] getGroupSeqRefillStats(String schemaName, String seqName) {
+        if (cache == null) {
+            return null;
+        }
+        // Only look at the loaded sequences, don't build one just for statistics.
+        Sequence seq = cache.getIfPresent(new StringIgnoreCase(seqName));
+        if (seq instanceof GroupSequence) {
+            return ((GroupSequence) seq).getRefillStats();
+        }
+        return null;
+    }
+
     @Override
     public boolean isCustomUnitGroupSeqSupported(String schemaName) {
         return customUnitGroupSeqSupported;
@@ -559,6 +580,7 @@ public class SequenceLoadFromDBManager extends AbstractSequenceManager {
         try {
             seq.setName(name);
             seq.setSequenceDao(groupSeqDao);
+            seq.setPrefetchWatermark(prefetchWatermark);
             if (ConfigDataMode.isSlaveMode()) {
                 // DO NOT initialize to avoid write operations
                 // in Read-Only instance.
@@ -281,6 +281,12 @@ public class SequenceManager extends AbstractSequenceManager {
         return subManager.getMinValueFromCurrentSeqRange(schemaName, seqName);
     }
 
+    @Override
+    public long[] getGroupSeqRefillStats(String schemaName, String seqName) {
+        checkSubManager();
+        return subManager.getGroupSeqRefillStats(schemaName, seqName);
+    }
+
     @Override
     public boolean isCustomUnitGroupSeqSupported(String schemaName) {
         checkSubManager();
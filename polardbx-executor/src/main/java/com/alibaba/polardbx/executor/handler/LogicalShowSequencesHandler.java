@@ -18,6 +18,7 @@ package com.alibaba.polardbx.executor.handler;
 
 import com.alibaba.polardbx.common.exception.TddlRuntimeException;
 import com.alibaba.polardbx.common.exception.code.ErrorCode;
+import com.alibaba.polardbx.executor.common.ExecutorContext;
 import com.alibaba.polardbx.executor.cursor.Cursor;
 import com.alibaba.polardbx.executor.cursor.impl.ArrayResultCursor;
 import com.alibaba.polardbx.executor.spi.IRepository;
@@ -36,6 +37,8 @@ import java.sql.SQLException;
 import java.util.List;
 import java.util.Set;
 
+import static com.alibaba.polardbx.common.constants.SequenceAttribute.STR_NA;
+
 /**
  * @author chenmo.cm
  */
@@ -58,8 +61,13 @@ public class LogicalShowSequencesHandler extends HandlerCommon {
             Set<String> schemaNames = OptimizerContext.getActiveSchemaNames();
             for (String schema : schemaNames) {
                 List<SequencesRecord> sequences = sequencesAccessor.show(schema);
+                ExecutorContext executorContext = ExecutorContext.getContext(schema);
                 for (SequencesRecord seq : sequences) {
-                    resultCursor.addRow(buildRow(seq));
+                    long[] refillStats = null;
+                    if (executorContext != null && executorContext.getSequenceManager() != null) {
+                        refillStats = executorContext.getSequenceManager().getGroupSeqRefillStats(schema, seq.name);
+                    }
+                    resultCursor.addRow(buildRow(seq, refillStats));
                 }
 
             }
@@ -82,13 +90,31 @@ public class LogicalShowSequencesHandler extends HandlerCommon {
         resultCursor.addColumn("MAX_VALUE", DataTypes.StringType);
         resultCursor.addColumn("CYCLE", DataTypes.StringType);
         resultCursor.addColumn("TYPE", DataTypes.StringType);
+        resultCursor.addColumn("REFILL_COUNT", DataTypes.StringType);
+        resultCursor.addColumn("AVG_REFILL_MS", DataTypes.StringType);
+        resultCursor.addColumn("STALL_COUNT", DataTypes.StringType);
+        resultCursor.addColumn("STALL_MS", DataTypes.StringType);
         return resultCursor;
     }
 
-    private Object[] buildRow(SequencesRecord seq) {
+    /**
+     * refillStats: refill count, total refill time (ns), stall count, total stall time (ns) of the
+     * group sequence cached on this node, null if not available.
+     */
+    private Object[] buildRow(SequencesRecord seq, long[] refillStats) {
+        String refillCount = STR_NA;
+        String avgRefillMs = STR_NA;
+        String stallCount = STR_NA;
+        String stallMs = STR_NA;
+        if (refillStats != null) {
+            refillCount = String.valueOf(refillStats[0]);
+            avgRefillMs = refillStats[0] > 0 ? String.format("%.3f", refillStats[1] / 1e6 / refillStats[0]) : "0";
+            stallCount = String.valueOf(refillStats[2]);
+            stallMs = String.format("%.3f", refillStats[3] / 1e6);
+        }
         return new Object[] {
             seq.schemaName, seq.name, seq.value, seq.unitCount, seq.unitIndex, seq.innerStep, seq.incrementBy,
-            seq.startWith, seq.maxValue, seq.cycle, seq.type};
+            seq.startWith, seq.maxValue, seq.cycle, seq.type, refillCount, avgRefillMs, stallCount, stallMs};
     }
 
 }
@@ -70,12 +70,20 @@ public class InformationSchemaPlanCacheCapacityHandler extends BaseVirtualViewSu
                     final String host = DataTypes.StringType.convertFrom(row.get("COMPUTE_NODE"));
                     final String cacheKeyCount = DataTypes.StringType.convertFrom(row.get("CACHE_KEY_CNT"));
                     final Long capacity = DataTypes.LongType.convertFrom(row.get("CAPACITY"));
+                    final Long hitCount = DataTypes.LongType.convertFrom(row.get("HIT_COUNT"));
+                    final Long missCount = DataTypes.LongType.convertFrom(row.get("MISS_COUNT"));
+                    final Long evictionCount = DataTypes.LongType.convertFrom(row.get("EVICTION_COUNT"));
+                    final Long savedTime = DataTypes.LongType.convertFrom(row.get("SAVED_TIME_US"));
 
                     cursor.addRow(new Object[] {
                         host,
                         schemaName,
                         cacheKeyCount,
-                        capacity
+                        capacity,
+                        hitCount,
+                        missCount,
+                        evictionCount,
+                        savedTime
                     });
                 }
             }
@@ -72,6 +72,8 @@ public class InformationSchemaPlanCacheHandler extends BaseVirtualViewSubClassHa
                     final Long hitCount = DataTypes.LongType.convertFrom(row.get("HIT_COUNT"));
                     final String sql = DataTypes.StringType.convertFrom(row.get("SQL"));
                     final String plan = DataTypes.StringType.convertFrom(row.get("PLAN"));
+                    final Long planningTime = DataTypes.LongType.convertFrom(row.get("PLANNING_TIME_US"));
+                    final Long savedTime = DataTypes.LongType.convertFrom(row.get("SAVED_TIME_US"));
 
                     cursor.addRow(new Object[] {
                         host,
@@ -80,7 +82,9 @@ public class InformationSchemaPlanCacheHandler extends BaseVirtualViewSubClassHa
                         id,
                         hitCount,
                         sql,
-                        plan
+                        plan,
+                        planningTime,
+                        savedTime
                     });
                 }
             }
@@ -0,0 +1,287 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.mpp.execution;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Multilevel feedback queue of the ap splits.
+ * <p>
+ * A split is placed at a level by the time it has already been scheduled, so long running splits sink to
+ * the lower priority levels. Each level is entitled to {@link #LEVEL_TIME_MULTIPLIER} times the scheduled time
+ * of the next level, and the level furthest behind its share is served first, so short splits keep a low
+ * latency while the long ones still make progress. Inside a level the queries are served round robin, so a
+ * query that floods the executor with splits can not starve the others.
+ * <p>
+ * Every level is guarded by its own lock, the runners only contend when they pick the same level.
+ */
+@ThreadSafe
+public class MultilevelSplitQueue<T extends MultilevelSplitQueue.Prioritized> {
+
+    /**
+     * Scheduled time (ms) from which a split belongs to the level
+     */
+    static final long[] LEVEL_THRESHOLD_MILLIS = {0L, 1000L, 10000L, 60000L, 300000L};
+
+    static final int LEVEL_TIME_MULTIPLIER = 2;
+
+    public interface Prioritized {
+
+        String getQueryId();
+
+        /**
+         * Time (ms) this split has been scheduled so far
+         */
+        long getScheduledMillis();
+    }
+
+    private final Level<T>[] levels;
+
+    private final Semaphore available = new Semaphore(0);
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    @SuppressWarnings("unchecked")
+    public MultilevelSplitQueue() {
+        this.levels = new Level[LEVEL_THRESHOLD_MILLIS.length];
+        long weight = 1;
+        for (int i = levels.length - 1; i >= 0; i--) {
+            levels[i] = new Level<>(weight);
+            weight *= LEVEL_TIME_MULTIPLIER;
+        }
+    }
+
+    public void put(T split) {
+        requireNonNull(split, "split is null");
+        int levelIndex = levelOf(split.getScheduledMillis());
+        Level<T> level = levels[levelIndex];
+        level.lock.lock();
+        try {
+            if (level.size.get() == 0) {
+                catchUp(levelIndex);
+            }
+            level.queries.computeIfAbsent(split.getQueryId(), k -> new ArrayDeque<>())
+                .add(new Entry<>(split, System.nanoTime()));
+            level.size.incrementAndGet();
+        } finally {
+            level.lock.unlock();
+        }
+        size.incrementAndGet();
+        available.release();
+    }
+
+    public T take() throws InterruptedException {
+        available.acquire();
+        return pollAcquired();
+    }
+
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!available.tryAcquire(timeout, unit)) {
+            return null;
+        }
+        return pollAcquired();
+    }
+
+    private T pollAcquired() {
+        // the permit guarantees a split is left for us, we may only lose the race for a level
+        while (true) {
+            int levelIndex = chooseLevel();
+            if (levelIndex >= 0) {
+                T split = levels[levelIndex].poll();
+                if (split != null) {
+                    size.decrementAndGet();
+                    return split;
+                }
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Charge the time a split has just run to the level it was taken from.
+     *
+     * @param scheduledMillisBefore scheduled time of the split before this run
+     * @param quantaMillis time of this run
+     */
+    public void recordScheduledTime(long scheduledMillisBefore, long quantaMillis) {
+        levels[levelOf(scheduledMillisBefore)].scheduledMillis.addAndGet(quantaMillis);
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public long[] getLevelScheduledMillis() {
+        long[] result = new long[levels.length];
+        for (int i = 0; i < levels.length; i++) {
+            result[i] = levels[i].scheduledMillis.get();
+        }
+        return result;
+    }
+
+    public long[] getLevelWaitNanos() {
+        long[] result = new long[levels.length];
+        for (int i = 0; i < levels.length; i++) {
+            result[i] = levels[i].waitNanos.get();
+        }
+        return result;
+    }
+
+    public long[] getLevelTakenSplits() {
+        long[] result = new long[levels.length];
+        for (int i = 0; i < levels.length; i++) {
+            result[i] = levels[i].taken.get();
+        }
+        return result;
+    }
+
+    static int levelOf(long scheduledMillis) {
+        for (int i = LEVEL_THRESHOLD_MILLIS.length - 1; i > 0; i--) {
+            if (scheduledMillis >= LEVEL_THRESHOLD_MILLIS[i]) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * The non-empty level which consumed the least of its share, or -1 if all levels are empty
+     */
+    private int chooseLevel() {
+        int chosen = -1;
+        double chosenUsage = Double.MAX_VALUE;
+        for (int i = 0; i < levels.length; i++) {
+            Level<T> level = levels[i];
+            if (level.size.get() == 0) {
+                continue;
+            }
+            double usage = (double) level.scheduledMillis.get() / level.weight;
+            if (usage < chosenUsage) {
+                chosen = i;
+                chosenUsage = usage;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * A level which has been idle would otherwise take over the runners until it caught up with the time
+     * the busy levels consumed meanwhile, so start it from the usage of the busy ones instead.
+     */
+    private void catchUp(int levelIndex) {
+        double minUsage = Double.MAX_VALUE;
+        for (int i = 0; i < levels.length; i++) {
+            if (i != levelIndex && levels[i].size.get() > 0) {
+                minUsage = Math.min(minUsage, (double) levels[i].scheduledMillis.get() / levels[i].weight);
+            }
+        }
+        if (minUsage == Double.MAX_VALUE) {
+            return;
+        }
+        Level<T> level = levels[levelIndex];
+        long expected = (long) (minUsage * level.weight);
+        long current;
+        while ((current = level.scheduledMillis.get()) < expected) {
+            if (level.scheduledMillis.compareAndSet(current, expected)) {
+                break;
+            }
+        }
+    }
+
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < levels.length; i++) {
+            Level<T> level = levels[i];
+            long taken = level.taken.get();
+            sb.append(" level ").append(i)
+                .append(" [pending: ").append(level.size.get())
+                .append(", scheduled ms: ").append(level.scheduledMillis.get())
+                .append(", taken: ").append(taken)
+                .append(", avg wait us: ")
+                .append(taken == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(level.waitNanos.get() / taken))
+                .append(']');
+        }
+        return sb.toString();
+    }
+
+    private static final class Entry<T> {
+        private final T split;
+        private final long enqueueNanos;
+
+        private Entry(T split, long enqueueNanos) {
+            this.split = split;
+            this.enqueueNanos = enqueueNanos;
+        }
+    }
+
+    private static final class Level<T extends Prioritized> {
+        private final long weight;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * Pending splits of each query, in round robin order
+         */
+        @GuardedBy("lock")
+        private final LinkedHashMap<String, ArrayDeque<Entry<T>>> queries = new LinkedHashMap<>();
+
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicLong scheduledMillis = new AtomicLong();
+        private final AtomicLong waitNanos = new AtomicLong();
+        private final AtomicLong taken = new AtomicLong();
+
+        private Level(long weight) {
+            this.weight = weight;
+        }
+
+        private T poll() {
+            Entry<T> entry;
+            lock.lock();
+            try {
+                Iterator<Map.Entry<String, ArrayDeque<Entry<T>>>> it = queries.entrySet().iterator();
+                if (!it.hasNext()) {
+                    return null;
+                }
+                Map.Entry<String, ArrayDeque<Entry<T>>> head = it.next();
+                ArrayDeque<Entry<T>> splits = head.getValue();
+                entry = splits.poll();
+                it.remove();
+                if (!splits.isEmpty()) {
+                    // move the query to the tail
+                    queries.put(head.getKey(), splits);
+                }
+                size.decrementAndGet();
+            } finally {
+                lock.unlock();
+            }
+            waitNanos.addAndGet(System.nanoTime() - entry.enqueueNanos);
+            taken.incrementAndGet();
+            return entry.split;
+        }
+    }
+}
@@ -83,9 +83,9 @@ public class TaskExecutor {
     protected final BlockingQueue<PrioritizedSplitRunner> highPendingSplits;
 
     /**
-     * Splits waiting for ap runner thread.
+     * Splits waiting for ap runner thread, demoted by the time they have been scheduled.
      */
-    protected final BlockingQueue<PrioritizedSplitRunner> lowPendingSplits;
+    protected final MultilevelSplitQueue<PrioritizedSplitRunner> lowPendingSplits;
 
     /**
      * Splits blocked by the driver (typically output buffer is full or input buffer is empty).
@@ -128,7 +128,7 @@ public class TaskExecutor {
             new NamedThreadFactory("blockedSplits-processor", true));
 
         this.highPendingSplits = new LinkedBlockingQueue<>();
-        this.lowPendingSplits = new LinkedBlockingQueue<>();
+        this.lowPendingSplits = new MultilevelSplitQueue<>();
     }
 
     @PostConstruct
@@ -315,7 +315,7 @@ public class TaskExecutor {
     }
 
     private static class PrioritizedSplitRunner
-        implements Comparable<PrioritizedSplitRunner> {
+        implements Comparable<PrioritizedSplitRunner>, MultilevelSplitQueue.Prioritized {
 
         private static final AtomicLongFieldUpdater<PrioritizedSplitRunner> cpuTimeUpdater =
             AtomicLongFieldUpdater.newUpdater(PrioritizedSplitRunner.class, "cpuTimeLong");
@@ -352,6 +352,16 @@ public class TaskExecutor {
             return spiltCostUpdater.get(this);
         }
 
+        @Override
+        public String getQueryId() {
+            return taskHandle.getTaskId().getQueryId();
+        }
+
+        @Override
+        public long getScheduledMillis() {
+            return getSplitCost();
+        }
+
         public void spiltCostAdd(long cost) {
             spiltCostUpdater.getAndAdd(this, cost);
         }
@@ -471,6 +481,7 @@ public class TaskExecutor {
                     if (log.isInfoEnabled()) {
                         PriorityExecutorInfo lowPriorityExecutorInfo = getLowPriorityInfo();
                         logPriorityExecutorInfo(lowPriorityExecutorInfo, lastLowRunnerProcessCount);
+                        log.info(" [Task executor - LowTaskExecutor ] levels:" + lowPendingSplits.report());
                         lastLowRunnerProcessCount = lowPriorityExecutorInfo.getRunnerProcessCount();
                         PriorityExecutorInfo highPriorityExecutorInfo = getHighPriorityInfo();
                         logPriorityExecutorInfo(highPriorityExecutorInfo, lastHighRunnerProcessCount);
@@ -548,6 +559,7 @@ public class TaskExecutor {
                             long cost = System.currentTimeMillis() - start;
                             try {
                                 split.spiltCostAdd(cost);
+                                lowPendingSplits.recordScheduledTime(split.getSplitCost() - cost, cost);
                             } catch (Exception e) {
                                 log.error("error", e);
                             }
@@ -0,0 +1,134 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.mpp.execution.buffer;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Picks the chunk codec of one exchange from measured compression ratio and CPU cost.
+ * <p>
+ * Every candidate codec is tried on a few chunks, then the one with the lowest estimated
+ * cost per raw byte is used for the next {@link #RESAMPLE_INTERVAL} chunks before sampling
+ * again, so the choice follows the data as it changes.
+ * The cost of a codec is {@code ratio + cpuNanosPerByte / networkNanosPerByte}, the cost of
+ * sending uncompressed data being 1.
+ */
+@NotThreadSafe
+public class ChunkCodecSampler {
+
+    static final int SAMPLES_PER_CODEC = 2;
+    static final int RESAMPLE_INTERVAL = 512;
+
+    public static final double DEFAULT_NETWORK_NANOS_PER_BYTE = 4.0;
+
+    private final ChunkCompression[] candidates;
+    private final double networkNanosPerByte;
+
+    private final long[] rawBytes;
+    private final long[] encodedBytes;
+    private final long[] cpuNanos;
+
+    private int sampled;
+    private int sinceChosen;
+    private ChunkCompression chosen = ChunkCompression.UNCOMPRESSED;
+
+    public ChunkCodecSampler(List<ChunkCompression> candidates, double networkNanosPerByte) {
+        checkArgument(!candidates.isEmpty(), "no candidate codec");
+        checkArgument(networkNanosPerByte > 0, "networkNanosPerByte must be positive");
+        this.candidates = candidates.toArray(new ChunkCompression[0]);
+        this.networkNanosPerByte = networkNanosPerByte;
+        this.rawBytes = new long[this.candidates.length];
+        this.encodedBytes = new long[this.candidates.length];
+        this.cpuNanos = new long[this.candidates.length];
+    }
+
+    /**
+     * The codec to encode the next chunk with
+     */
+    public ChunkCompression next() {
+        if (!isSampling() && ++sinceChosen > RESAMPLE_INTERVAL) {
+            reset();
+        }
+        if (isSampling()) {
+            return candidates[sampled % candidates.length];
+        }
+        return chosen;
+    }
+
+    /**
+     * Feed back the outcome of encoding a chunk with the codec returned by {@link #next()}
+     */
+    public void record(ChunkCompression codec, int rawSize, int encodedSize, long nanos) {
+        if (!isSampling()) {
+            return;
+        }
+        int index = sampled % candidates.length;
+        if (candidates[index] != codec) {
+            return;
+        }
+        rawBytes[index] += rawSize;
+        // an encoding larger than the raw page is never sent
+        encodedBytes[index] += Math.min(rawSize, encodedSize);
+        cpuNanos[index] += nanos;
+        if (++sampled == candidates.length * SAMPLES_PER_CODEC) {
+            choose();
+        }
+    }
+
+    public ChunkCompression getChosen() {
+        return chosen;
+    }
+
+    /**
+     * Whether the chunk of the last {@link #next()} is a sample, only samples need to be measured
+     */
+    public boolean isSampling() {
+        return sampled < candidates.length * SAMPLES_PER_CODEC;
+    }
+
+    private void choose() {
+        ChunkCompression best = ChunkCompression.UNCOMPRESSED;
+        double bestCost = 1.0;
+        for (int i = 0; i < candidates.length; i++) {
+            if (rawBytes[i] == 0) {
+                continue;
+            }
+            double ratio = (double) encodedBytes[i] / rawBytes[i];
+            double cpu = (double) cpuNanos[i] / rawBytes[i];
+            double cost = ratio + cpu / networkNanosPerByte;
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = candidates[i];
+            }
+        }
+        chosen = best;
+        sinceChosen = 0;
+    }
+
+    private void reset() {
+        sampled = 0;
+        sinceChosen = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            rawBytes[i] = 0;
+            encodedBytes[i] = 0;
+            cpuNanos[i] = 0;
+        }
+    }
+}
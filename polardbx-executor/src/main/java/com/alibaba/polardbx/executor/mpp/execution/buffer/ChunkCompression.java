@@ -21,23 +21,51 @@ import com.alibaba.polardbx.common.exception.code.ErrorCode;
 
 public enum ChunkCompression {
 
-    UNCOMPRESSED((byte) 0),
-    COMPRESSED((byte) 1);
+    UNCOMPRESSED((byte) 0, false),
+    /**
+     * LZ4 compressed raw page
+     */
+    COMPRESSED((byte) 1, true),
+    /**
+     * Snappy compressed raw page
+     */
+    SNAPPY((byte) 2, true),
+    /**
+     * Raw page with lightweight (RLE / dictionary / bit packing) integer and long blocks
+     */
+    ENCODED((byte) 3, false);
+
+    private static final ChunkCompression[] BY_MARKER = new ChunkCompression[values().length];
+
+    static {
+        for (ChunkCompression compression : values()) {
+            BY_MARKER[compression.marker] = compression;
+        }
+    }
 
     private final byte marker;
+    private final boolean compressed;
 
-    ChunkCompression(byte marker) {
+    ChunkCompression(byte marker, boolean compressed) {
         this.marker = marker;
+        this.compressed = compressed;
     }
 
     public byte getMarker() {
         return marker;
     }
 
+    /**
+     * Whether the slice is the output of a general purpose compressor and must be decompressed before reading
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+
     public static ChunkCompression lookupCodecFromMarker(byte marker) {
-        if (marker != UNCOMPRESSED.getMarker() && marker != COMPRESSED.getMarker()) {
+        if (marker < 0 || marker >= BY_MARKER.length) {
             throw new TddlRuntimeException(ErrorCode.ERR_CORRUPT_PAGE, "Page marker did not contain expected value");
         }
-        return UNCOMPRESSED.getMarker() == marker ? UNCOMPRESSED : COMPRESSED;
+        return BY_MARKER[marker];
     }
 }
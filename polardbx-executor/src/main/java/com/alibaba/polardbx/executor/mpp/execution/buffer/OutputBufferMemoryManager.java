@@ -36,7 +36,7 @@ public class OutputBufferMemoryManager {
     protected final AtomicLong bufferedBytes = new AtomicLong();
 
     @GuardedBy("this")
-    protected SettableFuture<?> notFull;
+    protected volatile SettableFuture<?> notFull;
 
     protected final AtomicBoolean blockOnFull = new AtomicBoolean(true);
 
@@ -54,13 +54,23 @@ public class OutputBufferMemoryManager {
         notFull.set(null);
     }
 
-    public synchronized void updateMemoryUsage(long bytesAdded) {
+    /**
+     * Called by every producer for every chunk, so only take the monitor when a blocked writer may have to be woken.
+     * The listeners are thread safe by themselves.
+     */
+    public void updateMemoryUsage(long bytesAdded) {
         try {
             systemMemoryUsageListener.updateSystemMemoryUsage(bytesAdded);
             bufferedBytes.addAndGet(bytesAdded);
         } catch (MemoryNotEnoughException e) {
             throw e;
         }
+        if (!isFull() && !notFull.isDone()) {
+            notifyNotFull();
+        }
+    }
+
+    private synchronized void notifyNotFull() {
         if (!isFull() && !notFull.isDone()) {
             // Complete future in a new thread to avoid making a callback on the caller thread.
             // This make is easier for callers to use this class since they can update the memory
@@ -70,9 +80,22 @@ public class OutputBufferMemoryManager {
         }
     }
 
-    public synchronized ListenableFuture<?> getNotFullFuture() {
+    public ListenableFuture<?> getNotFullFuture() {
+        SettableFuture<?> future = notFull;
+        if (!future.isDone() || !isFull()) {
+            return future;
+        }
+        return newNotFullFuture();
+    }
+
+    private synchronized ListenableFuture<?> newNotFullFuture() {
         if (isFull() && notFull.isDone()) {
-            notFull = SettableFuture.create();
+            SettableFuture<?> future = SettableFuture.create();
+            notFull = future;
+            // the memory may be released before the new future is visible to the releaser
+            if (!isFull()) {
+                future.set(null);
+            }
         }
         return notFull;
     }
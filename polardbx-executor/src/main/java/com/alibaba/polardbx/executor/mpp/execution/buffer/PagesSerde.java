@@ -22,17 +22,23 @@ import com.alibaba.polardbx.optimizer.chunk.Chunk;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 import io.airlift.compress.Compressor;
 import io.airlift.compress.Decompressor;
+import io.airlift.compress.lz4.Lz4Compressor;
+import io.airlift.compress.lz4.Lz4Decompressor;
+import io.airlift.compress.snappy.SnappyCompressor;
+import io.airlift.compress.snappy.SnappyDecompressor;
 import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.slice.SliceOutput;
 import io.airlift.slice.Slices;
 
 import javax.annotation.concurrent.NotThreadSafe;
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
-import static io.airlift.compress.lz4.Lz4RawCompressor.maxCompressedLength;
 import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
 
@@ -40,18 +46,50 @@ import static java.util.Objects.requireNonNull;
 public class PagesSerde {
     private static final double MINIMUM_COMPRESSION_RATIO = 0.8;
 
-    private final Optional<Compressor> compressor;
-    private final Optional<Decompressor> decompressor;
+    private final Map<ChunkCompression, Compressor> compressors = new EnumMap<>(ChunkCompression.class);
+    private final Map<ChunkCompression, Decompressor> decompressors = new EnumMap<>(ChunkCompression.class);
     private final List<BlockEncoding> blockEncodings;
+    private final List<BlockEncoding> lightweightEncodings;
+
+    /**
+     * Fixed codec used when there is no sampler
+     */
+    private final ChunkCompression codec;
+    private final ChunkCodecSampler sampler;
+
+    /**
+     * Compression output, reused across chunks, only the compressed bytes are copied out
+     */
+    private byte[] compressionBuffer = new byte[0];
 
     public PagesSerde(Optional<Compressor> compressor,
                       Optional<Decompressor> decompressor,
                       List<DataType> types) {
-        this.compressor = requireNonNull(compressor, "compressor is null");
-        this.decompressor = requireNonNull(decompressor, "decompressor is null");
-        this.blockEncodings = BlockEncodingBuilders.create(types);
+        requireNonNull(compressor, "compressor is null");
+        requireNonNull(decompressor, "decompressor is null");
         checkArgument(compressor.isPresent() == decompressor.isPresent(),
             "compressor and decompressor must both be present or both be absent");
+        this.blockEncodings = BlockEncodingBuilders.create(types);
+        this.lightweightEncodings = BlockEncodingBuilders.create(types, true);
+        if (compressor.isPresent()) {
+            this.codec = ChunkCompression.COMPRESSED;
+            compressors.put(ChunkCompression.COMPRESSED, compressor.get());
+            decompressors.put(ChunkCompression.COMPRESSED, decompressor.get());
+        } else {
+            this.codec = ChunkCompression.UNCOMPRESSED;
+        }
+        this.sampler = null;
+    }
+
+    /**
+     * @param codec fixed codec to encode with, ignored when sampler is present
+     * @param sampler picks the codec per chunk from the measured ratio and cpu cost
+     */
+    public PagesSerde(ChunkCompression codec, Optional<ChunkCodecSampler> sampler, List<DataType> types) {
+        this.codec = requireNonNull(codec, "codec is null");
+        this.sampler = requireNonNull(sampler, "sampler is null").orElse(null);
+        this.blockEncodings = BlockEncodingBuilders.create(types);
+        this.lightweightEncodings = BlockEncodingBuilders.create(types, true);
     }
 
     public SerializedChunk serialize(boolean localChunk, Chunk page) {
@@ -63,32 +101,66 @@ public class PagesSerde {
     }
 
     private SerializedChunk serializeForce(Chunk page) {
-        SliceOutput serializationBuffer =
-            new DynamicSliceOutput(toIntExact((page.getSizeInBytes() + Integer.BYTES))); // block
-        // length is an int
-        PagesSerdeUtil.writeRawPage(page, serializationBuffer, blockEncodings);
-
-        if (!compressor.isPresent()) {
-            return new SerializedChunk(serializationBuffer.slice(), ChunkCompression.UNCOMPRESSED,
-                page.getPositionCount(), serializationBuffer.size());
+        ChunkCompression codec = sampler != null ? sampler.next() : this.codec;
+        // the raw size is only needed to measure a sample
+        boolean sampling = sampler != null && sampler.isSampling();
+        if (codec == ChunkCompression.ENCODED) {
+            long start = System.nanoTime();
+            SliceOutput encodedBuffer = writeRawPage(page, lightweightEncodings);
+            long nanos = System.nanoTime() - start;
+            SliceOutput serializationBuffer = sampling ? writeRawPage(page, blockEncodings) : null;
+            if (sampling) {
+                sampler.record(codec, serializationBuffer.size(), encodedBuffer.size(), nanos);
+            }
+            if (serializationBuffer != null && encodedBuffer.size() >= serializationBuffer.size()) {
+                return uncompressed(page, serializationBuffer);
+            }
+            return new SerializedChunk(encodedBuffer.slice(), ChunkCompression.ENCODED,
+                page.getPositionCount(), encodedBuffer.size());
+        }
+
+        SliceOutput serializationBuffer = writeRawPage(page, blockEncodings);
+        if (!codec.isCompressed()) {
+            return uncompressed(page, serializationBuffer);
         }
 
-        int maxCompressedLength = maxCompressedLength(serializationBuffer.size());
-        byte[] compressionBuffer = new byte[maxCompressedLength];
-        int actualCompressedLength = compressor.get()
-            .compress(serializationBuffer.slice().getBytes(), 0, serializationBuffer.size(), compressionBuffer, 0,
+        Compressor compressor = compressor(codec);
+        int uncompressedSize = serializationBuffer.size();
+        int maxCompressedLength = compressor.maxCompressedLength(uncompressedSize);
+        if (compressionBuffer.length < maxCompressedLength) {
+            compressionBuffer = new byte[maxCompressedLength];
+        }
+        // the serialization buffer is backed by a heap array, compress from it directly
+        ByteBuffer raw = serializationBuffer.slice().toByteBuffer();
+        long start = System.nanoTime();
+        int actualCompressedLength = compressor
+            .compress(raw.array(), raw.arrayOffset() + raw.position(), uncompressedSize, compressionBuffer, 0,
                 maxCompressedLength);
+        if (sampling) {
+            sampler.record(codec, uncompressedSize, actualCompressedLength, System.nanoTime() - start);
+        }
 
-        if (((1.0 * actualCompressedLength) / serializationBuffer.size()) > MINIMUM_COMPRESSION_RATIO) {
-            return new SerializedChunk(serializationBuffer.slice(), ChunkCompression.UNCOMPRESSED,
-                page.getPositionCount(), serializationBuffer.size());
+        if (((1.0 * actualCompressedLength) / uncompressedSize) > MINIMUM_COMPRESSION_RATIO) {
+            return uncompressed(page, serializationBuffer);
         }
 
         return new SerializedChunk(
             Slices.copyOf(Slices.wrappedBuffer(compressionBuffer, 0, actualCompressedLength)),
-            ChunkCompression.COMPRESSED,
+            codec,
             page.getPositionCount(),
-            serializationBuffer.size());
+            uncompressedSize);
+    }
+
+    private static SliceOutput writeRawPage(Chunk page, List<BlockEncoding> encodings) {
+        // block length is an int
+        SliceOutput serializationBuffer = new DynamicSliceOutput(toIntExact((page.getSizeInBytes() + Integer.BYTES)));
+        PagesSerdeUtil.writeRawPage(page, serializationBuffer, encodings);
+        return serializationBuffer;
+    }
+
+    private static SerializedChunk uncompressed(Chunk page, SliceOutput serializationBuffer) {
+        return new SerializedChunk(serializationBuffer.slice(), ChunkCompression.UNCOMPRESSED,
+            page.getPositionCount(), serializationBuffer.size());
     }
 
     public Chunk deserialize(SerializedChunk serializedChunk) {
@@ -98,14 +170,19 @@ public class PagesSerde {
             return serializedChunk.getPage();
         }
 
-        if (!decompressor.isPresent() || serializedChunk.getCompression() == ChunkCompression.UNCOMPRESSED) {
+        ChunkCompression compression = serializedChunk.getCompression();
+        if (compression == ChunkCompression.ENCODED) {
+            return PagesSerdeUtil.readRawPage(serializedChunk.getPositionCount(), serializedChunk.getSlice().getInput(),
+                lightweightEncodings);
+        }
+        if (!compression.isCompressed()) {
             return PagesSerdeUtil.readRawPage(serializedChunk.getPositionCount(), serializedChunk.getSlice().getInput(),
                 blockEncodings);
         }
 
         int uncompressedSize = serializedChunk.getUncompressedSizeInBytes();
         byte[] decompressed = new byte[uncompressedSize];
-        int actualUncompressedSize = decompressor.get()
+        int actualUncompressedSize = decompressor(compression)
             .decompress(serializedChunk.getSlice().getBytes(), 0, serializedChunk.getSlice().length(), decompressed, 0,
                 uncompressedSize);
         checkState(uncompressedSize == actualUncompressedSize);
@@ -113,4 +190,22 @@ public class PagesSerde {
         return PagesSerdeUtil.readRawPage(serializedChunk.getPositionCount(), Slices
             .wrappedBuffer(decompressed, 0, uncompressedSize).getInput(), blockEncodings);
     }
+
+    private Compressor compressor(ChunkCompression codec) {
+        Compressor compressor = compressors.get(codec);
+        if (compressor == null) {
+            compressor = codec == ChunkCompression.SNAPPY ? new SnappyCompressor() : new Lz4Compressor();
+            compressors.put(codec, compressor);
+        }
+        return compressor;
+    }
+
+    private Decompressor decompressor(ChunkCompression codec) {
+        Decompressor decompressor = decompressors.get(codec);
+        if (decompressor == null) {
+            decompressor = codec == ChunkCompression.SNAPPY ? new SnappyDecompressor() : new Lz4Decompressor();
+            decompressors.put(codec, decompressor);
+        }
+        return decompressor;
+    }
 }
@@ -16,7 +16,9 @@
 
 package com.alibaba.polardbx.executor.mpp.execution.buffer;
 
+import com.alibaba.polardbx.common.properties.MppConfig;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.google.common.collect.ImmutableList;
 import io.airlift.compress.lz4.Lz4Compressor;
 import io.airlift.compress.lz4.Lz4Decompressor;
 
@@ -25,17 +27,68 @@ import java.util.Optional;
 
 public class PagesSerdeFactory {
 
-    private final boolean compressionEnabled;
+    /**
+     * Codec of the exchange: NONE, LZ4, SNAPPY, ENCODED or ADAPTIVE
+     */
+    public enum CompressionMode {
+        NONE, LZ4, SNAPPY, ENCODED, ADAPTIVE;
+
+        public static CompressionMode of(String mode) {
+            if (mode == null || mode.isEmpty()) {
+                return NONE;
+            }
+            try {
+                return valueOf(mode.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return NONE;
+            }
+        }
+    }
+
+    private final CompressionMode mode;
 
     public PagesSerdeFactory(boolean compressionEnabled) {
-        this.compressionEnabled = compressionEnabled;
+        this.mode = compressionEnabled ? CompressionMode.LZ4 : CompressionMode.NONE;
+    }
+
+    public PagesSerdeFactory(CompressionMode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Serde of a spill file, the codec is read on every call so MPP_SPILL_COMPRESSION_MODE applies to new spillers
+     */
+    public static PagesSerde createSpillPagesSerde(List<DataType> types) {
+        return new PagesSerdeFactory(CompressionMode.of(MppConfig.getInstance().getSpillCompressionMode()))
+            .createPagesSerde(types);
     }
 
     public PagesSerde createPagesSerde(List<DataType> types) {
-        if (compressionEnabled) {
+        switch (mode) {
+        case LZ4:
             return new PagesSerde(Optional.of(new Lz4Compressor()), Optional.of(new Lz4Decompressor()), types);
-        } else {
+        case SNAPPY:
+            return new PagesSerde(ChunkCompression.SNAPPY, Optional.empty(), types);
+        case ENCODED:
+            return new PagesSerde(ChunkCompression.ENCODED, Optional.empty(), types);
+        case ADAPTIVE:
+            return new PagesSerde(ChunkCompression.UNCOMPRESSED, Optional.of(createSampler(types)), types);
+        default:
             return new PagesSerde(Optional.empty(), Optional.empty(), types);
         }
     }
+
+    private static ChunkCodecSampler createSampler(List<DataType> types) {
+        ImmutableList.Builder<ChunkCompression> candidates = ImmutableList.builder();
+        candidates.add(ChunkCompression.COMPRESSED, ChunkCompression.SNAPPY);
+        // lightweight encodings only apply to integer and long columns
+        for (DataType type : types) {
+            Class clazz = type.getDataClass();
+            if (clazz == Integer.class || clazz == Long.class) {
+                candidates.add(ChunkCompression.ENCODED);
+                break;
+            }
+        }
+        return new ChunkCodecSampler(candidates.build(), ChunkCodecSampler.DEFAULT_NETWORK_NANOS_PER_BYTE);
+    }
 }
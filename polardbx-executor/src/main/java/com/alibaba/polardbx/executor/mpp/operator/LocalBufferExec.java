@@ -30,8 +30,15 @@ import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
-
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Chunks handed between the pipelines of a local exchange. Every producer driver of the exchange adds to the
+ * buffer, so adding and polling are lock free: the buffer is a lock free queue bounded by the memory manager,
+ * and the reader future is swapped by CAS and only completed by the first producer after the reader blocked.
+ */
 public class LocalBufferExec implements Executor, ConsumerExecutor {
 
     protected static final Logger log = LoggerFactory.getLogger(LocalBufferExec.class);
@@ -45,14 +52,21 @@ public class LocalBufferExec implements Executor, ConsumerExecutor {
         NOT_EMPTY.set(null);
     }
 
-    protected BlockingQueue<Chunk> buffer = new LinkedBlockingQueue<>();
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<LocalBufferExec, SettableFuture> NOT_EMPTY_UPDATER =
+        AtomicReferenceFieldUpdater.newUpdater(LocalBufferExec.class, SettableFuture.class, "notEmptyFuture");
+
+    protected BlockingQueue<Chunk> buffer = new LinkedTransferQueue<>();
     protected final OutputBufferMemoryManager bufferMemoryManager;
 
-    protected boolean closed = false;
+    protected volatile boolean closed = false;
 
-    protected SettableFuture<?> notEmptyFuture = SettableFuture.create();
+    private final AtomicBoolean closing = new AtomicBoolean(false);
 
-    protected boolean noData = false;
+    protected volatile SettableFuture<?> notEmptyFuture = SettableFuture.create();
+
+    protected volatile boolean noData = false;
+    // only used by the subclasses which keep the whole input
     protected final Object lock = new Object();
     protected final List<DataType> columnMetaList;
     protected final boolean syncMode;
@@ -73,67 +87,73 @@ public class LocalBufferExec implements Executor, ConsumerExecutor {
 
     @Override
     public void closeConsume(boolean force) {
-        SettableFuture<?> notEmptyFuture;
-        synchronized (lock) {
-            this.putEnd();
-            if (closed) {
-                return;
-            }
+        if (closing.compareAndSet(false, true)) {
             closed = true;
             noData = true;
-            long remainingSize = 0;
-            for (Chunk chunk : buffer) {
-                remainingSize += chunk.getSizeInBytes();
-            }
-            bufferMemoryManager.updateMemoryUsage(-remainingSize);
-
-            notEmptyFuture = this.notEmptyFuture;
-            this.notEmptyFuture = NOT_EMPTY;
+            releaseBuffer();
         }
-        notEmptyFuture.set(null);
+        this.putEnd();
+        notifyNotEmpty();
     }
 
     @Override
     public void consumeChunk(Chunk chunk) {
-        SettableFuture<?> notEmptyFuture;
-        synchronized (lock) {
-            // ignore pages after finish
-            if (!noData) {
-                // buffered bytes must be updated before adding to the buffer to assure
-                // the count does not go negative
-                bufferMemoryManager.updateMemoryUsage(chunk.getSizeInBytes());
-                try {
-                    buffer.put(chunk);
-                } catch (Throwable t) {
-                    throw new TddlNestableRuntimeException(t);
-                }
+        // ignore pages after finish
+        if (!noData) {
+            // buffered bytes must be updated before adding to the buffer to assure
+            // the count does not go negative
+            bufferMemoryManager.updateMemoryUsage(chunk.getSizeInBytes());
+            try {
+                buffer.put(chunk);
+            } catch (Throwable t) {
+                throw new TddlNestableRuntimeException(t);
+            }
+            if (closed) {
+                // closed while adding, nobody will read it
+                releaseBuffer();
             }
-            // we just added a page (or we are finishing) so we are not empty
-            notEmptyFuture = this.notEmptyFuture;
-            this.notEmptyFuture = NOT_EMPTY;
         }
-        // notify readers outside of lock since this may result in a callback
-        notEmptyFuture.set(null);
+        // we just added a page (or we are finishing) so we are not empty
+        notifyNotEmpty();
     }
 
     @Override
     public void buildConsume() {
-        SettableFuture<?> notEmptyFuture;
-        synchronized (lock) {
-            if (noData) {
-                this.putEnd();
-                return;
-            }
-            noData = true;
+        // the producers have all finished here, so no chunk is added after the reader saw noData
+        noData = true;
+        notifyNotEmpty();
+        this.putEnd();
+    }
 
-            notEmptyFuture = this.notEmptyFuture;
-            this.notEmptyFuture = NOT_EMPTY;
+    /**
+     * Wake the reader. Only the first producer after the reader blocked completes the future, the others
+     * just read it.
+     */
+    private void notifyNotEmpty() {
+        if (!notEmptyFuture.isDone()) {
+            SettableFuture<?> future = NOT_EMPTY_UPDATER.getAndSet(this, NOT_EMPTY);
+            // no lock is held here, so the callbacks of the reader are safe to run
+            future.set(null);
         }
+    }
 
-        // notify readers outside of lock since this may result in a callback
-        notEmptyFuture.set(null);
-
-        this.putEnd();
+    private void releaseBuffer() {
+        long remainingSize = 0;
+        boolean hasEnd = false;
+        Chunk chunk;
+        while ((chunk = buffer.poll()) != null) {
+            if (chunk == END) {
+                hasEnd = true;
+            } else {
+                remainingSize += chunk.getSizeInBytes();
+            }
+        }
+        if (remainingSize > 0) {
+            bufferMemoryManager.updateMemoryUsage(-remainingSize);
+        }
+        if (hasEnd) {
+            this.putEnd();
+        }
     }
 
     private void putEnd() {
@@ -158,9 +178,7 @@ public class LocalBufferExec implements Executor, ConsumerExecutor {
 
     @Override
     public boolean produceIsFinished() {
-        synchronized (lock) {
-            return (closed || (noData && buffer.isEmpty()));
-        }
+        return (closed || (noData && buffer.isEmpty()));
     }
 
     //--------------------- consume ---------------------
@@ -223,13 +241,20 @@ public class LocalBufferExec implements Executor, ConsumerExecutor {
 
     @Override
     public ListenableFuture<?> produceIsBlocked() {
-        synchronized (lock) {
-            // if we need to block readers, and the current future is complete, create a new one
-            if (!noData && buffer.isEmpty() && notEmptyFuture.isDone()) {
-                notEmptyFuture = SettableFuture.create();
-            }
+        SettableFuture<?> current = notEmptyFuture;
+        // if we need to block readers, and the current future is complete, create a new one
+        if (noData || !buffer.isEmpty() || !current.isDone()) {
+            return current;
+        }
+        SettableFuture<?> blocked = SettableFuture.create();
+        if (!NOT_EMPTY_UPDATER.compareAndSet(this, current, blocked)) {
             return notEmptyFuture;
         }
+        // a producer may have added a chunk before the new future was visible to it
+        if (noData || !buffer.isEmpty()) {
+            notifyNotEmpty();
+        }
+        return blocked;
     }
 
     @Override
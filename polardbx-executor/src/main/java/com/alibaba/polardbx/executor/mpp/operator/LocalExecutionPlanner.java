@@ -229,7 +229,8 @@ public class LocalExecutionPlanner {
                                  URI runtimeFilterUpdateUri,
                                  boolean enableRuntimeFilter) {
         this.exchangeClientSupplier = exchangeClientSupplier;
-        this.pagesSerdeFactory = new PagesSerdeFactory(false);
+        this.pagesSerdeFactory = new PagesSerdeFactory(PagesSerdeFactory.CompressionMode.of(
+            context.getParamManager().getString(ConnectionParams.MPP_EXCHANGE_COMPRESSION_MODE)));
         this.context = context;
         this.defaultParallelism = defaultParallelism;
         this.bkaJoinParallelism = bkaJoinParallelism;
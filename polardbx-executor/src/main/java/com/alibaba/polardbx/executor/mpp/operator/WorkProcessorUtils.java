@@ -16,7 +16,9 @@
 
 package com.alibaba.polardbx.executor.mpp.operator;
 
+import com.alibaba.polardbx.executor.operator.util.LoserTree;
 import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.alibaba.polardbx.executor.mpp.operator.WorkProcessor.ProcessState;
 import com.alibaba.polardbx.executor.mpp.operator.WorkProcessor.Transformation;
@@ -25,14 +27,13 @@ import com.alibaba.polardbx.executor.mpp.operator.WorkProcessor.TransformationSt
 import javax.annotation.Nullable;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
-import java.util.PriorityQueue;
 import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
-import static java.util.Comparator.comparing;
 import static java.util.Objects.requireNonNull;
 
 public final class WorkProcessorUtils {
@@ -102,21 +103,28 @@ public final class WorkProcessorUtils {
     public static <T> WorkProcessor<T> mergeSorted(Iterable<WorkProcessor<T>> processorIterable,
                                                    Comparator<T> comparator) {
         requireNonNull(comparator, "comparator is null");
-        Iterator<WorkProcessor<T>> processorIterator =
-            requireNonNull(processorIterable, "processorIterable is null").iterator();
-        checkArgument(processorIterator.hasNext(), "There must be at least one base processor");
-        PriorityQueue<ElementAndProcessor<T>> queue =
-            new PriorityQueue<>(2, comparing(ElementAndProcessor::getElement, comparator));
+        List<WorkProcessor<T>> processors =
+            ImmutableList.copyOf(requireNonNull(processorIterable, "processorIterable is null"));
+        checkArgument(!processors.isEmpty(), "There must be at least one base processor");
+        Object[] heads = new Object[processors.size()];
+        LoserTree tree = new LoserTree(processors.size(),
+            (left, right) -> comparator.compare((T) heads[left], (T) heads[right]));
 
         return create(new WorkProcessor.Process<T>() {
-            WorkProcessor<T> processor = requireNonNull(processorIterator.next());
+            // the processor whose next element is needed, every one of them before the tree is built
+            int pending = 0;
+            boolean initialized;
 
             @Override
             public ProcessState<T> process() {
-                while (true) {
+                while (pending >= 0) {
+                    WorkProcessor<T> processor = processors.get(pending);
                     if (processor.process()) {
-                        if (!processor.isFinished()) {
-                            queue.add(new ElementAndProcessor<>(processor.getResult(), processor));
+                        if (processor.isFinished()) {
+                            heads[pending] = null;
+                            tree.setExhausted(pending);
+                        } else {
+                            heads[pending] = processor.getResult();
                         }
                     } else if (processor.isBlocked()) {
                         return ProcessState.blocked(processor.getBlockedFuture());
@@ -124,19 +132,21 @@ public final class WorkProcessorUtils {
                         return ProcessState.yield();
                     }
 
-                    if (processorIterator.hasNext()) {
-                        processor = requireNonNull(processorIterator.next());
-                        continue;
-                    }
-
-                    if (queue.isEmpty()) {
-                        return ProcessState.finished();
+                    if (initialized) {
+                        tree.replay();
+                        pending = -1;
+                    } else if (++pending == processors.size()) {
+                        tree.init();
+                        initialized = true;
+                        pending = -1;
                     }
+                }
 
-                    ElementAndProcessor<T> elementAndProcessor = queue.poll();
-                    processor = elementAndProcessor.getProcessor();
-                    return ProcessState.ofResult(elementAndProcessor.getElement());
+                if (tree.isFinished()) {
+                    return ProcessState.finished();
                 }
+                pending = tree.winner();
+                return ProcessState.ofResult((T) heads[pending]);
             }
         });
     }
@@ -317,23 +327,4 @@ public final class WorkProcessorUtils {
             return state.getResult().get();
         }
     }
-
-    private static class ElementAndProcessor<T> {
-        @Nullable
-        final T element;
-        final WorkProcessor<T> processor;
-
-        ElementAndProcessor(T element, WorkProcessor<T> processor) {
-            this.element = element;
-            this.processor = requireNonNull(processor, "processor is null");
-        }
-
-        T getElement() {
-            return element;
-        }
-
-        WorkProcessor<T> getProcessor() {
-            return processor;
-        }
-    }
 }
@@ -23,6 +23,7 @@ import com.alibaba.polardbx.executor.operator.util.BloomFilterProduce;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.planner.rule.mpp.runtimefilter.RuntimeFilterUtil;
 import com.alibaba.polardbx.statistics.RuntimeStatHelper;
+import com.alibaba.polardbx.util.bloomfilter.BlockedBloomFilter;
 import com.alibaba.polardbx.util.bloomfilter.BloomFilter;
 import io.airlift.http.client.HttpClient;
 import org.apache.calcite.plan.RelOptUtil;
@@ -60,6 +61,10 @@ public class RuntimeFilterBuilderExecFactory extends ExecutorFactory {
             List<List<Integer>> keyHash = new ArrayList<>();
             List<BloomFilter> bloomFilters = new ArrayList<>();
             List<List<Integer>> bloomfilterId = new ArrayList<>();
+            // storage only understands the classic bit layout
+            boolean blocked = context.getParamManager().getBoolean(ConnectionParams.ENABLE_BLOCKED_BLOOM_FILTER)
+                && !(context.getParamManager().getBoolean(ConnectionParams.STORAGE_SUPPORTS_BLOOM_FILTER)
+                && context.getParamManager().getBoolean(ConnectionParams.ENABLE_PUSH_RUNTIME_FILTER_SCAN));
             for (RexNode rexNode : conditions) {
 
                 SqlRuntimeFilterBuildFunction buildFunction =
@@ -85,11 +90,13 @@ public class RuntimeFilterBuilderExecFactory extends ExecutorFactory {
                 }
                 bloomfilterId.add(buildFunction.getRuntimeFilterIds());
                 keyHash.add(keys);
-                BloomFilter intBloomFilter = BloomFilter.createEmpty(bloomFilterSize, fpp);
+                BloomFilter intBloomFilter = blocked ? BlockedBloomFilter.createEmpty(bloomFilterSize, fpp) :
+                    BloomFilter.createEmpty(bloomFilterSize, fpp);
                 bloomFilters.add(intBloomFilter);
             }
             bloomFilterProduce = BloomFilterProduce.create(
-                bloomfilterId, keyHash, bloomFilters, client, uri, context.getTraceId());
+                bloomfilterId, keyHash, bloomFilters, client, uri, context.getTraceId(),
+                context.getParamManager().getBoolean(ConnectionParams.ENABLE_COMPACT_BLOOM_FILTER_DATA));
         }
         bloomFilterProduce.addCounter();
         Executor input = getInputs().get(0).createExecutor(context, idx);
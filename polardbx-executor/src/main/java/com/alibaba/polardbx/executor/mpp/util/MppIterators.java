@@ -29,10 +29,16 @@
  */
 package com.alibaba.polardbx.executor.mpp.util;
 
+import com.alibaba.polardbx.optimizer.memory.MemoryAllocatorCtx;
 import com.google.common.collect.AbstractIterator;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
 
+import java.io.Closeable;
 import java.util.Iterator;
+import java.util.function.ToLongFunction;
 
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static java.util.Objects.requireNonNull;
 
 public class MppIterators {
@@ -57,4 +63,106 @@ public class MppIterators {
             }
         };
     }
+
+    /**
+     * Reads the next element on the executor while the caller consumes the current one.
+     * At most one read is in flight, so the source iterator is never accessed concurrently.
+     */
+    public static <T> PrefetchIterator<T> prefetch(Iterator<T> iterator, ListeningExecutorService executor) {
+        return prefetch(iterator, executor, null, element -> 0L);
+    }
+
+    /**
+     * Same as {@link #prefetch(Iterator, ListeningExecutorService)}, but the element held by the
+     * in-flight read is reserved on {@code memoryAllocator} until it is handed to the caller.
+     */
+    public static <T> PrefetchIterator<T> prefetch(Iterator<T> iterator, ListeningExecutorService executor,
+                                                   MemoryAllocatorCtx memoryAllocator, ToLongFunction<T> sizeOf) {
+        requireNonNull(iterator, "iterator is null");
+        requireNonNull(executor, "executor is null");
+        requireNonNull(sizeOf, "sizeOf is null");
+        return new PrefetchIterator<>(iterator, executor, memoryAllocator, sizeOf);
+    }
+
+    /**
+     * Closing a prefetching iterator cancels the in-flight read and waits until it can no longer
+     * touch the source, so the resources behind the source may be released right after.
+     */
+    public static final class PrefetchIterator<T> extends AbstractIterator<T> implements Closeable {
+        private final Iterator<T> iterator;
+        private final ListeningExecutorService executor;
+        private final MemoryAllocatorCtx memoryAllocator;
+        private final ToLongFunction<T> sizeOf;
+        private final Object readLock = new Object();
+
+        private ListenableFuture<T> next;
+        private long reservedBytes;
+        private volatile boolean closed;
+
+        private PrefetchIterator(Iterator<T> iterator, ListeningExecutorService executor,
+                                 MemoryAllocatorCtx memoryAllocator, ToLongFunction<T> sizeOf) {
+            this.iterator = iterator;
+            this.executor = executor;
+            this.memoryAllocator = memoryAllocator;
+            this.sizeOf = sizeOf;
+        }
+
+        @Override
+        protected T computeNext() {
+            if (closed) {
+                return endOfData();
+            }
+            T current;
+            if (next == null) {
+                current = iterator.hasNext() ? iterator.next() : null;
+            } else {
+                current = getFutureValue(next);
+                next = null;
+                synchronized (readLock) {
+                    // the caller accounts for the element from now on
+                    releaseReserved();
+                }
+            }
+            if (current == null) {
+                return endOfData();
+            }
+            next = executor.submit(this::readNext);
+            return current;
+        }
+
+        private T readNext() {
+            synchronized (readLock) {
+                if (closed || !iterator.hasNext()) {
+                    return null;
+                }
+                T element = iterator.next();
+                if (memoryAllocator != null) {
+                    long bytes = sizeOf.applyAsLong(element);
+                    memoryAllocator.allocateReservedMemory(bytes);
+                    reservedBytes = bytes;
+                }
+                return element;
+            }
+        }
+
+        private void releaseReserved() {
+            if (reservedBytes > 0) {
+                memoryAllocator.releaseReservedMemory(reservedBytes, false);
+                reservedBytes = 0;
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            if (next != null) {
+                next.cancel(false);
+                next = null;
+            }
+            // a read that already started holds the lock until it is done with the source
+            synchronized (readLock) {
+                releaseReserved();
+            }
+        }
+    }
 }
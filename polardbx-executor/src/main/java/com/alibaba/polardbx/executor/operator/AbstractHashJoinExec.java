@@ -20,6 +20,7 @@ import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
 import com.alibaba.polardbx.executor.operator.util.ConcurrentRawHashTable;
+import com.alibaba.polardbx.executor.operator.util.RadixPartitionedHashTable;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.expression.calc.IExpression;
 import com.alibaba.polardbx.optimizer.core.join.EquiJoinKey;
@@ -41,10 +42,16 @@ public abstract class AbstractHashJoinExec extends AbstractBufferedJoinExec impl
      */
     public static final int LIST_END = ConcurrentRawHashTable.NOT_EXISTS;
 
-    ConcurrentRawHashTable hashTable;
+    RadixPartitionedHashTable hashTable;
     int[] positionLinks;
     IntBloomFilter bloomFilter;
 
+    /**
+     * Hash codes of the probe chunk whose position link heads are in probeHeads
+     */
+    private int[] probeHashCodes;
+    private int[] probeHeads;
+
     public AbstractHashJoinExec(Executor outerInput,
                                 Executor innerInput,
                                 JoinRelType joinType,
@@ -74,16 +81,18 @@ public abstract class AbstractHashJoinExec extends AbstractBufferedJoinExec impl
 
         this.hashTable = null;
         this.positionLinks = null;
+        this.probeHashCodes = null;
+        this.probeHeads = null;
     }
 
     @Override
     int matchInit(Chunk keyChunk, int[] hashCodes, int position) {
-        int hashCode = hashCodes[position];
-        if (bloomFilter != null && !bloomFilter.mightContain(hashCode)) {
-            return LIST_END;
+        if (hashCodes != probeHashCodes) {
+            // a new probe chunk, look up all of its rows at once
+            lookupProbeChunk(hashCodes, keyChunk.getPositionCount());
         }
 
-        int matchedPosition = hashTable.get(hashCode);
+        int matchedPosition = probeHeads[position];
         while (matchedPosition != LIST_END) {
             if (buildKeyChunks.equals(matchedPosition, keyChunk, position)) {
                 break;
@@ -93,6 +102,20 @@ public abstract class AbstractHashJoinExec extends AbstractBufferedJoinExec impl
         return matchedPosition;
     }
 
+    private void lookupProbeChunk(int[] hashCodes, int positionCount) {
+        if (probeHeads == null || probeHeads.length < positionCount) {
+            probeHeads = new int[positionCount];
+        }
+        if (bloomFilter == null) {
+            hashTable.getAll(hashCodes, positionCount, probeHeads);
+        } else {
+            for (int i = 0; i < positionCount; i++) {
+                probeHeads[i] = bloomFilter.mightContain(hashCodes[i]) ? hashTable.get(hashCodes[i]) : LIST_END;
+            }
+        }
+        probeHashCodes = hashCodes;
+    }
+
     @Override
     int matchNext(int current, Chunk keyChunk, int position) {
         int matchedPosition = positionLinks[current];
@@ -29,8 +29,6 @@ import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 import com.alibaba.polardbx.optimizer.core.expression.calc.IExpression;
 import com.alibaba.polardbx.optimizer.core.expression.calc.ScalarFunctionExpression;
-import it.unimi.dsi.fastutil.booleans.BooleanArrayList;
-
 import java.util.List;
 
 /**
@@ -49,7 +47,7 @@ public class FilterExec extends AbstractExecutor {
     protected Block conditionBlock;
     protected int position;
     private BloomFilterExpressionFilter bloomFilterExpressionFilter;
-    private BooleanArrayList bloomFilterResult;
+    private int[] bloomFilterSelection;
 
     public FilterExec(Executor input,
                       IExpression condition,
@@ -66,7 +64,7 @@ public class FilterExec extends AbstractExecutor {
         if (condition instanceof ScalarFunctionExpression) {
             ((ScalarFunctionExpression) condition).setInFilter();
         }
-        bloomFilterResult = null;
+        bloomFilterSelection = null;
     }
 
     @Override
@@ -107,29 +105,29 @@ public class FilterExec extends AbstractExecutor {
         Chunk chunk = input.nextChunk();
         if (chunk == null) {
             conditionBlock = null;
-            bloomFilterResult = null;
+            bloomFilterSelection = null;
             return null;
         }
 
+        // positions passing the bloom filters, in ascending order
+        int selectedCount = chunk.getPositionCount();
         if (bloomFilterExpressionFilter != null) {
-            ensureBloomFilterResultSize(chunk.getPositionCount());
-            for (int i = 0; i < chunk.getPositionCount(); i++) {
-                bloomFilterResult.set(i, !bloomFilterExpressionFilter.filter(chunk.rowAt(i)));
-            }
+            ensureBloomFilterSelectionSize(chunk.getPositionCount());
+            selectedCount = bloomFilterExpressionFilter.filter(chunk, bloomFilterSelection);
         }
 
+        int selected = 0;
         for (int i = 0; i < chunk.getPositionCount(); i++) {
-            Chunk.ChunkRow chunkRow = chunk.rowAt(i);
-            boolean resultBoolean = true;
             if (bloomFilterExpressionFilter != null) {
-                resultBoolean = bloomFilterResult.getBoolean(i);
-                if (!resultBoolean) {
+                if (selected == selectedCount || bloomFilterSelection[selected] != i) {
                     conditionBlockBuilder.writeBoolean(false);
                     continue;
                 }
+                selected++;
             }
+            boolean resultBoolean = true;
             if (condition != null) {
-                Object result = condition.eval(chunkRow);
+                Object result = condition.eval(chunk.rowAt(i));
                 resultBoolean = ConditionUtils.convertConditionToBoolean(result);
             }
             conditionBlockBuilder.writeBoolean(resultBoolean);
@@ -161,7 +159,7 @@ public class FilterExec extends AbstractExecutor {
     @Override
     void doClose() {
         this.bloomFilterExpressionFilter = null;
-        this.bloomFilterResult = null;
+        this.bloomFilterSelection = null;
         input.close();
     }
 
@@ -175,11 +173,10 @@ public class FilterExec extends AbstractExecutor {
         return ImmutableList.of(input);
     }
 
-    private void ensureBloomFilterResultSize(int size) {
-        if (bloomFilterResult == null) {
-            bloomFilterResult = new BooleanArrayList(size);
+    private void ensureBloomFilterSelectionSize(int size) {
+        if (bloomFilterSelection == null || bloomFilterSelection.length < size) {
+            bloomFilterSelection = new int[size];
         }
-        bloomFilterResult.size(size);
     }
 
     @Override
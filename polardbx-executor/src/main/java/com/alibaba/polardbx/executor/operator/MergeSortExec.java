@@ -18,9 +18,7 @@ package com.alibaba.polardbx.executor.operator;
 
 import com.google.common.util.concurrent.ListenableFuture;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
-import com.alibaba.polardbx.optimizer.chunk.ChunkBuilder;
 import com.alibaba.polardbx.executor.mpp.operator.WorkProcessor;
-import com.alibaba.polardbx.executor.operator.util.ChunkWithPosition;
 import com.alibaba.polardbx.executor.operator.util.ChunkWithPositionComparator;
 import com.alibaba.polardbx.executor.operator.util.MergeSortedChunks;
 import com.alibaba.polardbx.executor.utils.OrderByOption;
@@ -28,7 +26,6 @@ import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 
 import java.util.List;
-import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
 
 /**
@@ -66,10 +63,10 @@ public class MergeSortExec extends AbstractExecutor {
         List<DataType> dataTypes = getDataTypes();
         ChunkWithPositionComparator comparator = new ChunkWithPositionComparator(orderBys, dataTypes);
 
-        BiPredicate<ChunkBuilder, ChunkWithPosition> chunkBreakPredicate =
-            (chunkBuilder, ChunkWithPosition) -> chunkBuilder.isFull();
-        return MergeSortedChunks.mergeSortedPages(
-            sortedChunks, comparator, dataTypes, chunkLimit, chunkBreakPredicate, null, context);
+        // with a small LIMIT there is no need to merge a whole chunk before the first rows come out
+        int outputLimit = fetched > chunkLimit - skipped ? chunkLimit : (int) (skipped + fetched);
+        return MergeSortedChunks.mergeSortedChunks(
+            sortedChunks, comparator, dataTypes, outputLimit, null, context);
     }
 
     public WorkProcessor<Chunk> chunks(Executor inputExecutor) {
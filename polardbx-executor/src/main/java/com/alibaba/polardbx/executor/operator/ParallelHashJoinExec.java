@@ -22,7 +22,7 @@ import com.alibaba.polardbx.common.utils.memory.SizeOf;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
 import com.alibaba.polardbx.optimizer.chunk.ChunkConverter;
 import com.alibaba.polardbx.executor.operator.util.ChunksIndex;
-import com.alibaba.polardbx.executor.operator.util.ConcurrentRawHashTable;
+import com.alibaba.polardbx.executor.operator.util.RadixPartitionedHashTable;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.expression.calc.IExpression;
 import com.alibaba.polardbx.optimizer.core.join.EquiJoinKey;
@@ -33,14 +33,20 @@ import com.alibaba.polardbx.optimizer.memory.MemoryPoolUtils;
 import com.alibaba.polardbx.util.IntBloomFilter;
 import org.apache.calcite.rel.core.JoinRelType;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
-import static com.alibaba.polardbx.executor.utils.ExecUtils.buildOneChunk;
+import static com.alibaba.polardbx.executor.operator.util.RadixPartitionedHashTable.FANOUT;
+import static com.alibaba.polardbx.executor.operator.util.RadixPartitionedHashTable.fanoutPartition;
+import static com.alibaba.polardbx.executor.utils.ExecUtils.checkJoinKeysAllNotNull;
+import static com.alibaba.polardbx.executor.utils.ExecUtils.checkJoinKeysNotNull;
 
 /**
  * Parallel Hash-Join Executor
@@ -106,10 +112,7 @@ public class ParallelHashJoinExec extends AbstractHashJoinExec {
     @Override
     public void buildConsume() {
         if (memoryPool != null) {
-            int partition = shared.buildCount.getAndIncrement();
-            if (partition < shared.numPartitions) {
-                shared.buildHashTable(partition, memoryAllocator);
-            }
+            shared.buildHashTable(memoryAllocator);
             // Copy the built hash-table from shared states into this executor
             this.buildChunks = shared.builderChunks;
             this.buildKeyChunks = shared.builderKeyChunks;
@@ -155,11 +158,12 @@ public class ParallelHashJoinExec extends AbstractHashJoinExec {
 
     @Override
     public void consumeChunk(Chunk inputChunk) {
+        Chunk keyChunk = getBuildKeyChunkGetter().apply(inputChunk);
+        ScatteredChunk scatteredChunk = ScatteredChunk.scatter(keyChunk);
         synchronized (shared) {
             shared.builderChunks.addChunk(inputChunk);
-
-            Chunk keyChunk = getBuildKeyChunkGetter().apply(inputChunk);
             shared.builderKeyChunks.addChunk(keyChunk);
+            shared.addScatteredChunk(scatteredChunk, memoryAllocator);
 
             memoryAllocator.allocateReservedMemory(inputChunk.estimateSize() + keyChunk.estimateSize());
         }
@@ -353,17 +357,88 @@ public class ParallelHashJoinExec extends AbstractHashJoinExec {
         return !buildOuterInput;
     }
 
+    /**
+     * Build rows of one chunk grouped by their fine radix partition, rows with null keys left out
+     */
+    private static final class ScatteredChunk {
+        /**
+         * Row offsets in the chunk, grouped by fine partition
+         */
+        private final int[] offsets;
+        /**
+         * Hash code of the row at the same index of offsets
+         */
+        private final int[] hashes;
+        /**
+         * Rows of fine partition p are in [fanoutStarts[p], fanoutStarts[p + 1])
+         */
+        private final int[] fanoutStarts;
+
+        private ScatteredChunk(int[] offsets, int[] hashes, int[] fanoutStarts) {
+            this.offsets = offsets;
+            this.hashes = hashes;
+            this.fanoutStarts = fanoutStarts;
+        }
+
+        static ScatteredChunk scatter(Chunk keyChunk) {
+            final int positionCount = keyChunk.getPositionCount();
+            final int[] chunkHashes = keyChunk.hashCodeVector();
+            final boolean allNotNull = checkJoinKeysAllNotNull(keyChunk);
+
+            final int[] partitions = new int[positionCount];
+            final int[] fanoutStarts = new int[FANOUT + 1];
+            int count = 0;
+            for (int i = 0; i < positionCount; i++) {
+                if (allNotNull || checkJoinKeysNotNull(keyChunk, i)) {
+                    partitions[i] = fanoutPartition(chunkHashes[i]);
+                    fanoutStarts[partitions[i] + 1]++;
+                    count++;
+                } else {
+                    partitions[i] = -1;
+                }
+            }
+            for (int p = 0; p < FANOUT; p++) {
+                fanoutStarts[p + 1] += fanoutStarts[p];
+            }
+
+            final int[] cursors = Arrays.copyOf(fanoutStarts, FANOUT);
+            final int[] offsets = new int[count];
+            final int[] hashes = new int[count];
+            for (int i = 0; i < positionCount; i++) {
+                if (partitions[i] >= 0) {
+                    int index = cursors[partitions[i]]++;
+                    offsets[index] = i;
+                    hashes[index] = chunkHashes[i];
+                }
+            }
+            return new ScatteredChunk(offsets, hashes, fanoutStarts);
+        }
+
+        long estimateSize() {
+            return SizeOf.sizeOf(offsets) + SizeOf.sizeOf(hashes) + SizeOf.sizeOf(fanoutStarts);
+        }
+    }
+
     public static class Synchronizer {
 
+        /**
+         * Number of builders, the hash table has at least as many partitions
+         */
         private final int numPartitions;
 
-        private final AtomicInteger buildCount = new AtomicInteger();
+        private final AtomicInteger nextBuildPartition = new AtomicInteger();
+        private final AtomicInteger builtPartitions = new AtomicInteger();
 
         // Shared States
         private final ChunksIndex builderChunks = new ChunksIndex();
         private final ChunksIndex builderKeyChunks = new ChunksIndex();
+        private List<ScatteredChunk> scatteredChunks = new ArrayList<>();
+        /**
+         * Scatter buffers are charged to the allocator of the builder that produced them
+         */
+        private final Map<MemoryAllocatorCtx, Long> scatteredBytes = new IdentityHashMap<>();
 
-        private ConcurrentRawHashTable hashTable;
+        private RadixPartitionedHashTable hashTable;
         private int[] positionLinks;
         private IntBloomFilter bloomFilter;
         private boolean alreadyUseRuntimeFilter;
@@ -382,7 +457,7 @@ public class ParallelHashJoinExec extends AbstractHashJoinExec {
         private synchronized void initHashTable(MemoryAllocatorCtx ctx) {
             if (hashTable == null) {
                 final int size = builderKeyChunks.getPositionCount();
-                hashTable = new ConcurrentRawHashTable(size);
+                hashTable = new RadixPartitionedHashTable(size, numPartitions);
 
                 positionLinks = new int[size];
                 Arrays.fill(positionLinks, LIST_END);
@@ -397,26 +472,58 @@ public class ParallelHashJoinExec extends AbstractHashJoinExec {
             }
         }
 
-        private void buildHashTable(int partition, MemoryAllocatorCtx ctx) {
+        /**
+         * Builders claim partitions until none is left, so each partition has a single writer
+         */
+        private void buildHashTable(MemoryAllocatorCtx ctx) {
             initHashTable(ctx);
-            final int partitionSize = -Math.floorDiv(-builderKeyChunks.getChunkCount(), numPartitions);
-            final int startChunkId = partitionSize * partition;
-
-            if (startChunkId >= builderKeyChunks.getChunkCount()) {
-                return; // skip invalid chunk ranges
+            final List<ScatteredChunk> chunks = scatteredChunks;
+            final int partitionCount = hashTable.getPartitionCount();
+            int partition;
+            while ((partition = nextBuildPartition.getAndIncrement()) < partitionCount) {
+                buildPartition(partition, chunks, ctx);
+                if (builtPartitions.incrementAndGet() == partitionCount) {
+                    // all partitions are built, release the scatter buffers
+                    releaseScatteredChunks();
+                }
             }
+        }
 
-            final int endChunkId = Math.min(startChunkId + partitionSize, builderKeyChunks.getChunkCount());
-            final int startPosition = builderKeyChunks.getChunkOffset(startChunkId);
-            final int endPosition = builderKeyChunks.getChunkOffset(endChunkId);
+        private synchronized void addScatteredChunk(ScatteredChunk chunk, MemoryAllocatorCtx ctx) {
+            long bytes = chunk.estimateSize();
+            ctx.allocateReservedMemory(bytes);
+            scatteredChunks.add(chunk);
+            scatteredBytes.merge(ctx, bytes, Long::sum);
+        }
 
-            int position = startPosition;
-            for (int chunkId = startChunkId; chunkId < endChunkId; ++chunkId) {
-                final Chunk keyChunk = builderKeyChunks.getChunk(chunkId);
-                buildOneChunk(keyChunk, position, hashTable, positionLinks, bloomFilter);
-                position += keyChunk.getPositionCount();
+        private synchronized void releaseScatteredChunks() {
+            scatteredChunks = null;
+            scatteredBytes.forEach((ctx, bytes) -> ctx.releaseReservedMemory(bytes, true));
+            scatteredBytes.clear();
+        }
+
+        private void buildPartition(int partition, List<ScatteredChunk> chunks, MemoryAllocatorCtx ctx) {
+            final int fanoutStart = hashTable.getFanoutStart(partition);
+            final int fanoutEnd = hashTable.getFanoutStart(partition + 1);
+
+            int size = 0;
+            for (ScatteredChunk chunk : chunks) {
+                size += chunk.fanoutStarts[fanoutEnd] - chunk.fanoutStarts[fanoutStart];
+            }
+            ctx.allocateReservedMemory(hashTable.initPartition(partition, size));
+
+            for (int chunkId = 0; chunkId < chunks.size(); chunkId++) {
+                final ScatteredChunk chunk = chunks.get(chunkId);
+                final int chunkOffset = builderKeyChunks.getChunkOffset(chunkId);
+                final int end = chunk.fanoutStarts[fanoutEnd];
+                for (int i = chunk.fanoutStarts[fanoutStart]; i < end; i++) {
+                    int position = chunkOffset + chunk.offsets[i];
+                    positionLinks[position] = hashTable.put(partition, position, chunk.hashes[i]);
+                    if (bloomFilter != null) {
+                        bloomFilter.put(chunk.hashes[i]);
+                    }
+                }
             }
-            assert position == endPosition;
         }
 
         private synchronized void recordOperatorIds(int operatorId) {
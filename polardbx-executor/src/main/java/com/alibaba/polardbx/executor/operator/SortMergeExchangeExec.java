@@ -150,12 +150,11 @@ public class SortMergeExchangeExec extends SourceExec implements Closeable {
 
     private void noMoreClient() {
         if (pageProducers.size() > 0) {
-            mergedPages = MergeSortedChunks.mergeSortedPages(
+            mergedPages = MergeSortedChunks.mergeSortedChunks(
                 pageProducers, new ChunkWithPositionComparator(
                     orderBys,
                     types
-                ), types, chunkLimit,
-                (pageBuilder, ChunkWithPosition) -> pageBuilder.isFull(), yieldSignal, context);
+                ), types, chunkLimit, yieldSignal, context);
         }
     }
 
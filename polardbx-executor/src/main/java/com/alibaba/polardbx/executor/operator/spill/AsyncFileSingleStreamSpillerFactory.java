@@ -72,7 +72,6 @@ public class AsyncFileSingleStreamSpillerFactory implements SingleStreamSpillerF
 
     private static final String TEMP_DIR_NAME = "temp";
 
-    private final PagesSerdeFactory serdeFactory;
     private final FileCleaner fileCleaner;
     private final long startTime = System.nanoTime();
     private final int maxThreadNum;
@@ -129,7 +128,6 @@ public class AsyncFileSingleStreamSpillerFactory implements SingleStreamSpillerF
 
         log.info("load AsyncFileSingleStreamSpillerFactory as SingleStreamSpillerFactory");
         requireNonNull(theSpillerRootPaths, "paths is null");
-        this.serdeFactory = new PagesSerdeFactory(false);
         this.fileCleaner = requireNonNull(fileCleaner, "fileCleaner is null");
         this.maxThreadNum = maxThreadNum;
 
@@ -221,7 +219,7 @@ public class AsyncFileSingleStreamSpillerFactory implements SingleStreamSpillerF
                 (List<ColumnMeta>) params.getColumnMeata(), params, spillMonitor);
         } else {
             return new AsyncFileSingleStreamSpiller(this, getNextFileHolder(filePrefix),
-                serdeFactory.createPagesSerde(types), spillMonitor);
+                PagesSerdeFactory.createSpillPagesSerde(types), spillMonitor);
         }
     }
 
@@ -33,6 +33,7 @@ import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
+import com.alibaba.polardbx.common.properties.MppConfig;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
@@ -84,7 +85,9 @@ public class AsyncPageFileChannelReader {
         this.id = requireNonNull(id, "FileId is null");
         this.serde = requireNonNull(serde, "PagesSerde is null");
         this.requetsQueue = requireNonNull(requetsQueue, "runningRequests is null");
-        this.input = new InputStreamSliceInput(new BufferedInputStream(new FileInputStream(id.getFilePath().toFile())));
+        // a large read-ahead turns the interleaved reads of merging many runs into sequential ones
+        this.input = new InputStreamSliceInput(new BufferedInputStream(new FileInputStream(id.getFilePath().toFile()),
+            MppConfig.getInstance().getSpillIoBufferSize()));
         this.onClose = requireNonNull(noThrowableOnClose);
         this.spillMonitor = spillMonitor;
     }
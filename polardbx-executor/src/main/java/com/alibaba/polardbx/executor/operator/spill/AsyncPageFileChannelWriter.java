@@ -31,6 +31,7 @@ package com.alibaba.polardbx.executor.operator.spill;
 
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
+import com.alibaba.polardbx.common.properties.MppConfig;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
 import com.alibaba.polardbx.executor.mpp.execution.buffer.PagesSerde;
 import com.alibaba.polardbx.executor.mpp.execution.buffer.PagesSerdeUtil;
@@ -81,7 +82,8 @@ public class AsyncPageFileChannelWriter {
         this.requetsQueue = requireNonNull(requetsQueue, "runningRequests is null");
         // spiller new stream in truncate mode, so after flush, when writer write again, the file will refresh
         this.output = new OutputStreamSliceOutput(
-            new BufferedOutputStream(new FileOutputStream(id.getFilePath().toFile(), false)));
+            new BufferedOutputStream(new FileOutputStream(id.getFilePath().toFile(), false),
+                MppConfig.getInstance().getSpillIoBufferSize()));
         this.onClose = requireNonNull(noThroableOnClose);
         this.spillMonitor = spillMonitor;
     }
@@ -23,6 +23,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.alibaba.polardbx.common.exception.TddlRuntimeException;
 import com.alibaba.polardbx.common.exception.code.ErrorCode;
+import com.alibaba.polardbx.common.properties.MppConfig;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
@@ -31,6 +32,7 @@ import com.alibaba.polardbx.executor.mpp.execution.buffer.PagesSerdeUtil;
 import com.alibaba.polardbx.executor.mpp.execution.buffer.SerializedChunk;
 import com.alibaba.polardbx.executor.mpp.util.MppIterators;
 import com.alibaba.polardbx.executor.utils.ExecUtils;
+import com.alibaba.polardbx.optimizer.memory.MemoryAllocatorCtx;
 import com.alibaba.polardbx.optimizer.spill.LocalSpillMonitor;
 import io.airlift.slice.InputStreamSliceInput;
 import io.airlift.slice.OutputStreamSliceOutput;
@@ -71,6 +73,7 @@ public class FileSingleStreamSpiller implements SingleStreamSpiller {
     private final Closer closer = Closer.create();
     private final PagesSerde serde;
     private final ArrayList<Chunk> pageBuffer = new ArrayList<>(32);
+    private final int bufferSize = Math.max(BUFFER_SIZE, MppConfig.getInstance().getSpillIoBufferSize());
 
     private final ListeningExecutorService executor;
     private final FileCleaner fileCleaner;
@@ -148,13 +151,22 @@ public class FileSingleStreamSpiller implements SingleStreamSpiller {
 
     @Override
     public Iterator<Chunk> getSpilledChunks() {
+        return getSpilledChunks(null);
+    }
+
+    @Override
+    public Iterator<Chunk> getSpilledChunks(MemoryAllocatorCtx memoryAllocator) {
         checkNoSpillInProgress();
-        return readPages();
+        return readPages(true, memoryAllocator);
     }
 
     @Override
     public ListenableFuture<List<Chunk>> getAllSpilledChunks() {
-        return executor.submit(() -> ImmutableList.copyOf(getSpilledChunks()));
+        // already running on the executor, prefetching on it again could starve the pool
+        return executor.submit(() -> {
+            checkNoSpillInProgress();
+            return ImmutableList.copyOf(readPages(false, null));
+        });
     }
 
     @Override
@@ -178,7 +190,7 @@ public class FileSingleStreamSpiller implements SingleStreamSpiller {
         checkState(writable,
             "Spilling no longer allowed. The spiller has been made non-writable on first read for subsequent reads to be consistent");
         synchronized (writeObjLock) {
-            try (SliceOutput output = new OutputStreamSliceOutput(targetFile.newOutputStream(APPEND), BUFFER_SIZE)) {
+            try (SliceOutput output = new OutputStreamSliceOutput(targetFile.newOutputStream(APPEND), bufferSize)) {
                 while (pageIterator.hasNext() && !closed) {
                     Chunk page = pageIterator.next();
                     SerializedChunk serializedPage = serde.serialize(false, page);
@@ -193,7 +205,7 @@ public class FileSingleStreamSpiller implements SingleStreamSpiller {
         }
     }
 
-    private Iterator<Chunk> readPages() {
+    private Iterator<Chunk> readPages(boolean prefetch, MemoryAllocatorCtx memoryAllocator) {
         checkState(writable, "Repeated reads are disallowed to prevent potential resource leaks");
         checkState(pageBuffer.isEmpty(), "pageBuffer is not empty");
         writable = false;
@@ -202,7 +214,15 @@ public class FileSingleStreamSpiller implements SingleStreamSpiller {
             InputStream input = targetFile.newInputStream();
             Closeable resources = closer.register(combineCloseables(input, () -> {
             }));
-            Iterator<Chunk> pages = PagesSerdeUtil.readPages(serde, new InputStreamSliceInput(input, BUFFER_SIZE));
+            Iterator<Chunk> pages = PagesSerdeUtil.readPages(serde, new InputStreamSliceInput(input, bufferSize));
+            if (prefetch) {
+                // decode the next page while the operator consumes the current one
+                MppIterators.PrefetchIterator<Chunk> prefetched =
+                    MppIterators.prefetch(pages, executor, memoryAllocator, Chunk::getSizeInBytes);
+                // registered after the input stream so that closing waits for the read before closing the stream
+                closer.register(prefetched);
+                pages = prefetched;
+            }
             return MppIterators.closeWhenExhausted(pages, resources);
         } catch (IOException e) {
             throw new TddlRuntimeException(ErrorCode.ERR_EXECUTE_SPILL, e, "Failed to read spilled pages");
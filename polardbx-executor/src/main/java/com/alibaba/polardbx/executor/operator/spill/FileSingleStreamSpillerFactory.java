@@ -65,7 +65,6 @@ public class FileSingleStreamSpillerFactory implements SingleStreamSpillerFactor
 
     private final ListeningExecutorService executor;
     private final FileCleaner fileCleaner;
-    private final PagesSerdeFactory serdeFactory;
     private final List<Path> spillPaths;
     private final double maxUsedSpaceThreshold;
     private int roundRobinIndex;
@@ -99,7 +98,6 @@ public class FileSingleStreamSpillerFactory implements SingleStreamSpillerFactor
         List<Path> spillPaths,
         double maxUsedSpaceThreshold) {
         log.info("load FileSingleStreamSpillerFactory as SingleStreamSpillerFactory");
-        this.serdeFactory = new PagesSerdeFactory(false);
         this.executor = requireNonNull(executor, "executor is null");
         this.fileCleaner = requireNonNull(fileCleaner, "fileCleaner is null");
         requireNonNull(spillPaths, "spillPaths is null");
@@ -153,7 +151,7 @@ public class FileSingleStreamSpillerFactory implements SingleStreamSpillerFactor
         if (params != null) {
             throw new UnsupportedOperationException();
         }
-        return new FileSingleStreamSpiller(serdeFactory.createPagesSerde(types), executor, fileCleaner,
+        return new FileSingleStreamSpiller(PagesSerdeFactory.createSpillPagesSerde(types), executor, fileCleaner,
             getNextSpillPath(), spillMonitor);
     }
 
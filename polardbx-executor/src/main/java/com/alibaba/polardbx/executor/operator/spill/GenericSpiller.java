@@ -21,6 +21,7 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.memory.MemoryAllocatorCtx;
 import com.alibaba.polardbx.optimizer.spill.QuerySpillSpaceMonitor;
 import com.alibaba.polardbx.optimizer.spill.SpillMonitor;
 import org.apache.calcite.sql.OutFileParams;
@@ -78,9 +79,14 @@ public class GenericSpiller implements Spiller {
 
     @Override
     public List<Iterator<Chunk>> getSpills() {
+        return getSpills(null);
+    }
+
+    @Override
+    public List<Iterator<Chunk>> getSpills(MemoryAllocatorCtx memoryAllocator) {
         checkNoSpillInProgress();
         return singleStreamSpillers.stream()
-            .map(SingleStreamSpiller::getSpilledChunks)
+            .map(singleStreamSpiller -> singleStreamSpiller.getSpilledChunks(memoryAllocator))
             .collect(toList());
     }
 
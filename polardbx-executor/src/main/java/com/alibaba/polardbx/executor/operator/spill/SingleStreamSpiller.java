@@ -19,6 +19,7 @@ package com.alibaba.polardbx.executor.operator.spill;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.memory.MemoryAllocatorCtx;
 
 import java.io.Closeable;
 import java.util.Iterator;
@@ -51,6 +52,13 @@ public interface SingleStreamSpiller extends Closeable {
      */
     Iterator<Chunk> getSpilledChunks();
 
+    /**
+     * Same as {@link #getSpilledChunks()}, chunks read ahead of the caller are reserved on the given allocator.
+     */
+    default Iterator<Chunk> getSpilledChunks(MemoryAllocatorCtx memoryAllocator) {
+        return getSpilledChunks();
+    }
+
     /**
      * Initiates read of previously spilled pages. The returned {@link Future} will be complete once all pages are read.
      */
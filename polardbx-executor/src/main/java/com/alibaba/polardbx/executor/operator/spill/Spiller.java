@@ -18,6 +18,7 @@ package com.alibaba.polardbx.executor.operator.spill;
 
 import com.google.common.util.concurrent.ListenableFuture;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.memory.MemoryAllocatorCtx;
 
 import java.io.Closeable;
 import java.util.Iterator;
@@ -34,6 +35,13 @@ public interface Spiller extends Closeable {
      */
     List<Iterator<Chunk>> getSpills();
 
+    /**
+     * Same as {@link #getSpills()}, chunks read ahead of the caller are reserved on the given allocator.
+     */
+    default List<Iterator<Chunk>> getSpills(MemoryAllocatorCtx memoryAllocator) {
+        return getSpills();
+    }
+
     /**
      * Close releases/removes all underlying resources used during spilling
      * like for example all created temporary files.
@@ -16,6 +16,9 @@
 
 package com.alibaba.polardbx.executor.operator.util;
 
+import com.alibaba.polardbx.common.properties.ConnectionParams;
+import com.alibaba.polardbx.executor.vectorized.aggregate.GroupAggregationKernel;
+import com.alibaba.polardbx.executor.vectorized.aggregate.GroupAggregationKernels;
 import com.alibaba.polardbx.optimizer.core.expression.calc.AbstractAggregator;
 import com.google.common.base.Preconditions;
 import com.alibaba.polardbx.optimizer.chunk.Block;
@@ -54,6 +57,10 @@ public class AggOpenHashMap extends GroupOpenHashMap implements AggHashMap {
 
     private DataType[] aggValueType;
 
+    private final GroupAggregationKernel[] kernels;
+
+    private int[] selection;
+
     public AggOpenHashMap(DataType[] groupKeyType, List<Aggregator> aggregators, DataType[] aggValueType,
                           DataType[] inputType, int expectedSize, int chunkSize, ExecutionContext context) {
         this(groupKeyType, aggregators, aggValueType, inputType, expectedSize, DEFAULT_LOAD_FACTOR, chunkSize, context);
@@ -72,9 +79,15 @@ public class AggOpenHashMap extends GroupOpenHashMap implements AggHashMap {
 
         this.filterArgs = new int[aggregators.size()];
         this.distinctSets = new DistinctSet[aggregators.size()];
+        this.kernels = new GroupAggregationKernel[aggregators.size()];
+        final boolean enableKernel =
+            context.getParamManager().getBoolean(ConnectionParams.ENABLE_AGGREGATION_VECTORIZATION);
         for (int i = 0; i < aggregators.size(); i++) {
             final AbstractAggregator aggregator = (AbstractAggregator) aggregators.get(i);
             aggregator.open(expectedSize);
+            if (enableKernel) {
+                kernels[i] = GroupAggregationKernels.create(aggregator);
+            }
 
             filterArgs[i] = aggregator.getFilterArg();
             int[] aggIndexInChunk = aggregator.getOriginTargetIndexes();
@@ -111,33 +124,62 @@ public class AggOpenHashMap extends GroupOpenHashMap implements AggHashMap {
             }
         }
         final Block groupIdBlock = IntegerBlock.wrap(groupIds);
+        final int positionCount = inputChunk.getPositionCount();
         for (int aggIndex = 0; aggIndex < aggregators.size(); aggIndex++) {
             boolean[] isDistinct = null;
             if (distinctSets[aggIndex] != null) {
                 isDistinct = distinctSets[aggIndex].checkDistinct(groupIdBlock, inputChunk);
             }
-            for (int pos = 0; pos < inputChunk.getPositionCount(); pos++) {
-                boolean noFilter = true;
-                if (filterArgs[aggIndex] > -1) {
-                    Object obj = inputChunk.getBlock(filterArgs[aggIndex]).getObject(pos);
-                    if (obj instanceof Boolean) {
-                        noFilter = (Boolean) obj;
-                    } else if (obj instanceof Long) {
-                        long lVal = (Long) obj;
-                        if (lVal < 1) {
-                            noFilter = false;
+            final GroupAggregationKernel kernel = kernels[aggIndex];
+            if (kernel != null) {
+                final Block kernelInput = getKernelInput(aggIndex, inputChunk);
+                if (kernel.supports(kernelInput)) {
+                    if (filterArgs[aggIndex] == -1 && isDistinct == null) {
+                        kernel.accumulate(kernelInput, groupIds, null, positionCount);
+                    } else {
+                        if (selection == null || selection.length < positionCount) {
+                            selection = new int[positionCount];
                         }
+                        int selSize = 0;
+                        for (int pos = 0; pos < positionCount; pos++) {
+                            if (isSelected(aggIndex, inputChunk, isDistinct, pos)) {
+                                selection[selSize++] = pos;
+                            }
+                        }
+                        kernel.accumulate(kernelInput, groupIds, selection, selSize);
                     }
+                    continue;
                 }
-                if (noFilter) {
-                    if (isDistinct == null || isDistinct[pos]) {
-                        aggregators.get(aggIndex).accumulate(groupIds[pos], inputChunk, pos);
-                    }
+            }
+            for (int pos = 0; pos < positionCount; pos++) {
+                if (isSelected(aggIndex, inputChunk, isDistinct, pos)) {
+                    aggregators.get(aggIndex).accumulate(groupIds[pos], inputChunk, pos);
                 }
             }
         }
     }
 
+    private boolean isSelected(int aggIndex, Chunk inputChunk, boolean[] isDistinct, int pos) {
+        boolean noFilter = true;
+        if (filterArgs[aggIndex] > -1) {
+            Object obj = inputChunk.getBlock(filterArgs[aggIndex]).getObject(pos);
+            if (obj instanceof Boolean) {
+                noFilter = (Boolean) obj;
+            } else if (obj instanceof Long) {
+                long lVal = (Long) obj;
+                if (lVal < 1) {
+                    noFilter = false;
+                }
+            }
+        }
+        return noFilter && (isDistinct == null || isDistinct[pos]);
+    }
+
+    private Block getKernelInput(int aggIndex, Chunk inputChunk) {
+        final int[] aggIndexInChunk = ((AbstractAggregator) aggregators.get(aggIndex)).getAggIndexInChunk();
+        return aggIndexInChunk.length == 0 ? null : inputChunk.getBlock(aggIndexInChunk[0]);
+    }
+
     @Override
     int appendGroup(Chunk chunk, int position) {
         int groupId = super.appendGroup(chunk, position);
@@ -24,6 +24,8 @@ import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
 import com.alibaba.polardbx.executor.mpp.deploy.ServiceProvider;
 import com.alibaba.polardbx.executor.mpp.execution.QueryManager;
+import com.alibaba.polardbx.executor.operator.util.bloomfilter.BloomFilterBlockHasher;
+import com.alibaba.polardbx.util.bloomfilter.BlockedBloomFilter;
 import com.alibaba.polardbx.util.bloomfilter.BloomFilter;
 import com.alibaba.polardbx.util.bloomfilter.BloomFilterInfo;
 import com.alibaba.polardbx.util.bloomfilter.TddlHasher;
@@ -55,29 +57,36 @@ public class BloomFilterProduce {
     private HttpClient client;
     private URI uri;
     private String query;
+    private boolean compactData;
 
     private AtomicInteger counter = new AtomicInteger(0);
 
     private BloomFilterProduce(List<List<Integer>> bloomfilterId, List<List<Integer>> hashKeys,
-                               List<BloomFilter> bloomFilters, HttpClient client, URI uri, String query) {
+                               List<BloomFilter> bloomFilters, HttpClient client, URI uri, String query,
+                               boolean compactData) {
         this.bloomfilterId = bloomfilterId;
         this.hashKeys = hashKeys;
         this.bloomFilters = bloomFilters;
         this.client = client;
         this.uri = uri;
         this.query = query;
+        this.compactData = compactData;
     }
 
     public static BloomFilterProduce create(List<List<Integer>> bloomfilterId, List<List<Integer>> hashKeys,
                                             List<BloomFilter> bloomFilters, HttpClient client, URI uri,
-                                            String query) {
-        return new BloomFilterProduce(bloomfilterId, hashKeys, bloomFilters, client, uri, query);
+                                            String query, boolean compactData) {
+        return new BloomFilterProduce(bloomfilterId, hashKeys, bloomFilters, client, uri, query, compactData);
     }
 
     public void addChunk(Chunk input) {
         for (int index = 0; index < hashKeys.size(); index++) {
             BloomFilter bloomFilter = bloomFilters.get(index);
             List<Integer> hashColumns = hashKeys.get(index);
+            if (bloomFilter instanceof BlockedBloomFilter) {
+                BloomFilterBlockHasher.putBlock((BlockedBloomFilter) bloomFilter, input, hashColumns);
+                continue;
+            }
             TddlHasher hasher = bloomFilter.newHasher();
             for (int pos = 0; pos < input.getPositionCount(); pos++) {
                 Chunk.ChunkRow row = input.rowAt(pos);
@@ -98,7 +107,7 @@ public class BloomFilterProduce {
                     .format("Produce bloom filter id: %d, first value %x", id, bloomFilters.get(i).getBitmap()[0]));
                 bloomFilterInfos.add(
                     new BloomFilterInfo(id, bloomFilters.get(i).getBitmap(), bloomFilters.get(i).getNumHashFunctions(),
-                        bloomFilters.get(i).getHashMethodInfo()));
+                        bloomFilters.get(i).getHashMethodInfo(), bloomFilters.get(i).isBlocked(), compactData));
             }
         }
         return bloomFilterInfos;
@@ -27,9 +27,13 @@ import java.util.List;
 
 public class ChunkWithPositionComparator {
 
+    private final List<OrderByOption> orderBys;
+    private final List<DataType> columnMetas;
     private final Comparator<Row> rowComparator;
 
     public ChunkWithPositionComparator(List<OrderByOption> orderBys, List<DataType> columnMetas) {
+        this.orderBys = orderBys;
+        this.columnMetas = columnMetas;
         this.rowComparator = ExecUtils.getComparator(orderBys, columnMetas);
     }
 
@@ -40,4 +44,12 @@ public class ChunkWithPositionComparator {
     public int compareTo(Row row, Chunk right, int rightPosition) {
         return rowComparator.compare(row, right.rowAt(rightPosition));
     }
-}
\ No newline at end of file
+
+    public List<OrderByOption> getOrderBys() {
+        return orderBys;
+    }
+
+    public List<DataType> getColumnMetas() {
+        return columnMetas;
+    }
+}
@@ -21,7 +21,6 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
-import com.alibaba.polardbx.optimizer.chunk.ChunkBuilder;
 import com.alibaba.polardbx.executor.mpp.operator.WorkProcessor;
 import com.alibaba.polardbx.executor.operator.spill.Spiller;
 import com.alibaba.polardbx.executor.operator.spill.SpillerFactory;
@@ -34,7 +33,6 @@ import com.alibaba.polardbx.optimizer.spill.SpillMonitor;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-import java.util.function.BiPredicate;
 
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableList.toImmutableList;
@@ -98,7 +96,7 @@ public class ExternalSorter extends Sorter {
             return ImmutableList.of();
         }
 
-        return spiller.get().getSpills().stream()
+        return spiller.get().getSpills(memoryAllocator).stream()
             .map(WorkProcessor::fromIterator)
             .collect(toImmutableList());
     }
@@ -112,10 +110,8 @@ public class ExternalSorter extends Sorter {
 
         ChunkWithPositionComparator comparator = new ChunkWithPositionComparator(orderBys, columnMetas);
 
-        BiPredicate<ChunkBuilder, ChunkWithPosition> chunkBreakPredicate =
-            (chunkBuilder, ChunkWithPosition) -> chunkBuilder.isFull();
-        return MergeSortedChunks.mergeSortedPages(
-            sortedStreams, comparator, columnMetas, chunkLimit, chunkBreakPredicate, null, context);
+        return MergeSortedChunks.mergeSortedChunks(
+            sortedStreams, comparator, columnMetas, chunkLimit, null, context);
     }
 
     @Override
@@ -0,0 +1,137 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.operator.util;
+
+import it.unimi.dsi.fastutil.ints.IntComparator;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Tournament tree of losers over the heads of k sorted streams.
+ * <p>
+ * Leaves are streams, every internal node keeps the loser of the match played there and the overall
+ * winner is kept above the root. Once the head of the winner changes only the matches on its path are
+ * replayed, i.e. ceil(log2(k)) comparisons, where a binary heap needs up to twice as many.
+ * <p>
+ * An exhausted stream loses to every other stream, ties are broken by the stream number.
+ */
+public final class LoserTree {
+
+    private final int size;
+
+    /**
+     * tree[0] is the winner, tree[1..size) the losers of the internal nodes
+     */
+    private final int[] tree;
+
+    private final boolean[] exhausted;
+
+    /**
+     * compares the heads of two streams which are not exhausted
+     */
+    private final IntComparator comparator;
+
+    public LoserTree(int size, IntComparator comparator) {
+        checkArgument(size > 0, "There must be at least one stream");
+        this.size = size;
+        this.tree = new int[size];
+        this.exhausted = new boolean[size];
+        this.comparator = comparator;
+    }
+
+    /**
+     * Plays all the matches, the heads of all the streams must be ready
+     */
+    public void init() {
+        tree[0] = size == 1 ? 0 : build(1);
+    }
+
+    private int build(int node) {
+        if (node >= size) {
+            return node - size;
+        }
+        int left = build(node << 1);
+        int right = build((node << 1) + 1);
+        if (less(left, right)) {
+            tree[node] = right;
+            return left;
+        } else {
+            tree[node] = left;
+            return right;
+        }
+    }
+
+    public int winner() {
+        return tree[0];
+    }
+
+    /**
+     * The winner has a new head, replays the matches on its path
+     */
+    public void replay() {
+        int winner = tree[0];
+        for (int node = (winner + size) >> 1; node > 0; node >>= 1) {
+            int loser = tree[node];
+            if (less(loser, winner)) {
+                tree[node] = winner;
+                winner = loser;
+            }
+        }
+        tree[0] = winner;
+    }
+
+    /**
+     * The stream which would win if the winner were removed, or -1 if there is only one stream.
+     * It is the best of the streams beaten by the winner on its way up.
+     */
+    public int runnerUp() {
+        int best = -1;
+        for (int node = (tree[0] + size) >> 1; node > 0; node >>= 1) {
+            int loser = tree[node];
+            if (best < 0 || less(loser, best)) {
+                best = loser;
+            }
+        }
+        return best;
+    }
+
+    public void setExhausted(int stream) {
+        exhausted[stream] = true;
+    }
+
+    public boolean isExhausted(int stream) {
+        return exhausted[stream];
+    }
+
+    /**
+     * @return whether all the streams are exhausted, only valid once the tree is built
+     */
+    public boolean isFinished() {
+        return exhausted[tree[0]];
+    }
+
+    public boolean less(int stream, int other) {
+        if (exhausted[stream]) {
+            return exhausted[other] && stream < other;
+        }
+        if (exhausted[other]) {
+            return true;
+        }
+        int result = comparator.compare(stream, other);
+        return result < 0 || (result == 0 && stream < other);
+    }
+}
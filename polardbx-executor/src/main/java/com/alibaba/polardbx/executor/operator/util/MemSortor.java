@@ -16,6 +16,7 @@
 
 package com.alibaba.polardbx.executor.operator.util;
 
+import com.alibaba.polardbx.common.properties.ConnectionParams;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.AbstractIterator;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -41,8 +42,11 @@ public class MemSortor extends Sorter {
     private BlockBuilder[] blockBuilders;
     private ChunksIndex chunksIndex;
     private IntComparator comparator;
+    private IntComparator restComparator;
+    private final boolean normalizedKeySort;
     private int resultPosition;
     private int[] index;
+    private long[] addresses;
     private boolean revokeMem;
     private ExecutionContext context;
 
@@ -57,10 +61,21 @@ public class MemSortor extends Sorter {
         }
         this.chunksIndex = new ChunksIndex();
         this.resultPosition = 0;
-        this.comparator = new AbstractIntComparator() {
+        this.normalizedKeySort =
+            context == null || context.getParamManager().getBoolean(ConnectionParams.ENABLE_NORMALIZED_KEY_SORT);
+        this.comparator = newComparator(orderBys, columnMetas, 0);
+        this.restComparator = newComparator(orderBys, columnMetas, 1);
+    }
+
+    /**
+     * Compares two positions by the ORDER BY columns starting from firstOrderBy
+     */
+    private IntComparator newComparator(List<OrderByOption> orderBys, List<DataType> columnMetas,
+                                        int firstOrderBy) {
+        return new AbstractIntComparator() {
             @Override
             public int compare(int position1, int position2) {
-                for (int i = 0; i < orderBys.size(); i++) {
+                for (int i = firstOrderBy; i < orderBys.size(); i++) {
                     int index = orderBys.get(i).getIndex();
                     Object o1 = chunksIndex.getObjectForCmp(index, position1);
                     Object o2 = chunksIndex.getObjectForCmp(index, position2);
@@ -98,6 +113,30 @@ public class MemSortor extends Sorter {
             memoryAllocator.allocateReservedMemory(chunksIndex.getPositionCount() * Integer.BYTES);
         }
 
+        index = null;
+        if (normalizedKeySort && !orderBys.isEmpty() && chunksIndex.getPositionCount() > 1) {
+            long sortMemory = NormalizedKeySorter.estimateSortMemory(chunksIndex.getPositionCount());
+            if (revokeMem) {
+                memoryAllocator.allocateRevocableMemory(sortMemory);
+            } else {
+                memoryAllocator.allocateReservedMemory(sortMemory);
+            }
+            try {
+                OrderByOption leading = orderBys.get(0);
+                index = NormalizedKeySorter.sort(chunksIndex, leading, columnMetas.get(leading.getIndex()),
+                    orderBys.size() > 1, comparator, restComparator);
+            } finally {
+                if (revokeMem) {
+                    memoryAllocator.releaseRevocableMemory(sortMemory, true);
+                } else {
+                    memoryAllocator.releaseReservedMemory(sortMemory, true);
+                }
+            }
+        }
+        if (index != null) {
+            return;
+        }
+
         // init index
         index = new int[chunksIndex.getPositionCount()];
         for (int i = 0; i < index.length; i++) {
@@ -111,13 +150,22 @@ public class MemSortor extends Sorter {
     @Override
     public Chunk nextChunk() {
         if (resultPosition < chunksIndex.getPositionCount()) {
-            while (resultPosition < chunksIndex.getPositionCount()
-                && blockBuilders[0].getPositionCount() < chunkLimit) {
-                for (int i = 0; i < chunksIndex.getChunk(0).getBlockCount(); i++) {
-                    blockBuilders[i].writeObject(chunksIndex.getObject(i, index[resultPosition]));
+            int count = Math.min(chunksIndex.getPositionCount() - resultPosition, chunkLimit);
+            if (addresses == null || addresses.length < count) {
+                addresses = new long[count];
+            }
+            for (int j = 0; j < count; j++) {
+                addresses[j] = chunksIndex.getAddress(index[resultPosition + j]);
+            }
+            // gather column by column
+            for (int i = 0; i < chunksIndex.getChunk(0).getBlockCount(); i++) {
+                BlockBuilder blockBuilder = blockBuilders[i];
+                for (int j = 0; j < count; j++) {
+                    Block block = chunksIndex.getChunk(SyntheticAddress.decodeIndex(addresses[j])).getBlock(i);
+                    blockBuilder.writeObject(block.getObject(SyntheticAddress.decodeOffset(addresses[j])));
                 }
-                resultPosition++;
             }
+            resultPosition += count;
             return buildChunkAndReset();
         } else {
             return null;
@@ -165,6 +213,7 @@ public class MemSortor extends Sorter {
     @Override
     public void close() {
         index = null;
+        addresses = null;
         chunksIndex = null;
         resultPosition = 0;
     }
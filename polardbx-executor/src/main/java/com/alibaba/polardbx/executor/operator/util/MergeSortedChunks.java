@@ -16,90 +16,321 @@
 
 package com.alibaba.polardbx.executor.operator.util;
 
+import com.alibaba.polardbx.common.charset.SortKey;
+import com.alibaba.polardbx.executor.operator.util.NormalizedKeySorter.KeyKind;
+import com.alibaba.polardbx.executor.utils.ExecUtils;
+import com.alibaba.polardbx.executor.utils.OrderByOption;
+import com.alibaba.polardbx.optimizer.chunk.Block;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
 import com.alibaba.polardbx.optimizer.chunk.ChunkBuilder;
 import com.alibaba.polardbx.executor.mpp.operator.DriverYieldSignal;
 import com.alibaba.polardbx.executor.mpp.operator.WorkProcessor;
+import com.alibaba.polardbx.optimizer.chunk.SliceBlock;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.google.common.collect.ImmutableList;
 
-import java.util.Comparator;
 import java.util.List;
-import java.util.function.BiPredicate;
 
-import static com.google.common.collect.ImmutableList.toImmutableList;
-import static com.alibaba.polardbx.executor.mpp.operator.WorkProcessor.mergeSorted;
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 public class MergeSortedChunks {
 
-    public static WorkProcessor<Chunk> mergeSortedPages(List<WorkProcessor<Chunk>> chunkProducers,
-                                                        ChunkWithPositionComparator comparator,
-                                                        List<DataType> types,
-                                                        int chunkLimit,
-                                                        BiPredicate<ChunkBuilder, ChunkWithPosition> chunkBreakPredicate,
-                                                        DriverYieldSignal yieldSignal,
-                                                        ExecutionContext context) {
+    /**
+     * Merges sorted chunk streams into chunks of chunkLimit rows with a loser tree.
+     * <p>
+     * Heads are compared by the normalized key of the leading ORDER BY column first, and a stream that
+     * wins twice in a row has the rest of its run copied block by block, so rows are neither wrapped nor
+     * compared against every other stream. When an input blocks the rows merged so far are returned
+     * right away instead of waiting for a full chunk.
+     */
+    public static WorkProcessor<Chunk> mergeSortedChunks(List<WorkProcessor<Chunk>> chunkProducers,
+                                                         ChunkWithPositionComparator comparator,
+                                                         List<DataType> types,
+                                                         int chunkLimit,
+                                                         DriverYieldSignal yieldSignal,
+                                                         ExecutionContext context) {
         requireNonNull(chunkProducers, "chunkProducers is null");
         requireNonNull(comparator, "comparator is null");
-        requireNonNull(chunkBreakPredicate, "chunkBreakPredicate is null");
+        checkArgument(!chunkProducers.isEmpty(), "There must be at least one base processor");
 
-        List<WorkProcessor<ChunkWithPosition>> ChunkWithPositionProducers =
-            chunkProducers.stream().map(pageProducer -> chunkWithPositions(pageProducer)).collect(toImmutableList());
+        return WorkProcessor.create(
+            new LoserTreeMerger(ImmutableList.copyOf(chunkProducers), comparator.getOrderBys(),
+                comparator.getColumnMetas(), types, chunkLimit, yieldSignal, context));
+    }
 
-        Comparator<ChunkWithPosition> chunkWithPositionComparator =
-            (firstPageWithPosition, secondPageWithPosition) -> comparator
-                .compareTo(firstPageWithPosition.getChunk(), firstPageWithPosition.getPosition(),
-                    secondPageWithPosition.getChunk(), secondPageWithPosition.getPosition()
-                );
+    private static class LoserTreeMerger implements WorkProcessor.Process<Chunk> {
 
-        return buildPage(mergeSorted(ChunkWithPositionProducers, chunkWithPositionComparator), types, chunkLimit,
-            chunkBreakPredicate, yieldSignal, context);
-    }
+        private final List<WorkProcessor<Chunk>> inputs;
+        private final List<OrderByOption> orderBys;
+        private final List<DataType> columnMetas;
+        private final int blockCount;
+        private final int chunkLimit;
+        private final DriverYieldSignal yieldSignal;
+        private final ChunkBuilder chunkBuilder;
+        private final LoserTree tree;
+
+        private final OrderByOption leading;
+        private final DataType leadingType;
+
+        /**
+         * current chunk and head position of every stream
+         */
+        private final Chunk[] chunks;
+        private final int[] positions;
+
+        /**
+         * key kind of the leading column of the current chunk, null if it can not be normalized
+         */
+        private final KeyKind[] chunkKinds;
+
+        /**
+         * normalized key of the head, in output order; headKinds is null if the head has no usable key
+         */
+        private final KeyKind[] headKinds;
+        private final boolean[] headNulls;
+        private final long[] headKeys;
+
+        /**
+         * the stream whose next chunk has to be fetched before merging goes on, -1 if none
+         */
+        private int pending;
+        private boolean initialized;
+        private boolean yielded;
+        private int outputPositions;
+        private Chunk passThrough;
 
-    public static WorkProcessor<ChunkWithPosition> chunkWithPositions(WorkProcessor<Chunk> chunks) {
-        return chunks.flatMap(chunk -> {
-            return WorkProcessor.create(new WorkProcessor.Process<ChunkWithPosition>() {
-                int position;
+        LoserTreeMerger(List<WorkProcessor<Chunk>> inputs, List<OrderByOption> orderBys, List<DataType> columnMetas,
+                        List<DataType> types, int chunkLimit, DriverYieldSignal yieldSignal,
+                        ExecutionContext context) {
+            this.inputs = inputs;
+            this.orderBys = orderBys;
+            this.columnMetas = columnMetas;
+            this.blockCount = types.size();
+            this.chunkLimit = chunkLimit;
+            this.yieldSignal = yieldSignal;
+            this.chunkBuilder = new ChunkBuilder(types, chunkLimit, context);
+            this.tree = new LoserTree(inputs.size(), this::compareHeads);
+            this.leading = orderBys.isEmpty() ? null : orderBys.get(0);
+            this.leadingType = leading == null ? null : columnMetas.get(leading.getIndex());
+
+            int size = inputs.size();
+            this.chunks = new Chunk[size];
+            this.positions = new int[size];
+            this.chunkKinds = new KeyKind[size];
+            this.headKinds = new KeyKind[size];
+            this.headNulls = new boolean[size];
+            this.headKeys = new long[size];
+            this.pending = 0;
+        }
+
+        @Override
+        public WorkProcessor.ProcessState<Chunk> process() {
+            while (true) {
+                if (pending >= 0) {
+                    WorkProcessor<Chunk> input = inputs.get(pending);
+                    if (!fetch(pending)) {
+                        if (outputPositions > 0) {
+                            // hand out what is merged so far instead of waiting for the slow input
+                            return WorkProcessor.ProcessState.ofResult(flush());
+                        }
+                        return input.isBlocked() ? WorkProcessor.ProcessState.blocked(input.getBlockedFuture()) :
+                            WorkProcessor.ProcessState.yield();
+                    }
+                    if (initialized) {
+                        tree.replay();
+                        pending = -1;
+                    } else if (++pending == inputs.size()) {
+                        tree.init();
+                        initialized = true;
+                        pending = -1;
+                    } else {
+                        continue;
+                    }
+                }
 
-                @Override
-                public WorkProcessor.ProcessState<ChunkWithPosition> process() {
-                    if (position >= chunk.getPositionCount()) {
+                if (tree.isFinished()) {
+                    if (outputPositions == 0) {
                         return WorkProcessor.ProcessState.finished();
                     }
+                    return WorkProcessor.ProcessState.ofResult(flush());
+                }
 
-                    return WorkProcessor.ProcessState.ofResult(new ChunkWithPosition(chunk, position++));
+                if (yieldSignal != null && !yielded && yieldSignal.isSet()) {
+                    yielded = true;
+                    return WorkProcessor.ProcessState.yield();
                 }
-            });
-        });
-    }
+                yielded = false;
 
-    public static WorkProcessor<Chunk> buildPage(WorkProcessor<ChunkWithPosition> chunkWithPositions,
-                                                 List<DataType> types,
-                                                 int chunkLimit,
-                                                 BiPredicate<ChunkBuilder, ChunkWithPosition> chunkBreakPredicate,
-                                                 DriverYieldSignal yieldSignal, ExecutionContext context) {
-        ChunkBuilder pageBuilder = new ChunkBuilder(types, chunkLimit, context);
-        if (yieldSignal != null) {
-            chunkWithPositions = chunkWithPositions.yielding(yieldSignal::isSet);
+                mergeRun();
+                if (passThrough != null) {
+                    Chunk chunk = passThrough;
+                    passThrough = null;
+                    return WorkProcessor.ProcessState.ofResult(chunk);
+                }
+                if (chunkBuilder.isFull()) {
+                    return WorkProcessor.ProcessState.ofResult(flush());
+                }
+            }
         }
-        return chunkWithPositions.transform(chunkWithPositionOpt -> {
-            boolean finished = !chunkWithPositionOpt.isPresent();
-            if (finished && pageBuilder.isEmpty()) {
-                return WorkProcessor.TransformationState.finished();
+
+        /**
+         * @return false if the input is blocked or yielded
+         */
+        private boolean fetch(int stream) {
+            WorkProcessor<Chunk> input = inputs.get(stream);
+            while (true) {
+                if (!input.process()) {
+                    return false;
+                }
+                if (input.isFinished()) {
+                    chunks[stream] = null;
+                    tree.setExhausted(stream);
+                    return true;
+                }
+                Chunk chunk = input.getResult();
+                if (chunk.getPositionCount() == 0) {
+                    continue;
+                }
+                chunks[stream] = chunk;
+                positions[stream] = 0;
+                chunkKinds[stream] =
+                    leading == null ? null : NormalizedKeySorter.keyKindOf(chunk.getBlock(leading.getIndex()),
+                        leadingType);
+                loadHead(stream);
+                return true;
             }
+        }
 
-            if (finished || chunkBreakPredicate.test(pageBuilder, chunkWithPositionOpt.get())) {
-                Chunk page = pageBuilder.build();
-                pageBuilder.reset();
-                if (!finished) {
-                    chunkWithPositionOpt.get().appendTo(pageBuilder);
+        /**
+         * Moves the winner's rows to the output until another stream wins, its chunk ends or the output is full
+         */
+        private void mergeRun() {
+            int winner = tree.winner();
+            Chunk chunk = chunks[winner];
+            int positionCount = chunk.getPositionCount();
+            int start = positions[winner];
+            int limit = Math.min(positionCount, start + chunkLimit - outputPositions);
+            int end = start + 1;
+            // whether the tree already knows the head at end
+            boolean replayed = false;
+            if (end < limit) {
+                positions[winner] = end;
+                loadHead(winner);
+                tree.replay();
+                replayed = true;
+                if (tree.winner() == winner) {
+                    // the stream won twice in a row, follow its run comparing with the runner-up only
+                    int challenger = tree.runnerUp();
+                    replayed = false;
+                    do {
+                        end++;
+                        if (end == limit) {
+                            break;
+                        }
+                        positions[winner] = end;
+                        loadHead(winner);
+                    } while (challenger < 0 || tree.less(winner, challenger));
                 }
-                return WorkProcessor.TransformationState.ofResult(page, !finished);
             }
 
-            chunkWithPositionOpt.get().appendTo(pageBuilder);
-            return WorkProcessor.TransformationState.needsMoreData();
-        });
+            if (outputPositions == 0 && start == 0 && end == positionCount) {
+                passThrough = chunk;
+            } else {
+                for (int column = 0; column < blockCount; column++) {
+                    Block block = chunk.getBlock(column);
+                    for (int position = start; position < end; position++) {
+                        chunkBuilder.appendTo(block, column, position);
+                    }
+                }
+                for (int position = start; position < end; position++) {
+                    chunkBuilder.declarePosition();
+                }
+                outputPositions += end - start;
+            }
+
+            positions[winner] = end;
+            if (end == positionCount) {
+                // the tree is replayed once the next chunk arrives
+                pending = winner;
+            } else if (!replayed) {
+                loadHead(winner);
+                tree.replay();
+            }
+        }
+
+        private Chunk flush() {
+            Chunk chunk = chunkBuilder.build();
+            chunkBuilder.reset();
+            outputPositions = 0;
+            return chunk;
+        }
+
+        private void loadHead(int stream) {
+            KeyKind kind = chunkKinds[stream];
+            headKinds[stream] = kind;
+            if (kind == null) {
+                return;
+            }
+            int position = positions[stream];
+            Block block = chunks[stream].getBlock(leading.getIndex());
+            if (block.isNull(position)) {
+                headNulls[stream] = true;
+                return;
+            }
+            headNulls[stream] = false;
+            long key;
+            if (kind == KeyKind.STRING_PREFIX) {
+                SortKey sortKey = ((SliceBlock) block).getSortKey(position);
+                if (!NormalizedKeySorter.isPrefixComparable(sortKey)) {
+                    headKinds[stream] = null;
+                    return;
+                }
+                key = NormalizedKeySorter.encodePrefix(sortKey.keys);
+            } else {
+                key = NormalizedKeySorter.encodeKey(kind, block, position);
+            }
+            headKeys[stream] = leading.isAsc() ? key : ~key;
+        }
+
+        private int compareHeads(int left, int right) {
+            int from = 0;
+            KeyKind kind = headKinds[left];
+            if (kind != null && kind == headKinds[right]) {
+                boolean leftNull = headNulls[left];
+                if (leftNull != headNulls[right]) {
+                    // null is the smallest value
+                    return leftNull == leading.isAsc() ? -1 : 1;
+                }
+                if (!leftNull) {
+                    int result = Long.compareUnsigned(headKeys[left], headKeys[right]);
+                    if (result != 0) {
+                        return result;
+                    }
+                }
+                if (leftNull || kind.exact) {
+                    from = 1;
+                }
+            }
+
+            Chunk leftChunk = chunks[left];
+            Chunk rightChunk = chunks[right];
+            int leftPosition = positions[left];
+            int rightPosition = positions[right];
+            for (int i = from; i < orderBys.size(); i++) {
+                OrderByOption option = orderBys.get(i);
+                Object c1 = leftChunk.getBlock(option.getIndex()).getObjectForCmp(leftPosition);
+                Object c2 = rightChunk.getBlock(option.getIndex()).getObjectForCmp(rightPosition);
+                if (c1 == null && c2 == null) {
+                    continue;
+                }
+                int n = ExecUtils.comp(c1, c2, columnMetas.get(option.getIndex()), option.isAsc());
+                if (n != 0) {
+                    return n;
+                }
+            }
+            return 0;
+        }
     }
 }
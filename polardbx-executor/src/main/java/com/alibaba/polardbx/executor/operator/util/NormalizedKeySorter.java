@@ -0,0 +1,332 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.operator.util;
+
+import com.alibaba.polardbx.common.charset.SortKey;
+import com.alibaba.polardbx.executor.utils.OrderByOption;
+import com.alibaba.polardbx.optimizer.chunk.Block;
+import com.alibaba.polardbx.optimizer.chunk.ByteBlock;
+import com.alibaba.polardbx.optimizer.chunk.DateBlock;
+import com.alibaba.polardbx.optimizer.chunk.DoubleBlock;
+import com.alibaba.polardbx.optimizer.chunk.FloatBlock;
+import com.alibaba.polardbx.optimizer.chunk.IntegerBlock;
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
+import com.alibaba.polardbx.optimizer.chunk.ShortBlock;
+import com.alibaba.polardbx.optimizer.chunk.SliceBlock;
+import com.alibaba.polardbx.optimizer.chunk.TimestampBlock;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.SliceType;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.ints.IntComparator;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+
+/**
+ * Sorts the positions of a ChunksIndex by a 64-bit normalized key of the leading ORDER BY column.
+ * <p>
+ * The key is byte-comparable as an unsigned long: integers and packed temporal values are exact, so are
+ * doubles and floats by their IEEE bits, and strings use the first 8 bytes of their collation sort key.
+ * Positions are radix sorted by key, then only runs of equal keys are sorted with the row comparator,
+ * which is needed for the following ORDER BY columns and for string prefixes.
+ * <p>
+ * Nulls follow the row comparator: smallest value, i.e. first for ASC and last for DESC.
+ */
+public final class NormalizedKeySorter {
+
+    static final int PREFIX_BYTES = Long.BYTES;
+
+    /**
+     * Below this size an insertion sort of the keys is cheaper than the radix histograms
+     */
+    private static final int RADIX_SORT_THRESHOLD = 256;
+
+    private static final int SORT_KEY_UNSET_EFFECTIVE_LENGTH = -1;
+
+    enum KeyKind {
+        INTEGRAL(true), FLOAT(true), DOUBLE(true), PACKED_TEMPORAL(true), STRING_PREFIX(false);
+
+        /**
+         * equal keys mean equal values
+         */
+        final boolean exact;
+
+        KeyKind(boolean exact) {
+            this.exact = exact;
+        }
+    }
+
+    private NormalizedKeySorter() {
+    }
+
+    /**
+     * Bytes of the temporary arrays used to sort positionCount positions
+     */
+    public static long estimateSortMemory(int positionCount) {
+        return (long) positionCount * (Long.BYTES * 2 + Integer.BYTES);
+    }
+
+    /**
+     * @param comparator compares two positions by all the ORDER BY columns
+     * @param restComparator compares two positions by the ORDER BY columns after the leading one
+     * @return positions in order, or null if the leading column can not be normalized
+     */
+    public static int[] sort(ChunksIndex chunksIndex, OrderByOption leading, DataType leadingType,
+                             boolean hasRestColumns, IntComparator comparator, IntComparator restComparator) {
+        final int column = leading.getIndex();
+        final KeyKind kind = keyKindOf(chunksIndex, column, leadingType);
+        if (kind == null) {
+            return null;
+        }
+
+        final int positionCount = chunksIndex.getPositionCount();
+        final long[] keys = new long[positionCount];
+        final int[] index = new int[positionCount];
+        // non-null positions are put in the front, nulls fill up from the end
+        int nonNullCount = 0;
+        int nullStart = positionCount;
+        int position = 0;
+        for (int chunkId = 0; chunkId < chunksIndex.getChunkCount(); chunkId++) {
+            Block block = chunksIndex.getChunk(chunkId).getBlock(column);
+            for (int i = 0; i < block.getPositionCount(); i++, position++) {
+                if (block.isNull(i)) {
+                    index[--nullStart] = position;
+                    continue;
+                }
+                long key;
+                if (kind == KeyKind.STRING_PREFIX) {
+                    SortKey sortKey = ((SliceBlock) block).getSortKey(i);
+                    if (!isPrefixComparable(sortKey)) {
+                        return null;
+                    }
+                    key = encodePrefix(sortKey.keys);
+                } else {
+                    key = encodeKey(kind, block, i);
+                }
+                keys[nonNullCount] = leading.isAsc() ? key : ~key;
+                index[nonNullCount++] = position;
+            }
+        }
+
+        sortByKey(keys, index, 0, nonNullCount);
+
+        // positions with equal keys are ordered by the rest of the row
+        if (hasRestColumns || !kind.exact) {
+            IntComparator tieComparator = kind.exact ? restComparator : comparator;
+            int runStart = 0;
+            for (int i = 1; i <= nonNullCount; i++) {
+                if (i == nonNullCount || keys[i] != keys[runStart]) {
+                    if (i - runStart > 1) {
+                        IntArrays.quickSort(index, runStart, i, tieComparator);
+                    }
+                    runStart = i;
+                }
+            }
+        }
+        if (hasRestColumns && positionCount - nonNullCount > 1) {
+            IntArrays.quickSort(index, nonNullCount, positionCount, restComparator);
+        }
+
+        if (nonNullCount == positionCount) {
+            return index;
+        }
+        int[] result = new int[positionCount];
+        int nullCount = positionCount - nonNullCount;
+        if (leading.isAsc()) {
+            System.arraycopy(index, nonNullCount, result, 0, nullCount);
+            System.arraycopy(index, 0, result, nullCount, nonNullCount);
+        } else {
+            System.arraycopy(index, 0, result, 0, positionCount);
+        }
+        return result;
+    }
+
+    static KeyKind keyKindOf(ChunksIndex chunksIndex, int column, DataType type) {
+        if (chunksIndex.getChunkCount() == 0) {
+            return null;
+        }
+        KeyKind kind = null;
+        for (int chunkId = 0; chunkId < chunksIndex.getChunkCount(); chunkId++) {
+            KeyKind blockKind = keyKindOf(chunksIndex.getChunk(chunkId).getBlock(column), type);
+            if (blockKind == null || (kind != null && kind != blockKind)) {
+                return null;
+            }
+            kind = blockKind;
+        }
+        return kind;
+    }
+
+    static KeyKind keyKindOf(Block block, DataType type) {
+        Class dataClass = type.getDataClass();
+        if (block instanceof IntegerBlock || block instanceof LongBlock
+            || block instanceof ShortBlock || block instanceof ByteBlock) {
+            if (dataClass == Integer.class || dataClass == Long.class
+                || dataClass == Short.class || dataClass == Byte.class) {
+                return KeyKind.INTEGRAL;
+            }
+        } else if (block instanceof DoubleBlock) {
+            return dataClass == Double.class ? KeyKind.DOUBLE : null;
+        } else if (block instanceof FloatBlock) {
+            return dataClass == Float.class ? KeyKind.FLOAT : null;
+        } else if (block instanceof TimestampBlock || block instanceof DateBlock) {
+            // getObjectForCmp of temporal blocks is the packed long
+            if (dataClass == Timestamp.class || dataClass == Date.class) {
+                return KeyKind.PACKED_TEMPORAL;
+            }
+        } else if (block instanceof SliceBlock) {
+            return type instanceof SliceType ? KeyKind.STRING_PREFIX : null;
+        }
+        return null;
+    }
+
+    /**
+     * Normalized key of a non-null position of any kind but STRING_PREFIX, in ascending order
+     */
+    static long encodeKey(KeyKind kind, Block block, int position) {
+        switch (kind) {
+        case INTEGRAL:
+            return encodeLong(integralValue(block, position));
+        case FLOAT:
+            return encodeFloat(block.getFloat(position));
+        case DOUBLE:
+            return encodeDouble(block.getDouble(position));
+        case PACKED_TEMPORAL:
+            return encodeLong(block.getPackedLong(position));
+        default:
+            throw new IllegalArgumentException("string keys are encoded from their sort key");
+        }
+    }
+
+    /**
+     * Padded keys are only comparable byte by byte when long enough
+     */
+    static boolean isPrefixComparable(SortKey sortKey) {
+        return sortKey.effectiveLength == SORT_KEY_UNSET_EFFECTIVE_LENGTH || sortKey.keys.length >= PREFIX_BYTES;
+    }
+
+    private static long integralValue(Block block, int position) {
+        if (block instanceof IntegerBlock) {
+            return block.getInt(position);
+        } else if (block instanceof LongBlock) {
+            return block.getLong(position);
+        } else if (block instanceof ShortBlock) {
+            return block.getShort(position);
+        }
+        return block.getByte(position);
+    }
+
+    static long encodeLong(long value) {
+        return value ^ Long.MIN_VALUE;
+    }
+
+    static long encodeDouble(double value) {
+        // same order as Double.compare: flip all bits of negatives, only the sign bit of positives
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
+
+    static long encodeFloat(float value) {
+        int bits = Float.floatToIntBits(value);
+        return (long) (bits ^ ((bits >> 31) | Integer.MIN_VALUE)) << 32;
+    }
+
+    /**
+     * First bytes big endian, shorter keys are padded with 0 so they sort before their extensions
+     */
+    static long encodePrefix(byte[] bytes) {
+        long key = 0;
+        int length = Math.min(bytes.length, PREFIX_BYTES);
+        for (int i = 0; i < length; i++) {
+            key |= (bytes[i] & 0xffL) << ((PREFIX_BYTES - 1 - i) << 3);
+        }
+        return key;
+    }
+
+    /**
+     * Sorts keys[from, to) as unsigned longs and permutes index along with them
+     */
+    static void sortByKey(long[] keys, int[] index, int from, int to) {
+        int length = to - from;
+        if (length < RADIX_SORT_THRESHOLD) {
+            insertionSort(keys, index, from, to);
+            return;
+        }
+
+        // one pass for the histograms of all 8 bytes
+        int[][] counts = new int[Long.BYTES][256];
+        for (int i = from; i < to; i++) {
+            long key = keys[i];
+            for (int b = 0; b < Long.BYTES; b++) {
+                counts[b][(int) (key >>> (b << 3)) & 0xff]++;
+            }
+        }
+
+        long[] srcKeys = keys;
+        int[] srcIndex = index;
+        long[] dstKeys = new long[length];
+        int[] dstIndex = new int[length];
+        int srcOffset = from;
+        int dstOffset = 0;
+        for (int b = 0; b < Long.BYTES; b++) {
+            int[] count = counts[b];
+            int shift = b << 3;
+            // skip the byte when all keys share it
+            if (count[(int) (srcKeys[srcOffset] >>> shift) & 0xff] == length) {
+                continue;
+            }
+            int sum = dstOffset;
+            for (int v = 0; v < 256; v++) {
+                int c = count[v];
+                count[v] = sum;
+                sum += c;
+            }
+            for (int i = srcOffset; i < srcOffset + length; i++) {
+                int target = count[(int) (srcKeys[i] >>> shift) & 0xff]++;
+                dstKeys[target] = srcKeys[i];
+                dstIndex[target] = srcIndex[i];
+            }
+            long[] tmpKeys = srcKeys;
+            int[] tmpIndex = srcIndex;
+            srcKeys = dstKeys;
+            srcIndex = dstIndex;
+            dstKeys = tmpKeys;
+            dstIndex = tmpIndex;
+            int tmpOffset = srcOffset;
+            srcOffset = dstOffset;
+            dstOffset = tmpOffset;
+        }
+        if (srcKeys != keys) {
+            System.arraycopy(srcKeys, srcOffset, keys, from, length);
+            System.arraycopy(srcIndex, srcOffset, index, from, length);
+        }
+    }
+
+    private static void insertionSort(long[] keys, int[] index, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            long key = keys[i];
+            int position = index[i];
+            int j = i - 1;
+            while (j >= from && Long.compareUnsigned(keys[j], key) > 0) {
+                keys[j + 1] = keys[j];
+                index[j + 1] = index[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            index[j + 1] = position;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.operator.util;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.HashCommon;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.Arrays;
+
+/**
+ * A raw hash table (hash code to the head of a position link) split into radix partitions
+ * by the high bits of the mixed hash code. Each partition is a plain int array written by
+ * a single builder and sized so that its buckets fit in the L2 cache, so building needs no
+ * CAS and neither building nor probing jumps around a table bigger than the cache.
+ * <p>
+ * Rows are scattered by {@link #FANOUT_BITS} bits in advance, before the number of partitions
+ * is known; a partition of the table covers a contiguous range of those fine partitions.
+ */
+public class RadixPartitionedHashTable implements Hash {
+
+    private static final long INSTANCE_SIZE = ClassLayout.parseClass(RadixPartitionedHashTable.class).instanceSize();
+
+    public static final int NOT_EXISTS = ConcurrentRawHashTable.NOT_EXISTS;
+
+    /**
+     * Number of bits rows are scattered by
+     */
+    public static final int FANOUT_BITS = 8;
+
+    public static final int FANOUT = 1 << FANOUT_BITS;
+
+    /**
+     * Target size of the buckets of one partition
+     */
+    private static final int PARTITION_BYTES = 256 * 1024;
+
+    private final int partitionBits;
+    private final float loadFactor;
+
+    private final int[][] buckets;
+    private final int[] masks;
+
+    public RadixPartitionedHashTable(int size, int minPartitions) {
+        Preconditions.checkArgument(size >= 0, "The number of elements must be non-negative");
+        this.loadFactor = selectLoadFactor(size);
+
+        int bits = 0;
+        while (bits < FANOUT_BITS && ((1 << bits) < minPartitions
+            || (long) HashCommon.arraySize(size >>> bits, loadFactor) * Integer.BYTES > PARTITION_BYTES)) {
+            bits++;
+        }
+        this.partitionBits = bits;
+        this.buckets = new int[1 << bits][];
+        this.masks = new int[1 << bits];
+    }
+
+    private static float selectLoadFactor(int size) {
+        if (size >= 100_000_000) { // more than 100M records
+            return DEFAULT_LOAD_FACTOR;
+        } else if (size >= 10_000_000) { // more than 10M records
+            return FAST_LOAD_FACTOR;
+        } else { // otherwise
+            return VERY_FAST_LOAD_FACTOR;
+        }
+    }
+
+    /**
+     * Fine partition of a hash code, in [0, FANOUT)
+     */
+    public static int fanoutPartition(int hash) {
+        return HashCommon.mix(hash) >>> (Integer.SIZE - FANOUT_BITS);
+    }
+
+    public int getPartitionCount() {
+        return buckets.length;
+    }
+
+    /**
+     * First fine partition covered by the given partition, the last one is
+     * {@code getFanoutStart(partition + 1) - 1}
+     */
+    public int getFanoutStart(int partition) {
+        return partition << (FANOUT_BITS - partitionBits);
+    }
+
+    /**
+     * Allocate the buckets of a partition before putting its rows
+     *
+     * @return the allocated bytes
+     */
+    public long initPartition(int partition, int size) {
+        int n = HashCommon.arraySize(Math.max(size, 1), loadFactor);
+        int[] partitionBuckets = new int[n];
+        Arrays.fill(partitionBuckets, NOT_EXISTS);
+        masks[partition] = n - 1;
+        buckets[partition] = partitionBuckets;
+        return (long) n * Integer.BYTES;
+    }
+
+    /**
+     * Put a hash code to value. Only the builder of this partition may call it.
+     *
+     * @return the replaced value, or NOT_EXISTS if this slot was empty
+     */
+    public int put(int partition, int value, int hash) {
+        final int[] partitionBuckets = buckets[partition];
+        final int h = HashCommon.mix(hash) & masks[partition];
+        final int old = partitionBuckets[h];
+        partitionBuckets[h] = value;
+        return old;
+    }
+
+    /**
+     * Get a value by hash code
+     *
+     * @return the mapped value of given hash code, or NOT_EXISTS if not found
+     */
+    public int get(int hash) {
+        final int mixed = HashCommon.mix(hash);
+        final int partition = partitionBits == 0 ? 0 : mixed >>> (Integer.SIZE - partitionBits);
+        final int[] partitionBuckets = buckets[partition];
+        return partitionBuckets == null ? NOT_EXISTS : partitionBuckets[mixed & masks[partition]];
+    }
+
+    /**
+     * Look up a batch of hash codes. The independent loads of a tight loop let
+     * the cache misses of different rows overlap.
+     */
+    public void getAll(int[] hashes, int count, int[] results) {
+        for (int i = 0; i < count; i++) {
+            results[i] = get(hashes[i]);
+        }
+    }
+
+    public long estimateSize() {
+        long size = INSTANCE_SIZE + (long) buckets.length * (Integer.BYTES + 8);
+        for (int[] partitionBuckets : buckets) {
+            if (partitionBuckets != null) {
+                size += (long) partitionBuckets.length * Integer.BYTES;
+            }
+        }
+        return size;
+    }
+}
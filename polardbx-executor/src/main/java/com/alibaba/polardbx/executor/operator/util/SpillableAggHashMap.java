@@ -29,7 +29,6 @@ import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
 import com.alibaba.polardbx.optimizer.chunk.BlockBuilder;
 import com.alibaba.polardbx.optimizer.chunk.BlockBuilders;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
-import com.alibaba.polardbx.optimizer.chunk.ChunkBuilder;
 import com.alibaba.polardbx.executor.mpp.operator.WorkProcessor;
 import com.alibaba.polardbx.executor.mpp.operator.WorkProcessorExec;
 import com.alibaba.polardbx.executor.operator.ProducerExecutor;
@@ -47,7 +46,6 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-import java.util.function.BiPredicate;
 
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableList.toImmutableList;
@@ -132,7 +130,7 @@ public class SpillableAggHashMap implements AggHashMap {
             return ImmutableList.of();
         }
 
-        return spiller.get().getSpills().stream().map(WorkProcessor::fromIterator).collect(toImmutableList());
+        return spiller.get().getSpills(memoryAllocator).stream().map(WorkProcessor::fromIterator).collect(toImmutableList());
     }
 
     @Override
@@ -161,10 +159,8 @@ public class SpillableAggHashMap implements AggHashMap {
 
         ChunkWithPositionComparator comparator = new ChunkWithPositionComparator(orderBys, dataTypes);
 
-        BiPredicate<ChunkBuilder, ChunkWithPosition> chunkBreakPredicate =
-            (chunkBuilder, ChunkWithPosition) -> chunkBuilder.isFull();
-        WorkProcessor<Chunk> sortedChunks = MergeSortedChunks.mergeSortedPages(
-            sortedStreams, comparator, spillTypes, chunkSize, chunkBreakPredicate, null, context);
+        WorkProcessor<Chunk> sortedChunks = MergeSortedChunks.mergeSortedChunks(
+            sortedStreams, comparator, spillTypes, chunkSize, null, context);
 
         int[] groups = new int[groupKeyType.length];
         for (int i = 0; i < groupKeyType.length; i++) {
@@ -40,7 +40,6 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-import java.util.function.BiPredicate;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
@@ -278,7 +277,7 @@ public class SpilledTopNHeap {
         if (!spiller.isPresent()) {
             return ImmutableList.of();
         }
-        return spiller.get().getSpills().stream().map(WorkProcessor::fromIterator).collect(toImmutableList());
+        return spiller.get().getSpills(memoryAllocator).stream().map(WorkProcessor::fromIterator).collect(toImmutableList());
     }
 
     private WorkProcessor<Chunk> mergeSpilledAndMemoryPages(List<WorkProcessor<Chunk>> spilledPages,
@@ -290,10 +289,8 @@ public class SpilledTopNHeap {
             .add(WorkProcessor.fromIterator(sortedPagesIndex))
             .build();
 
-        BiPredicate<ChunkBuilder, ChunkWithPosition> chunkBreakPredicate =
-            (chunkBuilder, ChunkWithPosition) -> chunkBuilder.isFull();
-        return MergeSortedChunks.mergeSortedPages(
-            sortedStreams, pageWithPositionComparator, sourceTypes, chunkLimit, chunkBreakPredicate, null, context);
+        return MergeSortedChunks.mergeSortedChunks(
+            sortedStreams, pageWithPositionComparator, sourceTypes, chunkLimit, null, context);
     }
 
     private Row getTheRow(IndexRow rowAddress) {
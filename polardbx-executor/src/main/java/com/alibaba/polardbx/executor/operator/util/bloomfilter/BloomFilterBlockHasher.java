@@ -0,0 +1,120 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.operator.util.bloomfilter;
+
+import com.alibaba.polardbx.optimizer.chunk.Block;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.IntegerBlock;
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
+import com.alibaba.polardbx.optimizer.chunk.SliceBlock;
+import com.alibaba.polardbx.util.bloomfilter.BlockedBloomFilter;
+import com.alibaba.polardbx.util.bloomfilter.TddlHasher;
+import com.alibaba.polardbx.util.bloomfilter.XxHash64Method;
+
+import java.util.List;
+
+/**
+ * Column-at-a-time hashing of chunks for {@link BlockedBloomFilter}.
+ * LongBlock, IntegerBlock and SliceBlock are hashed directly from their values, other blocks
+ * go through {@link Block#addToBloomFilter} with an xxhash hasher. Both give the same hash
+ * as hashing the row with {@link XxHash64Method#newHasher()}.
+ */
+public final class BloomFilterBlockHasher {
+
+    private static final byte[] EMPTY_BYTES = new byte[0];
+
+    private BloomFilterBlockHasher() {
+    }
+
+    public static void putBlock(BlockedBloomFilter bloomFilter, Chunk chunk, List<Integer> hashColumns) {
+        int positionCount = chunk.getPositionCount();
+        long[] hashes = new long[positionCount];
+        hashRows(bloomFilter, chunk, hashColumns, null, positionCount, hashes);
+        bloomFilter.putAll(hashes, positionCount);
+    }
+
+    /**
+     * Probe the selected positions of chunk and keep those that might be contained.
+     *
+     * @return number of positions left in selection
+     */
+    public static int probeBlock(BlockedBloomFilter bloomFilter, Chunk chunk, List<Integer> hashColumns,
+                                 int[] selection, int selectedCount, long[] hashes) {
+        hashRows(bloomFilter, chunk, hashColumns, selection, selectedCount, hashes);
+        return bloomFilter.mightContainAll(hashes, selection, selectedCount);
+    }
+
+    /**
+     * Fill hashes[i] with the hash of row selection[i], or of row i if selection is null.
+     */
+    static void hashRows(BlockedBloomFilter bloomFilter, Chunk chunk, List<Integer> hashColumns, int[] selection,
+                         int count, long[] hashes) {
+        TddlHasher hasher = null;
+        for (int c = 0; c < hashColumns.size(); c++) {
+            Block block = chunk.getBlock(hashColumns.get(c));
+            boolean first = c == 0;
+            if (block instanceof LongBlock) {
+                hashLongBlock((LongBlock) block, selection, count, hashes, first);
+            } else if (block instanceof IntegerBlock) {
+                hashIntegerBlock((IntegerBlock) block, selection, count, hashes, first);
+            } else if (block instanceof SliceBlock) {
+                hashSliceBlock((SliceBlock) block, selection, count, hashes, first);
+            } else {
+                if (hasher == null) {
+                    hasher = bloomFilter.newHasher();
+                }
+                for (int i = 0; i < count; i++) {
+                    int position = selection == null ? i : selection[i];
+                    block.addToBloomFilter(hasher, position);
+                    hashes[i] = fold(hashes[i], hasher.hash().asLong(), first);
+                }
+            }
+        }
+    }
+
+    private static void hashLongBlock(LongBlock block, int[] selection, int count, long[] hashes, boolean first) {
+        for (int i = 0; i < count; i++) {
+            int position = selection == null ? i : selection[i];
+            long value = block.isNull(position) ? 0L : block.getLong(position);
+            hashes[i] = fold(hashes[i], XxHash64Method.hashLong(value), first);
+        }
+    }
+
+    private static void hashIntegerBlock(IntegerBlock block, int[] selection, int count, long[] hashes,
+                                         boolean first) {
+        for (int i = 0; i < count; i++) {
+            int position = selection == null ? i : selection[i];
+            long value = block.isNull(position) ? 0L : block.getInt(position);
+            hashes[i] = fold(hashes[i], XxHash64Method.hashLong(value), first);
+        }
+    }
+
+    private static void hashSliceBlock(SliceBlock block, int[] selection, int count, long[] hashes,
+                                       boolean first) {
+        for (int i = 0; i < count; i++) {
+            int position = selection == null ? i : selection[i];
+            long valueHash = block.isNull(position)
+                ? XxHash64Method.hashBytes(EMPTY_BYTES, 0, 0)
+                : XxHash64Method.hashBytes(block.getRegion(position));
+            hashes[i] = fold(hashes[i], valueHash, first);
+        }
+    }
+
+    private static long fold(long rowHash, long valueHash, boolean first) {
+        return XxHash64Method.combine(first ? 0L : rowHash, valueHash);
+    }
+}
@@ -17,6 +17,8 @@
 package com.alibaba.polardbx.executor.operator.util.bloomfilter;
 
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.util.bloomfilter.BlockedBloomFilter;
+import com.alibaba.polardbx.util.bloomfilter.BloomFilter;
 import com.alibaba.polardbx.util.bloomfilter.TddlHasher;
 
 /**
@@ -26,6 +28,7 @@ import com.alibaba.polardbx.util.bloomfilter.TddlHasher;
 public class BloomFilterConsumeFilter {
     private final BloomFilterConsume bloomFilterConsume;
     private TddlHasher hasher;
+    private long[] hashes;
 
     public BloomFilterConsumeFilter(BloomFilterConsume bloomFilterConsume) {
         this.bloomFilterConsume = bloomFilterConsume;
@@ -44,4 +47,34 @@ public class BloomFilterConsumeFilter {
         }
         return bfilter;
     }
+
+    /**
+     * Keep the selected positions of chunk that might pass this bloom filter.
+     *
+     * @return number of positions left in selection
+     */
+    public int filter(Chunk chunk, int[] selection, int selectedCount) {
+        BloomFilter bloomFilter = bloomFilterConsume.getBloomFilter();
+        if (bloomFilter == null) {
+            return selectedCount;
+        }
+        if (bloomFilter instanceof BlockedBloomFilter) {
+            if (hashes == null || hashes.length < selectedCount) {
+                hashes = new long[selection.length];
+            }
+            return BloomFilterBlockHasher.probeBlock((BlockedBloomFilter) bloomFilter, chunk,
+                bloomFilterConsume.getHashKeys(), selection, selectedCount, hashes);
+        }
+        if (hasher == null) {
+            hasher = bloomFilter.newHasher();
+        }
+        int selected = 0;
+        for (int i = 0; i < selectedCount; i++) {
+            int position = selection[i];
+            if (bloomFilter.mightContain(chunk.rowAt(position).hashCode(hasher, bloomFilterConsume.getHashKeys()))) {
+                selection[selected++] = position;
+            }
+        }
+        return selected;
+    }
 }
@@ -41,6 +41,24 @@ public class BloomFilterExpressionFilter {
         return false;
     }
 
+    /**
+     * Fill selection with the positions of chunk that pass all bloom filters.
+     *
+     * @return number of selected positions
+     */
+    public int filter(Chunk chunk, int[] selection) {
+        int selectedCount = chunk.getPositionCount();
+        for (int i = 0; i < selectedCount; i++) {
+            selection[i] = i;
+        }
+        if (expression.isExistBloomFilter()) {
+            for (int i = 0; i < filters.size() && selectedCount > 0; i++) {
+                selectedCount = filters.get(i).filter(chunk, selection, selectedCount);
+            }
+        }
+        return selectedCount;
+    }
+
     public boolean isExistBloomFilter() {
         return expression.isExistBloomFilter();
     }
@@ -37,6 +37,7 @@ import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
 import com.alibaba.polardbx.executor.utils.SchemaMetaUtil;
 import com.alibaba.polardbx.optimizer.config.table.ColumnMeta;
 import com.alibaba.polardbx.optimizer.config.table.statistic.Histogram;
+import com.alibaba.polardbx.optimizer.config.table.statistic.HistogramBuilder;
 import com.alibaba.polardbx.optimizer.config.table.statistic.TopN;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 
@@ -53,7 +54,6 @@ import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.stream.Collectors;
 
 import static com.alibaba.polardbx.common.utils.GeneralUtil.unixTimeStamp;
 import static com.alibaba.polardbx.executor.statistic.MysqlStatisticCollector.USE_BC_GEE_CARDINALITY;
@@ -365,14 +365,18 @@ public class StatisticBuilder {
                 histogramSampleRate = (float) (data.length) / (rowCount - nullCountList.get(i));
             }
             DataType dataType = columnMetaList.get(i).getField().getDataType();
-            histogramList.add(new Histogram(histogramBucketSize, dataType,
-                histogramSampleRate));
             TopN topN = new TopN(dataType);
             Arrays.stream(data).forEach(obj -> topN.offer(obj));
             topN.build(topNSize, topNMinNum);
             cacheLine.getTopNMap().put(columnName, topN);
-            histogramList.get(i).buildFromData(Arrays.stream(data).filter(d -> topN.get(d) == 0).collect(
-                Collectors.toList()).toArray());
+            HistogramBuilder histogramBuilder =
+                new HistogramBuilder(histogramBucketSize, dataType, histogramSampleRate);
+            for (Object d : data) {
+                if (topN.get(d) == 0) {
+                    histogramBuilder.offer(d);
+                }
+            }
+            histogramList.add(histogramBuilder.build());
         }
 
         for (int i = 0; i < columnMetaList.size(); i++) {
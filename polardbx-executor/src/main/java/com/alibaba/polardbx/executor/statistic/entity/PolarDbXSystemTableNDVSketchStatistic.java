@@ -20,6 +20,7 @@ import com.alibaba.druid.util.JdbcUtils;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
 import com.alibaba.polardbx.config.ConfigDataMode;
+import com.alibaba.polardbx.executor.statistic.ndv.NDVDeltaSketch;
 import com.alibaba.polardbx.gms.metadb.GmsSystemTables;
 import com.alibaba.polardbx.gms.metadb.MetaDbDataSource;
 import com.alibaba.polardbx.optimizer.config.table.statistic.inf.SystemTableNDVSketchStatistic;
@@ -30,6 +31,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Map;
 
@@ -70,15 +72,31 @@ public class PolarDbXSystemTableNDVSketchStatistic implements SystemTableNDVSket
 
     private static final String LOAD_ALL_SQL =
         "SELECT `SCHEMA_NAME`, `TABLE_NAME`, `COLUMN_NAMES`, `SHARD_PART`, `DN_CARDINALITY`, `COMPOSITE_CARDINALITY`, `SKETCH_BYTES`, `SKETCH_TYPE`, `GMT_MODIFIED`, `GMT_CREATED` FROM `"
-            + TABLE_NAME + "` WHERE SCHEMA_NAME = ? ";
+            + TABLE_NAME + "` WHERE SCHEMA_NAME = ? AND SKETCH_TYPE != '" + NDVDeltaSketch.SKETCH_TYPE + "'";
 
     private static final String LOAD_BY_TABLE_NAME_SQL =
         "SELECT `SCHEMA_NAME`, `TABLE_NAME`, `COLUMN_NAMES`, `SHARD_PART`, `DN_CARDINALITY`, `COMPOSITE_CARDINALITY`, `SKETCH_BYTES`, `SKETCH_TYPE`, `GMT_MODIFIED`, `GMT_CREATED` FROM `"
-            + TABLE_NAME + "` WHERE SCHEMA_NAME = ? AND TABLE_NAME = ?";
+            + TABLE_NAME + "` WHERE SCHEMA_NAME = ? AND TABLE_NAME = ? AND SKETCH_TYPE != '"
+            + NDVDeltaSketch.SKETCH_TYPE + "'";
 
     private static final String LOAD_BY_TABLE_NAME_AND_COLUMN_NAME_SQL =
         "SELECT `SHARD_PART`, `SKETCH_BYTES` FROM `" + TABLE_NAME
-            + "` WHERE SCHEMA_NAME = ? AND TABLE_NAME = ? AND COLUMN_NAMES = ?";
+            + "` WHERE SCHEMA_NAME = ? AND TABLE_NAME = ? AND COLUMN_NAMES = ? AND SKETCH_TYPE != '"
+            + NDVDeltaSketch.SKETCH_TYPE + "'";
+
+    /**
+     * incremental sketch rows maintained from dml, one row for each CN
+     */
+    private static final String LOAD_DELTA_SQL =
+        "SELECT `SHARD_PART`, `DN_CARDINALITY`, `COMPOSITE_CARDINALITY`, `SKETCH_BYTES` FROM `" + TABLE_NAME
+            + "` WHERE SCHEMA_NAME = ? AND TABLE_NAME = ? AND COLUMN_NAMES = ? AND SKETCH_TYPE = '"
+            + NDVDeltaSketch.SKETCH_TYPE + "'";
+
+    private static final String DELETE_DELTA_SQL =
+        "DELETE FROM `" + TABLE_NAME + "` WHERE SCHEMA_NAME = ? AND TABLE_NAME = ? AND COLUMN_NAMES = ? "
+            + "AND SKETCH_TYPE = '" + NDVDeltaSketch.SKETCH_TYPE + "' AND GMT_MODIFIED < ?";
+
+    private static final String CURRENT_TIME_SQL = "SELECT NOW()";
 
     /**
      * select table rows sql, need to concat with values
@@ -90,7 +108,8 @@ public class PolarDbXSystemTableNDVSketchStatistic implements SystemTableNDVSket
      * update composite cardinality
      */
     private static final String UPDATE_SQL = "UPDATE `" + TABLE_NAME
-        + "` SET `COMPOSITE_CARDINALITY` = ? WHERE  `SCHEMA_NAME` = ? AND `TABLE_NAME` = ? AND `COLUMN_NAMES` = ?";
+        + "` SET `COMPOSITE_CARDINALITY` = ? WHERE  `SCHEMA_NAME` = ? AND `TABLE_NAME` = ? AND `COLUMN_NAMES` = ?"
+        + " AND SKETCH_TYPE != '" + NDVDeltaSketch.SKETCH_TYPE + "'";
 
     private static PolarDbXSystemTableNDVSketchStatistic polarDbXSystemTableNDVSketchStatistic =
         new PolarDbXSystemTableNDVSketchStatistic();
@@ -358,5 +377,84 @@ public class PolarDbXSystemTableNDVSketchStatistic implements SystemTableNDVSket
         }
         return rowMap;
     }
-}
 
+    @Override
+    public SketchRow[] loadDeltaByTableNameAndColumnName(String schemaName, String tableName, String columnNames) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        List<SketchRow> rows = Lists.newLinkedList();
+        try {
+            conn = MetaDbDataSource.getInstance().getDataSource().getConnection();
+            ps = conn.prepareStatement(LOAD_DELTA_SQL);
+            ps.setString(1, schemaName);
+            ps.setString(2, tableName);
+            ps.setString(3, columnNames);
+            rs = ps.executeQuery();
+
+            while (rs.next()) {
+                try {
+                    SketchRow row = new SketchRow(schemaName, tableName, columnNames,
+                        rs.getString("SHARD_PART"),
+                        rs.getLong("DN_CARDINALITY"),
+                        rs.getLong("COMPOSITE_CARDINALITY"),
+                        NDVDeltaSketch.SKETCH_TYPE);
+                    row.setSketchBytes(rs.getBytes("SKETCH_BYTES"));
+                    rows.add(row);
+                } catch (Exception e) {
+                    logger.error("parse row of " + TABLE_NAME + " error", e);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("select " + TABLE_NAME + " error", e);
+        } finally {
+            JdbcUtils.close(rs);
+            JdbcUtils.close(ps);
+            JdbcUtils.close(conn);
+        }
+        return rows.toArray(new SketchRow[0]);
+    }
+
+    @Override
+    public void deleteDeltaByTableNameAndColumnName(String schemaName, String tableName, String columnNames,
+                                                    long modifiedBefore) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        try {
+            conn = MetaDbDataSource.getInstance().getDataSource().getConnection();
+            ps = conn.prepareStatement(DELETE_DELTA_SQL);
+            ps.setString(1, schemaName);
+            ps.setString(2, tableName);
+            ps.setString(3, columnNames);
+            ps.setTimestamp(4, new Timestamp(modifiedBefore));
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            logger.error("delete " + TABLE_NAME + " error, sql = " + DELETE_DELTA_SQL, e);
+        } finally {
+            JdbcUtils.close(ps);
+            JdbcUtils.close(conn);
+        }
+    }
+
+    @Override
+    public long getCurrentTime() {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            conn = MetaDbDataSource.getInstance().getDataSource().getConnection();
+            ps = conn.prepareStatement(CURRENT_TIME_SQL);
+            rs = ps.executeQuery();
+            if (rs.next()) {
+                return rs.getTimestamp(1).getTime();
+            }
+        } catch (SQLException e) {
+            logger.error("select current time error, sql = " + CURRENT_TIME_SQL, e);
+        } finally {
+            JdbcUtils.close(rs);
+            JdbcUtils.close(ps);
+            JdbcUtils.close(conn);
+        }
+        return -1;
+    }
+}
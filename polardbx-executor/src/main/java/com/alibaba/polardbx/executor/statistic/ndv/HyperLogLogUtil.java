@@ -31,6 +31,7 @@ public class HyperLogLogUtil {
     public static int HLL_P = 14;
     public static int HLL_Q = 64 - HLL_P;
     public static double HLL_ALPHA_INF = 0.721347520444481703680;/* constant for 0.5/ln(2) */
+    public static long HLL_HASH_SEED = 0xadc83b19L;
 
     public static void merge(byte[] r, byte[] tmp) {
         for (int i = 0; i < HLL_REGISTERS; i++) {
@@ -42,13 +43,30 @@ public class HyperLogLogUtil {
         }
     }
 
+    /**
+     * merge registers stored one byte per register into the dense sketch r
+     */
+    public static void mergeRegisters(byte[] r, byte[] registers) {
+        for (int i = 0; i < HLL_REGISTERS; i++) {
+            int v = registers[i];
+            if (v != 0 && get(r, i) < v) {
+                set(r, i, v);
+            }
+        }
+    }
+
+    public static int getRegister(byte[] a, int pos) {
+        return get(a, pos);
+    }
+
     private static int get(byte[] a, int pos) {
         int bytePos = pos * HLL_BITS / 8;
         int bitRemine = (pos * HLL_BITS) & 7;
         if (bytePos + 1 == a.length) {
-            return (a[bytePos] >> bitRemine) & HLL_REGISTER_MAX;
+            return ((a[bytePos] & 0xff) >> bitRemine) & HLL_REGISTER_MAX;
         }
-        return ((a[bytePos] >> bitRemine) | (a[bytePos + 1] << (8 - bitRemine))) & HLL_REGISTER_MAX;
+        return (((a[bytePos] & 0xff) >> bitRemine) | ((a[bytePos + 1] & 0xff) << (8 - bitRemine)))
+            & HLL_REGISTER_MAX;
     }
 
     private static void set(byte[] a, int pos, int val) {
@@ -63,6 +81,70 @@ public class HyperLogLogUtil {
         a[bytePos + 1] |= (val >> (8 - bitRemine));
     }
 
+    /**
+     * MurmurHash64A with the seed used by the hll of redis, whose dense layout the sketches here follow.
+     * Only used for the deltas maintained on CN, which are never merged into the sketches built by DN
+     */
+    public static long hash(byte[] key) {
+        final long m = 0xc6a4a7935bd1e995L;
+        final int r = 47;
+        final int len = key.length;
+        long h = HLL_HASH_SEED ^ (len * m);
+
+        final int end = len - (len & 7);
+        for (int i = 0; i < end; i += 8) {
+            long k = (key[i] & 0xffL)
+                | (key[i + 1] & 0xffL) << 8
+                | (key[i + 2] & 0xffL) << 16
+                | (key[i + 3] & 0xffL) << 24
+                | (key[i + 4] & 0xffL) << 32
+                | (key[i + 5] & 0xffL) << 40
+                | (key[i + 6] & 0xffL) << 48
+                | (key[i + 7] & 0xffL) << 56;
+            k *= m;
+            k ^= k >>> r;
+            k *= m;
+            h ^= k;
+            h *= m;
+        }
+
+        switch (len & 7) {
+        case 7:
+            h ^= (key[end + 6] & 0xffL) << 48;
+        case 6:
+            h ^= (key[end + 5] & 0xffL) << 40;
+        case 5:
+            h ^= (key[end + 4] & 0xffL) << 32;
+        case 4:
+            h ^= (key[end + 3] & 0xffL) << 24;
+        case 3:
+            h ^= (key[end + 2] & 0xffL) << 16;
+        case 2:
+            h ^= (key[end + 1] & 0xffL) << 8;
+        case 1:
+            h ^= key[end] & 0xffL;
+            h *= m;
+        default:
+        }
+
+        h ^= h >>> r;
+        h *= m;
+        h ^= h >>> r;
+        return h;
+    }
+
+    public static int registerIndex(long hash) {
+        return (int) (hash & (HLL_REGISTERS - 1));
+    }
+
+    /**
+     * position of the first 1 bit after the index bits, see hllPatLen of redis
+     */
+    public static int registerValue(long hash) {
+        long h = (hash >>> HLL_P) | (1L << HLL_Q);
+        return Long.numberOfTrailingZeros(h) + 1;
+    }
+
     public static int bitToInt(BitSet bitSet, int index) {
         BitSet b = bitSet.get(index, index + 5);
         char[] v = new char[6];
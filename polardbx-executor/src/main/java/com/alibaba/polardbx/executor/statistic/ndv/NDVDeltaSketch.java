@@ -0,0 +1,213 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.statistic.ndv;
+
+import com.alibaba.polardbx.common.TddlNode;
+import com.alibaba.polardbx.optimizer.config.table.statistic.inf.SystemTableNDVSketchStatistic;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static com.alibaba.polardbx.executor.statistic.ndv.HyperLogLogUtil.HLL_REGBYTES;
+import static com.alibaba.polardbx.executor.statistic.ndv.HyperLogLogUtil.HLL_REGISTERS;
+
+/**
+ * ndv sketch的增量部分, 由CN上采样到的DML维护
+ * <p>
+ * 寄存器布局沿用dn上HYPERLOGLOG的dense格式, 但CN上的hash是否与dn一致无法确认, 因此增量只在各CN的增量之间按寄存器合并,
+ * 不并入分片的sketch, 单独估算后加到基数上, 直到下次全量重建. hll只能增加不能删除, 无法反映到寄存器的变更
+ * (删除/更新, 以及CN上无法hash的insert)只记录行数, 由漂移检测决定是否需要全量重建.
+ * <p>
+ * 持久化时每个CN一行: sketch_type为HLL_DELTA, dn_cardinality记录insert行数, composite_cardinality记录未反映的行数,
+ * sketch_bytes在寄存器稀疏时存(index, value)三元组, 否则存dense格式.
+ */
+public class NDVDeltaSketch {
+
+    public static final String SKETCH_TYPE = "HLL_DELTA";
+
+    public static final String SHARD_PART_PREFIX = "delta@";
+
+    private static final int SPARSE_ENTRY_BYTES = 3;
+
+    /**
+     * 每个寄存器一个字节, 避免热路径上的位运算
+     */
+    private final byte[] registers = new byte[HLL_REGISTERS];
+
+    private int nonZeroRegisters;
+
+    private long insertRows;
+
+    /**
+     * 没有反映到寄存器中的变更行数
+     */
+    private long unappliedRows;
+
+    public synchronized void offer(byte[] value) {
+        long hash = HyperLogLogUtil.hash(value);
+        int index = HyperLogLogUtil.registerIndex(hash);
+        int count = HyperLogLogUtil.registerValue(hash);
+        if (registers[index] < count) {
+            if (registers[index] == 0) {
+                nonZeroRegisters++;
+            }
+            registers[index] = (byte) count;
+        }
+    }
+
+    public void offer(String value) {
+        offer(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public synchronized void recordInsert(long rows) {
+        insertRows += rows;
+    }
+
+    public synchronized void recordUnapplied(long rows) {
+        unappliedRows += rows;
+    }
+
+    public void merge(NDVDeltaSketch other) {
+        // 先拿到对方的快照, 不同时持有两把锁
+        final byte[] otherRegisters;
+        final long otherInsert;
+        final long otherUnapplied;
+        synchronized (other) {
+            otherRegisters = other.registers.clone();
+            otherInsert = other.insertRows;
+            otherUnapplied = other.unappliedRows;
+        }
+        synchronized (this) {
+            for (int i = 0; i < HLL_REGISTERS; i++) {
+                if (registers[i] < otherRegisters[i]) {
+                    if (registers[i] == 0) {
+                        nonZeroRegisters++;
+                    }
+                    registers[i] = otherRegisters[i];
+                }
+            }
+            insertRows += otherInsert;
+            unappliedRows += otherUnapplied;
+        }
+    }
+
+    /**
+     * 取出当前内容并清空, 用于持久化
+     */
+    public synchronized NDVDeltaSketch drain() {
+        NDVDeltaSketch drained = new NDVDeltaSketch();
+        System.arraycopy(registers, 0, drained.registers, 0, HLL_REGISTERS);
+        drained.nonZeroRegisters = nonZeroRegisters;
+        drained.insertRows = insertRows;
+        drained.unappliedRows = unappliedRows;
+
+        Arrays.fill(registers, (byte) 0);
+        nonZeroRegisters = 0;
+        insertRows = 0;
+        unappliedRows = 0;
+        return drained;
+    }
+
+    public synchronized boolean isEmpty() {
+        return nonZeroRegisters == 0 && insertRows == 0 && unappliedRows == 0;
+    }
+
+    public synchronized long getInsertRows() {
+        return insertRows;
+    }
+
+    public synchronized long getUnappliedRows() {
+        return unappliedRows;
+    }
+
+    /**
+     * dense格式, 与分片的sketch一起交给HyperLogLogUtil.estimate
+     */
+    public synchronized byte[] toDenseBytes() {
+        byte[] dense = new byte[HLL_REGBYTES];
+        HyperLogLogUtil.mergeRegisters(dense, registers);
+        return dense;
+    }
+
+    /**
+     * 稀疏时为(index低8位, index高8位, value)的三元组序列, 长度一定小于dense格式, 以此区分
+     */
+    public synchronized byte[] toSketchBytes() {
+        if (nonZeroRegisters * SPARSE_ENTRY_BYTES >= HLL_REGBYTES) {
+            return toDenseBytes();
+        }
+        byte[] sparse = new byte[nonZeroRegisters * SPARSE_ENTRY_BYTES];
+        int pos = 0;
+        for (int i = 0; i < HLL_REGISTERS; i++) {
+            if (registers[i] != 0) {
+                sparse[pos++] = (byte) i;
+                sparse[pos++] = (byte) (i >>> 8);
+                sparse[pos++] = registers[i];
+            }
+        }
+        return sparse;
+    }
+
+    public static NDVDeltaSketch fromSketchBytes(byte[] bytes, long insertRows, long unappliedRows) {
+        NDVDeltaSketch sketch = new NDVDeltaSketch();
+        if (bytes != null) {
+            if (bytes.length == HLL_REGBYTES) {
+                for (int i = 0; i < HLL_REGISTERS; i++) {
+                    sketch.registers[i] = (byte) HyperLogLogUtil.getRegister(bytes, i);
+                }
+            } else if (bytes.length % SPARSE_ENTRY_BYTES == 0) {
+                for (int pos = 0; pos < bytes.length; pos += SPARSE_ENTRY_BYTES) {
+                    int index = (bytes[pos] & 0xff) | (bytes[pos + 1] & 0xff) << 8;
+                    sketch.registers[index % HLL_REGISTERS] = bytes[pos + 2];
+                }
+            } else {
+                throw new IllegalArgumentException("invalid ndv delta sketch, length " + bytes.length);
+            }
+            for (byte register : sketch.registers) {
+                if (register != 0) {
+                    sketch.nonZeroRegisters++;
+                }
+            }
+        }
+        sketch.insertRows = insertRows;
+        sketch.unappliedRows = unappliedRows;
+        return sketch;
+    }
+
+    public static NDVDeltaSketch fromSketchRow(SystemTableNDVSketchStatistic.SketchRow row) {
+        return fromSketchBytes(row.getSketchBytes(), row.getDnCardinality(), row.getCompositeCardinality());
+    }
+
+    public SystemTableNDVSketchStatistic.SketchRow toSketchRow(String schemaName, String tableName,
+                                                               String columnNames, String shardPart) {
+        long now = System.currentTimeMillis();
+        return new SystemTableNDVSketchStatistic.SketchRow(schemaName, tableName, columnNames, shardPart,
+            getInsertRows(), getUnappliedRows(), SKETCH_TYPE, toSketchBytes(), now, now);
+    }
+
+    /**
+     * 当前CN的增量行的shard part
+     */
+    public static String localShardPart() {
+        return SHARD_PART_PREFIX + TddlNode.getHost() + ":" + TddlNode.getPort();
+    }
+
+    public static boolean isDelta(SystemTableNDVSketchStatistic.SketchRow row) {
+        return SKETCH_TYPE.equalsIgnoreCase(row.getSketchType());
+    }
+}
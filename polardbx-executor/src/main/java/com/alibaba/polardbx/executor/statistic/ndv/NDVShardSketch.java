@@ -95,6 +95,11 @@ public class NDVShardSketch {
 
     private long cardinality = -1;
 
+    /**
+     * sketch delta sampled from dml on this CN, not persisted yet
+     */
+    private final NDVDeltaSketch pendingDelta = new NDVDeltaSketch();
+
     public NDVShardSketch(String shardKey, String[] shardParts, long[] dnCardinalityArray, String sketchType,
                           long[] gmtUpdate, long[] gmtCreated) {
         this.shardKey = shardKey;
@@ -373,6 +378,126 @@ public class NDVShardSketch {
         return hasUpdated;
     }
 
+    /**
+     * persist the pending delta of this CN, merging it with the delta row written before.
+     * Called by the background statistic task only; synchronized so that the read-merge-replace of the
+     * delta row of this CN is never interleaved.
+     */
+    public synchronized void flushDelta() {
+        NDVDeltaSketch delta = pendingDelta.drain();
+        if (delta.isEmpty()) {
+            return;
+        }
+        String[] shardInfo = shardKey.split(":");
+        String schemaName = shardInfo[0];
+        String tableName = shardInfo[1];
+        String columnNames = shardInfo[2];
+        String shardPart = NDVDeltaSketch.localShardPart();
+
+        for (SystemTableNDVSketchStatistic.SketchRow row : PolarDbXSystemTableNDVSketchStatistic.getInstance()
+            .loadDeltaByTableNameAndColumnName(schemaName, tableName, columnNames)) {
+            if (shardPart.equals(row.getShardPart())) {
+                delta.merge(NDVDeltaSketch.fromSketchRow(row));
+            }
+        }
+        PolarDbXSystemTableNDVSketchStatistic.getInstance()
+            .batchReplace(new SystemTableNDVSketchStatistic.SketchRow[] {
+                delta.toSketchRow(schemaName, tableName, columnNames, shardPart)});
+        StatisticUtils.logDebug(schemaName,
+            "flush ndv sketch delta:" + shardKey + ", insert rows:" + delta.getInsertRows() + ", unapplied rows:"
+                + delta.getUnappliedRows());
+    }
+
+    /**
+     * add the persisted deltas of all CNs to the composite cardinality.
+     * The deltas are hashed on CN, which is not known to match the hash of the DN sketches, so they are kept as a
+     * separate sketch until the next rebuild instead of being merged into the shard sketches register-wise.
+     *
+     * @return DRIFTED if the deltas drifted too far and a full rebuild is needed
+     */
+    public DeltaMergeResult mergeDeltas() {
+        String[] shardInfo = shardKey.split(":");
+        String schemaName = shardInfo[0];
+        String tableName = shardInfo[1];
+        String columnNames = shardInfo[2];
+
+        SystemTableNDVSketchStatistic.SketchRow[] rows = PolarDbXSystemTableNDVSketchStatistic.getInstance()
+            .loadDeltaByTableNameAndColumnName(schemaName, tableName, columnNames);
+        if (rows.length == 0) {
+            return DeltaMergeResult.NONE;
+        }
+        NDVDeltaSketch delta = new NDVDeltaSketch();
+        for (SystemTableNDVSketchStatistic.SketchRow row : rows) {
+            delta.merge(NDVDeltaSketch.fromSketchRow(row));
+        }
+
+        Map<String, byte[]> bytesMap = PolarDbXSystemTableNDVSketchStatistic.getInstance()
+            .loadByTableNameAndColumnName(schemaName, tableName, columnNames);
+        if (bytesMap.isEmpty()) {
+            return DeltaMergeResult.DRIFTED;
+        }
+        long base = estimate(bytesMap.values().toArray(new byte[0][]));
+        long deltaCardinality = estimate(new byte[][] {delta.toDenseBytes()});
+
+        long rowCount = getContext(schemaName).getStatisticManager().getRowCount(tableName).getLongValue();
+        if (isDrifted(delta.getUnappliedRows(), Math.max(rowCount, base)) || isDrifted(deltaCardinality, base)) {
+            StatisticUtils.logInfo(schemaName,
+                "ndv sketch delta drifted:" + shardKey + ", unapplied rows:" + delta.getUnappliedRows()
+                    + ", delta cardinality:" + deltaCardinality + ", row count:" + rowCount + ", cardinality:" + base);
+            return DeltaMergeResult.DRIFTED;
+        }
+        long merged = combineCardinality(base, deltaCardinality, rowCount);
+
+        long old = cardinality;
+        if (old == merged) {
+            return DeltaMergeResult.NONE;
+        }
+        setCardinality(merged);
+        PolarDbXSystemTableNDVSketchStatistic.getInstance()
+            .updateCompositeCardinality(schemaName, tableName, columnNames, merged);
+        StatisticUtils.logInfo(schemaName,
+            "merge ndv sketch delta:" + shardKey + ", insert rows:" + delta.getInsertRows() + ", old value:" + old
+                + ", new:" + merged);
+        return DeltaMergeResult.MERGED;
+    }
+
+    public enum DeltaMergeResult {
+        NONE,
+        MERGED,
+        DRIFTED
+    }
+
+    /**
+     * The values of the delta may or may not be in the shard sketches already, so the union lies between
+     * max(base, delta) and base + delta. Take the upper bound, which the drift check keeps within
+     * MAX_DIFF_VALUE_RATIO of base, and never above the row count.
+     */
+    static long combineCardinality(long base, long deltaCardinality, long rowCount) {
+        long combined = base + deltaCardinality;
+        if (rowCount > 0) {
+            combined = Math.min(combined, Math.max(rowCount, base));
+        }
+        return combined;
+    }
+
+    /**
+     * deleted/updated rows, and inserts hll can not hash, can only be reflected by a rescan
+     */
+    static boolean isDrifted(long unappliedRows, long base) {
+        if (unappliedRows <= 0) {
+            return false;
+        }
+        return base <= 0 || (double) unappliedRows / base > MAX_DIFF_VALUE_RATIO;
+    }
+
+    public NDVDeltaSketch getPendingDelta() {
+        return pendingDelta;
+    }
+
+    public String getColumnNames() {
+        return shardKey.split(":")[2];
+    }
+
     /**
      * @param shardKey schemaName:table name:columns name
      * @param shardPart physical node:table name;*
@@ -512,6 +637,9 @@ public class NDVShardSketch {
         long sketchTime = 0;
         long cardinalityTime = 0;
 
+        // deltas flushed before this point only hold rows the shard sketches below will see
+        long rebuildStart = PolarDbXSystemTableNDVSketchStatistic.getInstance().getCurrentTime();
+
         // fill cardinality and sketch bytes
         for (int i = 0; i < shardPart.length; i++) {
             long start = System.currentTimeMillis();
@@ -535,6 +663,14 @@ public class NDVShardSketch {
 
         // persist
         PolarDbXSystemTableNDVSketchStatistic.getInstance().batchReplace(ndvShardSketch.serialize(sketchArray));
+        // a full rebuild covers the deltas flushed before it started, later ones may hold rows it missed.
+        // GMT_MODIFIED is in seconds, deltas flushed within the second the rebuild started are kept as well,
+        // counting them again only overestimates until the next rebuild
+        if (rebuildStart > 0) {
+            PolarDbXSystemTableNDVSketchStatistic.getInstance()
+                .deleteDeltaByTableNameAndColumnName(schemaName.toLowerCase(), tableName.toLowerCase(),
+                    columnName.toLowerCase(), rebuildStart);
+        }
 
         /** sync other nodes */
         SyncManagerHelper.sync(
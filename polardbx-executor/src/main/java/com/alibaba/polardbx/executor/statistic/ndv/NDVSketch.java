@@ -16,15 +16,23 @@
 
 package com.alibaba.polardbx.executor.statistic.ndv;
 
+import com.alibaba.polardbx.common.charset.CharsetName;
+import com.alibaba.polardbx.common.properties.ConnectionParams;
 import com.alibaba.polardbx.executor.sync.SyncManagerHelper;
 import com.alibaba.polardbx.executor.sync.UpdateStatisticSyncAction;
+import com.alibaba.polardbx.optimizer.OptimizerContext;
+import com.alibaba.polardbx.optimizer.config.table.ColumnMeta;
+import com.alibaba.polardbx.optimizer.config.table.TableMeta;
 import com.alibaba.polardbx.optimizer.config.table.statistic.StatisticResult;
 import com.alibaba.polardbx.optimizer.config.table.statistic.inf.NDVSketchService;
 import com.alibaba.polardbx.optimizer.config.table.statistic.inf.SystemTableNDVSketchStatistic;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypeUtil;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.glassfish.jersey.internal.guava.Sets;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
@@ -41,7 +49,7 @@ public class NDVSketch implements NDVSketchService {
     /**
      * schemaName:table name:columns name -> sketch
      */
-    private Map<String, NDVShardSketch> stringNDVShardSketchMap = Maps.newHashMap();
+    private Map<String, NDVShardSketch> stringNDVShardSketchMap = Maps.newConcurrentMap();
     private String schemaName;
 
     public NDVSketch(String schemaName) {
@@ -134,6 +142,16 @@ public class NDVSketch implements NDVSketchService {
 
         NDVShardSketch ndvShardSketch = stringNDVShardSketchMap.get(ndvKey);
         boolean isUpdated = ndvShardSketch.updateStockShardParts();
+        if (isIncremental()) {
+            // merge after the stock update, which recomputes the cardinality from shard sketches only
+            ndvShardSketch.flushDelta();
+            NDVShardSketch.DeltaMergeResult result = ndvShardSketch.mergeDeltas();
+            if (result == NDVShardSketch.DeltaMergeResult.DRIFTED) {
+                reBuildShardParts(tableName, columnNames);
+                return true;
+            }
+            isUpdated |= result == NDVShardSketch.DeltaMergeResult.MERGED;
+        }
         if (isUpdated) {
             /** sync other nodes */
             SyncManagerHelper.sync(
@@ -171,6 +189,147 @@ public class NDVSketch implements NDVSketchService {
         }
     }
 
+    /**
+     * 增量模式下由CN上的DML更新sketch的增量部分, 只在内存中累积, 由后台统计任务调用 {@link #flushDeltas()} 持久化
+     */
+    @Override
+    public void offerDml(String tableName, List<String> columnNames, List<List<Object>> rows, long unappliedRows) {
+        if (!isIncremental()) {
+            return;
+        }
+        String keyPrefix = buildSketchKey(schemaName, tableName, "");
+        Map<String, Integer> columnIndex = null;
+        TableMeta tableMeta = null;
+        if (columnNames != null && rows != null && !rows.isEmpty()) {
+            columnIndex = Maps.newHashMap();
+            for (int i = 0; i < columnNames.size(); i++) {
+                columnIndex.put(columnNames.get(i).toLowerCase(), i);
+            }
+            tableMeta = OptimizerContext.getContext(schemaName).getLatestSchemaManager().getTableWithNull(tableName);
+        }
+
+        for (Map.Entry<String, NDVShardSketch> entry : stringNDVShardSketchMap.entrySet()) {
+            if (!entry.getKey().startsWith(keyPrefix)) {
+                continue;
+            }
+            NDVShardSketch ndvShardSketch = entry.getValue();
+            NDVDeltaSketch delta = ndvShardSketch.getPendingDelta();
+            if (unappliedRows > 0) {
+                delta.recordUnapplied(unappliedRows);
+            }
+            if (columnIndex == null) {
+                continue;
+            }
+            int[] indexes = columnIndexes(ndvShardSketch.getColumnNames(), columnIndex);
+            if (indexes == null) {
+                // 列没有在insert中给出, 或者值无法在CN上求出
+                delta.recordUnapplied(rows.size());
+                continue;
+            }
+            if (!isHashCompatible(tableMeta, ndvShardSketch.getColumnNames())) {
+                // 这些值在CN上没有稳定的表示, 不能写入寄存器
+                delta.recordUnapplied(rows.size());
+                continue;
+            }
+            for (List<Object> row : rows) {
+                String value = sketchValue(row, indexes);
+                if (value != null) {
+                    delta.offer(value);
+                }
+            }
+            delta.recordInsert(rows.size());
+        }
+    }
+
+    /**
+     * 持久化本CN上所有sketch的增量部分
+     */
+    @Override
+    public void flushDeltas() {
+        if (!isIncremental()) {
+            return;
+        }
+        for (NDVShardSketch ndvShardSketch : stringNDVShardSketchMap.values()) {
+            if (!ndvShardSketch.getPendingDelta().isEmpty()) {
+                ndvShardSketch.flushDelta();
+            }
+        }
+    }
+
+    /**
+     * CN上只对utf8字符串列按utf8字节hash, 数值/时间等类型的值在不同客户端下的表示(精度, 格式)不一定一致
+     */
+    private static boolean isHashCompatible(TableMeta tableMeta, String sketchColumns) {
+        if (tableMeta == null) {
+            return false;
+        }
+        for (String column : sketchColumns.split(",")) {
+            ColumnMeta columnMeta = tableMeta.getColumnIgnoreCase(column);
+            if (columnMeta == null || !isHashCompatible(columnMeta.getDataType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isHashCompatible(DataType dataType) {
+        if (!DataTypeUtil.isStringType(dataType)) {
+            return false;
+        }
+        CharsetName charset = dataType.getCharsetName();
+        return charset == CharsetName.UTF8 || charset == CharsetName.UTF8MB4;
+    }
+
+    private boolean isIncremental() {
+        return OptimizerContext.getContext(schemaName).getParamManager()
+            .getBoolean(ConnectionParams.ENABLE_NDV_SKETCH_INCREMENTAL);
+    }
+
+    /**
+     * @return null if any column of the sketch is missing from the dml
+     */
+    private static int[] columnIndexes(String sketchColumns, Map<String, Integer> columnIndex) {
+        String[] columns = sketchColumns.split(",");
+        int[] indexes = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            Integer index = columnIndex.get(columns[i]);
+            if (index == null) {
+                return null;
+            }
+            indexes[i] = index;
+        }
+        return indexes;
+    }
+
+    /**
+     * the value dn sketches as well: the column itself, or concat(columns) for multi columns
+     */
+    private static String sketchValue(List<Object> row, int[] indexes) {
+        if (indexes.length == 1) {
+            return toSketchString(row.get(indexes[0]));
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int index : indexes) {
+            String value = toSketchString(row.get(index));
+            if (value == null) {
+                // concat with null is null
+                return null;
+            }
+            sb.append(value);
+        }
+        return sb.toString();
+    }
+
+    private static String toSketchString(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof byte[]) {
+            return new String((byte[]) value, StandardCharsets.UTF_8);
+        }
+        return value.toString();
+    }
+
     @Override
     public void reBuildShardParts(String tableName, String columnName) throws SQLException {
         String ndvKey = buildSketchKey(schemaName, tableName, columnName);
@@ -21,7 +21,11 @@ import com.alibaba.polardbx.executor.cursor.ResultCursor;
 import com.alibaba.polardbx.executor.cursor.impl.ArrayResultCursor;
 import com.alibaba.polardbx.optimizer.OptimizerContext;
 import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.planner.ExecutionPlan;
 import com.alibaba.polardbx.optimizer.core.planner.PlanCache;
+import com.alibaba.polardbx.optimizer.core.planner.PlanCacheStore;
+
+import java.util.concurrent.TimeUnit;
 
 public class FetchPlanCacheCapacitySyncAction implements ISyncAction {
 
@@ -48,18 +52,27 @@ public class FetchPlanCacheCapacitySyncAction implements ISyncAction {
 
     @Override
     public ResultCursor sync() {
-        PlanCache.CapacityInfo capacityInfo =
-            OptimizerContext.getContext(schemaName).getPlanManager().getPlanCache().getCurrentCapacityInfo();
+        PlanCache planCache = OptimizerContext.getContext(schemaName).getPlanManager().getPlanCache();
+        PlanCache.CapacityInfo capacityInfo = planCache.getCurrentCapacityInfo();
+        PlanCacheStore<PlanCache.CacheKey, ExecutionPlan> store = planCache.getCache();
 
         ArrayResultCursor result = new ArrayResultCursor("PLAN_CACHE");
         result.addColumn("COMPUTE_NODE", DataTypes.StringType);
         result.addColumn("CACHE_KEY_CNT", DataTypes.LongType);
         result.addColumn("CAPACITY", DataTypes.LongType);
+        result.addColumn("HIT_COUNT", DataTypes.LongType);
+        result.addColumn("MISS_COUNT", DataTypes.LongType);
+        result.addColumn("EVICTION_COUNT", DataTypes.LongType);
+        result.addColumn("SAVED_TIME_US", DataTypes.LongType);
 
         result.addRow(new Object[] {
             TddlNode.getHost() + ":" + TddlNode.getPort(),
             capacityInfo.getKeyCount(),
-            capacityInfo.getCapacity()
+            capacityInfo.getCapacity(),
+            store.getHitCount(),
+            store.getMissCount(),
+            store.getEvictionCount(),
+            TimeUnit.NANOSECONDS.toMicros(store.getSavedNanos())
         });
 
         return result;
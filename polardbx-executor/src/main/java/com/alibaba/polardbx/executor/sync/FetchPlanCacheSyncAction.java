@@ -36,6 +36,7 @@ import org.apache.calcite.sql.SqlExplainFormat;
 import org.apache.calcite.sql.SqlExplainLevel;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -87,6 +88,8 @@ public class FetchPlanCacheSyncAction implements ISyncAction {
         result.addColumn("HIT_COUNT", DataTypes.LongType);
         result.addColumn("SQL", DataTypes.StringType);
         result.addColumn("PLAN", DataTypes.StringType);
+        result.addColumn("PLANNING_TIME_US", DataTypes.LongType);
+        result.addColumn("SAVED_TIME_US", DataTypes.LongType);
 
         for (Map.Entry<PlanCache.CacheKey, ExecutionPlan> entry : planCache.getCache().asMap().entrySet()) {
             PlanCache.CacheKey cacheKey = entry.getKey();
@@ -105,13 +108,17 @@ public class FetchPlanCacheSyncAction implements ISyncAction {
                 plan = null;
             }
 
+            final long planningMicros = TimeUnit.NANOSECONDS.toMicros(executionPlan.getPlanningNanos());
+            final long hitCount = executionPlan.getHitCount().longValue();
             result.addRow(new Object[] {
                 TddlNode.getHost() + ":" + TddlNode.getPort(),
                 cacheKey.getTableMetas().stream().map(meta -> meta.getTableName()).collect(Collectors.joining(",")),
                 TStringUtil.int2FixedLenHexStr(cacheKey.getParameterizedSql().hashCode()),
-                executionPlan.getHitCount().longValue(),
+                hitCount,
                 cacheKey.getParameterizedSql(),
-                plan
+                plan,
+                planningMicros,
+                planningMicros * hitCount
             });
         }
 
@@ -0,0 +1,55 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.aggregate;
+
+import com.alibaba.polardbx.optimizer.chunk.Block;
+import com.alibaba.polardbx.optimizer.state.NullableLongGroupState;
+
+/**
+ * COUNT(col) only depends on the null flags of the input
+ */
+public class CountGroupKernel implements GroupAggregationKernel {
+    private final NullableLongGroupState groupState;
+
+    public CountGroupKernel(NullableLongGroupState groupState) {
+        this.groupState = groupState;
+    }
+
+    @Override
+    public boolean supports(Block block) {
+        return true;
+    }
+
+    @Override
+    public void accumulate(Block block, int[] groupIds, int[] selection, int positionCount) {
+        final boolean mayHaveNull = block.mayHaveNull();
+        if (selection != null) {
+            for (int i = 0; i < positionCount; i++) {
+                int j = selection[i];
+                if (!mayHaveNull || !block.isNull(j)) {
+                    groupState.set(groupIds[j], groupState.get(groupIds[j]) + 1);
+                }
+            }
+        } else {
+            for (int i = 0; i < positionCount; i++) {
+                if (!mayHaveNull || !block.isNull(i)) {
+                    groupState.set(groupIds[i], groupState.get(groupIds[i]) + 1);
+                }
+            }
+        }
+    }
+}
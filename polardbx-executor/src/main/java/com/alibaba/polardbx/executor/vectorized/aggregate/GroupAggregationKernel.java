@@ -0,0 +1,38 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.aggregate;
+
+import com.alibaba.polardbx.optimizer.chunk.Block;
+
+/**
+ * Accumulate a whole block into the group state of an aggregator,
+ * type-specialized implementations are generated from templates under codegen
+ */
+public interface GroupAggregationKernel {
+
+    /**
+     * Whether the kernel can read the given block directly
+     */
+    boolean supports(Block block);
+
+    /**
+     * @param groupIds group id of each position
+     * @param selection selected positions, or null if all positions in [0, positionCount) are selected
+     * @param positionCount number of selected positions
+     */
+    void accumulate(Block block, int[] groupIds, int[] selection, int positionCount);
+}
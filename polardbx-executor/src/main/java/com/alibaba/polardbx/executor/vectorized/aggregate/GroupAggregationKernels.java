@@ -0,0 +1,89 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.aggregate;
+
+import com.alibaba.polardbx.optimizer.core.expression.calc.Aggregator;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Count;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.CountRow;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Decimal2DecimalAvg;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Decimal2DecimalMax;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Decimal2DecimalMin;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Decimal2DecimalSum;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Double2DoubleAvg;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Double2DoubleMax;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Double2DoubleMin;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Double2DoubleSum;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Int2DecimalAvg;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Int2IntMax;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Int2IntMin;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Long2DecimalAvg;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Long2LongMax;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Long2LongMin;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Long2LongSum0;
+
+/**
+ * Pick the generated kernel for an opened aggregator. Only exact classes are matched since
+ * subclasses may change the accumulating semantic.
+ */
+public class GroupAggregationKernels {
+
+    /**
+     * @return the kernel bound to the group state of the aggregator, or null if not supported
+     */
+    public static GroupAggregationKernel create(Aggregator aggregator) {
+        final Class<?> clazz = aggregator.getClass();
+        if (clazz == CountRow.class) {
+            return new CountRowGroupKernel(((CountRow) aggregator).getGroupState());
+        } else if (clazz == Count.class) {
+            if (((Count) aggregator).getAggIndexInChunk().length != 1) {
+                return null;
+            }
+            return new CountGroupKernel(((Count) aggregator).getGroupState());
+        } else if (clazz == Long2LongSum0.class) {
+            return new SumLongGroupKernel(((Long2LongSum0) aggregator).getGroupState());
+        } else if (clazz == Double2DoubleSum.class) {
+            return new SumDoubleGroupKernel(((Double2DoubleSum) aggregator).getGroupState());
+        } else if (clazz == Decimal2DecimalSum.class) {
+            return new SumDecimalGroupKernel(((Decimal2DecimalSum) aggregator).getGroupState());
+        } else if (clazz == Long2LongMax.class) {
+            return new MaxLongGroupKernel(((Long2LongMax) aggregator).getGroupState());
+        } else if (clazz == Long2LongMin.class) {
+            return new MinLongGroupKernel(((Long2LongMin) aggregator).getGroupState());
+        } else if (clazz == Int2IntMax.class) {
+            return new MaxIntegerGroupKernel(((Int2IntMax) aggregator).getGroupState());
+        } else if (clazz == Int2IntMin.class) {
+            return new MinIntegerGroupKernel(((Int2IntMin) aggregator).getGroupState());
+        } else if (clazz == Double2DoubleMax.class) {
+            return new MaxDoubleGroupKernel(((Double2DoubleMax) aggregator).getGroupState());
+        } else if (clazz == Double2DoubleMin.class) {
+            return new MinDoubleGroupKernel(((Double2DoubleMin) aggregator).getGroupState());
+        } else if (clazz == Decimal2DecimalMax.class) {
+            return new MaxDecimalGroupKernel(((Decimal2DecimalMax) aggregator).getGroupState());
+        } else if (clazz == Decimal2DecimalMin.class) {
+            return new MinDecimalGroupKernel(((Decimal2DecimalMin) aggregator).getGroupState());
+        } else if (clazz == Int2DecimalAvg.class) {
+            return new AvgIntegerGroupKernel(((Int2DecimalAvg) aggregator).getGroupState());
+        } else if (clazz == Long2DecimalAvg.class) {
+            return new AvgLongGroupKernel(((Long2DecimalAvg) aggregator).getGroupState());
+        } else if (clazz == Double2DoubleAvg.class) {
+            return new AvgDoubleGroupKernel(((Double2DoubleAvg) aggregator).getGroupState());
+        } else if (clazz == Decimal2DecimalAvg.class) {
+            return new AvgDecimalGroupKernel(((Decimal2DecimalAvg) aggregator).getGroupState());
+        }
+        return null;
+    }
+}
@@ -58,7 +58,6 @@ import com.alibaba.polardbx.optimizer.sequence.ISequenceManager;
 import com.alibaba.polardbx.optimizer.sequence.SequenceManagerProxy;
 import com.alibaba.polardbx.optimizer.utils.CalciteUtils;
 import com.alibaba.polardbx.optimizer.utils.IDistributedTransaction;
-import com.google.common.base.Splitter;
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.ListenableFuture;
 import org.apache.calcite.rel.RelNode;
@@ -218,7 +217,7 @@ public class LogicalLoadDataHandler extends LogicalInsertHandler {
                     for (int i = 0; i < lines.size(); i++) {
                         String line = lines.get(i);
                         List<String> fields =
-                            Lists.newArrayList(Splitter.on(loadDataContext.getFieldTerminatedBy()).split(line));
+                            Lists.newArrayList(loadDataContext.getFieldSplitter().split(line));
                         if (loadDataContext.getAutoFillColumnIndex() != -1) {
                             fields.add(loadDataContext.getAutoFillColumnIndex(),
                                 loadDataContext.isInSingleDb() ? "NULL" :
@@ -504,7 +503,7 @@ public class LogicalLoadDataHandler extends LogicalInsertHandler {
                         String line = lines.get(i);
                         totalMemory += SizeOf.sizeOfCharArray(line.length());
                         List<String> fields =
-                            Lists.newArrayList(Splitter.on(loadDataContext.getFieldTerminatedBy()).split(line));
+                            Lists.newArrayList(loadDataContext.getFieldSplitter().split(line));
                         if (loadDataContext.getAutoFillColumnIndex() != -1) {
                             fields.add(loadDataContext.getAutoFillColumnIndex(),
                                 loadDataContext.isInSingleDb() ? "NULL" :
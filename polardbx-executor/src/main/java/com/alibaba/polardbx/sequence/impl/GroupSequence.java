@@ -20,11 +20,19 @@ import com.alibaba.polardbx.common.constants.SequenceAttribute.Type;
 import com.alibaba.polardbx.common.logger.LoggerInit;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
+import com.alibaba.polardbx.common.utils.thread.NamedThreadFactory;
 import com.alibaba.polardbx.sequence.SequenceDao;
 import com.alibaba.polardbx.sequence.SequenceRange;
 import com.alibaba.polardbx.sequence.exception.SequenceException;
+import com.google.common.annotations.VisibleForTesting;
 
 import java.sql.SQLException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -39,6 +47,41 @@ public class GroupSequence extends BaseSequence {
 
     private final Lock updateLock = new ReentrantLock();
 
+    /**
+     * 后台预取下一个区间的线程, 空闲后自动回收
+     */
+    private static final ExecutorService PREFETCHER =
+        Executors.newCachedThreadPool(new NamedThreadFactory("GroupSeqPrefetcher", true));
+
+    /**
+     * 当前区间剩余值低于该百分比时开始异步预取下一个区间, 0 表示不预取
+     */
+    private volatile int prefetchWatermark = DEFAULT_PREFETCH_WATERMARK;
+
+    public static final int DEFAULT_PREFETCH_WATERMARK = 20;
+
+    /**
+     * 正在进行或已经完成的预取, 在当前区间用完时被取走
+     */
+    private final AtomicReference<FutureTask<SequenceRange>> prefetchTask = new AtomicReference<>();
+
+    /**
+     * 取到该值时触发预取
+     */
+    private volatile long prefetchAt = Long.MAX_VALUE;
+
+    /**
+     * 以下两个字段只在持有lock时访问, 用于根据消耗速度调整预取的时机
+     */
+    private long rangeActivatedNanos = 0L;
+    private long lastRangeNanos = 0L;
+
+    private volatile long lastRefillNanos = 0L;
+    private final AtomicLong refillCount = new AtomicLong();
+    private final AtomicLong refillNanos = new AtomicLong();
+    private final AtomicLong stallCount = new AtomicLong();
+    private final AtomicLong stallNanos = new AtomicLong();
+
     /**
      * The value that is candidate and will probably be updated
      */
@@ -82,6 +125,9 @@ public class GroupSequence extends BaseSequence {
         checkSequenceRange();
 
         long value = getSequenceRange().getAndIncrement();
+        if (value >= prefetchAt) {
+            prefetch();
+        }
         if (value == -1) {
             lock.lock();
             try {
@@ -116,6 +162,9 @@ public class GroupSequence extends BaseSequence {
         checkSequenceRange();
 
         long value = getSequenceRange().getBatch(size);
+        if (value >= prefetchAt) {
+            prefetch();
+        }
 
         if (value == -1) {
             lock.lock();
@@ -152,6 +201,7 @@ public class GroupSequence extends BaseSequence {
             if (range != null) {
                 range.setOver(true);
             }
+            discardPrefetch();
         } finally {
             lock.unlock();
         }
@@ -211,6 +261,8 @@ public class GroupSequence extends BaseSequence {
             if (getSequenceRange() != null) {
                 getSequenceRange().setOver(true);
             }
+            // The prefetched range may be below the explicit value as well
+            discardPrefetch();
             if (updated) {
                 infoMsg.append("[").append(currentAndMax[0]).append(",").append(currentAndMax[1]);
                 infoMsg.append("]' in database in ").append(schemaName);
@@ -299,8 +351,114 @@ public class GroupSequence extends BaseSequence {
         this.currentRange = range;
     }
 
+    /**
+     * 切换到下一个区间, 调用方需持有lock. 优先使用预取到的区间, 预取未完成时等待它, 没有预取时同步获取.
+     */
     protected void setSequenceRange() {
-        setSequenceRange(sequenceDao.nextRange(name));
+        long start = System.nanoTime();
+        FutureTask<SequenceRange> task = prefetchTask.getAndSet(null);
+        boolean waited = task == null || !task.isDone();
+
+        SequenceRange range = null;
+        if (task != null) {
+            try {
+                range = task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SequenceException(e, "Interrupted while waiting for the prefetched range of " + name);
+            } catch (ExecutionException e) {
+                logger.warn("Failed to prefetch range for group sequence '" + name + "', fetch it again.",
+                    e.getCause());
+            }
+        }
+        if (range == null) {
+            range = fetchRangeTimed();
+        }
+
+        long now = System.nanoTime();
+        if (waited) {
+            stallCount.incrementAndGet();
+            stallNanos.addAndGet(now - start);
+        }
+        if (rangeActivatedNanos > 0) {
+            lastRangeNanos = now - rangeActivatedNanos;
+        }
+        rangeActivatedNanos = now;
+        prefetchAt = computePrefetchAt(range);
+        setSequenceRange(range);
+    }
+
+    /**
+     * 至少在剩余prefetchWatermark%时开始预取; 如果按上一个区间的消耗速度, 剩余值撑不过两次取区间的耗时, 则更早开始.
+     */
+    private long computePrefetchAt(SequenceRange range) {
+        int watermark = prefetchWatermark;
+        if (watermark <= 0) {
+            return Long.MAX_VALUE;
+        }
+        long size = range.getMax() - range.getMin() + 1;
+        double fraction = watermark / 100.0;
+        if (lastRangeNanos > 0 && lastRefillNanos > 0) {
+            fraction = Math.max(fraction, 2.0 * lastRefillNanos / lastRangeNanos);
+        }
+        long ahead = (long) (size * Math.min(fraction, 1.0));
+        return range.getMax() - ahead;
+    }
+
+    private void prefetch() {
+        if (prefetchTask.get() != null) {
+            return;
+        }
+        FutureTask<SequenceRange> task = new FutureTask<>(this::fetchRangeTimed);
+        if (prefetchTask.compareAndSet(null, task)) {
+            PREFETCHER.execute(task);
+        }
+    }
+
+    private void discardPrefetch() {
+        FutureTask<SequenceRange> task = prefetchTask.getAndSet(null);
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+
+    private SequenceRange fetchRangeTimed() {
+        long start = System.nanoTime();
+        SequenceRange range = fetchRange();
+        long elapsed = System.nanoTime() - start;
+        lastRefillNanos = elapsed;
+        refillCount.incrementAndGet();
+        refillNanos.addAndGet(elapsed);
+        return range;
+    }
+
+    /**
+     * 从DB获取一个新的区间, 可能在预取线程中执行
+     */
+    protected SequenceRange fetchRange() {
+        return sequenceDao.nextRange(name);
+    }
+
+    /**
+     * 等待进行中的预取完成
+     */
+    @VisibleForTesting
+    void awaitPrefetch() throws InterruptedException, ExecutionException {
+        FutureTask<SequenceRange> task = prefetchTask.get();
+        if (task != null) {
+            task.get();
+        }
+    }
+
+    public void setPrefetchWatermark(int prefetchWatermark) {
+        this.prefetchWatermark = prefetchWatermark;
+    }
+
+    /**
+     * @return refill count, total refill time (ns), stall count, total stall time (ns)
+     */
+    public long[] getRefillStats() {
+        return new long[] {refillCount.get(), refillNanos.get(), stallCount.get(), stallNanos.get()};
     }
 
     protected void checkBatchSize(int size) {
@@ -0,0 +1,127 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.mpp.execution;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MultilevelSplitQueueTest {
+
+    private static class TestSplit implements MultilevelSplitQueue.Prioritized {
+        private final String queryId;
+        private final long scheduledMillis;
+
+        TestSplit(String queryId, long scheduledMillis) {
+            this.queryId = queryId;
+            this.scheduledMillis = scheduledMillis;
+        }
+
+        @Override
+        public String getQueryId() {
+            return queryId;
+        }
+
+        @Override
+        public long getScheduledMillis() {
+            return scheduledMillis;
+        }
+    }
+
+    @Test
+    public void testLevelOf() {
+        Assert.assertEquals(0, MultilevelSplitQueue.levelOf(0));
+        Assert.assertEquals(0, MultilevelSplitQueue.levelOf(999));
+        Assert.assertEquals(1, MultilevelSplitQueue.levelOf(1000));
+        Assert.assertEquals(3, MultilevelSplitQueue.levelOf(60000));
+        Assert.assertEquals(4, MultilevelSplitQueue.levelOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testRoundRobinQueries() throws InterruptedException {
+        MultilevelSplitQueue<TestSplit> queue = new MultilevelSplitQueue<>();
+        for (int i = 0; i < 10; i++) {
+            queue.put(new TestSplit("q1", 0));
+        }
+        queue.put(new TestSplit("q2", 0));
+        Assert.assertEquals(11, queue.size());
+
+        Set<String> queries = new HashSet<>();
+        queries.add(queue.take().getQueryId());
+        queries.add(queue.take().getQueryId());
+        Assert.assertTrue(queries.contains("q2"));
+        Assert.assertEquals(9, queue.size());
+    }
+
+    @Test
+    public void testShortSplitFirstWithoutStarvation() throws InterruptedException {
+        MultilevelSplitQueue<TestSplit> queue = new MultilevelSplitQueue<>();
+        TestSplit longSplit = new TestSplit("long", 70000);
+        queue.put(longSplit);
+        queue.put(new TestSplit("short", 0));
+        Assert.assertEquals("short", queue.take().getQueryId());
+
+        // level 0 has consumed far more than its share
+        queue.recordScheduledTime(0, 100000);
+        queue.put(new TestSplit("short", 0));
+        Assert.assertSame(longSplit, queue.take());
+        queue.recordScheduledTime(70000, 1000);
+        Assert.assertEquals("short", queue.take().getQueryId());
+
+        long[] scheduled = queue.getLevelScheduledMillis();
+        Assert.assertEquals(100000, scheduled[0]);
+        Assert.assertEquals(1000, scheduled[3]);
+        Assert.assertEquals(2, queue.getLevelTakenSplits()[0]);
+    }
+
+    @Test
+    public void testConcurrentTake() throws InterruptedException {
+        MultilevelSplitQueue<TestSplit> queue = new MultilevelSplitQueue<>();
+        int threads = 4;
+        int splits = 4000;
+        AtomicInteger taken = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(threads);
+        // 消费者先于生产者启动, 以总的截止时间而不是单次 poll 超时判断结束, 避免负载高时提前退出
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    while (taken.get() < splits && System.nanoTime() < deadline) {
+                        if (queue.poll(100, TimeUnit.MILLISECONDS) != null) {
+                            taken.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        for (int i = 0; i < splits; i++) {
+            queue.put(new TestSplit("q" + (i % 7), (i % 5) * 20000L));
+        }
+        Assert.assertTrue(done.await(20, TimeUnit.SECONDS));
+        Assert.assertEquals(splits, taken.get());
+        Assert.assertEquals(0, queue.size());
+    }
+}
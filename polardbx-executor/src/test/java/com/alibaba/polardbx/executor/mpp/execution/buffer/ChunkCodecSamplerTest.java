@@ -0,0 +1,70 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.mpp.execution.buffer;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static com.alibaba.polardbx.executor.mpp.execution.buffer.ChunkCodecSampler.RESAMPLE_INTERVAL;
+import static com.alibaba.polardbx.executor.mpp.execution.buffer.ChunkCodecSampler.SAMPLES_PER_CODEC;
+
+public class ChunkCodecSamplerTest {
+
+    @Test
+    public void testPickCheapestCodec() {
+        ChunkCodecSampler sampler = new ChunkCodecSampler(
+            ImmutableList.of(ChunkCompression.COMPRESSED, ChunkCompression.ENCODED), 4.0);
+        for (int i = 0; i < 2 * SAMPLES_PER_CODEC; i++) {
+            ChunkCompression codec = sampler.next();
+            if (codec == ChunkCompression.COMPRESSED) {
+                // ratio 0.5, 2ns per byte: cost 1.0
+                sampler.record(codec, 1000, 500, 2000);
+            } else {
+                // ratio 0.3, 0.4ns per byte: cost 0.4
+                sampler.record(codec, 1000, 300, 400);
+            }
+        }
+        Assert.assertEquals(ChunkCompression.ENCODED, sampler.getChosen());
+        Assert.assertEquals(ChunkCompression.ENCODED, sampler.next());
+    }
+
+    @Test
+    public void testIncompressible() {
+        ChunkCodecSampler sampler = new ChunkCodecSampler(ImmutableList.of(ChunkCompression.COMPRESSED), 4.0);
+        for (int i = 0; i < SAMPLES_PER_CODEC; i++) {
+            sampler.record(sampler.next(), 1000, 990, 1000);
+        }
+        Assert.assertEquals(ChunkCompression.UNCOMPRESSED, sampler.next());
+    }
+
+    @Test
+    public void testResample() {
+        ChunkCodecSampler sampler = new ChunkCodecSampler(ImmutableList.of(ChunkCompression.SNAPPY), 4.0);
+        for (int i = 0; i < SAMPLES_PER_CODEC; i++) {
+            sampler.record(sampler.next(), 1000, 100, 100);
+        }
+        for (int i = 0; i < RESAMPLE_INTERVAL; i++) {
+            Assert.assertEquals(ChunkCompression.SNAPPY, sampler.next());
+        }
+        // data turns incompressible
+        for (int i = 0; i < SAMPLES_PER_CODEC; i++) {
+            sampler.record(sampler.next(), 1000, 1000, 100);
+        }
+        Assert.assertEquals(ChunkCompression.UNCOMPRESSED, sampler.getChosen());
+    }
+}
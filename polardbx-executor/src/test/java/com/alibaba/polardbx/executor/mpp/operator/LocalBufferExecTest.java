@@ -0,0 +1,101 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.mpp.operator;
+
+import com.alibaba.polardbx.executor.mpp.execution.EmptyMemSystemListener;
+import com.alibaba.polardbx.executor.mpp.execution.buffer.OutputBufferMemoryManager;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+
+public class LocalBufferExecTest {
+
+    private static LocalBufferExec newBuffer(boolean syncMode) {
+        OutputBufferMemoryManager memoryManager =
+            new OutputBufferMemoryManager(1L << 20, new EmptyMemSystemListener(), directExecutor());
+        return new LocalBufferExec(memoryManager, ImmutableList.of(), syncMode);
+    }
+
+    @Test
+    public void testBlockedUntilConsume() {
+        LocalBufferExec buffer = newBuffer(false);
+        Assert.assertFalse(buffer.produceIsBlocked().isDone());
+        buffer.consumeChunk(new Chunk());
+        Assert.assertTrue(buffer.produceIsBlocked().isDone());
+        Assert.assertNotNull(buffer.nextChunk());
+        Assert.assertFalse(buffer.produceIsBlocked().isDone());
+        buffer.buildConsume();
+        Assert.assertTrue(buffer.produceIsBlocked().isDone());
+        Assert.assertTrue(buffer.produceIsFinished());
+    }
+
+    @Test
+    public void testConcurrentProducers() throws Exception {
+        LocalBufferExec buffer = newBuffer(false);
+        int producers = 8;
+        int chunksPerProducer = 10000;
+        AtomicInteger running = new AtomicInteger(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < producers; i++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int n = 0; n < chunksPerProducer; n++) {
+                    buffer.consumeChunk(new Chunk());
+                }
+                if (running.decrementAndGet() == 0) {
+                    buffer.buildConsume();
+                }
+            }).start();
+        }
+        start.countDown();
+
+        int consumed = 0;
+        while (true) {
+            if (buffer.nextChunk() != null) {
+                consumed++;
+            } else if (buffer.produceIsFinished()) {
+                break;
+            } else {
+                // a lost wake-up would hang here
+                buffer.produceIsBlocked().get(10, TimeUnit.SECONDS);
+            }
+        }
+        Assert.assertEquals(producers * chunksPerProducer, consumed);
+    }
+
+    @Test
+    public void testTakeAfterClose() {
+        LocalBufferExec buffer = newBuffer(true);
+        buffer.consumeChunk(new Chunk());
+        buffer.closeConsume(true);
+        buffer.consumeChunk(new Chunk());
+        Assert.assertNull(buffer.takeChunk());
+        Assert.assertTrue(buffer.produceIsFinished());
+    }
+}
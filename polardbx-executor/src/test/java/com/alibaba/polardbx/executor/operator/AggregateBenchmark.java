@@ -17,6 +17,8 @@
 package com.alibaba.polardbx.executor.operator;
 
 import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.*;
+import com.alibaba.polardbx.common.properties.ConnectionParams;
+import com.alibaba.polardbx.common.properties.ParamManager;
 import com.google.common.collect.ImmutableList;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
 import com.alibaba.polardbx.optimizer.config.table.ColumnMeta;
@@ -31,7 +33,9 @@ import com.alibaba.polardbx.optimizer.memory.MemoryType;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class AggregateBenchmark {
 
@@ -95,6 +99,31 @@ public class AggregateBenchmark {
         });
     }
 
+    private void runTypedAggrWithGroupby(boolean vectorized) {
+        // group by k max(k), avg(k), count(k), count(*) for (id & 65535) as k
+        runBenchmark("typed aggregators with group by, vectorized=" + vectorized, 10, () -> {
+            Executor input = new Benchmark.MockMultiKeysExec(1, totalNumber, 1);
+            List<Aggregator> aggregators = new ArrayList<>();
+            aggregators.add(new Int2IntMax(0, DataTypes.IntegerType, DataTypes.IntegerType, -1));
+            aggregators.add(new Int2DecimalAvg(0, false, DataTypes.IntegerType, DataTypes.DecimalType, -1));
+            aggregators.add(new Count(new int[] {0}, false, -1));
+            aggregators.add(new CountRow(new int[] {}, false, -1));
+            List<DataType> dataTypes = Arrays.asList(DataTypes.IntegerType, DataTypes.IntegerType,
+                DataTypes.DecimalType, DataTypes.LongType, DataTypes.LongType);
+            Integer expectedOutputRowCount = 65535;
+
+            Map<String, String> config = new HashMap<>();
+            config.put(ConnectionParams.ENABLE_AGGREGATION_VECTORIZATION.getName(), String.valueOf(vectorized));
+            context.setParamManager(new ParamManager(config));
+
+            HashAggExec hashAggExec =
+                new HashAggExec(
+                    input.getDataTypes(), new int[] {0}, aggregators, dataTypes,
+                    expectedOutputRowCount, context);
+            BaseExecTest.execForMppMode(hashAggExec, input, -1, false);
+        });
+    }
+
     private void runBenchmark(String name, int iter, Benchmark benchmark) {
         int start = 0;
         List<Benchmark.Timer> timers = new ArrayList<>();
@@ -114,6 +143,8 @@ public class AggregateBenchmark {
         runAggrWithMultiKey(1);
         runAggrWithMultiKey(2);
         runAggrWithMultiKey(4);
+        runTypedAggrWithGroupby(false);
+        runTypedAggrWithGroupby(true);
         benchSum();
         benchSum();
     }
@@ -16,15 +16,25 @@
 
 package com.alibaba.polardbx.executor.operator;
 
+import com.alibaba.polardbx.executor.mpp.operator.WorkProcessor;
+import com.alibaba.polardbx.executor.operator.util.ChunkWithPositionComparator;
+import com.alibaba.polardbx.executor.operator.util.MergeSortedChunks;
+import com.alibaba.polardbx.optimizer.chunk.BlockBuilder;
+import com.alibaba.polardbx.optimizer.chunk.BlockBuilders;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
 import com.alibaba.polardbx.optimizer.chunk.IntegerBlock;
 import com.alibaba.polardbx.optimizer.chunk.StringBlock;
 import com.alibaba.polardbx.executor.utils.OrderByOption;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.google.common.util.concurrent.SettableFuture;
 import org.apache.calcite.rel.RelFieldCollation;
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class MergeSortExecTest extends BaseExecTest {
@@ -256,4 +266,143 @@ public class MergeSortExecTest extends BaseExecTest {
 
         assertExecResults(exec, new Chunk(IntegerBlock.of(3, 6, 8), IntegerBlock.of(9, 4, 4)));
     }
+
+    @Test
+    public void testLoserTreeFollowsRun() {
+        List<DataType> types = ImmutableList.of(DataTypes.IntegerType, DataTypes.IntegerType);
+        WorkProcessor<Chunk> input1 = WorkProcessor.fromIterable(ImmutableList.of(
+            new Chunk(IntegerBlock.of(1, 2, 3, 7, 8, 9), IntegerBlock.of(10, 20, 30, 70, 80, 90))));
+        WorkProcessor<Chunk> input2 = WorkProcessor.fromIterable(ImmutableList.of(
+            new Chunk(IntegerBlock.of(4, 5, 6, 10), IntegerBlock.of(40, 50, 60, 100))));
+
+        // runs are cut where the other stream wins and where the output chunk is full
+        List<Chunk> results = drain(MergeSortedChunks.mergeSortedChunks(ImmutableList.of(input1, input2),
+            new ChunkWithPositionComparator(ImmutableList.of(ascending(0)), types), types, 4, null, context));
+
+        Assert.assertEquals(3, results.size());
+        assertChunkEquals(new Chunk(IntegerBlock.of(1, 2, 3, 4), IntegerBlock.of(10, 20, 30, 40)), results.get(0));
+        assertChunkEquals(new Chunk(IntegerBlock.of(5, 6, 7, 8), IntegerBlock.of(50, 60, 70, 80)), results.get(1));
+        assertChunkEquals(new Chunk(IntegerBlock.of(9, 10), IntegerBlock.of(90, 100)), results.get(2));
+    }
+
+    @Test
+    public void testLoserTreePassThrough() {
+        List<DataType> types = ImmutableList.of(DataTypes.IntegerType);
+        Chunk chunk1 = new Chunk(IntegerBlock.of(1, 2, 3));
+        Chunk chunk2 = new Chunk(IntegerBlock.of(7, 8));
+        Chunk chunk3 = new Chunk(IntegerBlock.of(4, 5, 6));
+        WorkProcessor<Chunk> input1 = WorkProcessor.fromIterable(ImmutableList.of(chunk1, chunk2));
+        WorkProcessor<Chunk> input2 = WorkProcessor.fromIterable(ImmutableList.of(chunk3));
+
+        List<Chunk> results = drain(MergeSortedChunks.mergeSortedChunks(ImmutableList.of(input1, input2),
+            new ChunkWithPositionComparator(ImmutableList.of(ascending(0)), types), types, 16, null, context));
+
+        // chunks that do not overlap any other stream are handed out as they are
+        Assert.assertEquals(3, results.size());
+        Assert.assertSame(chunk1, results.get(0));
+        Assert.assertSame(chunk3, results.get(1));
+        Assert.assertSame(chunk2, results.get(2));
+    }
+
+    @Test
+    public void testLoserTreeFlushesOnBlocked() {
+        List<DataType> types = ImmutableList.of(DataTypes.IntegerType);
+        SettableFuture<?> future = SettableFuture.create();
+        WorkProcessor<Chunk> input1 = WorkProcessor.create(new WorkProcessor.Process<Chunk>() {
+            int step;
+
+            @Override
+            public WorkProcessor.ProcessState<Chunk> process() {
+                switch (step++) {
+                case 0:
+                    return WorkProcessor.ProcessState.ofResult(new Chunk(IntegerBlock.of(1, 2)));
+                case 1:
+                    return WorkProcessor.ProcessState.blocked(future);
+                case 2:
+                    return WorkProcessor.ProcessState.ofResult(new Chunk(IntegerBlock.of(5, 6)));
+                default:
+                    return WorkProcessor.ProcessState.finished();
+                }
+            }
+        });
+        WorkProcessor<Chunk> input2 = WorkProcessor.fromIterable(ImmutableList.of(
+            new Chunk(IntegerBlock.of(0, 3, 4, 7))));
+
+        WorkProcessor<Chunk> merged = MergeSortedChunks.mergeSortedChunks(ImmutableList.of(input1, input2),
+            new ChunkWithPositionComparator(ImmutableList.of(ascending(0)), types), types, 16, null, context);
+
+        // the rows merged before the input blocks come out without waiting for a full chunk
+        Assert.assertTrue(merged.process());
+        assertChunkEquals(new Chunk(IntegerBlock.of(0, 1, 2)), merged.getResult());
+        Assert.assertFalse(merged.process());
+        Assert.assertTrue(merged.isBlocked());
+
+        future.set(null);
+        Assert.assertTrue(merged.process());
+        assertChunkEquals(new Chunk(IntegerBlock.of(3, 4, 5, 6, 7)), merged.getResult());
+        Assert.assertTrue(merged.process());
+        Assert.assertTrue(merged.isFinished());
+    }
+
+    @Test
+    public void testLoserTreeNormalizedKeyTies() {
+        List<DataType> types = ImmutableList.of(DataTypes.IntegerType, DataTypes.IntegerType);
+        WorkProcessor<Chunk> input1 = WorkProcessor.fromIterable(ImmutableList.of(
+            new Chunk(IntegerBlock.of(5, 5, 3, null), IntegerBlock.of(1, 3, 1, 1))));
+        WorkProcessor<Chunk> input2 = WorkProcessor.fromIterable(ImmutableList.of(
+            new Chunk(IntegerBlock.of(5, 4, null), IntegerBlock.of(2, 1, 2))));
+
+        // equal exact keys and nulls are ordered by the remaining columns
+        OrderByOption descending = new OrderByOption(0,
+            RelFieldCollation.Direction.DESCENDING,
+            RelFieldCollation.NullDirection.UNSPECIFIED);
+        List<Chunk> results = drain(MergeSortedChunks.mergeSortedChunks(ImmutableList.of(input1, input2),
+            new ChunkWithPositionComparator(ImmutableList.of(descending, ascending(1)), types), types, 16, null,
+            context));
+
+        Assert.assertEquals(1, results.size());
+        assertChunkEquals(new Chunk(IntegerBlock.of(5, 5, 5, 4, 3, null, null),
+            IntegerBlock.of(1, 2, 3, 1, 1, 1, 2)), results.get(0));
+    }
+
+    @Test
+    public void testLoserTreeStringPrefixTies() {
+        List<DataType> types = ImmutableList.of(DataTypes.VarcharType);
+        WorkProcessor<Chunk> input1 = WorkProcessor.fromIterable(ImmutableList.of(
+            varcharChunk("abcdefgh1", "abcdefgh3", "b")));
+        WorkProcessor<Chunk> input2 = WorkProcessor.fromIterable(ImmutableList.of(
+            varcharChunk("abcdefgh2", "abcdefgh4")));
+
+        // the normalized prefixes are equal, so the comparator has to decide
+        List<Chunk> results = drain(MergeSortedChunks.mergeSortedChunks(ImmutableList.of(input1, input2),
+            new ChunkWithPositionComparator(ImmutableList.of(ascending(0)), types), types, 16, null, context));
+
+        Assert.assertEquals(1, results.size());
+        assertChunkEquals(varcharChunk("abcdefgh1", "abcdefgh2", "abcdefgh3", "abcdefgh4", "b"), results.get(0));
+    }
+
+    private static OrderByOption ascending(int index) {
+        return new OrderByOption(index,
+            RelFieldCollation.Direction.ASCENDING,
+            RelFieldCollation.NullDirection.FIRST);
+    }
+
+    private Chunk varcharChunk(String... values) {
+        BlockBuilder builder = BlockBuilders.create(DataTypes.VarcharType, context);
+        for (String value : values) {
+            builder.writeString(value);
+        }
+        return new Chunk(builder.build());
+    }
+
+    private static List<Chunk> drain(WorkProcessor<Chunk> processor) {
+        List<Chunk> results = new ArrayList<>();
+        while (true) {
+            Assert.assertTrue(processor.process());
+            if (processor.isFinished()) {
+                return results;
+            }
+            results.add(processor.getResult());
+        }
+    }
 }
@@ -37,6 +37,9 @@ import com.alibaba.polardbx.optimizer.chunk.Chunk;
 import com.alibaba.polardbx.executor.mpp.execution.buffer.PagesSerde;
 import com.alibaba.polardbx.executor.mpp.execution.buffer.PagesSerdeFactory;
 import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.memory.MemoryPool;
+import com.alibaba.polardbx.optimizer.memory.MemoryType;
+import com.alibaba.polardbx.optimizer.memory.OperatorMemoryAllocatorCtx;
 import com.alibaba.polardbx.optimizer.spill.QuerySpillSpaceMonitor;
 import org.apache.commons.io.FileUtils;
 import org.junit.After;
@@ -45,6 +48,7 @@ import org.junit.Test;
 
 import java.io.File;
 import java.nio.file.Paths;
+import java.util.Iterator;
 
 import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
 import static com.alibaba.polardbx.executor.operator.BaseExecTest.assertExecResultByRow;
@@ -97,6 +101,58 @@ public class TestFileSingleStreamSpiller {
         assertEquals(0, FileUtils.listFiles(spillPath, null, false).size());
     }
 
+    @Test
+    public void testSpillWithCompression()
+        throws Exception {
+        for (PagesSerdeFactory.CompressionMode mode : PagesSerdeFactory.CompressionMode.values()) {
+            PagesSerde serde = new PagesSerdeFactory(mode).createPagesSerde(ImmutableList.of(
+                DataTypes.LongType, DataTypes.DoubleType));
+            FileSingleStreamSpiller spiller =
+                new FileSingleStreamSpiller(serde, executor, new SyncFileCleaner(), spillPath.toPath(),
+                    new QuerySpillSpaceMonitor().newLocalSpillMonitor());
+
+            Chunk page = buildPage();
+            spiller.spill(Iterators.forArray(page, page, page, page, page)).get();
+            ImmutableList<Chunk> spilledPages = ImmutableList.copyOf(spiller.getSpilledChunks());
+
+            assertEquals(mode.name(), 5, spilledPages.size());
+            for (Chunk spilledPage : spilledPages) {
+                assertExecResultByRow(ImmutableList.of(page), ImmutableList.of(spilledPage), true);
+            }
+            spiller.close();
+        }
+        assertEquals(0, FileUtils.listFiles(spillPath, null, false).size());
+    }
+
+    @Test
+    public void testPrefetchReleasesMemory()
+        throws Exception {
+        PagesSerde serde = new PagesSerdeFactory(false).createPagesSerde(ImmutableList.of(
+            DataTypes.LongType, DataTypes.DoubleType));
+        OperatorMemoryAllocatorCtx memoryAllocator =
+            new OperatorMemoryAllocatorCtx(new MemoryPool("test", Long.MAX_VALUE, MemoryType.OPERATOR), false);
+
+        Chunk page = buildPage();
+        FileSingleStreamSpiller spiller =
+            new FileSingleStreamSpiller(serde, executor, new SyncFileCleaner(), spillPath.toPath(),
+                new QuerySpillSpaceMonitor().newLocalSpillMonitor());
+        spiller.spill(Iterators.forArray(page, page, page, page, page)).get();
+        ImmutableList<Chunk> spilledPages = ImmutableList.copyOf(spiller.getSpilledChunks(memoryAllocator));
+        assertEquals(5, spilledPages.size());
+        assertEquals(0, memoryAllocator.getReservedAllocated());
+        spiller.close();
+
+        // closing with a read in flight must wait for it and give back what it reserved
+        spiller = new FileSingleStreamSpiller(serde, executor, new SyncFileCleaner(), spillPath.toPath(),
+            new QuerySpillSpaceMonitor().newLocalSpillMonitor());
+        spiller.spill(Iterators.forArray(page, page, page, page, page)).get();
+        Iterator<Chunk> pages = spiller.getSpilledChunks(memoryAllocator);
+        assertExecResultByRow(ImmutableList.of(page), ImmutableList.of(pages.next()), true);
+        spiller.close();
+        assertEquals(0, memoryAllocator.getReservedAllocated());
+        assertEquals(0, FileUtils.listFiles(spillPath, null, false).size());
+    }
+
     private Chunk buildPage() {
         return rowChunkBuilder(DataTypes.LongType, DataTypes.DoubleType)
             .row(42L, 43.0)
@@ -0,0 +1,96 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.operator.util;
+
+import com.alibaba.polardbx.executor.mpp.operator.WorkProcessor;
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class LoserTreeTest {
+
+    @Test
+    public void testMerge() {
+        Random random = new Random(7);
+        for (int size = 1; size <= 9; size++) {
+            int[][] streams = new int[size][];
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                streams[i] = random.ints(random.nextInt(20), 0, 50).sorted().toArray();
+                for (int value : streams[i]) {
+                    expected.add(value);
+                }
+            }
+            Collections.sort(expected);
+
+            int[] positions = new int[size];
+            LoserTree tree = new LoserTree(size,
+                (left, right) -> Integer.compare(streams[left][positions[left]], streams[right][positions[right]]));
+            for (int i = 0; i < size; i++) {
+                if (streams[i].length == 0) {
+                    tree.setExhausted(i);
+                }
+            }
+            tree.init();
+
+            List<Integer> merged = new ArrayList<>();
+            while (!tree.isFinished()) {
+                int winner = tree.winner();
+                int runnerUp = tree.runnerUp();
+                if (runnerUp >= 0 && !tree.isExhausted(runnerUp)) {
+                    Assert.assertTrue(streams[winner][positions[winner]] <= streams[runnerUp][positions[runnerUp]]);
+                }
+                merged.add(streams[winner][positions[winner]++]);
+                if (positions[winner] == streams[winner].length) {
+                    tree.setExhausted(winner);
+                }
+                tree.replay();
+            }
+            Assert.assertEquals(expected, merged);
+        }
+    }
+
+    @Test
+    public void testTieBreakByStream() {
+        LoserTree tree = new LoserTree(3, (left, right) -> 0);
+        tree.init();
+        Assert.assertEquals(0, tree.winner());
+        Assert.assertEquals(1, tree.runnerUp());
+        tree.setExhausted(0);
+        tree.replay();
+        Assert.assertEquals(1, tree.winner());
+    }
+
+    @Test
+    public void testMergeSortedProcessors() {
+        List<WorkProcessor<Integer>> processors = ImmutableList.of(
+            WorkProcessor.fromIterable(ImmutableList.of(1, 4, 7)),
+            WorkProcessor.fromIterable(ImmutableList.of()),
+            WorkProcessor.fromIterable(ImmutableList.of(2, 3, 8, 9)),
+            WorkProcessor.fromIterable(ImmutableList.of(5, 6)));
+        List<Integer> merged = new ArrayList<>();
+        WorkProcessor.mergeSorted(processors, Comparator.<Integer>naturalOrder()).iterator()
+            .forEachRemaining(merged::add);
+        Assert.assertEquals(ImmutableList.of(1, 2, 3, 4, 5, 6, 7, 8, 9), merged);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.operator.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class NormalizedKeySorterTest {
+
+    @Test
+    public void testEncodeLong() {
+        long[] values = {Long.MIN_VALUE, -100, -1, 0, 1, 100, Long.MAX_VALUE};
+        for (int i = 1; i < values.length; i++) {
+            Assert.assertTrue(Long.compareUnsigned(NormalizedKeySorter.encodeLong(values[i - 1]),
+                NormalizedKeySorter.encodeLong(values[i])) < 0);
+        }
+    }
+
+    @Test
+    public void testEncodeDouble() {
+        double[] values = {
+            Double.NEGATIVE_INFINITY, -Double.MAX_VALUE, -1.5, -Double.MIN_VALUE, -0.0d, 0.0d, Double.MIN_VALUE,
+            1.5, Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.NaN};
+        for (int i = 1; i < values.length; i++) {
+            Assert.assertEquals(Double.compare(values[i - 1], values[i]), Long.signum(Long.compareUnsigned(
+                NormalizedKeySorter.encodeDouble(values[i - 1]), NormalizedKeySorter.encodeDouble(values[i]))));
+        }
+    }
+
+    @Test
+    public void testEncodeFloat() {
+        float[] values = {Float.NEGATIVE_INFINITY, -1.5f, -0.0f, 0.0f, 1.5f, Float.POSITIVE_INFINITY, Float.NaN};
+        for (int i = 1; i < values.length; i++) {
+            Assert.assertTrue(Long.compareUnsigned(NormalizedKeySorter.encodeFloat(values[i - 1]),
+                NormalizedKeySorter.encodeFloat(values[i])) < 0);
+        }
+    }
+
+    @Test
+    public void testEncodePrefix() {
+        Assert.assertEquals(0x6162000000000000L, NormalizedKeySorter.encodePrefix(new byte[] {'a', 'b'}));
+        Assert.assertTrue(Long.compareUnsigned(NormalizedKeySorter.encodePrefix(new byte[] {'a'}),
+            NormalizedKeySorter.encodePrefix(new byte[] {'a', 'b'})) < 0);
+        Assert.assertTrue(Long.compareUnsigned(NormalizedKeySorter.encodePrefix(new byte[] {(byte) 0x7f}),
+            NormalizedKeySorter.encodePrefix(new byte[] {(byte) 0x80})) < 0);
+        Assert.assertEquals(NormalizedKeySorter.encodePrefix("abcdefgh1".getBytes()),
+            NormalizedKeySorter.encodePrefix("abcdefgh2".getBytes()));
+    }
+
+    @Test
+    public void testSortByKey() {
+        Random random = new Random(42);
+        for (int size : new int[] {0, 1, 10, 255, 256, 1000, 10000}) {
+            for (int bound : new int[] {3, 1000, 0}) {
+                long[] keys = new long[size];
+                int[] index = new int[size];
+                for (int i = 0; i < size; i++) {
+                    keys[i] = NormalizedKeySorter.encodeLong(bound == 0 ? random.nextLong() : random.nextInt(bound));
+                    index[i] = i;
+                }
+                long[] original = keys.clone();
+                NormalizedKeySorter.sortByKey(keys, index, 0, size);
+
+                for (int i = 0; i < size; i++) {
+                    Assert.assertEquals(original[index[i]], keys[i]);
+                    if (i > 0) {
+                        Assert.assertTrue(Long.compareUnsigned(keys[i - 1], keys[i]) <= 0);
+                    }
+                }
+                int[] sortedIndex = index.clone();
+                Arrays.sort(sortedIndex);
+                for (int i = 0; i < size; i++) {
+                    Assert.assertEquals(i, sortedIndex[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSortByKeyRange() {
+        long[] keys = {9, 8, 3, 2, 1, 0};
+        int[] index = {0, 1, 2, 3, 4, 5};
+        NormalizedKeySorter.sortByKey(keys, index, 1, 4);
+        Assert.assertArrayEquals(new long[] {9, 2, 3, 8, 1, 0}, keys);
+        Assert.assertArrayEquals(new int[] {0, 3, 2, 1, 4, 5}, index);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.operator.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.alibaba.polardbx.executor.operator.util.RadixPartitionedHashTable.FANOUT;
+import static com.alibaba.polardbx.executor.operator.util.RadixPartitionedHashTable.NOT_EXISTS;
+
+public class RadixPartitionedHashTableTest {
+
+    @Test
+    public void testPartitionCount() {
+        Assert.assertEquals(1, new RadixPartitionedHashTable(100, 1).getPartitionCount());
+        Assert.assertEquals(4, new RadixPartitionedHashTable(100, 3).getPartitionCount());
+        Assert.assertEquals(FANOUT, new RadixPartitionedHashTable(100_000_000, 1).getPartitionCount());
+    }
+
+    @Test
+    public void testBuildAndProbe() {
+        final int size = 200_000;
+        final Random random = new Random(0);
+        final int[] hashes = new int[size];
+        for (int i = 0; i < size; i++) {
+            // plenty of duplicate hash codes
+            hashes[i] = random.nextInt(size / 4);
+        }
+
+        RadixPartitionedHashTable table = new RadixPartitionedHashTable(size, 4);
+        int partitionCount = table.getPartitionCount();
+        Assert.assertTrue(partitionCount > 1);
+
+        // scatter by fine partition, then build each partition on its own
+        int[] links = new int[size];
+        Arrays.fill(links, NOT_EXISTS);
+        for (int partition = 0; partition < partitionCount; partition++) {
+            int fanoutStart = table.getFanoutStart(partition);
+            int fanoutEnd = table.getFanoutStart(partition + 1);
+            int partitionSize = 0;
+            for (int i = 0; i < size; i++) {
+                int fanout = RadixPartitionedHashTable.fanoutPartition(hashes[i]);
+                if (fanout >= fanoutStart && fanout < fanoutEnd) {
+                    partitionSize++;
+                }
+            }
+            table.initPartition(partition, partitionSize);
+            for (int i = 0; i < size; i++) {
+                int fanout = RadixPartitionedHashTable.fanoutPartition(hashes[i]);
+                if (fanout >= fanoutStart && fanout < fanoutEnd) {
+                    links[i] = table.put(partition, i, hashes[i]);
+                }
+            }
+        }
+
+        // every position is reachable from the head of its hash code
+        int[] heads = new int[size];
+        table.getAll(hashes, size, heads);
+        for (int i = 0; i < size; i++) {
+            Assert.assertEquals(table.get(hashes[i]), heads[i]);
+            int position = heads[i];
+            while (position != NOT_EXISTS && position != i) {
+                position = links[position];
+            }
+            Assert.assertEquals(i, position);
+        }
+    }
+}
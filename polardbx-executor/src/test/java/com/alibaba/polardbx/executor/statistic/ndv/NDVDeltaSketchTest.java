@@ -0,0 +1,127 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.statistic.ndv;
+
+import com.alibaba.polardbx.common.charset.CharsetName;
+import com.alibaba.polardbx.common.charset.CollationName;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.datatype.SliceType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NDVDeltaSketchTest {
+
+    @Test
+    public void testSparseRoundTrip() {
+        NDVDeltaSketch sketch = new NDVDeltaSketch();
+        for (int i = 0; i < 1000; i++) {
+            sketch.offer("value_" + i);
+        }
+        sketch.recordInsert(1000);
+        sketch.recordUnapplied(10);
+
+        byte[] bytes = sketch.toSketchBytes();
+        Assert.assertTrue(bytes.length < HyperLogLogUtil.HLL_REGBYTES);
+
+        NDVDeltaSketch restored = NDVDeltaSketch.fromSketchBytes(bytes, 1000, 10);
+        Assert.assertArrayEquals(sketch.toDenseBytes(), restored.toDenseBytes());
+        Assert.assertEquals(1000, restored.getInsertRows());
+        Assert.assertEquals(10, restored.getUnappliedRows());
+    }
+
+    @Test
+    public void testDenseRoundTrip() {
+        NDVDeltaSketch sketch = new NDVDeltaSketch();
+        for (int i = 0; i < 200000; i++) {
+            sketch.offer("value_" + i);
+        }
+
+        byte[] bytes = sketch.toSketchBytes();
+        Assert.assertEquals(HyperLogLogUtil.HLL_REGBYTES, bytes.length);
+
+        NDVDeltaSketch restored = NDVDeltaSketch.fromSketchBytes(bytes, 0, 0);
+        Assert.assertArrayEquals(bytes, restored.toSketchBytes());
+    }
+
+    @Test
+    public void testMergeIsIdempotent() {
+        NDVDeltaSketch a = new NDVDeltaSketch();
+        NDVDeltaSketch b = new NDVDeltaSketch();
+        for (int i = 0; i < 5000; i++) {
+            a.offer("value_" + i);
+            b.offer("value_" + (i + 2500));
+        }
+
+        a.merge(b);
+        byte[] once = a.toDenseBytes();
+        a.merge(NDVDeltaSketch.fromSketchBytes(b.toSketchBytes(), 0, 0));
+        Assert.assertArrayEquals(once, a.toDenseBytes());
+
+        long estimate = HyperLogLogUtil.estimate(new byte[][] {once});
+        Assert.assertTrue("estimate " + estimate, Math.abs(estimate - 7500) < 7500 * 0.05);
+    }
+
+    @Test
+    public void testCombineCardinality() {
+        // the delta is never merged with the shard sketches, the union is bounded by base + delta
+        Assert.assertEquals(1100, NDVShardSketch.combineCardinality(1000, 100, 0));
+        Assert.assertEquals(1100, NDVShardSketch.combineCardinality(1000, 100, 5000));
+        // never above the row count
+        Assert.assertEquals(1050, NDVShardSketch.combineCardinality(1000, 100, 1050));
+        // a stale row count never lowers the shard sketches
+        Assert.assertEquals(1000, NDVShardSketch.combineCardinality(1000, 100, 900));
+    }
+
+    @Test
+    public void testDeltaDriftAgainstBase() {
+        // the overestimate of combineCardinality is at most the delta, the drift check bounds it
+        Assert.assertFalse(NDVShardSketch.isDrifted(0, 1000));
+        Assert.assertFalse(NDVShardSketch.isDrifted(200, 1000));
+        Assert.assertTrue(NDVShardSketch.isDrifted(201, 1000));
+        Assert.assertTrue(NDVShardSketch.isDrifted(1, 0));
+    }
+
+    @Test
+    public void testDrain() {
+        NDVDeltaSketch sketch = new NDVDeltaSketch();
+        sketch.offer("a");
+        sketch.recordInsert(1);
+        sketch.recordUnapplied(2);
+        Assert.assertFalse(sketch.isEmpty());
+
+        NDVDeltaSketch drained = sketch.drain();
+        Assert.assertTrue(sketch.isEmpty());
+        Assert.assertFalse(drained.isEmpty());
+        Assert.assertEquals(1, drained.getInsertRows());
+        Assert.assertEquals(2, drained.getUnappliedRows());
+    }
+
+    @Test
+    public void testHashCompatibleTypes() {
+        // 只有utf8字符串的hash与dn一致
+        Assert.assertTrue(NDVSketch.isHashCompatible(DataTypes.StringType));
+        Assert.assertTrue(
+            NDVSketch.isHashCompatible(new SliceType(CharsetName.UTF8MB4, CollationName.UTF8MB4_GENERAL_CI)));
+        Assert.assertTrue(NDVSketch.isHashCompatible(new SliceType(CharsetName.UTF8, CollationName.UTF8_GENERAL_CI)));
+        Assert.assertFalse(NDVSketch.isHashCompatible(new SliceType(CharsetName.GBK, CollationName.GBK_CHINESE_CI)));
+        Assert.assertFalse(NDVSketch.isHashCompatible(DataTypes.IntegerType));
+        Assert.assertFalse(NDVSketch.isHashCompatible(DataTypes.LongType));
+        Assert.assertFalse(NDVSketch.isHashCompatible(DataTypes.DecimalType));
+        Assert.assertFalse(NDVSketch.isHashCompatible(DataTypes.DatetimeType));
+        Assert.assertFalse(NDVSketch.isHashCompatible(DataTypes.TimestampType));
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.aggregate;
+
+import com.alibaba.polardbx.common.datatype.Decimal;
+import com.alibaba.polardbx.optimizer.chunk.Block;
+import com.alibaba.polardbx.optimizer.chunk.BlockBuilder;
+import com.alibaba.polardbx.optimizer.chunk.BlockBuilders;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.DecimalBlockBuilder;
+import com.alibaba.polardbx.optimizer.chunk.DoubleBlock;
+import com.alibaba.polardbx.optimizer.chunk.IntegerBlock;
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.expression.calc.AbstractAggregator;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Count;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.CountRow;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Decimal2DecimalAvg;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Decimal2DecimalMax;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Decimal2DecimalSum;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Double2DoubleAvg;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Double2DoubleMin;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Double2DoubleSum;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Int2DecimalAvg;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Int2IntMax;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Long2DecimalAvg;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Long2LongMax;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Long2LongMin;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Long2LongSum0;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.function.Supplier;
+
+public class GroupAggregationKernelTest {
+
+    private static final int GROUP_COUNT = 37;
+    private static final int POSITION_COUNT = 1000;
+
+    private final Random random = new Random(20211015);
+    private final ExecutionContext context = new ExecutionContext();
+
+    @Test
+    public void testLongKernels() {
+        final Block block = randomLongBlock(false);
+        final Block overflowBlock = randomLongBlock(true);
+        check(() -> new Long2LongSum0(0, false, DataTypes.LongType, DataTypes.LongType, -1), block, DataTypes.LongType);
+        check(() -> new Long2LongMax(0, DataTypes.LongType, DataTypes.LongType, -1), block, DataTypes.LongType);
+        check(() -> new Long2LongMin(0, DataTypes.LongType, DataTypes.LongType, -1), block, DataTypes.LongType);
+        check(() -> new Long2DecimalAvg(0, false, DataTypes.LongType, DataTypes.DecimalType, -1),
+            block, DataTypes.DecimalType);
+        check(() -> new Long2DecimalAvg(0, false, DataTypes.LongType, DataTypes.DecimalType, -1),
+            overflowBlock, DataTypes.DecimalType);
+        check(() -> new Count(new int[] {0}, false, -1), block, DataTypes.LongType);
+        check(() -> new CountRow(new int[] {}, false, -1), block, DataTypes.LongType);
+    }
+
+    @Test
+    public void testIntegerKernels() {
+        final Integer[] values = new Integer[POSITION_COUNT];
+        for (int i = 0; i < POSITION_COUNT; i++) {
+            values[i] = random.nextInt(5) == 0 ? null : random.nextInt();
+        }
+        final Block block = IntegerBlock.of(values);
+        check(() -> new Int2IntMax(0, DataTypes.IntegerType, DataTypes.IntegerType, -1), block, DataTypes.IntegerType);
+        check(() -> new Int2DecimalAvg(0, false, DataTypes.IntegerType, DataTypes.DecimalType, -1),
+            block, DataTypes.DecimalType);
+    }
+
+    @Test
+    public void testDoubleKernels() {
+        final Double[] values = new Double[POSITION_COUNT];
+        for (int i = 0; i < POSITION_COUNT; i++) {
+            values[i] = random.nextInt(5) == 0 ? null : random.nextDouble() * 100 - 50;
+        }
+        final Block block = DoubleBlock.of(values);
+        check(() -> new Double2DoubleSum(0, false, DataTypes.DoubleType, DataTypes.DoubleType, -1),
+            block, DataTypes.DoubleType);
+        check(() -> new Double2DoubleMin(0, DataTypes.DoubleType, DataTypes.DoubleType, -1),
+            block, DataTypes.DoubleType);
+        check(() -> new Double2DoubleAvg(0, false, DataTypes.DoubleType, DataTypes.DoubleType, -1),
+            block, DataTypes.DoubleType);
+    }
+
+    @Test
+    public void testDecimalKernels() {
+        final DecimalBlockBuilder builder = new DecimalBlockBuilder(POSITION_COUNT);
+        for (int i = 0; i < POSITION_COUNT; i++) {
+            if (random.nextInt(5) == 0) {
+                builder.appendNull();
+            } else {
+                builder.writeDecimal(Decimal.fromBigDecimal(BigDecimal.valueOf(random.nextInt(100000), 2)));
+            }
+        }
+        final Block block = builder.build();
+        check(() -> new Decimal2DecimalSum(0, false, DataTypes.DecimalType, DataTypes.DecimalType, -1),
+            block, DataTypes.DecimalType);
+        check(() -> new Decimal2DecimalMax(0, DataTypes.DecimalType, DataTypes.DecimalType, -1),
+            block, DataTypes.DecimalType);
+        check(() -> new Decimal2DecimalAvg(0, false, DataTypes.DecimalType, DataTypes.DecimalType, -1),
+            block, DataTypes.DecimalType);
+    }
+
+    private Block randomLongBlock(boolean nearOverflow) {
+        final Long[] values = new Long[POSITION_COUNT];
+        for (int i = 0; i < POSITION_COUNT; i++) {
+            if (random.nextInt(5) == 0) {
+                values[i] = null;
+            } else if (nearOverflow) {
+                values[i] = random.nextBoolean()
+                    ? Long.MAX_VALUE - random.nextInt(3) : Long.MIN_VALUE + random.nextInt(3);
+            } else {
+                values[i] = (long) random.nextInt(2000) - 1000;
+            }
+        }
+        return LongBlock.of(values);
+    }
+
+    /**
+     * Accumulate the same input by rows and by the kernel, with and without selection
+     */
+    private void check(Supplier<AbstractAggregator> supplier, Block block, DataType resultType) {
+        final int[] groupIds = new int[POSITION_COUNT];
+        for (int i = 0; i < POSITION_COUNT; i++) {
+            groupIds[i] = random.nextInt(GROUP_COUNT);
+        }
+        int selSize = 0;
+        final int[] selection = new int[POSITION_COUNT];
+        for (int i = 0; i < POSITION_COUNT; i++) {
+            if (random.nextBoolean()) {
+                selection[selSize++] = i;
+            }
+        }
+
+        final AbstractAggregator expected = open(supplier);
+        final AbstractAggregator actual = open(supplier);
+        final GroupAggregationKernel kernel = GroupAggregationKernels.create(actual);
+        Assert.assertNotNull(kernel);
+        Assert.assertTrue(kernel.supports(block));
+
+        final Chunk chunk = new Chunk(block);
+        for (int round = 0; round < 2; round++) {
+            for (int pos = 0; pos < POSITION_COUNT; pos++) {
+                expected.accumulate(groupIds[pos], chunk, pos);
+            }
+            kernel.accumulate(block, groupIds, null, POSITION_COUNT);
+            for (int i = 0; i < selSize; i++) {
+                expected.accumulate(groupIds[selection[i]], chunk, selection[i]);
+            }
+            kernel.accumulate(block, groupIds, selection, selSize);
+        }
+
+        final BlockBuilder expectedBuilder = BlockBuilders.create(resultType, context);
+        final BlockBuilder actualBuilder = BlockBuilders.create(resultType, context);
+        for (int groupId = 0; groupId < GROUP_COUNT; groupId++) {
+            expected.writeResultTo(groupId, expectedBuilder);
+            actual.writeResultTo(groupId, actualBuilder);
+        }
+        final Block expectedBlock = expectedBuilder.build();
+        final Block actualBlock = actualBuilder.build();
+        for (int groupId = 0; groupId < GROUP_COUNT; groupId++) {
+            Assert.assertEquals(expected.getClass().getSimpleName() + " group " + groupId,
+                expectedBlock.getObject(groupId), actualBlock.getObject(groupId));
+        }
+    }
+
+    private static AbstractAggregator open(Supplier<AbstractAggregator> supplier) {
+        final AbstractAggregator aggregator = supplier.get();
+        aggregator.open(GROUP_COUNT);
+        for (int i = 0; i < GROUP_COUNT; i++) {
+            aggregator.appendInitValue();
+        }
+        return aggregator;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.sequence.impl;
+
+import com.alibaba.polardbx.common.model.lifecycle.AbstractLifecycle;
+import com.alibaba.polardbx.sequence.SequenceDao;
+import com.alibaba.polardbx.sequence.SequenceRange;
+import com.alibaba.polardbx.sequence.exception.SequenceException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class GroupSequencePrefetchTest {
+
+    private static final int STEP = 1000;
+
+    private static class MockSequenceDao extends AbstractLifecycle implements SequenceDao {
+
+        private final AtomicLong value = new AtomicLong(0);
+        private final AtomicInteger fetchCount = new AtomicInteger(0);
+        private final long delayMillis;
+        /**
+         * Holds every fetch after the first one until it is counted down
+         */
+        private volatile CountDownLatch gate;
+
+        MockSequenceDao(long delayMillis) {
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public SequenceRange nextRange(String name) throws SequenceException {
+            int fetch = fetchCount.incrementAndGet();
+            try {
+                CountDownLatch gate = this.gate;
+                if (gate != null && fetch > 1) {
+                    gate.await();
+                }
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                throw new SequenceException(e, e.getMessage());
+            }
+            long start = value.getAndAdd(STEP);
+            return new SequenceRange(start + 1, start + STEP);
+        }
+
+        @Override
+        public int getStep() {
+            return STEP;
+        }
+
+        @Override
+        public int getRetryTimes() {
+            return 1;
+        }
+    }
+
+    private GroupSequence buildSequence(MockSequenceDao dao, int watermark) {
+        GroupSequence seq = new GroupSequence();
+        seq.setName("test_seq");
+        seq.setSequenceDao(dao);
+        seq.setPrefetchWatermark(watermark);
+        return seq;
+    }
+
+    @Test
+    public void testValuesAreUniqueAcrossPrefetchedRanges() throws Exception {
+        MockSequenceDao dao = new MockSequenceDao(1);
+        final GroupSequence seq = buildSequence(dao, 50);
+        final int threads = 8;
+        final int perThread = 5000;
+        final ConcurrentHashMap<Long, Boolean> values = new ConcurrentHashMap<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread t = new Thread(() -> {
+                long last = 0;
+                for (int j = 0; j < perThread; j++) {
+                    long v = seq.nextValue();
+                    Assert.assertTrue(v > last);
+                    last = v;
+                    Assert.assertNull(values.put(v, Boolean.TRUE));
+                }
+            });
+            workers.add(t);
+            t.start();
+        }
+        for (Thread t : workers) {
+            t.join();
+        }
+        Assert.assertEquals(threads * perThread, values.size());
+
+        long[] stats = seq.getRefillStats();
+        // A prefetch may still be in flight
+        Assert.assertTrue(stats[0] <= dao.fetchCount.get());
+        Assert.assertTrue(stats[2] <= stats[0]);
+    }
+
+    @Test
+    public void testPrefetchAvoidsStall() throws Exception {
+        MockSequenceDao dao = new MockSequenceDao(0);
+        dao.gate = new CountDownLatch(1);
+        GroupSequence seq = buildSequence(dao, 50);
+        // Passing the watermark starts the prefetch, which is held in the DAO
+        for (int i = 0; i < STEP / 2 + 1; i++) {
+            seq.nextValue();
+        }
+        // The rest of the current range is still handed out without waiting for it
+        for (int i = 0; i < STEP / 2 - 1; i++) {
+            seq.nextValue();
+        }
+        Assert.assertEquals(1, seq.getRefillStats()[2]);
+
+        dao.gate.countDown();
+        seq.awaitPrefetch();
+        Assert.assertEquals(2, dao.fetchCount.get());
+        Assert.assertEquals(STEP + 1, seq.nextValue());
+        // Only the initial load has to wait
+        Assert.assertEquals(1, seq.getRefillStats()[2]);
+    }
+
+    @Test
+    public void testExhaustDiscardsPrefetchedRange() throws Exception {
+        MockSequenceDao dao = new MockSequenceDao(0);
+        GroupSequence seq = buildSequence(dao, 100);
+        Assert.assertEquals(1, seq.nextValue());
+        seq.awaitPrefetch();
+        seq.exhaustValue();
+        // The prefetched range [1001, 2000] is dropped, a fresh one is fetched
+        Assert.assertEquals(2 * STEP + 1, seq.nextValue());
+    }
+
+    @Test
+    public void testNoPrefetchWhenDisabled() {
+        MockSequenceDao dao = new MockSequenceDao(0);
+        GroupSequence seq = buildSequence(dao, 0);
+        for (int i = 0; i < STEP * 2; i++) {
+            seq.nextValue();
+        }
+        Assert.assertEquals(2, dao.fetchCount.get());
+        Assert.assertEquals(2, seq.getRefillStats()[2]);
+    }
+}
@@ -50,6 +50,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
@@ -72,9 +73,20 @@ public class MetaDbConfigManager extends AbstractLifecycle implements ConfigMana
     // time interval for scaning the gmtModified of dataId, unit: min
     protected static int TIME_INTERVAL_FOR_SCAN_MODIFIED_DATA_ID = 120;
 
+    // lookback of the incremental scan, for the dataIds modified earlier but committed later, unit: s
+    protected static int LOOKBACK_FOR_SCAN_MODIFIED_DATA_ID = 60;
+
+    // rounds between two scans of the whole TIME_INTERVAL_FOR_SCAN_MODIFIED_DATA_ID
+    protected static int ROUNDS_FOR_FULL_SCAN_MODIFIED_DATA_ID = 60;
+
     protected Map<String, DataIdContext> dataIdContextMap = new ConcurrentHashMap<>();
 
     protected volatile Date lastScanTimestamp = null;
+    // max gmt_modified of metaDB seen by scanner, the next incremental scan starts from it
+    protected volatile Timestamp lastSeenGmtModified = null;
+    protected int roundsSinceFullScan = 0;
+    // wake up the notifier when there are new change events or finished listener tasks
+    protected final Semaphore notifySignal = new Semaphore(0);
     protected final Scanner scanner = new Scanner(this);
     protected final Notifier notifier = new Notifier(this);
 
@@ -149,56 +161,79 @@ public class MetaDbConfigManager extends AbstractLifecycle implements ConfigMana
             try (Connection conn = MetaDbDataSource.getInstance().getConnection()) {
                 ConfigListenerAccessor configListenerAccessor = new ConfigListenerAccessor();
                 configListenerAccessor.setConnection(conn);
-                List<ConfigListenerRecord> datas = null;
-                if (manager.lastScanTimestamp == null) {
-                    // First scan, scan all dataId
-                    datas = configListenerAccessor.getAllDataIds();
-                } else {
-                    /**
-                     * scan all the data_id list that their op_version  are modified in last 2 hours (default)
-                     */
-                    datas =
-                        configListenerAccessor.getDataIds(MetaDbConfigManager.TIME_INTERVAL_FOR_SCAN_MODIFIED_DATA_ID);
-                }
+                fetchOpVersionChangeEvents(configListenerAccessor);
+            } catch (Throwable ex) {
+                logger.warn(ex);
+                MetaDbLogUtil.META_DB_LOG.warn(ex);
+            }
+        }
+
+        protected void fetchOpVersionChangeEvents(ConfigListenerAccessor configListenerAccessor) {
+            List<ConfigListenerRecord> datas = null;
+            if (manager.lastScanTimestamp == null) {
+                // First scan, scan all dataId
+                datas = configListenerAccessor.getAllDataIds();
+            } else if (manager.lastSeenGmtModified == null
+                || ++manager.roundsSinceFullScan >= MetaDbConfigManager.ROUNDS_FOR_FULL_SCAN_MODIFIED_DATA_ID) {
+                /**
+                 * scan all the data_id list that their op_version  are modified in last 2 hours (default)
+                 */
+                manager.roundsSinceFullScan = 0;
+                datas = configListenerAccessor.getDataIds(MetaDbConfigManager.TIME_INTERVAL_FOR_SCAN_MODIFIED_DATA_ID);
+            } else {
+                /**
+                 * scan only the data_id list that are modified since the last scan
+                 */
+                datas = configListenerAccessor.getDataIdsModifiedSince(manager.lastSeenGmtModified,
+                    MetaDbConfigManager.LOOKBACK_FOR_SCAN_MODIFIED_DATA_ID);
+            }
 
-                for (int i = 0; i < datas.size(); i++) {
-                    ConfigListenerRecord record = datas.get(i);
-                    String dataId = record.dataId;
-                    int dataIdStatus = record.status;
-                    long newOpVersion = record.opVersion;
-                    if (manager.dataIdContextMap.containsKey(dataId)) {
+            Timestamp maxGmtModified = manager.lastSeenGmtModified;
+            boolean hasNewEvent = false;
+
+            for (int i = 0; i < datas.size(); i++) {
+                ConfigListenerRecord record = datas.get(i);
+                String dataId = record.dataId;
+                int dataIdStatus = record.status;
+                long newOpVersion = record.opVersion;
+                if (record.gmtModified != null
+                    && (maxGmtModified == null || record.gmtModified.after(maxGmtModified))) {
+                    maxGmtModified = record.gmtModified;
+                }
+                if (manager.dataIdContextMap.containsKey(dataId)) {
 
-                        if (dataIdStatus == ConfigListenerRecord.DATA_ID_STATUS_REMOVED) {
-                            //manager.disableListenerByDataId(dataId);
-                            continue;
-                        }
+                    if (dataIdStatus == ConfigListenerRecord.DATA_ID_STATUS_REMOVED) {
+                        //manager.disableListenerByDataId(dataId);
+                        continue;
+                    }
 
-                        Timestamp gmtModified = record.gmtModified;
-                        DataIdContext dataIdContext = manager.dataIdContextMap.get(dataId);
-
-                        // Check if newOpVer has already exist in  dataIdInfo.changeEventQueue
-                        // if exists, should ignored
-                        synchronized (dataIdContext) {
-                            if (dataIdContext.currOpVersion < newOpVersion) {
-                                if (dataIdContext.dataIdListener != null) {
-                                    OpVersionChangeEvent lastChangeEvent = dataIdContext.changeEventQueue.peekLast();
-                                    boolean needAddNewEvent = true;
-                                    if (lastChangeEvent != null && lastChangeEvent.opVersion >= newOpVersion) {
-                                        needAddNewEvent = false;
-                                    }
-                                    if (needAddNewEvent) {
-                                        dataIdContext.changeEventQueue
-                                            .add(new OpVersionChangeEvent(dataId, newOpVersion, gmtModified));
-                                    }
+                    Timestamp gmtModified = record.gmtModified;
+                    DataIdContext dataIdContext = manager.dataIdContextMap.get(dataId);
+
+                    // Check if newOpVer has already exist in  dataIdInfo.changeEventQueue
+                    // if exists, should ignored
+                    synchronized (dataIdContext) {
+                        if (dataIdContext.currOpVersion < newOpVersion) {
+                            if (dataIdContext.dataIdListener != null) {
+                                OpVersionChangeEvent lastChangeEvent = dataIdContext.changeEventQueue.peekLast();
+                                boolean needAddNewEvent = true;
+                                if (lastChangeEvent != null && lastChangeEvent.opVersion >= newOpVersion) {
+                                    needAddNewEvent = false;
+                                }
+                                if (needAddNewEvent) {
+                                    dataIdContext.changeEventQueue
+                                        .add(new OpVersionChangeEvent(dataId, newOpVersion, gmtModified));
+                                    hasNewEvent = true;
                                 }
                             }
                         }
                     }
                 }
-                manager.lastScanTimestamp = new Date();
-            } catch (Throwable ex) {
-                logger.warn(ex);
-                MetaDbLogUtil.META_DB_LOG.warn(ex);
+            }
+            manager.lastSeenGmtModified = maxGmtModified;
+            manager.lastScanTimestamp = new Date();
+            if (hasNewEvent) {
+                manager.notifySignal.release();
             }
         }
     }
@@ -230,7 +265,8 @@ public class MetaDbConfigManager extends AbstractLifecycle implements ConfigMana
                         if (dataIdInfo.listenerTaskFuture == null) {
                             Future taskFuture =
                                 manager.listenerTaskExecutor
-                                    .submit(new ListenerTask(dataIdInfo, manager.completeListenTaskQueue));
+                                    .submit(new ListenerTask(dataIdInfo, manager.completeListenTaskQueue,
+                                        manager.notifySignal));
                             dataIdInfo.listenerTaskFuture = taskFuture;
                         }
                     }
@@ -241,13 +277,17 @@ public class MetaDbConfigManager extends AbstractLifecycle implements ConfigMana
                         if (!dataIdInfo.isRemoved && !dataIdInfo.changeEventQueue.isEmpty()) {
                             Future taskFuture =
                                 manager.listenerTaskExecutor
-                                    .submit(new ListenerTask(dataIdInfo, manager.completeListenTaskQueue));
+                                    .submit(new ListenerTask(dataIdInfo, manager.completeListenTaskQueue,
+                                        manager.notifySignal));
                             dataIdInfo.listenerTaskFuture = taskFuture;
                         } else {
                             dataIdInfo.listenerTaskFuture = null;
                         }
                     }
-                    Thread.sleep(DEFAULT_NOTIFY_INTERVAL);
+                    // Wait for new change events or finished listener tasks, so that the events of dataIds are
+                    // handled as soon as they are found, each dataId by its own listener task in parallel
+                    manager.notifySignal.tryAcquire(DEFAULT_NOTIFY_INTERVAL, TimeUnit.MILLISECONDS);
+                    manager.notifySignal.drainPermits();
 
                 } catch (Throwable ex) {
                     logger.warn(ex);
@@ -261,10 +301,17 @@ public class MetaDbConfigManager extends AbstractLifecycle implements ConfigMana
     protected static class ListenerTask implements Callable<Boolean> {
         DataIdContext dataIdContext;
         protected BlockingQueue completeListenTaskQueue;
+        protected Semaphore notifySignal;
 
         public ListenerTask(DataIdContext dataIdInfo, BlockingQueue completeListenTaskQueue) {
+            this(dataIdInfo, completeListenTaskQueue, null);
+        }
+
+        public ListenerTask(DataIdContext dataIdInfo, BlockingQueue completeListenTaskQueue,
+                            Semaphore notifySignal) {
             this.dataIdContext = dataIdInfo;
             this.completeListenTaskQueue = completeListenTaskQueue;
+            this.notifySignal = notifySignal;
         }
 
         @Override
@@ -278,6 +325,9 @@ public class MetaDbConfigManager extends AbstractLifecycle implements ConfigMana
                     // clear op event
                     dataIdContext.changeEventQueue.poll();
                     completeListenTaskQueue.add(dataIdContext);
+                    if (notifySignal != null) {
+                        notifySignal.release();
+                    }
                 }
                 return result;
             } catch (Throwable ex) {
@@ -535,10 +585,38 @@ public class MetaDbConfigManager extends AbstractLifecycle implements ConfigMana
         }
     }
 
+    /**
+     * Scan the dataIds modified since the last scan right now instead of waiting for the next round
+     */
+    public void triggerScan() {
+        dataIdScanTaskExecutor.submit(scanner);
+    }
+
+    public static class MetaDbConfigScanSyncAction implements IGmsSyncAction {
+
+        public MetaDbConfigScanSyncAction() {
+        }
+
+        @Override
+        public Object sync() {
+            MetaDbConfigManager.getInstance().triggerScan();
+            return null;
+        }
+    }
+
     protected void doConfigListenerBySync(String dataId, String schemaName) {
         DataIdContext dataIdContext = dataIdContextMap.get(dataId);
         if (dataIdContext != null) {
             GmsSyncManagerHelper.sync(new MetaDbConfigSyncAction(dataId), schemaName);
+        } else {
+            // The dataId is not bound here, let the nodes binding it fetch the change now
+            try {
+                GmsSyncManagerHelper.sync(new MetaDbConfigScanSyncAction(), schemaName);
+            } catch (Throwable ex) {
+                // The nudge is only a shortcut: nodes of older versions do not know the sync action, and all nodes
+                // still fetch the change by their next scan
+                MetaDbLogUtil.META_DB_LOG.warn("Failed to nudge the nodes to scan dataId " + dataId, ex);
+            }
         }
     }
 
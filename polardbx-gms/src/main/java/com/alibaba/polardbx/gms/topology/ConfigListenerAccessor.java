@@ -32,6 +32,7 @@ import com.alibaba.polardbx.gms.util.MetaDbUtil;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Map;
 
@@ -53,6 +54,9 @@ public class ConfigListenerAccessor extends AbstractAccessor {
     private static final String SELECT_DATA_ID_SET_BY_GMT_MODIFIED =
         "select * from `" + CONFIG_LISTENER_TABLE + "` where gmt_modified >= DATE_ADD(now(),INTERVAL -1 * ? MINUTE)";
 
+    private static final String SELECT_DATA_ID_SET_MODIFIED_SINCE =
+        "select * from `" + CONFIG_LISTENER_TABLE + "` where gmt_modified >= DATE_SUB(?, INTERVAL ? SECOND)";
+
     private static final String SELECT_DATA_ID =
         "select * from `" + CONFIG_LISTENER_TABLE + "` where data_id = ?";
 
@@ -130,6 +134,24 @@ public class ConfigListenerAccessor extends AbstractAccessor {
         }
     }
 
+    /**
+     * Get the dataIds modified since the given gmt_modified of metaDB, minus a lookback for the transactions that
+     * modified earlier but committed later
+     */
+    public List<ConfigListenerRecord> getDataIdsModifiedSince(Timestamp since, int lookbackSeconds) {
+        try {
+            Map<Integer, ParameterContext> selectParams = Maps.newHashMap();
+            MetaDbUtil.setParameter(1, selectParams, ParameterMethod.setTimestamp1, since);
+            MetaDbUtil.setParameter(2, selectParams, ParameterMethod.setInt, lookbackSeconds);
+            return MetaDbUtil
+                .query(SELECT_DATA_ID_SET_MODIFIED_SINCE, selectParams, ConfigListenerRecord.class, connection);
+        } catch (Exception e) {
+            MetaDbLogUtil.META_DB_LOG.error("Failed to query the system table '" + CONFIG_LISTENER_TABLE + "'", e);
+            throw new TddlRuntimeException(ErrorCode.ERR_GMS_ACCESS_TO_SYSTEM_TABLE, e, "query", CONFIG_LISTENER_TABLE,
+                e.getMessage());
+        }
+    }
+
     public List<ConfigListenerRecord> getDataIdsByStatus(int status) {
         try {
             Map<Integer, ParameterContext> selectParams = Maps.newHashMap();
@@ -0,0 +1,223 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.gms.listener.impl;
+
+import com.alibaba.polardbx.gms.topology.ConfigListenerAccessor;
+import com.alibaba.polardbx.gms.topology.ConfigListenerRecord;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class MetaDbConfigManagerTest {
+
+    private MetaDbConfigManager originalInstance;
+    private MetaDbConfigManager manager;
+
+    /**
+     * Return the given records and record which query the scanner chose
+     */
+    private static class ScriptedAccessor extends ConfigListenerAccessor {
+        private final List<String> queries = new ArrayList<>();
+        private List<ConfigListenerRecord> records = Collections.emptyList();
+        private Timestamp since;
+        private int lookbackSeconds;
+
+        @Override
+        public List<ConfigListenerRecord> getAllDataIds() {
+            queries.add("all");
+            return records;
+        }
+
+        @Override
+        public List<ConfigListenerRecord> getDataIds(int lastMinuteCount) {
+            queries.add("window");
+            return records;
+        }
+
+        @Override
+        public List<ConfigListenerRecord> getDataIdsModifiedSince(Timestamp since, int lookbackSeconds) {
+            queries.add("since");
+            this.since = since;
+            this.lookbackSeconds = lookbackSeconds;
+            return records;
+        }
+
+        private String lastQuery() {
+            return queries.get(queries.size() - 1);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        originalInstance = MetaDbConfigManager.instance;
+        // Listener tasks look up the dataId by the singleton, keep it away from the metaDB
+        manager = new MetaDbConfigManager() {
+            @Override
+            protected void doInit() {
+            }
+        };
+        manager.init();
+        MetaDbConfigManager.instance = manager;
+    }
+
+    @After
+    public void tearDown() {
+        MetaDbConfigManager.instance = originalInstance;
+    }
+
+    private static ConfigListenerRecord record(String dataId, long opVersion, long gmtModified) {
+        ConfigListenerRecord record = new ConfigListenerRecord();
+        record.dataId = dataId;
+        record.opVersion = opVersion;
+        record.status = ConfigListenerRecord.DATA_ID_STATUS_NORMAL;
+        record.gmtModified = new Timestamp(gmtModified);
+        return record;
+    }
+
+    @Test
+    public void testIncrementalScanFromLastSeenGmtModified() {
+        ScriptedAccessor accessor = new ScriptedAccessor();
+        accessor.records = Arrays.asList(record("a", 1, 2000), record("b", 1, 3000));
+        manager.scanner.fetchOpVersionChangeEvents(accessor);
+        Assert.assertEquals("all", accessor.lastQuery());
+        Assert.assertEquals(new Timestamp(3000), manager.lastSeenGmtModified);
+
+        // Scan from the max gmt_modified seen, minus the lookback
+        accessor.records = Collections.singletonList(record("a", 2, 5000));
+        manager.scanner.fetchOpVersionChangeEvents(accessor);
+        Assert.assertEquals("since", accessor.lastQuery());
+        Assert.assertEquals(new Timestamp(3000), accessor.since);
+        Assert.assertEquals(MetaDbConfigManager.LOOKBACK_FOR_SCAN_MODIFIED_DATA_ID, accessor.lookbackSeconds);
+        Assert.assertEquals(new Timestamp(5000), manager.lastSeenGmtModified);
+
+        // Rows found again by the lookback never move the watermark backwards
+        accessor.records = Collections.singletonList(record("b", 2, 4000));
+        manager.scanner.fetchOpVersionChangeEvents(accessor);
+        Assert.assertEquals("since", accessor.lastQuery());
+        Assert.assertEquals(new Timestamp(5000), accessor.since);
+        Assert.assertEquals(new Timestamp(5000), manager.lastSeenGmtModified);
+    }
+
+    @Test
+    public void testFullScanUntilAnyGmtModifiedSeen() {
+        ScriptedAccessor accessor = new ScriptedAccessor();
+        manager.scanner.fetchOpVersionChangeEvents(accessor);
+        Assert.assertEquals("all", accessor.lastQuery());
+        Assert.assertNull(manager.lastSeenGmtModified);
+
+        manager.scanner.fetchOpVersionChangeEvents(accessor);
+        Assert.assertEquals("window", accessor.lastQuery());
+
+        accessor.records = Collections.singletonList(record("a", 1, 1000));
+        manager.scanner.fetchOpVersionChangeEvents(accessor);
+        Assert.assertEquals("window", accessor.lastQuery());
+        manager.scanner.fetchOpVersionChangeEvents(accessor);
+        Assert.assertEquals("since", accessor.lastQuery());
+    }
+
+    @Test
+    public void testPeriodicFullScan() {
+        ScriptedAccessor accessor = new ScriptedAccessor();
+        accessor.records = Collections.singletonList(record("a", 1, 1000));
+        manager.scanner.fetchOpVersionChangeEvents(accessor);
+        Assert.assertEquals("all", accessor.lastQuery());
+
+        for (int round = 0; round < 2; round++) {
+            for (int i = 1; i < MetaDbConfigManager.ROUNDS_FOR_FULL_SCAN_MODIFIED_DATA_ID; i++) {
+                manager.scanner.fetchOpVersionChangeEvents(accessor);
+                Assert.assertEquals("since", accessor.lastQuery());
+            }
+            manager.scanner.fetchOpVersionChangeEvents(accessor);
+            Assert.assertEquals("window", accessor.lastQuery());
+        }
+        Assert.assertEquals(1 + 2 * MetaDbConfigManager.ROUNDS_FOR_FULL_SCAN_MODIFIED_DATA_ID,
+            accessor.queries.size());
+    }
+
+    @Test
+    public void testScanSignalsNewEvents() {
+        manager.enableListenerByDataId("a", 1, (dataId, newOpVersion) -> {
+        });
+        manager.enableListenerByDataId("b", 1, null);
+        MetaDbConfigManager.DataIdContext context = manager.dataIdContextMap.get("a");
+
+        ScriptedAccessor accessor = new ScriptedAccessor();
+        accessor.records = Arrays.asList(record("a", 2, 1000), record("b", 2, 1000));
+        manager.scanner.fetchOpVersionChangeEvents(accessor);
+        Assert.assertEquals(1, context.changeEventQueue.size());
+        Assert.assertEquals(2, context.changeEventQueue.peekLast().opVersion);
+        Assert.assertEquals(1, manager.notifySignal.drainPermits());
+        // No listener, no event
+        Assert.assertTrue(manager.dataIdContextMap.get("b").changeEventQueue.isEmpty());
+
+        // The same version found by the lookback is not queued again
+        manager.scanner.fetchOpVersionChangeEvents(accessor);
+        Assert.assertEquals(1, context.changeEventQueue.size());
+        Assert.assertEquals(0, manager.notifySignal.availablePermits());
+
+        accessor.records = Collections.singletonList(record("a", 3, 2000));
+        manager.scanner.fetchOpVersionChangeEvents(accessor);
+        Assert.assertEquals(2, context.changeEventQueue.size());
+        Assert.assertEquals(1, manager.notifySignal.availablePermits());
+    }
+
+    @Test
+    public void testListenerTaskSignalsNotifier() throws Exception {
+        List<Long> handled = new ArrayList<>();
+        manager.enableListenerByDataId("a", 1, (dataId, newOpVersion) -> handled.add(newOpVersion));
+        MetaDbConfigManager.DataIdContext context = manager.dataIdContextMap.get("a");
+
+        ScriptedAccessor accessor = new ScriptedAccessor();
+        accessor.records = Collections.singletonList(record("a", 2, 1000));
+        manager.scanner.fetchOpVersionChangeEvents(accessor);
+        manager.notifySignal.drainPermits();
+
+        Assert.assertTrue(new MetaDbConfigManager.ListenerTask(context, manager.completeListenTaskQueue,
+            manager.notifySignal).call());
+        Assert.assertEquals(Collections.singletonList(2L), handled);
+        Assert.assertEquals(2, context.currOpVersion);
+        Assert.assertTrue(context.changeEventQueue.isEmpty());
+        Assert.assertSame(context, manager.completeListenTaskQueue.peek());
+        Assert.assertEquals(1, manager.notifySignal.availablePermits());
+    }
+
+    @Test
+    public void testNotifierHandlesEventsOfEachVersion() throws Exception {
+        BlockingQueue<Long> handled = new LinkedBlockingQueue<>();
+        manager.enableListenerByDataId("a", 1, (dataId, newOpVersion) -> handled.add(newOpVersion));
+        manager.dataIdNotifyTaskExecutor.submit(manager.notifier);
+
+        ScriptedAccessor accessor = new ScriptedAccessor();
+        accessor.records = Collections.singletonList(record("a", 2, 1000));
+        manager.scanner.fetchOpVersionChangeEvents(accessor);
+        Assert.assertEquals(Long.valueOf(2), handled.poll(10, TimeUnit.SECONDS));
+
+        accessor.records = Collections.singletonList(record("a", 3, 2000));
+        manager.scanner.fetchOpVersionChangeEvents(accessor);
+        Assert.assertEquals(Long.valueOf(3), handled.poll(10, TimeUnit.SECONDS));
+    }
+}
@@ -220,7 +220,7 @@ public abstract class AbstractConnection implements NIOConnection {
 
             int length = sslReadBuffer.remaining() > peek.readable() ? peek.readable() : sslReadBuffer.remaining();
 
-            sslReadBuffer.put(peek.array(), peek.readerIndex(), length);
+            sslReadBuffer.put(peek, peek.readerIndex(), length);
             peek.skipBytes(length);
             doRead(sslReadBuffer);
             if (!peek.isReadable()) {
@@ -701,7 +701,8 @@ public abstract class AbstractConnection implements NIOConnection {
             }
             int size = buffer.capacity() << 1;
             size = (size > maxPacketSize) ? maxPacketSize : size;
-            ByteBuffer newBuffer = ByteBuffer.allocate(size);
+            // 扩容后的缓存与池保持同一种内存类型，socket读写无需额外拷贝
+            ByteBuffer newBuffer = buffer.isDirect() ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
             buffer.position(offset);
             newBuffer.put(buffer.getBuffer());
             ByteBufferHolder newBufferHolder = new ByteBufferHolder(newBuffer);
@@ -17,6 +17,8 @@
 package com.alibaba.polardbx.net;
 
 import com.alibaba.polardbx.net.buffer.BufferPool;
+import com.alibaba.polardbx.net.buffer.DirectBufferPool;
+import com.alibaba.polardbx.net.buffer.IBufferPool;
 import com.alibaba.polardbx.net.handler.CommandCount;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
@@ -42,7 +44,7 @@ public final class NIOProcessor {
     private int index;
     private final String name;
     private final NIOReactor reactor;
-    private final BufferPool bufferPool;
+    private final IBufferPool bufferPool;
     private final ServerThreadPool handler;
     private final ConcurrentMap<Long, FrontendConnection> frontends;
     private final CommandCount commands;
@@ -70,10 +72,20 @@ public final class NIOProcessor {
     }
 
     public NIOProcessor(int index, String name, ServerThreadPool handler) throws IOException {
+        this(index, name, handler, false);
+    }
+
+    /**
+     * @param directBuffer 使用堆外缓存池，reactor线程直接在direct buffer上进行socket读写
+     */
+    public NIOProcessor(int index, String name, ServerThreadPool handler, boolean directBuffer)
+        throws IOException {
         this.index = index;
         this.name = name;
         this.reactor = new NIOReactor(name);
-        this.bufferPool = new BufferPool(DEFAULT_BUFFER_SIZE, DEFAULT_BUFFER_CHUNK_SIZE);
+        this.bufferPool = directBuffer ?
+            new DirectBufferPool(DEFAULT_BUFFER_SIZE, DEFAULT_BUFFER_CHUNK_SIZE) :
+            new BufferPool(DEFAULT_BUFFER_SIZE, DEFAULT_BUFFER_CHUNK_SIZE);
         this.handler = handler;
         this.frontends = new ConcurrentHashMap<Long, FrontendConnection>();
         this.commands = new CommandCount();
@@ -83,10 +95,22 @@ public final class NIOProcessor {
         return name;
     }
 
-    public BufferPool getBufferPool() {
+    public IBufferPool getBufferPool() {
         return bufferPool;
     }
 
+    public long getBufferHitCount() {
+        return bufferPool.getHitCount();
+    }
+
+    public long getBufferMissCount() {
+        return bufferPool.getMissCount();
+    }
+
+    public long getBufferOverflowCount() {
+        return bufferPool.getOverflowCount();
+    }
+
     public int getRegisterQueueSize() {
         return reactor.getRegisterQueue().size();
     }
@@ -22,7 +22,7 @@ import java.util.concurrent.locks.ReentrantLock;
 /**
  * @author xianmao.hexm
  */
-public final class BufferPool {
+public final class BufferPool implements IBufferPool {
 
     private final int chunkSize;
     private final ByteBuffer[] items;
@@ -31,6 +31,8 @@ public final class BufferPool {
     private int takeIndex;
     private int count;
     private volatile int newCount;
+    private volatile long hitCount;
+    private volatile long overflowCount;
 
     public BufferPool(int bufferSize, int chunkSize) {
         this.chunkSize = chunkSize;
@@ -43,24 +45,51 @@ public final class BufferPool {
         }
     }
 
+    @Override
     public int capacity() {
         return items.length;
     }
 
+    @Override
     public int size() {
         return count;
     }
 
+    @Override
     public int getNewCount() {
         return newCount;
     }
 
+    @Override
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    @Override
+    public long getMissCount() {
+        return newCount;
+    }
+
+    @Override
+    public long getOverflowCount() {
+        return overflowCount;
+    }
+
+    @Override
+    public boolean isDirect() {
+        return false;
+    }
+
+    @Override
     public ByteBufferHolder allocate() {
         ByteBuffer node = null;
         final ReentrantLock lock = this.lock;
         lock.lock();
         try {
-            node = (count == 0) ? null : extract();
+            if (count != 0) {
+                node = extract();
+                ++hitCount;
+            }
         } finally {
             lock.unlock();
         }
@@ -71,6 +100,7 @@ public final class BufferPool {
         return new ByteBufferHolder(node);
     }
 
+    @Override
     public void recycle(ByteBufferHolder bufferHolder) {
         // 拒绝回收null和容量大于chunkSize的缓存
         if (bufferHolder == null || bufferHolder.getBuffer() == null
@@ -85,6 +115,8 @@ public final class BufferPool {
                 if (count != items.length) {
                     buffer.clear();
                     insert(buffer);
+                } else {
+                    ++overflowCount;
                 }
                 bufferHolder.setBuffer(null);
             }
@@ -89,11 +89,20 @@ public class ByteBufferHolder {
     }
 
     public ByteBufferHolder put(ByteBufferHolder src) {
-        buffer.put(src.array(), src.readerIndex, src.writerIndex);
+        buffer.put(src.nioBuffer(src.readerIndex, src.readable()));
         this.writerIndex += src.readable();
         return this;
     }
 
+    /**
+     * 从src的index位置拷贝length字节，src可以是堆外缓存
+     */
+    public ByteBufferHolder put(ByteBufferHolder src, int index, int length) {
+        buffer.put(src.nioBuffer(index, length));
+        this.writerIndex += length;
+        return this;
+    }
+
     public byte get(int index) {
         return buffer.get(index);
     }
@@ -116,6 +125,24 @@ public class ByteBufferHolder {
         return buffer.array();
     }
 
+    public final boolean isDirect() {
+        return buffer.isDirect();
+    }
+
+    /**
+     * 按绝对位置读取字节，不改变position，兼容堆外缓存
+     */
+    public ByteBufferHolder getBytes(int index, byte[] dst, int dstIndex, int length) {
+        if (buffer.hasArray()) {
+            System.arraycopy(buffer.array(), buffer.arrayOffset() + index, dst, dstIndex, length);
+        } else {
+            ByteBuffer tmpBuf = buffer.duplicate();
+            tmpBuf.clear().position(index).limit(index + length);
+            tmpBuf.get(dst, dstIndex, length);
+        }
+        return this;
+    }
+
     public ByteBufferHolder put(byte b) {
         buffer.put(b);
         writerIndex += 1;
@@ -231,7 +258,7 @@ public class ByteBufferHolder {
     public ByteBufferHolder ensureWritable(int size) {
         if (buffer.capacity() - writerIndex < size) {
             int newCap = writerIndex + size;
-            ByteBuffer tmp = ByteBuffer.allocate(newCap);
+            ByteBuffer tmp = buffer.isDirect() ? ByteBuffer.allocateDirect(newCap) : ByteBuffer.allocate(newCap);
             buffer.rewind();
             tmp.put(buffer);
             tmp.position(writerIndex);
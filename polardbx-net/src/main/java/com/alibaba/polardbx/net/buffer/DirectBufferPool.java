@@ -0,0 +1,267 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.net.buffer;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 堆外缓存池。预分配的chunk从大块的direct slab中切分，每个线程(reactor)持有一个本地缓存，
+ * 本地缓存不足或溢出时再访问无锁的共享队列，allocate/recycle全程不加锁。
+ *
+ * <pre>
+ * allocate: 线程本地缓存 -> 共享队列 -> 新建direct chunk(miss)
+ * recycle : 线程本地缓存 -> 共享队列 -> 丢弃(overflow)，由GC释放
+ * </pre>
+ * <p>
+ * 线程退出后其本地缓存中的chunk不会再被使用，共享队列未命中时先把已退出线程的本地缓存归还到共享队列，
+ * 避免线程频繁创建销毁后localCount永久占满capacity、allocate每次都新建direct chunk。
+ */
+public final class DirectBufferPool implements IBufferPool {
+
+    public static final int DEFAULT_LOCAL_CACHE_SIZE = 64;
+
+    private static final int SLAB_SIZE = 1024 * 1024;
+
+    private final int chunkSize;
+    private final int capacity;
+    private final int localCacheSize;
+    private final ConcurrentLinkedQueue<ByteBuffer> shared;
+    private final AtomicInteger sharedCount;
+    /**
+     * 所有线程本地缓存中chunk的总数，与sharedCount一起不超过capacity
+     */
+    private final AtomicInteger localCount;
+    private final ThreadLocal<LocalCache> localCache;
+    /**
+     * 所有线程的本地缓存，用于回收已退出线程持有的chunk
+     */
+    private final ConcurrentLinkedQueue<LocalCache> localCaches;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder overflowCount = new LongAdder();
+
+    public DirectBufferPool(int bufferSize, int chunkSize) {
+        this(bufferSize, chunkSize, DEFAULT_LOCAL_CACHE_SIZE);
+    }
+
+    public DirectBufferPool(int bufferSize, int chunkSize, int localCacheSize) {
+        if (chunkSize <= 0 || chunkSize > SLAB_SIZE) {
+            throw new IllegalArgumentException("illegal chunk size: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        int capacity = bufferSize / chunkSize;
+        this.capacity = (bufferSize % chunkSize == 0) ? capacity : capacity + 1;
+        this.localCacheSize = localCacheSize;
+        this.shared = new ConcurrentLinkedQueue<ByteBuffer>();
+        this.sharedCount = new AtomicInteger();
+        this.localCount = new AtomicInteger();
+        this.localCaches = new ConcurrentLinkedQueue<LocalCache>();
+        this.localCache = new ThreadLocal<LocalCache>() {
+            @Override
+            protected LocalCache initialValue() {
+                LocalCache cache = new LocalCache(Thread.currentThread(), DirectBufferPool.this.localCacheSize);
+                if (DirectBufferPool.this.localCacheSize > 0) {
+                    localCaches.offer(cache);
+                }
+                return cache;
+            }
+        };
+        preallocate();
+    }
+
+    /**
+     * 按slab申请堆外内存再切分为chunk，减少direct内存的分配次数和碎片
+     */
+    private void preallocate() {
+        final int chunksPerSlab = SLAB_SIZE / chunkSize;
+        int remain = capacity;
+        while (remain > 0) {
+            int chunks = Math.min(remain, chunksPerSlab);
+            ByteBuffer slab = ByteBuffer.allocateDirect(chunks * chunkSize);
+            for (int i = 0; i < chunks; i++) {
+                slab.limit((i + 1) * chunkSize).position(i * chunkSize);
+                shared.offer(slab.slice());
+            }
+            sharedCount.addAndGet(chunks);
+            remain -= chunks;
+        }
+    }
+
+    @Override
+    public ByteBufferHolder allocate() {
+        ByteBuffer node = localCache.get().pop();
+        if (node != null) {
+            localCount.decrementAndGet();
+        } else {
+            node = shared.poll();
+            if (node == null && reclaimDeadCaches()) {
+                node = shared.poll();
+            }
+            if (node != null) {
+                sharedCount.decrementAndGet();
+            }
+        }
+        if (node == null) {
+            missCount.increment();
+            node = ByteBuffer.allocateDirect(chunkSize);
+        } else {
+            hitCount.increment();
+        }
+        return new ByteBufferHolder(node);
+    }
+
+    @Override
+    public void recycle(ByteBufferHolder bufferHolder) {
+        // 拒绝回收null、堆内以及容量不等于chunkSize的缓存
+        if (bufferHolder == null) {
+            return;
+        }
+        ByteBuffer buffer = bufferHolder.getBuffer();
+        if (buffer == null || !buffer.isDirect() || buffer.capacity() != chunkSize) {
+            return;
+        }
+        bufferHolder.setBuffer(null);
+        buffer.clear();
+        if (sharedCount.get() + localCount.get() >= capacity) {
+            overflowCount.increment();
+            return;
+        }
+        if (localCache.get().push(buffer)) {
+            localCount.incrementAndGet();
+            return;
+        }
+        if (sharedCount.incrementAndGet() + localCount.get() <= capacity) {
+            shared.offer(buffer);
+        } else {
+            sharedCount.decrementAndGet();
+            overflowCount.increment();
+        }
+    }
+
+    /**
+     * 将已退出线程的本地缓存归还到共享队列，线程退出后其本地缓存不再被并发访问
+     *
+     * @return 是否归还了chunk
+     */
+    private boolean reclaimDeadCaches() {
+        if (localCount.get() == 0) {
+            return false;
+        }
+        boolean reclaimed = false;
+        Iterator<LocalCache> it = localCaches.iterator();
+        while (it.hasNext()) {
+            LocalCache cache = it.next();
+            if (cache.isOwnerAlive() || !localCaches.remove(cache)) {
+                continue;
+            }
+            ByteBuffer buffer;
+            while ((buffer = cache.pop()) != null) {
+                // 先计入shared再扣减local，size()不会低估
+                sharedCount.incrementAndGet();
+                shared.offer(buffer);
+                localCount.decrementAndGet();
+                reclaimed = true;
+            }
+        }
+        return reclaimed;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 共享队列与线程本地缓存中的chunk总数
+     */
+    @Override
+    public int size() {
+        return sharedCount.get() + localCount.get();
+    }
+
+    public int getLocalCount() {
+        return localCount.get();
+    }
+
+    @Override
+    public int getNewCount() {
+        return (int) missCount.sum();
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Override
+    public long getOverflowCount() {
+        return overflowCount.sum();
+    }
+
+    @Override
+    public boolean isDirect() {
+        return true;
+    }
+
+    /**
+     * 仅由所属线程访问的定长栈，所属线程退出后由reclaimDeadCaches独占访问
+     */
+    private static final class LocalCache {
+
+        private final WeakReference<Thread> owner;
+        private final ByteBuffer[] items;
+        private int count;
+
+        LocalCache(Thread owner, int size) {
+            this.owner = new WeakReference<Thread>(owner);
+            this.items = new ByteBuffer[size];
+        }
+
+        boolean isOwnerAlive() {
+            Thread thread = owner.get();
+            return thread != null && thread.isAlive();
+        }
+
+        ByteBuffer pop() {
+            if (count == 0) {
+                return null;
+            }
+            ByteBuffer item = items[--count];
+            items[count] = null;
+            return item;
+        }
+
+        boolean push(ByteBuffer buffer) {
+            if (count == items.length) {
+                return false;
+            }
+            items[count++] = buffer;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.net.buffer;
+
+/**
+ * 网络层缓存池，按固定大小的chunk分配和回收缓存
+ */
+public interface IBufferPool {
+
+    ByteBufferHolder allocate();
+
+    void recycle(ByteBufferHolder bufferHolder);
+
+    /**
+     * 预分配的chunk数量
+     */
+    int capacity();
+
+    /**
+     * 当前池中可用的chunk数量，包括线程本地缓存
+     */
+    int size();
+
+    /**
+     * 池中无可用缓存而新建的chunk数量
+     */
+    int getNewCount();
+
+    /**
+     * 从池中直接取得缓存的次数
+     */
+    long getHitCount();
+
+    /**
+     * 池中无可用缓存的次数
+     */
+    long getMissCount();
+
+    /**
+     * 池已满而丢弃回收缓存的次数
+     */
+    long getOverflowCount();
+
+    boolean isDirect();
+}
@@ -150,6 +150,16 @@ public class CompressPacketByteBufferOutputProxy extends PacketByteBufferOutputP
         waitForCompressContentLen += src.length;
     }
 
+    private static void writeTo(ByteArrayOutputStream out, ByteBufferHolder buffer) {
+        if (buffer.isDirect()) {
+            byte[] bytes = new byte[buffer.position()];
+            buffer.getBytes(0, bytes, 0, bytes.length);
+            out.write(bytes, 0, bytes.length);
+        } else {
+            out.write(buffer.array(), 0, buffer.position());
+        }
+    }
+
     /**
      * 对于多段byte[]，必须连接在一次才能计算压缩，这里必须涉及一次拷贝， 对于非常小的完整packet可以不真正压缩而添加一个压缩头部直接输出
      */
@@ -157,13 +167,13 @@ public class CompressPacketByteBufferOutputProxy extends PacketByteBufferOutputP
         /* 临时原始拼接区 */
         ByteArrayOutputStream origOut = new ByteArrayOutputStream();
         for (ByteBufferHolder byteBuffer : waitForCompressQueue) {
-            origOut.write(byteBuffer.array(), 0, byteBuffer.position());
+            writeTo(origOut, byteBuffer);
             byteBuffer.clear();
         }
         waitForCompressQueue.clear();
         waitForCompressContentLen = 0;
 
-        origOut.write(currentBuffer.array(), 0, currentBuffer.position());
+        writeTo(origOut, currentBuffer);
         currentBuffer.clear();
 
         if (origOut.size() <= MIN_COMPRESS_LENGTH) {
@@ -0,0 +1,145 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.net.buffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DirectBufferPoolTest {
+
+    @Test
+    public void testAllocateAndRecycle() {
+        DirectBufferPool pool = new DirectBufferPool(4096 * 4, 4096, 2);
+        Assert.assertEquals(4, pool.capacity());
+        Assert.assertEquals(4, pool.size());
+
+        List<ByteBufferHolder> holders = new ArrayList<ByteBufferHolder>();
+        for (int i = 0; i < 5; i++) {
+            ByteBufferHolder holder = pool.allocate();
+            Assert.assertTrue(holder.isDirect());
+            Assert.assertEquals(4096, holder.capacity());
+            holders.add(holder);
+        }
+        Assert.assertEquals(4, pool.getHitCount());
+        Assert.assertEquals(1, pool.getMissCount());
+        Assert.assertEquals(0, pool.size());
+
+        for (ByteBufferHolder holder : holders) {
+            pool.recycle(holder);
+            Assert.assertNull(holder.getBuffer());
+        }
+        // 2个进入线程本地缓存，2个回到共享队列，超出capacity的1个被丢弃
+        Assert.assertEquals(4, pool.size());
+        Assert.assertEquals(2, pool.getLocalCount());
+        Assert.assertEquals(1, pool.getOverflowCount());
+
+        // 本地缓存优先命中
+        pool.allocate();
+        pool.allocate();
+        Assert.assertEquals(2, pool.size());
+        Assert.assertEquals(0, pool.getLocalCount());
+    }
+
+    @Test
+    public void testLocalCacheBounded() {
+        DirectBufferPool pool = new DirectBufferPool(4096 * 2, 4096, 64);
+        List<ByteBufferHolder> holders = new ArrayList<ByteBufferHolder>();
+        for (int i = 0; i < 4; i++) {
+            holders.add(pool.allocate());
+        }
+        for (ByteBufferHolder holder : holders) {
+            pool.recycle(holder);
+        }
+        // 本地缓存也受capacity限制
+        Assert.assertEquals(2, pool.size());
+        Assert.assertEquals(2, pool.getLocalCount());
+        Assert.assertEquals(2, pool.getOverflowCount());
+    }
+
+    @Test
+    public void testReclaimDeadThreadCache() throws InterruptedException {
+        final DirectBufferPool pool = new DirectBufferPool(4096 * 2, 4096, 64);
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                ByteBufferHolder b1 = pool.allocate();
+                ByteBufferHolder b2 = pool.allocate();
+                pool.recycle(b1);
+                pool.recycle(b2);
+            }
+        });
+        thread.start();
+        thread.join();
+        Assert.assertEquals(2, pool.getLocalCount());
+
+        // 已退出线程的本地缓存归还到共享队列后再命中
+        pool.allocate();
+        pool.allocate();
+        Assert.assertEquals(4, pool.getHitCount());
+        Assert.assertEquals(0, pool.getMissCount());
+        Assert.assertEquals(0, pool.getLocalCount());
+        Assert.assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void testOverflow() {
+        DirectBufferPool pool = new DirectBufferPool(4096, 4096, 0);
+        ByteBufferHolder b1 = pool.allocate();
+        ByteBufferHolder b2 = pool.allocate();
+        pool.recycle(b1);
+        pool.recycle(b2);
+        Assert.assertEquals(1, pool.size());
+        Assert.assertEquals(1, pool.getOverflowCount());
+    }
+
+    @Test
+    public void testRejectForeignBuffer() {
+        DirectBufferPool pool = new DirectBufferPool(4096, 4096, 0);
+        pool.allocate();
+        pool.recycle(new ByteBufferHolder(java.nio.ByteBuffer.allocate(4096)));
+        pool.recycle(new ByteBufferHolder(java.nio.ByteBuffer.allocateDirect(8192)));
+        Assert.assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void testCopyFromDirect() {
+        DirectBufferPool pool = new DirectBufferPool(4096 * 2, 4096);
+        ByteBufferHolder src = pool.allocate();
+        src.put(new byte[] {1, 2, 3, 4, 5}, 0, 5);
+        ByteBufferHolder dst = pool.allocate();
+        dst.put(src, 1, 3);
+        Assert.assertEquals(3, dst.writerIndex());
+
+        byte[] bytes = new byte[3];
+        dst.getBytes(0, bytes, 0, 3);
+        Assert.assertArrayEquals(new byte[] {2, 3, 4}, bytes);
+
+        ByteBufferHolder all = pool.allocate();
+        src.readerIndex(2);
+        all.put(src);
+        Assert.assertEquals(3, all.writerIndex());
+        all.getBytes(0, bytes, 0, 3);
+        Assert.assertArrayEquals(new byte[] {3, 4, 5}, bytes);
+
+        dst.ensureWritable(8192);
+        Assert.assertTrue(dst.isDirect());
+        Assert.assertEquals(2, dst.get(0));
+    }
+}
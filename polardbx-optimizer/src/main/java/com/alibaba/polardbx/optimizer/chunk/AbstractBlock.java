@@ -117,6 +117,13 @@ abstract class AbstractBlock implements Block, RandomAccessBlock {
         return isNull;
     }
 
+    /**
+     * Offset of position 0 in the underlying value and null arrays
+     */
+    public int getArrayOffset() {
+        return arrayOffset;
+    }
+
     @Override
     public String getDigest() {
         if (digest == null) {
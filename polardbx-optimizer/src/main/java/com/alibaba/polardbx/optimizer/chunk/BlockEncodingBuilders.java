@@ -34,6 +34,13 @@ import java.util.List;
 public abstract class BlockEncodingBuilders {
 
     public static List<BlockEncoding> create(List<DataType> types) {
+        return create(types, false);
+    }
+
+    /**
+     * @param lightweight encode integer and long blocks with RLE / dictionary / bit packing
+     */
+    public static List<BlockEncoding> create(List<DataType> types, boolean lightweight) {
         // Very special cases e.g. compound type
         if (types == null || types.isEmpty()) {
             throw new IllegalArgumentException("types is empty!");
@@ -42,9 +49,9 @@ public abstract class BlockEncodingBuilders {
         for (DataType type : types) {
             Class clazz = type.getDataClass();
             if (clazz == Integer.class) {
-                blockEncodingList.add(new IntegerBlockEncoding());
+                blockEncodingList.add(lightweight ? new LightweightIntegerBlockEncoding() : new IntegerBlockEncoding());
             } else if (clazz == Long.class) {
-                blockEncodingList.add(new LongBlockEncoding());
+                blockEncodingList.add(lightweight ? new LightweightLongBlockEncoding() : new LongBlockEncoding());
             } else if (clazz == Short.class) {
                 blockEncodingList.add(new ShortBlockEncoding());
             } else if (clazz == Byte.class) {
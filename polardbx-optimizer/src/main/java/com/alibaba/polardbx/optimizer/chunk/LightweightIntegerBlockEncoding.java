@@ -0,0 +1,77 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.chunk;
+
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.SliceOutput;
+
+import static com.alibaba.polardbx.optimizer.chunk.EncoderUtil.decodeNullBits;
+import static com.alibaba.polardbx.optimizer.chunk.EncoderUtil.encodeNullsAsBits;
+
+/**
+ * IntegerBlock encoding with per-block RLE, dictionary or bit packing of the non-null values
+ *
+ * @see NumericEncoderUtil
+ */
+public class LightweightIntegerBlockEncoding implements BlockEncoding {
+    private static final String NAME = "INTEGER_LIGHTWEIGHT";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void writeBlock(SliceOutput sliceOutput, Block block) {
+        int positionCount = block.getPositionCount();
+        sliceOutput.appendInt(positionCount);
+
+        int nullsCnt = encodeNullsAsBits(sliceOutput, block);
+
+        long[] values = new long[positionCount - nullsCnt];
+        int count = 0;
+        for (int position = 0; position < positionCount; position++) {
+            if (!block.isNull(position)) {
+                values[count++] = block.getInt(position);
+            }
+        }
+        NumericEncoderUtil.writeValues(sliceOutput, values, count, Integer.BYTES);
+    }
+
+    @Override
+    public Block readBlock(SliceInput sliceInput) {
+        int positionCount = sliceInput.readInt();
+
+        boolean[] valueIsNull = decodeNullBits(sliceInput, positionCount);
+        int count = 0;
+        for (int position = 0; position < positionCount; position++) {
+            if (!valueIsNull[position]) {
+                count++;
+            }
+        }
+
+        long[] encoded = NumericEncoderUtil.readValues(sliceInput, count, Integer.BYTES);
+        int[] values = new int[positionCount];
+        int index = 0;
+        for (int position = 0; position < positionCount; position++) {
+            if (!valueIsNull[position]) {
+                values[position] = (int) encoded[index++];
+            }
+        }
+        return new IntegerBlock(0, positionCount, valueIsNull, values);
+    }
+}
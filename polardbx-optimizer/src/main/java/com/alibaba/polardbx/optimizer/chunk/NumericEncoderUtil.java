@@ -0,0 +1,212 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.chunk;
+
+import io.airlift.slice.SliceInput;
+import io.airlift.slice.SliceOutput;
+
+/**
+ * Lightweight encodings for integral values: RLE, small dictionary and
+ * frame-of-reference bit packing. The cheapest form is picked per block by
+ * its encoded size, falling back to plain values.
+ */
+public final class NumericEncoderUtil {
+
+    static final byte PLAIN = 0;
+    static final byte RLE = 1;
+    static final byte DICTIONARY = 2;
+    static final byte BIT_PACKED = 3;
+
+    private static final int MAX_DICTIONARY_SIZE = 16;
+
+    private NumericEncoderUtil() {
+    }
+
+    /**
+     * Write the first {@code count} values, each taking {@code plainBytes} bytes in plain form.
+     */
+    public static void writeValues(SliceOutput sliceOutput, long[] values, int count, int plainBytes) {
+        if (count == 0) {
+            sliceOutput.writeByte(PLAIN);
+            return;
+        }
+        long min = values[0];
+        long max = values[0];
+        for (int i = 1; i < count; i++) {
+            min = Math.min(min, values[i]);
+            max = Math.max(max, values[i]);
+        }
+        if (min == max) {
+            sliceOutput.writeByte(RLE);
+            sliceOutput.writeLong(min);
+            return;
+        }
+
+        long plainSize = (long) count * plainBytes;
+        long range = max - min;
+        // range overflows when values span more than 63 bits
+        int packedWidth = range < 0 ? Long.SIZE : bitWidth(range);
+        long packedSize = Long.BYTES + 1 + packedWords(count, packedWidth) * (long) Long.BYTES;
+
+        long[] dictionary = new long[MAX_DICTIONARY_SIZE];
+        int dictionarySize = buildDictionary(values, count, dictionary);
+        long dictionaryEncodedSize = Long.MAX_VALUE;
+        int dictionaryWidth = 0;
+        if (dictionarySize > 0) {
+            dictionaryWidth = bitWidth(dictionarySize - 1);
+            dictionaryEncodedSize = 1 + dictionarySize * (long) Long.BYTES
+                + packedWords(count, dictionaryWidth) * (long) Long.BYTES;
+        }
+
+        if (dictionaryEncodedSize < packedSize && dictionaryEncodedSize < plainSize) {
+            sliceOutput.writeByte(DICTIONARY);
+            sliceOutput.writeByte(dictionarySize);
+            for (int i = 0; i < dictionarySize; i++) {
+                sliceOutput.writeLong(dictionary[i]);
+            }
+            long[] ids = new long[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = indexOf(dictionary, dictionarySize, values[i]);
+            }
+            pack(sliceOutput, ids, count, 0, dictionaryWidth);
+        } else if (packedSize < plainSize) {
+            sliceOutput.writeByte(BIT_PACKED);
+            sliceOutput.writeLong(min);
+            sliceOutput.writeByte(packedWidth);
+            pack(sliceOutput, values, count, min, packedWidth);
+        } else {
+            sliceOutput.writeByte(PLAIN);
+            for (int i = 0; i < count; i++) {
+                if (plainBytes == Integer.BYTES) {
+                    sliceOutput.writeInt((int) values[i]);
+                } else {
+                    sliceOutput.writeLong(values[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read {@code count} values written by {@link #writeValues}.
+     */
+    public static long[] readValues(SliceInput sliceInput, int count, int plainBytes) {
+        byte mode = sliceInput.readByte();
+        long[] values = new long[count];
+        switch (mode) {
+        case PLAIN:
+            for (int i = 0; i < count; i++) {
+                values[i] = plainBytes == Integer.BYTES ? sliceInput.readInt() : sliceInput.readLong();
+            }
+            break;
+        case RLE:
+            long value = sliceInput.readLong();
+            for (int i = 0; i < count; i++) {
+                values[i] = value;
+            }
+            break;
+        case DICTIONARY:
+            int dictionarySize = sliceInput.readUnsignedByte();
+            long[] dictionary = new long[dictionarySize];
+            for (int i = 0; i < dictionarySize; i++) {
+                dictionary[i] = sliceInput.readLong();
+            }
+            unpack(sliceInput, values, count, 0, bitWidth(dictionarySize - 1));
+            for (int i = 0; i < count; i++) {
+                values[i] = dictionary[(int) values[i]];
+            }
+            break;
+        case BIT_PACKED:
+            long min = sliceInput.readLong();
+            int width = sliceInput.readUnsignedByte();
+            unpack(sliceInput, values, count, min, width);
+            break;
+        default:
+            throw new IllegalArgumentException("unknown numeric encoding: " + mode);
+        }
+        return values;
+    }
+
+    private static int buildDictionary(long[] values, int count, long[] dictionary) {
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (indexOf(dictionary, size, values[i]) < 0) {
+                if (size == MAX_DICTIONARY_SIZE) {
+                    return -1;
+                }
+                dictionary[size++] = values[i];
+            }
+        }
+        return size;
+    }
+
+    private static int indexOf(long[] dictionary, int size, long value) {
+        for (int i = 0; i < size; i++) {
+            if (dictionary[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static int bitWidth(long value) {
+        return Math.max(1, Long.SIZE - Long.numberOfLeadingZeros(value));
+    }
+
+    private static int packedWords(int count, int width) {
+        return (int) (((long) count * width + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    private static void pack(SliceOutput sliceOutput, long[] values, int count, long base, int width) {
+        final long mask = width == Long.SIZE ? -1L : (1L << width) - 1;
+        long word = 0;
+        int used = 0;
+        for (int i = 0; i < count; i++) {
+            long v = (values[i] - base) & mask;
+            word |= v << used;
+            used += width;
+            if (used >= Long.SIZE) {
+                sliceOutput.writeLong(word);
+                used -= Long.SIZE;
+                word = used == 0 ? 0 : v >>> (width - used);
+            }
+        }
+        if (used > 0) {
+            sliceOutput.writeLong(word);
+        }
+    }
+
+    private static void unpack(SliceInput sliceInput, long[] values, int count, long base, int width) {
+        final long mask = width == Long.SIZE ? -1L : (1L << width) - 1;
+        long word = 0;
+        int available = 0;
+        for (int i = 0; i < count; i++) {
+            long v;
+            if (available >= width) {
+                v = word & mask;
+                word = width == Long.SIZE ? 0 : word >>> width;
+                available -= width;
+            } else {
+                long next = sliceInput.readLong();
+                v = (word | (next << available)) & mask;
+                int consumed = width - available;
+                word = consumed == Long.SIZE ? 0 : next >>> consumed;
+                available = Long.SIZE - consumed;
+            }
+            values[i] = v + base;
+        }
+    }
+}
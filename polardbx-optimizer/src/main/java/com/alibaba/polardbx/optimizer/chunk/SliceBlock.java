@@ -104,6 +104,24 @@ public class SliceBlock extends AbstractCommonBlock {
         return data.getBytes(beginOffset, endOffset - beginOffset);
     }
 
+    public int getByteLength(int position) {
+        checkReadablePosition(position);
+
+        return endOffset(position) - beginOffset(position);
+    }
+
+    /**
+     * Copy the raw bytes at position into target without allocating, returns the number of bytes written.
+     */
+    public int copyBytesTo(int position, byte[] target, int targetOffset) {
+        checkReadablePosition(position);
+
+        int beginOffset = beginOffset(position);
+        int length = endOffset(position) - beginOffset;
+        data.getBytes(beginOffset, target, targetOffset, length);
+        return length;
+    }
+
     @Override
     public void writePositionTo(int position, BlockBuilder blockBuilder) {
         if (blockBuilder instanceof SliceBlockBuilder) {
@@ -21,8 +21,16 @@ import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
+import com.alibaba.polardbx.common.utils.time.core.MysqlDateTime;
+import com.alibaba.polardbx.common.utils.time.core.OriginalDate;
+import com.alibaba.polardbx.common.utils.time.core.OriginalTime;
+import com.alibaba.polardbx.common.utils.time.core.OriginalTimestamp;
+import com.alibaba.polardbx.common.utils.time.core.TimeStorage;
+import com.alibaba.polardbx.common.utils.time.parser.TimeParserFlags;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypeUtil;
 
+import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
@@ -31,11 +39,31 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.PrimitiveIterator;
 
+/**
+ * 等深直方图
+ * <p>
+ * 有符号整数、浮点和时间类型的 bucket 边界按保序编码为 long, 存在 compact 的原始类型数组里, 估算时只做 long 比较;
+ * 时间类型使用与 DataType.compare 相同的 {@link TimeStorage} packed long.
+ * 其余类型 (DECIMAL, BIGINT UNSIGNED, 字符串等) 编码为 long 会丢失精度或范围,
+ * 仍使用 {@link Bucket} 列表和 DataType.compare.
+ * compact 形式的直方图可以通过 {@link #merge(List, int)} 合并, 用于把各分片的直方图合成一个.
+ */
 public class Histogram {
 
     private static final Logger logger = LoggerFactory.getLogger("statistics");
 
+    private static final long[] EMPTY_KEYS = new long[0];
+
+    private static final int[] EMPTY_INTS = new int[0];
+
+    private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+
+    private static final long MICRO_MASK = (1L << 24) - 1;
+
     private List<Bucket> buckets = new ArrayList<>();
 
     private DataType dataType;
@@ -44,6 +72,18 @@ public class Histogram {
 
     private float sampleRate;
 
+    private final KeyKind keyKind;
+
+    /**
+     * compact 形式, bucketNum > 0 时 buckets 为空
+     */
+    private long[] lowerKeys = EMPTY_KEYS;
+    private long[] upperKeys = EMPTY_KEYS;
+    private int[] counts = EMPTY_INTS;
+    private int[] preSums = EMPTY_INTS;
+    private int[] ndvs = EMPTY_INTS;
+    private int bucketNum = 0;
+
     public Histogram(int maxBucketSize, DataType dataType, float sampleRate) {
         this.maxBucketSize = maxBucketSize;
         this.dataType = dataType;
@@ -51,17 +91,46 @@ public class Histogram {
             sampleRate = 1f;
         }
         this.sampleRate = sampleRate;
+        this.keyKind = KeyKind.of(dataType);
     }
 
     public DataType getDataType() {
         return dataType;
     }
 
+    public int getMaxBucketSize() {
+        return maxBucketSize;
+    }
+
+    public float getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * 是否以原始类型数组存储, 只有 compact 的直方图可以合并
+     */
+    public boolean isCompact() {
+        return bucketNum > 0;
+    }
+
+    KeyKind getKeyKind() {
+        return keyKind;
+    }
+
     public void buildFromData(Object[] data) {
         if (data == null || data.length == 0) {
             return;
         }
 
+        if (keyKind != KeyKind.OBJECT) {
+            long[] keys = encodeAll(data);
+            if (keys != null) {
+                Arrays.sort(keys);
+                buildFromSortedKeys(Arrays.stream(keys).iterator(), keys.length);
+                return;
+            }
+        }
+
         Arrays.sort(data, new Comparator<Object>() {
             @Override
             public int compare(Object o1, Object o2) {
@@ -86,6 +155,132 @@ public class Histogram {
         }
     }
 
+    private long[] encodeAll(Object[] data) {
+        long[] keys = new long[data.length];
+        try {
+            for (int i = 0; i < data.length; i++) {
+                keys[i] = encodeKey(data[i]);
+            }
+        } catch (Throwable e) {
+            // 无法转换为数值的样本, 退回到 Object 形式
+            logger.debug("encode histogram key failed, fallback to object buckets", e);
+            return null;
+        }
+        return keys;
+    }
+
+    /**
+     * 从有序的 key 流构造 compact 形式的 bucket, 分桶规则与 Object 形式相同
+     *
+     * @param sortedKeys 升序的编码后的 key
+     * @param total key 的总数
+     */
+    void buildFromSortedKeys(PrimitiveIterator.OfLong sortedKeys, long total) {
+        if (total <= 0 || !sortedKeys.hasNext()) {
+            return;
+        }
+        int numPerBucket = (int) Math.ceil((double) total / maxBucketSize);
+        allocate((int) Math.min(Math.max(maxBucketSize, 1), total));
+
+        appendBucket(sortedKeys.nextLong(), 0);
+        while (sortedKeys.hasNext()) {
+            long key = sortedKeys.nextLong();
+            int last = bucketNum - 1;
+            if (upperKeys[last] == key) {
+                counts[last]++;
+            } else if (counts[last] < numPerBucket) {
+                counts[last]++;
+                ndvs[last]++;
+                upperKeys[last] = key;
+            } else {
+                appendBucket(key, preSums[last] + counts[last]);
+            }
+        }
+        trim();
+    }
+
+    private void allocate(int capacity) {
+        lowerKeys = new long[capacity];
+        upperKeys = new long[capacity];
+        counts = new int[capacity];
+        preSums = new int[capacity];
+        ndvs = new int[capacity];
+        bucketNum = 0;
+    }
+
+    private void appendBucket(long key, int preSum) {
+        appendBucket(key, key, 1, preSum, 1);
+    }
+
+    private void appendBucket(long lower, long upper, int count, int preSum, int ndv) {
+        if (bucketNum == lowerKeys.length) {
+            int capacity = Math.max(4, bucketNum * 2);
+            lowerKeys = Arrays.copyOf(lowerKeys, capacity);
+            upperKeys = Arrays.copyOf(upperKeys, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            preSums = Arrays.copyOf(preSums, capacity);
+            ndvs = Arrays.copyOf(ndvs, capacity);
+        }
+        lowerKeys[bucketNum] = lower;
+        upperKeys[bucketNum] = upper;
+        counts[bucketNum] = count;
+        preSums[bucketNum] = preSum;
+        ndvs[bucketNum] = ndv;
+        bucketNum++;
+    }
+
+    private void trim() {
+        if (bucketNum < lowerKeys.length) {
+            lowerKeys = Arrays.copyOf(lowerKeys, bucketNum);
+            upperKeys = Arrays.copyOf(upperKeys, bucketNum);
+            counts = Arrays.copyOf(counts, bucketNum);
+            preSums = Arrays.copyOf(preSums, bucketNum);
+            ndvs = Arrays.copyOf(ndvs, bucketNum);
+        }
+    }
+
+    /**
+     * 把 Object 形式的 bucket 转为 compact 形式, 转换失败时保持原样
+     */
+    private void compact() {
+        if (keyKind == KeyKind.OBJECT || buckets.isEmpty()) {
+            return;
+        }
+        int n = buckets.size();
+        long[] lowers = new long[n];
+        long[] uppers = new long[n];
+        try {
+            for (int i = 0; i < n; i++) {
+                lowers[i] = encodeKey(buckets.get(i).lower);
+                uppers[i] = encodeKey(buckets.get(i).upper);
+            }
+        } catch (Throwable e) {
+            logger.debug("compact histogram failed, keep object buckets", e);
+            return;
+        }
+        allocate(n);
+        for (int i = 0; i < n; i++) {
+            Bucket bucket = buckets.get(i);
+            appendBucket(lowers[i], uppers[i], bucket.count, bucket.preSum, Math.max(bucket.ndv, 1));
+        }
+        buckets = new ArrayList<>();
+    }
+
+    long encodeKey(Object value) {
+        return encodeKey(keyKind, dataType, value, false);
+    }
+
+    /**
+     * 编码查询条件中的值, 超出范围时截断而不是报错
+     */
+    private long encodeProbe(Object value) {
+        return encodeKey(keyKind, dataType, value, true);
+    }
+
+    Object decodeKey(long key) {
+        return decodeKey(keyKind, dataType, key);
+    }
+
     private Bucket newBucket(Object value, int preSum) {
         Bucket bucket = new Bucket();
         bucket.lower = value;
@@ -103,6 +298,10 @@ public class Histogram {
      * @return the bucket found, null if not found
      */
     private Bucket findBucket(Object key) {
+        if (isCompact()) {
+            int index = findBucketIndex(encodeProbe(key));
+            return index < 0 ? null : bucketAt(index);
+        }
         if (buckets.isEmpty()) {
             return null;
         }
@@ -125,7 +324,13 @@ public class Histogram {
 
     public long rangeCount(Object lower, boolean lowerInclusive, Object upper, boolean upperInclusive) {
         try {
-            double count = rangeCountIgnoreSampleRate(lower, lowerInclusive, upper, upperInclusive);
+            double count;
+            if (isCompact()) {
+                count = compactRangeCount(lower != null, lower == null ? 0 : encodeProbe(lower), lowerInclusive,
+                    upper != null, upper == null ? 0 : encodeProbe(upper), upperInclusive);
+            } else {
+                count = rangeCountIgnoreSampleRate(lower, lowerInclusive, upper, upperInclusive);
+            }
             return (long) Math.max((count) / sampleRate, 0);
         } catch (Throwable e) {
             // dataType.compare may throw error
@@ -189,9 +394,160 @@ public class Histogram {
     }
 
     public List<Bucket> getBuckets() {
+        if (isCompact()) {
+            List<Bucket> result = new ArrayList<>(bucketNum);
+            for (int i = 0; i < bucketNum; i++) {
+                result.add(bucketAt(i));
+            }
+            return result;
+        }
         return buckets;
     }
 
+    private Bucket bucketAt(int index) {
+        Bucket bucket = new Bucket();
+        bucket.lower = decodeKey(lowerKeys[index]);
+        bucket.upper = decodeKey(upperKeys[index]);
+        bucket.count = counts[index];
+        bucket.preSum = preSums[index];
+        bucket.ndv = ndvs[index];
+        return bucket;
+    }
+
+    /**
+     * find the first bucket such that key<=upper
+     *
+     * @return index of the bucket, -1 if not found
+     */
+    private int findBucketIndex(long key) {
+        int left = 0;
+        int right = bucketNum - 1;
+        if (right < 0 || key > upperKeys[right]) {
+            return -1;
+        }
+        while (left < right) {
+            int mid = (left + right) >>> 1;
+            if (key > upperKeys[mid]) {
+                left = mid + 1;
+            } else {
+                right = mid;
+            }
+        }
+        return right;
+    }
+
+    private int compactRangeCount(boolean hasLower, long lower, boolean lowerInclusive,
+                                  boolean hasUpper, long upper, boolean upperInclusive) {
+        if (hasLower && !hasUpper) {
+            return lowerInclusive ? compactGreatEqualCount(lower) : compactGreatCount(lower);
+        } else if (!hasLower && hasUpper) {
+            return upperInclusive ? compactLessEqualCount(upper) : compactLessCount(upper);
+        } else if (hasLower) {
+            if (lower > upper) {
+                return 0;
+            } else if (lower == upper) {
+                if (!lowerInclusive || !upperInclusive) {
+                    return 0;
+                }
+                int index = findBucketIndex(upper);
+                return index < 0 ? 0 : counts[index] / ndvs[index];
+            }
+            if (findBucketIndex(lower) < 0) {
+                return 0;
+            }
+            if (findBucketIndex(upper) < 0) {
+                return compactGreatEqualCount(lower);
+            }
+            int total = compactTotalCount();
+            int below = lowerInclusive ? compactLessCount(lower) : compactLessEqualCount(lower);
+            int above = upperInclusive ? compactGreatCount(upper) : compactGreatEqualCount(upper);
+            return total - below - above;
+        } else {
+            return compactTotalCount();
+        }
+    }
+
+    private int compactTotalCount() {
+        return bucketNum == 0 ? 0 : preSums[bucketNum - 1] + counts[bucketNum - 1];
+    }
+
+    private int compactLessCount(long u) {
+        int i = findBucketIndex(u);
+        if (i < 0) {
+            return compactTotalCount();
+        }
+        if (u == lowerKeys[i]) {
+            return preSums[i];
+        } else if (u == upperKeys[i]) {
+            return preSums[i] + counts[i] - counts[i] / ndvs[i];
+        }
+        double min = keyToDouble(lowerKeys[i]);
+        double max = keyToDouble(upperKeys[i]);
+        double v = Math.min(Math.max(keyToDouble(u), min), max);
+        int result = preSums[i];
+        if (max > min) {
+            result += (v - min) * counts[i] / (max - min);
+            if (v > min) {
+                result -= counts[i] / ndvs[i];
+                if (result < 0) {
+                    result = 0;
+                }
+            }
+        }
+        return result;
+    }
+
+    private int compactLessEqualCount(long u) {
+        int lessCount = compactLessCount(u);
+        int i = findBucketIndex(u);
+        if (i < 0 || u < lowerKeys[i]) {
+            return lessCount;
+        }
+        return lessCount + counts[i] / ndvs[i];
+    }
+
+    private int compactGreatCount(long l) {
+        return compactTotalCount() - compactLessEqualCount(l);
+    }
+
+    private int compactGreatEqualCount(long l) {
+        int greatCount = compactGreatCount(l);
+        int i = findBucketIndex(l);
+        if (i < 0 || l < lowerKeys[i]) {
+            return greatCount;
+        }
+        return greatCount + counts[i] / ndvs[i];
+    }
+
+    private double keyToDouble(long key) {
+        if (keyKind == KeyKind.FLOATING) {
+            return decodeDouble(key);
+        }
+        if (isTemporal(dataType)) {
+            return temporalToSeconds(dataType.getSqlType(), key);
+        }
+        return (double) key;
+    }
+
+    /**
+     * 把 packed long 换算为近似线性的秒数, 用于 bucket 内插值; packed long 按位拼接年月日时分秒, 直接插值会失真
+     */
+    private static double temporalToSeconds(int sqlType, long key) {
+        long l = Math.abs(key);
+        long packed = l >> 24;
+        double seconds = ((packed >> 6) & 63) * 60L + (packed & 63) + (l & MICRO_MASK) / 1000000d;
+        if (sqlType == Types.TIME) {
+            // TIME 的小时占用全部高位
+            seconds += (packed >> 12) * 3600d;
+        } else {
+            long ymd = packed >> 17;
+            long ym = ymd >> 5;
+            long days = ((ym / 13) * 12 + ym % 13) * 31 + (ymd & 31);
+            seconds += ((packed >> 12) & 31) * 3600L + days * 86400d;
+        }
+        return key < 0 ? -seconds : seconds;
+    }
+
     private int totalCount() {
         if (buckets.isEmpty()) {
             return 0;
@@ -364,7 +720,7 @@ public class Histogram {
         JSONArray bucketsJsonArray = new JSONArray();
         histogramJson.put("buckets", bucketsJsonArray);
 
-        for (Bucket bucket : histogram.buckets) {
+        for (Bucket bucket : histogram.getBuckets()) {
             JSONObject bucketJson = new JSONObject();
             bucketJson.put("count", bucket.count);
             bucketJson.put("ndv", bucket.ndv);
@@ -402,6 +758,7 @@ public class Histogram {
                 bucket.ndv = bucketJson.getIntValue("ndv");
                 histogram.buckets.add(bucket);
             }
+            histogram.compact();
             return histogram;
         } catch (Throwable e) {
             logger.error("deserializeFromJson error ", e);
@@ -409,6 +766,300 @@ public class Histogram {
         }
     }
 
+    /**
+     * 合并多个 compact 直方图 (例如各分片分别采样得到的直方图), 不需要重新采样.
+     * <p>
+     * 假设每个 bucket 内的值在 [lower, upper] 上均匀分布, 其中 lower 本身占一个值的频率.
+     * 先把所有 bucket 的边界合并成一组有序的切分点, 把每个 bucket 的行数和 ndv 按区间长度分摊到
+     * 相邻切分点之间的小段上并累加, 再按等深原则把小段重新打包成不超过 maxBucketSize 个 bucket.
+     * 各直方图的采样率可以不同, 合并后的采样率为总样本数 / 总估算行数.
+     */
+    public static Histogram merge(List<Histogram> histograms, int maxBucketSize) {
+        if (histograms == null || histograms.isEmpty()) {
+            throw new IllegalArgumentException("no histogram to merge");
+        }
+        DataType dataType = histograms.get(0).dataType;
+        KeyKind keyKind = histograms.get(0).keyKind;
+        long sampleCount = 0;
+        double estimatedRows = 0;
+        int pointNum = 0;
+        for (Histogram histogram : histograms) {
+            if (histogram.keyKind != keyKind || keyKind == KeyKind.OBJECT
+                || (histogram.bucketNum == 0 && !histogram.buckets.isEmpty())) {
+                throw new IllegalArgumentException("histogram of " + histogram.dataType + " is not mergeable");
+            }
+            int total = histogram.compactTotalCount();
+            sampleCount += total;
+            estimatedRows += total / (double) (histogram.sampleRate > 0 ? histogram.sampleRate : 1f);
+            pointNum += histogram.bucketNum * 2;
+        }
+        float mergedSampleRate = estimatedRows > 0 ? (float) Math.min(1d, sampleCount / estimatedRows) : 1f;
+        Histogram merged = new Histogram(maxBucketSize, dataType, mergedSampleRate);
+        if (sampleCount == 0) {
+            return merged;
+        }
+
+        // 切分点
+        long[] points = new long[pointNum];
+        int n = 0;
+        for (Histogram histogram : histograms) {
+            System.arraycopy(histogram.lowerKeys, 0, points, n, histogram.bucketNum);
+            n += histogram.bucketNum;
+            System.arraycopy(histogram.upperKeys, 0, points, n, histogram.bucketNum);
+            n += histogram.bucketNum;
+        }
+        Arrays.sort(points);
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinct == 0 || points[i] != points[distinct - 1]) {
+                points[distinct++] = points[i];
+            }
+        }
+
+        // 第 k 段覆盖 (points[k-1], points[k]], 第 0 段只包含 points[0]
+        double[] segCounts = new double[distinct];
+        double[] segNdvs = new double[distinct];
+        boolean[] segRanges = new boolean[distinct];
+        for (Histogram histogram : histograms) {
+            double scale = histogram.sampleRate > 0 ? mergedSampleRate / histogram.sampleRate : mergedSampleRate;
+            for (int b = 0; b < histogram.bucketNum; b++) {
+                double count = histogram.counts[b] * scale;
+                int ndv = histogram.ndvs[b];
+                int lo = Arrays.binarySearch(points, 0, distinct, histogram.lowerKeys[b]);
+                int hi = Arrays.binarySearch(points, 0, distinct, histogram.upperKeys[b]);
+                double pointCount = count / ndv;
+                segCounts[lo] += pointCount;
+                segNdvs[lo] += 1;
+                if (hi == lo) {
+                    continue;
+                }
+                double width = histogram.keyToDouble(points[hi]) - histogram.keyToDouble(points[lo]);
+                for (int k = lo + 1; k <= hi; k++) {
+                    double fraction = width > 0
+                        ? (histogram.keyToDouble(points[k]) - histogram.keyToDouble(points[k - 1])) / width
+                        : 1d / (hi - lo);
+                    segCounts[k] += (count - pointCount) * fraction;
+                    segNdvs[k] += (ndv - 1) * fraction;
+                    segRanges[k] = true;
+                }
+            }
+        }
+
+        // 重新打包为等深 bucket
+        double target = (double) sampleCount / maxBucketSize;
+        merged.allocate(Math.min(maxBucketSize, distinct));
+        double cumulative = 0;
+        long emitted = 0;
+        int start = -1;
+        double bucketCount = 0;
+        double bucketNdv = 0;
+        for (int k = 0; k < distinct; k++) {
+            if (start < 0 && segCounts[k] <= 0) {
+                continue;
+            }
+            if (start < 0) {
+                start = k;
+                bucketCount = 0;
+                bucketNdv = 0;
+            }
+            bucketCount += segCounts[k];
+            bucketNdv += merged.capNdv(segNdvs[k], segCounts[k], k == 0 ? 0 : points[k - 1], points[k],
+                segRanges[k]);
+            cumulative += segCounts[k];
+            if (bucketCount >= target || k == distinct - 1) {
+                long roundedEnd = Math.round(cumulative);
+                int count = (int) (roundedEnd - emitted);
+                if (count <= 0) {
+                    continue;
+                }
+                long lower = segRanges[start] && start > 0 ? merged.successor(points[start - 1]) : points[start];
+                int ndv = (int) Math.max(1, Math.min(count, Math.round(bucketNdv)));
+                merged.appendBucket(lower, points[k], count, (int) emitted, ndv);
+                emitted = roundedEnd;
+                start = -1;
+            }
+        }
+        if (start >= 0 && merged.bucketNum > 0) {
+            // 尾部不足一行的部分并入最后一个 bucket
+            merged.upperKeys[merged.bucketNum - 1] = points[distinct - 1];
+        }
+        merged.trim();
+        return merged;
+    }
+
+    /**
+     * 区间 (key, ...] 的下界. 时间类型的 key + 1 不一定是合法的时间值, 以 key 本身作为下界,
+     * 与前一个 bucket 的上界重合, 查找时按上界定位 bucket, 不影响结果
+     */
+    private long successor(long key) {
+        return isTemporal(dataType) ? key : key + 1;
+    }
+
+    /**
+     * 一段内的 ndv 不超过行数, 对整数类型也不超过区间内可能的取值个数
+     */
+    private double capNdv(double ndv, double count, long from, long to, boolean range) {
+        double cap = count;
+        if (!range) {
+            cap = Math.min(cap, 1);
+        } else if (keyKind != KeyKind.FLOATING) {
+            cap = Math.min(cap, (double) to - (double) from);
+        }
+        return Math.min(ndv, cap);
+    }
+
+    /**
+     * 保序编码: 整数类型取原值, 时间类型取 TimeStorage 的 packed long, 浮点类型翻转符号位使其可按 long 比较.
+     *
+     * @param clamp 超出 long 范围的值截断到 Long.MIN_VALUE / Long.MAX_VALUE (用于查询条件), 否则抛出 ArithmeticException
+     */
+    static long encodeKey(KeyKind keyKind, DataType dataType, Object value, boolean clamp) {
+        switch (keyKind) {
+        case INTEGRAL: {
+            if (isTemporal(dataType)) {
+                return encodeTemporal(dataType, value, clamp);
+            }
+            Object v = value instanceof Number ? value : dataType.convertFrom(value);
+            if (v instanceof Long || v instanceof Integer || v instanceof Short || v instanceof Byte) {
+                return ((Number) v).longValue();
+            }
+            BigDecimal decimal = new BigDecimal(v.toString());
+            if (!clamp) {
+                return decimal.longValueExact();
+            }
+            if (decimal.compareTo(LONG_MAX) >= 0) {
+                return Long.MAX_VALUE;
+            }
+            if (decimal.compareTo(LONG_MIN) <= 0) {
+                return Long.MIN_VALUE;
+            }
+            return decimal.longValue();
+        }
+        case FLOATING: {
+            Object v = value instanceof Number ? value : dataType.convertFrom(value);
+            return encodeDouble(((Number) v).doubleValue());
+        }
+        default:
+            throw new UnsupportedOperationException("histogram of " + dataType + " can not be encoded");
+        }
+    }
+
+    /**
+     * 解码为列类型对应的 Java 类型, 与 Object 形式的 bucket 边界一致
+     */
+    static Object decodeKey(KeyKind keyKind, DataType dataType, long key) {
+        switch (keyKind) {
+        case INTEGRAL:
+            if (isTemporal(dataType)) {
+                return decodeTemporal(dataType, key);
+            }
+            return dataType.convertFrom(key);
+        case FLOATING:
+            double value = decodeDouble(key);
+            if (dataType.getSqlType() == Types.FLOAT || dataType.getSqlType() == Types.REAL) {
+                return (float) value;
+            }
+            return value;
+        default:
+            throw new UnsupportedOperationException("histogram of " + dataType + " can not be decoded");
+        }
+    }
+
+    /**
+     * 与 DateType / TimestampType / TimeType 的 compare 一致: packed long 原样使用, 其余值不做 scale 舍入直接 pack
+     */
+    private static long encodeTemporal(DataType dataType, Object value, boolean clamp) {
+        if (value instanceof Long) {
+            return (Long) value;
+        }
+        int sqlType = dataType.getSqlType();
+        if (sqlType == Types.TIME) {
+            MysqlDateTime t = DataTypeUtil.toMySQLDatetime(value, Types.TIME);
+            if (t != null) {
+                return TimeStorage.writeTime(t);
+            }
+        } else if (sqlType != Types.DATE && value instanceof Date) {
+            // datetime 与 date 比较时按 date 的 packed long
+            return TimeStorage.packDate((Date) value);
+        } else {
+            MysqlDateTime t = DataTypeUtil.toMySQLDatetimeByFlags(value, Types.TIMESTAMP,
+                TimeParserFlags.FLAG_TIME_FUZZY_DATE | TimeParserFlags.FLAG_TIME_NO_DATE_FRAC_WARN);
+            if (t != null) {
+                return sqlType == Types.DATE ? TimeStorage.writeDate(t) : TimeStorage.writeTimestamp(t);
+            }
+        }
+        // compare 把无法转换的值视为最小
+        if (clamp) {
+            return Long.MIN_VALUE;
+        }
+        throw new IllegalArgumentException("can not convert " + value + " to " + dataType);
+    }
+
+    private static Object decodeTemporal(DataType dataType, long key) {
+        switch (dataType.getSqlType()) {
+        case Types.DATE:
+            return new OriginalDate(TimeStorage.readDate(key));
+        case Types.TIME:
+            return new OriginalTime(TimeStorage.readTime(key));
+        default:
+            return new OriginalTimestamp(TimeStorage.readTimestamp(key));
+        }
+    }
+
+    private static boolean isTemporal(DataType dataType) {
+        switch (dataType.getSqlType()) {
+        case Types.DATE:
+        case Types.TIME:
+        case Types.TIMESTAMP:
+        case DataType.DATETIME_SQL_TYPE:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private static long encodeDouble(double value) {
+        long bits = Double.doubleToLongBits(value == 0d ? 0d : value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static double decodeDouble(long key) {
+        return Double.longBitsToDouble(key ^ ((key >> 63) & Long.MAX_VALUE));
+    }
+
+    enum KeyKind {
+        OBJECT, INTEGRAL, FLOATING;
+
+        static KeyKind of(DataType dataType) {
+            if (dataType == null) {
+                return OBJECT;
+            }
+            switch (dataType.getSqlType()) {
+            case Types.BIGINT:
+                // BIGINT UNSIGNED 超出 long 范围
+                return dataType.isUnsigned() ? OBJECT : INTEGRAL;
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case DataType.MEDIUMINT_SQL_TYPE:
+            case DataType.YEAR_SQL_TYPE:
+                return INTEGRAL;
+            case Types.DATE:
+            case Types.TIME:
+            case Types.TIMESTAMP:
+            case DataType.DATETIME_SQL_TYPE:
+                // TimeStorage 的 packed long 精确到微秒且保序
+                return INTEGRAL;
+            case Types.FLOAT:
+            case Types.REAL:
+            case Types.DOUBLE:
+                return FLOATING;
+            default:
+                return OBJECT;
+            }
+        }
+    }
+
     public static class Bucket {
         private Object lower;
         private Object upper;
@@ -0,0 +1,188 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.config.table.statistic;
+
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * 以流的方式构造 {@link Histogram}
+ * <p>
+ * 整数和浮点类型的样本编码为 long 后写入固定大小的 run, 每个 run 写满即排序,
+ * build 时对所有有序 run 做多路归并并直接生成 bucket, 不需要物化全部样本再整体排序.
+ * 遇到无法编码的值 (或其他类型) 时退化为 Object 形式, 由 {@link Histogram#buildFromData} 构造.
+ */
+public class HistogramBuilder {
+
+    static final int RUN_SIZE = 4096;
+
+    private final Histogram histogram;
+
+    private final List<long[]> runs = new ArrayList<>();
+
+    private long[] currentRun;
+
+    private int currentSize;
+
+    private long total;
+
+    private List<Object> objects;
+
+    public HistogramBuilder(int maxBucketSize, DataType dataType, float sampleRate) {
+        this.histogram = new Histogram(maxBucketSize, dataType, sampleRate);
+        if (histogram.getKeyKind() == Histogram.KeyKind.OBJECT) {
+            objects = new ArrayList<>();
+        } else {
+            currentRun = new long[RUN_SIZE];
+        }
+    }
+
+    /**
+     * 加入一个样本, null 被忽略
+     */
+    public void offer(Object value) {
+        if (value == null) {
+            return;
+        }
+        if (objects != null) {
+            objects.add(value);
+            return;
+        }
+        long key;
+        try {
+            key = histogram.encodeKey(value);
+        } catch (Throwable e) {
+            fallbackToObjects();
+            objects.add(value);
+            return;
+        }
+        if (currentSize == currentRun.length) {
+            sealRun();
+        }
+        currentRun[currentSize++] = key;
+        total++;
+    }
+
+    public Histogram build() {
+        if (objects != null) {
+            histogram.buildFromData(objects.toArray());
+            return histogram;
+        }
+        if (currentSize > 0) {
+            sealRun();
+        }
+        histogram.buildFromSortedKeys(new RunMerger(runs), total);
+        return histogram;
+    }
+
+    private void sealRun() {
+        long[] run = currentSize == currentRun.length ? currentRun : Arrays.copyOf(currentRun, currentSize);
+        Arrays.sort(run);
+        runs.add(run);
+        currentRun = new long[RUN_SIZE];
+        currentSize = 0;
+    }
+
+    private void fallbackToObjects() {
+        objects = new ArrayList<>((int) Math.min(Integer.MAX_VALUE - 8, total + 1));
+        for (long[] run : runs) {
+            for (long key : run) {
+                objects.add(histogram.decodeKey(key));
+            }
+        }
+        for (int i = 0; i < currentSize; i++) {
+            objects.add(histogram.decodeKey(currentRun[i]));
+        }
+        runs.clear();
+        currentRun = null;
+        currentSize = 0;
+    }
+
+    /**
+     * 基于最小堆的多路归并, 堆中存放 run 的下标
+     */
+    static final class RunMerger implements PrimitiveIterator.OfLong {
+        private final long[][] runs;
+        private final int[] positions;
+        private final int[] heap;
+        private int heapSize;
+
+        RunMerger(List<long[]> runs) {
+            this.runs = runs.toArray(new long[0][]);
+            this.positions = new int[this.runs.length];
+            this.heap = new int[this.runs.length];
+            for (int i = 0; i < this.runs.length; i++) {
+                if (this.runs[i].length > 0) {
+                    heap[heapSize++] = i;
+                }
+            }
+            for (int i = heapSize / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return heapSize > 0;
+        }
+
+        @Override
+        public long nextLong() {
+            if (heapSize == 0) {
+                throw new NoSuchElementException();
+            }
+            int run = heap[0];
+            long value = runs[run][positions[run]++];
+            if (positions[run] == runs[run].length) {
+                heap[0] = heap[--heapSize];
+            }
+            if (heapSize > 0) {
+                siftDown(0);
+            }
+            return value;
+        }
+
+        private long head(int run) {
+            return runs[run][positions[run]];
+        }
+
+        private void siftDown(int i) {
+            int run = heap[i];
+            long key = head(run);
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && head(heap[child + 1]) < head(heap[child])) {
+                    child++;
+                }
+                if (key <= head(heap[child])) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = run;
+        }
+    }
+}
@@ -67,6 +67,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -92,6 +93,11 @@ public class StatisticManager extends AbstractLifecycle implements StatisticServ
 
     private ThreadPoolExecutor executor;
 
+    /**
+     * hashes dml into the incremental ndv sketches off the statement threads
+     */
+    private ThreadPoolExecutor ndvSketchDmlExecutor;
+
     private StatisticCollector statisticCollector;
 
     private boolean alreadyStartCollection = false;
@@ -158,6 +164,17 @@ public class StatisticManager extends AbstractLifecycle implements StatisticServ
                 }
             },
             new ThreadPoolExecutor.DiscardPolicy());
+        this.ndvSketchDmlExecutor = new ThreadPoolExecutor(
+            1, 1, 1800, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(128),
+            new NamedThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "StatisticManager ndv sketch dml");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
         long start = System.currentTimeMillis();
         if (ConfigDataMode.isMasterMode()) {
             systemTableTableStatistic.createTableIfNotExist();
@@ -187,6 +204,7 @@ public class StatisticManager extends AbstractLifecycle implements StatisticServ
         }
         scheduler.shutdownNow();
         executor.shutdownNow();
+        ndvSketchDmlExecutor.shutdownNow();
         statisticCache.clear();
     }
 
@@ -279,6 +297,16 @@ public class StatisticManager extends AbstractLifecycle implements StatisticServ
                 }
             }
         }, 300, 300, TimeUnit.SECONDS);
+
+        /** persist the ndv sketch deltas accumulated from dml on this node */
+        scheduler.scheduleWithFixedDelay(() -> {
+            MDC.put(MDC.MDC_KEY_APP, getSchemaName().toLowerCase());
+            try {
+                ndvSketch.flushDeltas();
+            } catch (Throwable t) {
+                logger.error("flush ndv sketch deltas error", t);
+            }
+        }, 60, 60, TimeUnit.SECONDS);
     }
 
     private void startAutoAnalyze() {
@@ -591,6 +619,30 @@ public class StatisticManager extends AbstractLifecycle implements StatisticServ
         }
     }
 
+    /**
+     * feed dml into the incremental ndv sketches asynchronously. When the queue is full the rows are only counted,
+     * so that the drift detection still sees them.
+     */
+    public void offerNdvSketchDml(String logicalTableName, List<String> columnNames, List<List<Object>> rows,
+                                  long unappliedRows) {
+        if (ndvSketch == null || ndvSketchDmlExecutor == null || SystemTables.contains(logicalTableName)
+            || SystemDbHelper.isDBBuildIn(getSchemaName())) {
+            return;
+        }
+        try {
+            ndvSketchDmlExecutor.execute(() -> {
+                MDC.put(MDC.MDC_KEY_APP, getSchemaName().toLowerCase());
+                try {
+                    ndvSketch.offerDml(logicalTableName, columnNames, rows, unappliedRows);
+                } catch (Throwable t) {
+                    logger.error("offer dml to ndv sketch error", t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            ndvSketch.offerDml(logicalTableName, null, null, unappliedRows + (rows == null ? 0 : rows.size()));
+        }
+    }
+
     public void collectLogicalTableAsync(String logicalTableName) {
         if (SystemTables.contains(logicalTableName) || SystemDbHelper.isDBBuildIn(getSchemaName())) {
             return;
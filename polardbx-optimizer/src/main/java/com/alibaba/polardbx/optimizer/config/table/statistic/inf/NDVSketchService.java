@@ -19,6 +19,7 @@ package com.alibaba.polardbx.optimizer.config.table.statistic.inf;
 import com.alibaba.polardbx.optimizer.config.table.statistic.StatisticResult;
 
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * ndv sketch inf
@@ -48,4 +49,18 @@ public interface NDVSketchService {
      * cal the ndv value
      */
     StatisticResult getCardinality(String tableName, String columnName);
+
+    /**
+     * 增量模式: 用CN上执行的DML更新sketch的增量部分, 只在内存中累积
+     *
+     * @param columnNames insert中值可以求出的列, 只记录未反映的行数时为null
+     * @param rows insert中取到的行, 只包含columnNames的值
+     * @param unappliedRows 无法反映到hll的行数: 删除/更新的行, 以及超出上限未取值的insert行, 只用于漂移检测
+     */
+    void offerDml(String tableName, List<String> columnNames, List<List<Object>> rows, long unappliedRows);
+
+    /**
+     * 增量模式: 持久化本CN累积的增量部分, 由后台统计任务调用
+     */
+    void flushDeltas();
 }
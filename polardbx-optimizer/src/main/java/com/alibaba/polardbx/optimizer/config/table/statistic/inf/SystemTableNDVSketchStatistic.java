@@ -41,6 +41,22 @@ public interface SystemTableNDVSketchStatistic {
 
     void updateCompositeCardinality(String schemaName, String tableName, String columnName, long compositeCardinality);
 
+    /**
+     * sketch deltas maintained from dml, one row for each CN
+     */
+    SketchRow[] loadDeltaByTableNameAndColumnName(String schemaName, String tableName, String columnNames);
+
+    /**
+     * delete the deltas last modified before modifiedBefore, a time of {@link #getCurrentTime()}
+     */
+    void deleteDeltaByTableNameAndColumnName(String schemaName, String tableName, String columnNames,
+                                             long modifiedBefore);
+
+    /**
+     * current time of the system table, the clock GMT_MODIFIED of rows follows. -1 if unknown
+     */
+    long getCurrentTime();
+
     class SketchRow {
         private String schemaName;
 
@@ -19,6 +19,7 @@ package com.alibaba.polardbx.optimizer.context;
 import com.alibaba.polardbx.optimizer.config.table.ColumnMeta;
 import com.alibaba.polardbx.optimizer.core.rel.SimpleShardProcessor;
 import com.alibaba.polardbx.optimizer.utils.LoadDataCacheManager;
+import com.google.common.base.Splitter;
 import org.apache.calcite.sql.type.SqlTypeName;
 
 import java.nio.charset.Charset;
@@ -39,6 +40,7 @@ public class LoadDataContext {
     private List<SqlTypeName> valueTypes;
     private Charset charset;
     private String fieldTerminatedBy;
+    private Splitter fieldSplitter;
     private List<ColumnMeta> metaList;
     private SimpleShardProcessor shardProcessor;
     private volatile boolean isFinish = false;
@@ -50,6 +52,13 @@ public class LoadDataContext {
     private boolean swapColumns;
     private boolean gsiInsertTurn;
 
+    /**
+     * 解析进度, 用于输出 rows/s 和 bytes/s
+     */
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong parsedRows = new AtomicLong(0);
+    private final AtomicLong parsedBytes = new AtomicLong(0);
+
     public LoadDataContext(
         LoadDataCacheManager dataCacheManager,
         BlockingQueue<List<String>> parameters,
@@ -61,6 +70,7 @@ public class LoadDataContext {
         this.loadDataSql = loadDataSql;
         this.valueTypes = valueTypes;
         this.fieldTerminatedBy = fieldTerminatedBy;
+        this.fieldSplitter = Splitter.on(fieldTerminatedBy);
         this.charset = character;
         this.metaList = metaList;
         this.tableName = tableName;
@@ -120,6 +130,13 @@ public class LoadDataContext {
         return fieldTerminatedBy;
     }
 
+    /**
+     * Splitter is immutable and thread safe, share it instead of building one per line.
+     */
+    public Splitter getFieldSplitter() {
+        return fieldSplitter;
+    }
+
     public List<ColumnMeta> getMetaList() {
         return metaList;
     }
@@ -179,4 +196,28 @@ public class LoadDataContext {
     public void setGsiInsertTurn(boolean gsiInsertTurn) {
         this.gsiInsertTurn = gsiInsertTurn;
     }
+
+    public void addParsedRows(long rows) {
+        parsedRows.addAndGet(rows);
+    }
+
+    public void addParsedBytes(long bytes) {
+        parsedBytes.addAndGet(bytes);
+    }
+
+    public long getParsedRows() {
+        return parsedRows.get();
+    }
+
+    public long getParsedBytes() {
+        return parsedBytes.get();
+    }
+
+    public String getProgress() {
+        long rows = parsedRows.get();
+        long bytes = parsedBytes.get();
+        double seconds = Math.max(System.nanoTime() - startNanos, 1L) / 1e9;
+        return String.format("rows: %d, bytes: %d, rows/s: %.0f, bytes/s: %.0f, elapsed: %.1fs",
+            rows, bytes, rows / seconds, bytes / seconds, seconds);
+    }
 }
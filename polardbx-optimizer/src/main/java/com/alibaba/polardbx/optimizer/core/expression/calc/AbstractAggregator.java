@@ -73,6 +73,10 @@ public abstract class AbstractAggregator implements Aggregator {
         this.aggIndexInChunk = aggIndexInChunk;
     }
 
+    public int[] getAggIndexInChunk() {
+        return aggIndexInChunk;
+    }
+
     /**
      * not always same with aggTargetIndexes, see function: GroupConcat
      */
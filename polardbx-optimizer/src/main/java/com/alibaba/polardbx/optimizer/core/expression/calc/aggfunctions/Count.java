@@ -73,4 +73,8 @@ public class Count extends AbstractAggregator {
     public long estimateSize() {
         return groupState.estimateSize();
     }
+
+    public NullableLongGroupState getGroupState() {
+        return groupState;
+    }
 }
@@ -58,4 +58,8 @@ public class CountRow extends AbstractAggregator {
     public long estimateSize() {
         return groupState.estimateSize();
     }
+
+    public LongGroupState getGroupState() {
+        return groupState;
+    }
 }
@@ -80,5 +80,8 @@ public class Decimal2DecimalMax extends AbstractAggregator {
     public long estimateSize() {
         return groupState.estimateSize();
     }
-}
 
+    public NullableDecimalGroupState getGroupState() {
+        return groupState;
+    }
+}
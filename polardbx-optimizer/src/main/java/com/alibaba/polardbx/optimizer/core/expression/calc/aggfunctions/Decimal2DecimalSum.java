@@ -78,4 +78,8 @@ public class Decimal2DecimalSum extends AbstractAggregator {
     public long estimateSize() {
         return groupState.estimateSize();
     }
-}
\ No newline at end of file
+
+    public NullableDecimalGroupState getGroupState() {
+        return groupState;
+    }
+}
@@ -76,5 +76,8 @@ public class Double2DoubleMax extends AbstractAggregator {
     public long estimateSize() {
         return groupState.estimateSize();
     }
-}
 
+    public NullableDoubleGroupState getGroupState() {
+        return groupState;
+    }
+}
@@ -76,5 +76,8 @@ public class Int2IntMax extends AbstractAggregator {
     public long estimateSize() {
         return groupState.estimateSize();
     }
-}
 
+    public NullableIntegerGroupState getGroupState() {
+        return groupState;
+    }
+}
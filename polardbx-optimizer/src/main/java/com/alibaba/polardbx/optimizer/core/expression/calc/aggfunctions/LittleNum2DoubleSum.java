@@ -78,4 +78,8 @@ public abstract class LittleNum2DoubleSum extends AbstractAggregator {
     public long estimateSize() {
         return groupState.estimateSize();
     }
-}
\ No newline at end of file
+
+    public NullableDoubleGroupState getGroupState() {
+        return groupState;
+    }
+}
@@ -75,4 +75,8 @@ public class Long2LongMax extends AbstractAggregator {
     public long estimateSize() {
         return groupState.estimateSize();
     }
+
+    public NullableLongGroupState getGroupState() {
+        return groupState;
+    }
 }
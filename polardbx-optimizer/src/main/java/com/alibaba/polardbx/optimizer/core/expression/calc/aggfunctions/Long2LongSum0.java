@@ -67,4 +67,8 @@ public class Long2LongSum0 extends AbstractAggregator {
     public long estimateSize() {
         return groupState.estimateSize();
     }
+
+    public LongGroupState getGroupState() {
+        return groupState;
+    }
 }
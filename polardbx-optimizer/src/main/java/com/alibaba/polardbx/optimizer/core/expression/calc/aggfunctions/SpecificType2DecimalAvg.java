@@ -88,6 +88,8 @@ public abstract class SpecificType2DecimalAvg extends AbstractAggregator {
     public long estimateSize() {
         return groupState.estimateSize();
     }
-}
-
 
+    public NullableDecimalLongGroupState getGroupState() {
+        return groupState;
+    }
+}
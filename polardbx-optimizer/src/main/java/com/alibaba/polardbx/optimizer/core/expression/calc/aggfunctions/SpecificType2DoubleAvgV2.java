@@ -86,7 +86,8 @@ public abstract class SpecificType2DoubleAvgV2 extends AbstractAggregator {
     public long estimateSize() {
         return groupState.estimateSize();
     }
-}
-
-
 
+    public NullableDoubleLongGroupState getGroupState() {
+        return groupState;
+    }
+}
@@ -35,6 +35,7 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @author lingce.ldm 2017-09-08 15:23
@@ -61,6 +62,8 @@ public class ExecutionPlan {
 
     private AtomicInteger htapFeedCount = new AtomicInteger(0);
     private AtomicLong hitCount = new AtomicLong(0);
+    // time spent on building this plan, used to weight plan cache eviction
+    private long planningNanos = 0;
     /**
      * Key: Logical Dml relNodeId
      * Val: flag that label if the Logical Dml relNode can be directed do mirror write in scale out
@@ -78,6 +81,11 @@ public class ExecutionPlan {
      */
     private PlanShardInfo planShardInfo;
 
+    /**
+     * post planner template of plan, shared by all copies of a cached plan that keep its rel node
+     */
+    private AtomicReference<PostPlanTemplate> postPlanTemplate = new AtomicReference<>();
+
     // the cache mem pool of current plan
     private MemoryPool planMemCachePool = null;
     // the mem estimation of plan
@@ -101,6 +109,10 @@ public class ExecutionPlan {
     }
 
     public void setPlan(RelNode newPlan) {
+        if (newPlan != this.plan) {
+            // stop sharing the template with the copies that still hold the old plan
+            this.postPlanTemplate = new AtomicReference<>();
+        }
         this.plan = newPlan;
     }
 
@@ -150,11 +162,24 @@ public class ExecutionPlan {
         newExecutionPlan.errorCount = this.errorCount;
         newExecutionPlan.schemaNames = this.schemaNames;
         newExecutionPlan.planShardInfo = this.planShardInfo;
+        if (plan == this.plan) {
+            // a template is only valid for the plan it was built from
+            newExecutionPlan.postPlanTemplate = this.postPlanTemplate;
+        }
         newExecutionPlan.htapFeedCount = this.htapFeedCount;
         newExecutionPlan.hitCount = this.hitCount;
+        newExecutionPlan.planningNanos = this.planningNanos;
         return newExecutionPlan;
     }
 
+    public PostPlanTemplate getPostPlanTemplate() {
+        return postPlanTemplate.get();
+    }
+
+    public void setPostPlanTemplate(PostPlanTemplate postPlanTemplate) {
+        this.postPlanTemplate.set(postPlanTemplate);
+    }
+
     public List<PrivilegeVerifyItem> getPrivilegeVerifyItems() {
         return privilegeVerifyItems;
     }
@@ -280,6 +305,14 @@ public class ExecutionPlan {
     public AtomicLong getHitCount() {
         return hitCount;
     }
+
+    public long getPlanningNanos() {
+        return planningNanos;
+    }
+
+    public void setPlanningNanos(long planningNanos) {
+        this.planningNanos = planningNanos;
+    }
 }
 
 
@@ -22,10 +22,6 @@ import com.alibaba.polardbx.optimizer.exception.OptimizerException;
 import com.alibaba.polardbx.optimizer.parse.FastsqlParser;
 import com.alibaba.polardbx.optimizer.planmanager.PlanManager;
 import com.alibaba.polardbx.optimizer.planmanager.PlanManagerUtil;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.collect.Sets;
-import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.alibaba.polardbx.common.TddlConstants;
 import com.alibaba.polardbx.common.utils.Pair;
 import com.alibaba.polardbx.common.utils.TStringUtil;
@@ -54,6 +50,7 @@ import org.apache.calcite.sql.SqlNode;
 import org.apache.calcite.sql.SqlNodeList;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -71,7 +68,7 @@ public final class PlanCache {
 
     private static final Logger logger = LoggerFactory.getLogger(PlanCache.class);
 
-    private Cache<CacheKey, ExecutionPlan> cache;
+    private PlanCacheStore<CacheKey, ExecutionPlan> cache;
 
     private final String schemaName;
 
@@ -85,18 +82,26 @@ public final class PlanCache {
         this.cache = buildCache(this.currentCapacity);
     }
 
-    private Cache<CacheKey, ExecutionPlan> buildCache(long maxSize) {
+    private PlanCacheStore<CacheKey, ExecutionPlan> buildCache(long maxSize) {
         int planCacheExpireTime;
         if (ConfigDataMode.isMasterMode()) {
             planCacheExpireTime = 12 * 3600 * 1000; // 12h
         } else {
             planCacheExpireTime = 300 * 1000; // 5min
         }
-        return CacheBuilder.newBuilder()
-            .maximumSize(maxSize)
-            .expireAfterWrite(planCacheExpireTime, TimeUnit.MILLISECONDS)
-            .softValues()
-            .build();
+        return new PlanCacheStore<>(maxSize, planCacheExpireTime, TimeUnit.MILLISECONDS,
+            PlanCache::getIndexedTableNames, ExecutionPlan::getPlanningNanos);
+    }
+
+    /**
+     * 计划引用的表名, 与 invalidate(tableName) 使用相同的规则
+     */
+    private static Collection<String> getIndexedTableNames(CacheKey cacheKey) {
+        List<String> tableNames = new ArrayList<>(cacheKey.getTableMetas().size());
+        for (TableMeta meta : cacheKey.getTableMetas()) {
+            tableNames.add(EagleeyeHelper.rebuildTableName(meta.getTableName(), cacheKey.testing).toLowerCase());
+        }
+        return tableNames;
     }
 
     /**
@@ -106,18 +111,7 @@ public final class PlanCache {
                                        boolean testMode)
         throws ExecutionException {
         CacheKey cacheKey = getCacheKey(sqlParameterized, plannerContext, testMode);
-        ExecutionPlan plan = null;
-        try {
-            plan = cache.getIfPresent(cacheKey);
-            return plan;
-        } catch (UncheckedExecutionException ex) {
-            // unwrap and re-throw
-            if (ex.getCause() instanceof RuntimeException) {
-                throw (RuntimeException) ex.getCause();
-            } else {
-                throw ex;
-            }
-        }
+        return cache.getIfPresent(cacheKey);
     }
 
     public ExecutionPlan get(final SqlParameterized sqlParameterized, final PlannerContext plannerContext,
@@ -145,6 +139,7 @@ public final class PlanCache {
         final AtomicBoolean beCached = new AtomicBoolean(true);
         CacheKey cacheKey = getCacheKey(sqlParameterized, plannerContext, testMode);
         final Callable<ExecutionPlan> valueLoader = () -> {
+            final long startNanos = System.nanoTime();
             SqlNodeList astList = new FastsqlParser()
                 .parse(sqlParameterized.getSql(), params, plannerContext.getExecutionContext());
             // parameterizedSql can not be a multiStatement.
@@ -185,21 +180,12 @@ public final class PlanCache {
                     pc.setPrivilegeVerifyItems(null);
                 }
 
+                executionPlan.setPlanningNanos(System.nanoTime() - startNanos);
                 return executionPlan;
             }
         };
 
-        ExecutionPlan plan;
-        try {
-            plan = cache.get(cacheKey, valueLoader);
-        } catch (UncheckedExecutionException ex) {
-            // unwrap and re-throw
-            if (ex.getCause() instanceof RuntimeException) {
-                throw (RuntimeException) ex.getCause();
-            } else {
-                throw ex;
-            }
-        }
+        ExecutionPlan plan = cache.get(cacheKey, valueLoader);
 
         if (beCached.get()) {
             plan.getHitCount().incrementAndGet();
@@ -281,23 +267,13 @@ public final class PlanCache {
     }
 
     /**
-     * invalidate plan cache by table
+     * invalidate plan cache by table, only the plans referencing the table are touched
      */
     public void invalidate(String tableName) {
         if (tableName == null || tableName.isEmpty()) {
             return;
         }
-        final String tableNameLowercase = tableName.toLowerCase();
-        Set<CacheKey> cacheKeys = Sets.newHashSet();
-        cacheKeys.addAll(cache.asMap().keySet());
-
-        for (CacheKey cacheKey : cacheKeys) {
-            if (cacheKey.getTableMetas().stream().anyMatch(
-                meta -> EagleeyeHelper.rebuildTableName(meta.getTableName(), cacheKey.testing).toLowerCase()
-                    .equals(tableNameLowercase))) {
-                cache.invalidate(cacheKey);
-            }
-        }
+        cache.invalidateTable(tableName.toLowerCase());
     }
 
     public static class CacheKey {
@@ -542,7 +518,7 @@ public final class PlanCache {
             if (newSize == this.currentCapacity) {
                 return new Pair<>(oldInfo, oldInfo);
             }
-            Cache<CacheKey, ExecutionPlan> newCache = buildCache(newSize);
+            PlanCacheStore<CacheKey, ExecutionPlan> newCache = buildCache(newSize);
             if (newSize > this.currentCapacity) {
                 // 扩容时把原先cache拷贝过来 缩容则只初始化空的cache
                 Map<CacheKey, ExecutionPlan> oldKVs = this.cache.asMap();
@@ -550,7 +526,7 @@ public final class PlanCache {
                     newCache.put(entry.getKey(), entry.getValue());
                 }
             }
-            Cache<CacheKey, ExecutionPlan> oldCache = this.cache;
+            PlanCacheStore<CacheKey, ExecutionPlan> oldCache = this.cache;
             this.cache = newCache;
             this.currentCapacity = newSize;
             oldCache.invalidateAll();
@@ -581,7 +557,7 @@ public final class PlanCache {
         }
     }
 
-    public Cache<CacheKey, ExecutionPlan> getCache() {
+    public PlanCacheStore<CacheKey, ExecutionPlan> getCache() {
         return cache;
     }
 
@@ -0,0 +1,587 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.core.planner;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 执行计划缓存的存储结构
+ * <p>
+ * 与 LRU 不同, 淘汰时综合考虑访问频率和生成计划的代价 (W-TinyLFU):
+ * <ul>
+ * <li>数据按 key 的 hash 分到多个 stripe, 读路径不加锁, 写路径只锁对应的 stripe</li>
+ * <li>新插入的计划先进入一个很小的 window 区, 被挤出 window 后再和 main 区抽样出的
+ * victim 比较 "访问频率 * 规划代价权重", 分数高者留下</li>
+ * <li>访问频率由一个定期衰减的 Count-Min Sketch 近似统计</li>
+ * <li>维护 表名 -> key 的倒排索引, DDL 失效时只需要处理受影响的计划</li>
+ * </ul>
+ *
+ * @param <K> cache key
+ * @param <V> cached plan
+ */
+public final class PlanCacheStore<K, V> {
+
+    private static final int MAX_STRIPES = 16;
+
+    private static final int ENTRIES_PER_STRIPE = 128;
+
+    /**
+     * window 区占每个 stripe 容量的百分比
+     */
+    private static final int WINDOW_PERCENT = 1;
+
+    /**
+     * 淘汰时从 main 区随机抽样的个数
+     */
+    private static final int EVICTION_SAMPLES = 8;
+
+    private final Stripe<K, V>[] stripes;
+
+    private final int stripeMask;
+
+    private final long maximumSize;
+
+    private final long expireNanos;
+
+    private final Function<K, Collection<String>> tablesOf;
+
+    private final ToLongFunction<V> costOf;
+
+    private final LongSupplier ticker;
+
+    private final FrequencySketch sketch;
+
+    private final ConcurrentHashMap<String, Set<K>> tableIndex = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private final LongAdder savedNanos = new LongAdder();
+
+    /**
+     * @param maximumSize 最多缓存的计划数
+     * @param expireAfterWrite 写入后多久过期
+     * @param tablesOf 计划引用的表名 (小写), 用于按表失效
+     * @param costOf 生成该计划花费的时间 (纳秒)
+     */
+    public PlanCacheStore(long maximumSize, long expireAfterWrite, TimeUnit unit,
+                          Function<K, Collection<String>> tablesOf, ToLongFunction<V> costOf) {
+        this(maximumSize, expireAfterWrite, unit, tablesOf, costOf, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    PlanCacheStore(long maximumSize, long expireAfterWrite, TimeUnit unit,
+                   Function<K, Collection<String>> tablesOf, ToLongFunction<V> costOf, LongSupplier ticker) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.expireNanos = unit.toNanos(expireAfterWrite);
+        this.tablesOf = tablesOf;
+        this.costOf = costOf;
+        this.ticker = ticker;
+
+        int stripeCount = (int) Math.min(MAX_STRIPES, Math.max(1, maximumSize / ENTRIES_PER_STRIPE));
+        stripeCount = Integer.highestOneBit(stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        this.stripeMask = stripeCount - 1;
+        for (int i = 0; i < stripeCount; i++) {
+            // 余数分给前几个 stripe, 保证总容量等于 maximumSize
+            long capacity = maximumSize / stripeCount + (i < maximumSize % stripeCount ? 1 : 0);
+            stripes[i] = new Stripe<>(capacity);
+        }
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    /**
+     * 只读查找, 不加锁
+     */
+    public V getIfPresent(K key) {
+        sketch.increment(key);
+        V value = lookup(key);
+        if (value == null) {
+            missCount.increment();
+        }
+        return value;
+    }
+
+    /**
+     * 查找, 未命中时调用 loader 生成计划并放入缓存. 同一个 key 并发未命中时只有一个线程执行 loader,
+     * 其他线程等待其结果.
+     * <p>
+     * loader 抛出的 RuntimeException / Error 原样抛出, 受检异常包装为 ExecutionException.
+     */
+    public V get(K key, Callable<? extends V> loader) throws ExecutionException {
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loading.putIfAbsent(key, future);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        try {
+            // 上一个 loader 可能刚好在 putIfAbsent 之前完成
+            value = lookupQuietly(key);
+            if (value == null) {
+                value = loader.call();
+                put(key, value);
+            }
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+            throw new ExecutionException(e);
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    public void put(K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+        Stripe<K, V> stripe = stripeFor(key);
+        Node<K, V> node = new Node<>(key, value, Math.max(0, costOf.applyAsLong(value)), ticker.getAsLong());
+        List<Node<K, V>> evicted = new ArrayList<>(1);
+        synchronized (stripe) {
+            Node<K, V> old = stripe.data.put(key, node);
+            if (old != null) {
+                stripe.unlink(old);
+            } else {
+                index(key);
+            }
+            stripe.window.addLast(node);
+            stripe.evict(evicted, this);
+            for (Node<K, V> victim : evicted) {
+                unindex(victim.key);
+            }
+        }
+        evictionCount.add(evicted.size());
+    }
+
+    public void invalidate(K key) {
+        Stripe<K, V> stripe = stripeFor(key);
+        synchronized (stripe) {
+            Node<K, V> node = stripe.data.remove(key);
+            if (node != null) {
+                stripe.unlink(node);
+                unindex(key);
+            }
+        }
+    }
+
+    /**
+     * 失效所有引用了该表的计划, 只访问受影响的 key
+     *
+     * @param tableName 小写表名
+     * @return 失效的计划数
+     */
+    public int invalidateTable(String tableName) {
+        Set<K> keys = tableIndex.get(tableName);
+        if (keys == null) {
+            return 0;
+        }
+        int count = 0;
+        for (K key : new ArrayList<>(keys)) {
+            Stripe<K, V> stripe = stripeFor(key);
+            synchronized (stripe) {
+                Node<K, V> node = stripe.data.remove(key);
+                if (node != null) {
+                    stripe.unlink(node);
+                    unindex(key);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    public void invalidateAll() {
+        for (Stripe<K, V> stripe : stripes) {
+            synchronized (stripe) {
+                for (K key : stripe.data.keySet()) {
+                    unindex(key);
+                }
+                stripe.clear();
+            }
+        }
+    }
+
+    /**
+     * 当前所有有效计划的快照
+     */
+    public Map<K, V> asMap() {
+        Map<K, V> snapshot = new HashMap<>();
+        long now = ticker.getAsLong();
+        for (Stripe<K, V> stripe : stripes) {
+            for (Node<K, V> node : stripe.data.values()) {
+                V value = node.valueRef.get();
+                if (value != null && !isExpired(node, now)) {
+                    snapshot.put(node.key, value);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    public long size() {
+        long size = 0;
+        for (Stripe<K, V> stripe : stripes) {
+            size += stripe.data.size();
+        }
+        return size;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * 命中缓存而省下的规划时间
+     */
+    public long getSavedNanos() {
+        return savedNanos.sum();
+    }
+
+    Set<K> getIndexedKeys(String tableName) {
+        Set<K> keys = tableIndex.get(tableName);
+        return keys == null ? Collections.emptySet() : keys;
+    }
+
+    private V lookup(K key) {
+        Node<K, V> node = stripeFor(key).data.get(key);
+        if (node == null) {
+            return null;
+        }
+        V value = node.valueRef.get();
+        if (value == null || isExpired(node, ticker.getAsLong())) {
+            removeNode(node);
+            return null;
+        }
+        hitCount.increment();
+        savedNanos.add(node.cost);
+        return value;
+    }
+
+    private V lookupQuietly(K key) {
+        Node<K, V> node = stripeFor(key).data.get(key);
+        if (node == null) {
+            return null;
+        }
+        V value = node.valueRef.get();
+        return value == null || isExpired(node, ticker.getAsLong()) ? null : value;
+    }
+
+    private void removeNode(Node<K, V> node) {
+        Stripe<K, V> stripe = stripeFor(node.key);
+        synchronized (stripe) {
+            if (stripe.data.remove(node.key, node)) {
+                stripe.unlink(node);
+                unindex(node.key);
+            }
+        }
+    }
+
+    private V await(CompletableFuture<V> future) throws ExecutionException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExecutionException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private boolean isExpired(Node<K, V> node, long now) {
+        return expireNanos > 0 && now - node.writeNanos >= expireNanos;
+    }
+
+    /**
+     * 淘汰打分, 过期或已被 GC 回收的计划优先淘汰. 规划代价按 log2(微秒) 加权,
+     * 避免个别超慢计划完全压制访问频率.
+     */
+    private long score(Node<K, V> node, long now) {
+        if (node.valueRef.get() == null || isExpired(node, now)) {
+            return -1;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(node.cost);
+        long costWeight = 64 - Long.numberOfLeadingZeros(micros + 1);
+        return (sketch.frequency(node.key) + 1L) * costWeight;
+    }
+
+    private void index(K key) {
+        for (String table : tablesOf.apply(key)) {
+            tableIndex.compute(table, (t, keys) -> {
+                if (keys == null) {
+                    keys = ConcurrentHashMap.newKeySet();
+                }
+                keys.add(key);
+                return keys;
+            });
+        }
+    }
+
+    private void unindex(K key) {
+        for (String table : tablesOf.apply(key)) {
+            tableIndex.computeIfPresent(table, (t, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    private Stripe<K, V> stripeFor(Object key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return stripes[h & stripeMask];
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        final SoftReference<V> valueRef;
+        final long cost;
+        final long writeNanos;
+
+        boolean inWindow = true;
+        /**
+         * main 区中的下标, 用于 O(1) 删除和随机抽样
+         */
+        int mainIndex = -1;
+
+        Node(K key, V value, long cost, long writeNanos) {
+            this.key = key;
+            this.valueRef = new SoftReference<>(value);
+            this.cost = cost;
+            this.writeNanos = writeNanos;
+        }
+    }
+
+    /**
+     * 除 data 的读之外, 所有字段都在 stripe 的锁内访问
+     */
+    private static final class Stripe<K, V> {
+        final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+        final ArrayDeque<Node<K, V>> window = new ArrayDeque<>();
+        final ArrayList<Node<K, V>> main = new ArrayList<>();
+        final long windowCapacity;
+        final long mainCapacity;
+
+        Stripe(long capacity) {
+            this.windowCapacity = Math.max(1, capacity * WINDOW_PERCENT / 100);
+            this.mainCapacity = Math.max(0, capacity - windowCapacity);
+        }
+
+        /**
+         * 把挤出 window 的候选者和 main 区抽样出的 victim 比较, 淘汰分数低的一方
+         */
+        void evict(List<Node<K, V>> evicted, PlanCacheStore<K, V> store) {
+            while (window.size() > windowCapacity) {
+                Node<K, V> candidate = window.pollFirst();
+                candidate.inWindow = false;
+                addToMain(candidate);
+                if (main.size() <= mainCapacity) {
+                    continue;
+                }
+                long now = store.ticker.getAsLong();
+                Node<K, V> victim = sampleVictim(candidate, store, now);
+                Node<K, V> loser = candidate;
+                if (victim != null && store.score(candidate, now) > store.score(victim, now)) {
+                    loser = victim;
+                }
+                data.remove(loser.key, loser);
+                removeFromMain(loser);
+                evicted.add(loser);
+            }
+        }
+
+        private Node<K, V> sampleVictim(Node<K, V> candidate, PlanCacheStore<K, V> store, long now) {
+            Node<K, V> victim = null;
+            long victimScore = Long.MAX_VALUE;
+            int size = main.size();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < EVICTION_SAMPLES && i < size; i++) {
+                Node<K, V> node = size <= EVICTION_SAMPLES ? main.get(i) : main.get(random.nextInt(size));
+                if (node == candidate) {
+                    continue;
+                }
+                long score = store.score(node, now);
+                if (score < victimScore) {
+                    victim = node;
+                    victimScore = score;
+                }
+            }
+            return victim;
+        }
+
+        void unlink(Node<K, V> node) {
+            if (node.inWindow) {
+                window.remove(node);
+            } else {
+                removeFromMain(node);
+            }
+        }
+
+        void clear() {
+            data.clear();
+            window.clear();
+            main.clear();
+        }
+
+        private void addToMain(Node<K, V> node) {
+            node.mainIndex = main.size();
+            main.add(node);
+        }
+
+        private void removeFromMain(Node<K, V> node) {
+            int index = node.mainIndex;
+            if (index < 0) {
+                return;
+            }
+            Node<K, V> last = main.remove(main.size() - 1);
+            if (last != node) {
+                main.set(index, last);
+                last.mainIndex = index;
+            }
+            node.mainIndex = -1;
+        }
+    }
+
+    /**
+     * 4 行的 Count-Min Sketch, 每个计数器上限 15. 累计增加次数达到 10 倍容量后所有计数减半,
+     * 使频率能随访问模式变化而衰减. 并发下丢失少量更新是可以接受的.
+     */
+    static final class FrequencySketch {
+        private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final int ROWS = SEEDS.length;
+        private static final int MAX_COUNT = 15;
+
+        private final AtomicIntegerArray table;
+        private final int width;
+        private final long sampleSize;
+        private final AtomicLong additions = new AtomicLong();
+
+        FrequencySketch(long maximumSize) {
+            int w = 1;
+            while (w < maximumSize && w < (1 << 20)) {
+                w <<= 1;
+            }
+            this.width = Math.max(16, w);
+            this.table = new AtomicIntegerArray(width * ROWS);
+            this.sampleSize = 10L * width;
+        }
+
+        void increment(Object key) {
+            int h = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < ROWS; i++) {
+                int index = indexOf(h, i);
+                int count = table.get(index);
+                if (count < MAX_COUNT && table.compareAndSet(index, count, count + 1)) {
+                    added = true;
+                }
+            }
+            if (added && additions.incrementAndGet() >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(Object key) {
+            int h = spread(key.hashCode());
+            int frequency = MAX_COUNT;
+            for (int i = 0; i < ROWS; i++) {
+                frequency = Math.min(frequency, table.get(indexOf(h, i)));
+            }
+            return frequency;
+        }
+
+        private synchronized void reset() {
+            if (additions.get() < sampleSize) {
+                return;
+            }
+            for (int i = 0; i < table.length(); i++) {
+                table.set(i, table.get(i) >>> 1);
+            }
+            additions.set(additions.get() >>> 1);
+        }
+
+        private int indexOf(int h, int row) {
+            long hash = (h + SEEDS[row]) * SEEDS[row];
+            hash += hash >>> 32;
+            return row * width + ((int) hash & (width - 1));
+        }
+
+        private static int spread(int h) {
+            h ^= h >>> 17;
+            h *= 0xed5ad4bb;
+            h ^= h >>> 11;
+            return h;
+        }
+    }
+}
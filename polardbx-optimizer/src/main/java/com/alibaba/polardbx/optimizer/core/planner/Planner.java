@@ -324,7 +324,8 @@ public class Planner {
         }
 
         SqlParameterized result =
-            SqlParameterizeUtils.parameterize(afterProcessSql, currentParameter, executionContext, forPrepare);
+            SqlParameterizeUtils.parameterizeByFingerprint(afterProcessSql, currentParameter, executionContext,
+                forPrepare);
 
         if (enableSqlCpu) {
             executionContext.getRuntimeStatistics()
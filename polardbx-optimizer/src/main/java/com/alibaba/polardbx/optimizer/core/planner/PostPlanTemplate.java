@@ -0,0 +1,108 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.core.planner;
+
+import com.alibaba.polardbx.optimizer.core.rel.PhyTableScanBuilder;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.sql.SqlNode;
+
+import java.util.List;
+
+/**
+ * What PostPlanner derives from a cached plan alone. It is kept with the cached plan, so that a repeated
+ * single-shard point select or point update only routes and binds its parameters.
+ */
+public class PostPlanTemplate {
+
+    private final SqlNode ast;
+    private final RelNode plan;
+    private final String schemaName;
+
+    /**
+     * The plan references index tables that could not be pushed down with force index
+     */
+    private final boolean skip;
+
+    /**
+     * SQL 模板, 表名已经被参数化. 被缓存计划的所有执行共享, 只读, 需要修改时先复制
+     */
+    private final SqlNode sqlTemplate;
+    private final List<String> tableNames;
+
+    /**
+     * No rel node prevents pushing the whole plan to one physical table
+     */
+    private final boolean pushable;
+
+    /**
+     * Native sql of a pushed down select, set by the first execution that builds it
+     */
+    private volatile PhyTableScanBuilder.NativeSql nativeSql;
+
+    PostPlanTemplate(SqlNode ast, RelNode plan, String schemaName) {
+        this.ast = ast;
+        this.plan = plan;
+        this.schemaName = schemaName;
+        this.skip = true;
+        this.sqlTemplate = null;
+        this.tableNames = null;
+        this.pushable = false;
+    }
+
+    PostPlanTemplate(SqlNode ast, RelNode plan, String schemaName, SqlNode sqlTemplate, List<String> tableNames,
+                     boolean pushable) {
+        this.ast = ast;
+        this.plan = plan;
+        this.schemaName = schemaName;
+        this.skip = false;
+        this.sqlTemplate = sqlTemplate;
+        this.tableNames = tableNames;
+        this.pushable = pushable;
+    }
+
+    /**
+     * The template is only valid for the plan and the schema it was built from
+     */
+    public boolean matches(ExecutionPlan executionPlan, String schemaName) {
+        return ast == executionPlan.getAst() && plan == executionPlan.getPlan()
+            && (this.schemaName == null ? schemaName == null : this.schemaName.equalsIgnoreCase(schemaName));
+    }
+
+    public boolean isSkip() {
+        return skip;
+    }
+
+    public SqlNode getSqlTemplate() {
+        return sqlTemplate;
+    }
+
+    public List<String> getTableNames() {
+        return tableNames;
+    }
+
+    public boolean isPushable() {
+        return pushable;
+    }
+
+    public PhyTableScanBuilder.NativeSql getNativeSql() {
+        return nativeSql;
+    }
+
+    public void setNativeSql(PhyTableScanBuilder.NativeSql nativeSql) {
+        this.nativeSql = nativeSql;
+    }
+}
@@ -88,6 +88,7 @@ import org.apache.calcite.sql.SqlUpdate;
 import org.apache.calcite.util.Util;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
@@ -187,30 +188,13 @@ public class PostPlanner {
             if (ast == null || !ast.getKind().belongsTo(EnumSet.of(SqlKind.SELECT, SqlKind.DELETE, SqlKind.UPDATE))) {
                 return executionPlan;
             }
-            final boolean withForceIndex = executionPlan.checkProperty(ExecutionPlanProperties.WITH_FORCE_INDEX);
-            if (withForceIndex) {
-                final List<String> originTableNames = executionPlan.getOriginTableNames();
-                final List<String> resultTableNames = new ArrayList<>();
-
-                // For one force index hint, there will be one index table referenced
-                // If any table lookup is not removed, the table reference count must be bigger than original
-                plan.accept(new TableFinder(ts -> {
-                    resultTableNames.add(Util.last(ts.getTable().getQualifiedName()));
-                    return ts;
-                }, true));
-
-                if (originTableNames.size() != resultTableNames.size()) {
-                    // if table lookup exists, skip post optimize
-                    return executionPlan;
-                }
+            final PostPlanTemplate template = getPostPlanTemplate(executionPlan, executionContext);
+            if (template.isSkip()) {
+                return executionPlan;
             }
 
-            final ReplaceTableNameWithQuestionMarkVisitor visitor =
-                new ReplaceTableNameWithQuestionMarkVisitor(executionContext.getSchemaName(), withForceIndex,
-                    executionContext);
-            final SqlNode sqlTemplate = ast.accept(visitor);
-
-            final List<String> tableNames = new ArrayList<>(visitor.getTableNames());
+            final SqlNode sqlTemplate = template.getSqlTemplate();
+            final List<String> tableNames = new ArrayList<>(template.getTableNames());
 
             boolean forceAllowFullTableScan = executionContext.getParamManager().getBoolean(
                 ConnectionParams.ALLOW_FULL_TABLE_SCAN) || executionPlan.isExplain();
@@ -296,7 +280,7 @@ public class PostPlanner {
                     canPushdown &= !withGsi & !needRelicateWrite;
                 }
             }
-            canPushdown &= isAllAtOnePhyTb && !existUnPushableRelNode(plan);
+            canPushdown &= isAllAtOnePhyTb && template.isPushable();
             if (canPushdown) {
                 String schemaNamesOfAst = schemaNamesOfPlan.get(0);
                 switch (ast.getKind()) {
@@ -310,10 +294,15 @@ public class PostPlanner {
                         executionContext,
                         plan,
                         DbType.MYSQL,
+                        plan.getRowType(),
                         schemaNamesOfAst,
-                        tableNames);
+                        tableNames,
+                        template.getNativeSql());
                     builder.setUnionSize(0);
                     List<RelNode> phyTableScans = builder.build(executionContext);
+                    if (template.getNativeSql() == null) {
+                        template.setNativeSql(builder.getReusableNativeSql());
+                    }
                     RelNode ret = phyTableScans.get(0);
                     return executionPlan.copy(ret);
                 case DELETE: {
@@ -424,6 +413,56 @@ public class PostPlanner {
         return executionPlan;
     }
 
+    /**
+     * Get the template of a cached plan, or build it when the plan has none yet. The template only depends on the
+     * ast, the plan and the schema, so it is built once per cached plan.
+     */
+    private PostPlanTemplate getPostPlanTemplate(ExecutionPlan executionPlan, ExecutionContext executionContext) {
+        final boolean enableTemplate =
+            executionContext.getParamManager().getBoolean(ConnectionParams.ENABLE_POST_PLAN_TEMPLATE);
+        final String schemaName = executionContext.getSchemaName();
+        if (enableTemplate) {
+            final PostPlanTemplate cached = executionPlan.getPostPlanTemplate();
+            if (cached != null && cached.matches(executionPlan, schemaName)) {
+                return cached;
+            }
+        }
+
+        final RelNode plan = executionPlan.getPlan();
+        final SqlNode ast = executionPlan.getAst();
+        final PostPlanTemplate template;
+        final boolean withForceIndex = executionPlan.checkProperty(ExecutionPlanProperties.WITH_FORCE_INDEX);
+        if (withForceIndex && existTableLookup(executionPlan)) {
+            // if table lookup exists, skip post optimize
+            template = new PostPlanTemplate(ast, plan, schemaName);
+        } else {
+            final ReplaceTableNameWithQuestionMarkVisitor visitor =
+                new ReplaceTableNameWithQuestionMarkVisitor(schemaName, withForceIndex, executionContext);
+            final SqlNode sqlTemplate = ast.accept(visitor);
+            template = new PostPlanTemplate(ast, plan, schemaName, sqlTemplate,
+                Collections.unmodifiableList(new ArrayList<>(visitor.getTableNames())), !existUnPushableRelNode(plan));
+        }
+
+        if (enableTemplate) {
+            executionPlan.setPostPlanTemplate(template);
+        }
+        return template;
+    }
+
+    private static boolean existTableLookup(ExecutionPlan executionPlan) {
+        final List<String> originTableNames = executionPlan.getOriginTableNames();
+        final List<String> resultTableNames = new ArrayList<>();
+
+        // For one force index hint, there will be one index table referenced
+        // If any table lookup is not removed, the table reference count must be bigger than original
+        executionPlan.getPlan().accept(new TableFinder(ts -> {
+            resultTableNames.add(Util.last(ts.getTable().getQualifiedName()));
+            return ts;
+        }, true));
+
+        return originTableNames.size() != resultTableNames.size();
+    }
+
     /**
      * Whether is direct broadcast table plan
      */
@@ -36,11 +36,15 @@ import com.alibaba.polardbx.optimizer.core.TddlTypeFactoryImpl;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 import com.alibaba.polardbx.optimizer.hint.util.HintUtil;
 import com.alibaba.polardbx.optimizer.partition.PartitionInfoManager;
+import com.alibaba.polardbx.optimizer.partition.PartitionLocation;
+import com.alibaba.polardbx.optimizer.partition.PartitionSpec;
 import com.alibaba.polardbx.optimizer.partition.exception.NoFoundPartitionsException;
+import com.alibaba.polardbx.optimizer.partition.pruning.PartPruneStepPruningContext;
 import com.alibaba.polardbx.optimizer.partition.pruning.PartPrunedResult;
 import com.alibaba.polardbx.optimizer.partition.pruning.PartitionPruner;
 import com.alibaba.polardbx.optimizer.partition.pruning.PartitionTupleRouteInfo;
 import com.alibaba.polardbx.optimizer.partition.pruning.PhysicalPartitionInfo;
+import com.alibaba.polardbx.optimizer.partition.pruning.SearchDatumInfo;
 import com.alibaba.polardbx.optimizer.rule.TddlRuleManager;
 import com.alibaba.polardbx.rule.TableRule;
 import com.alibaba.polardbx.rule.model.TargetDB;
@@ -395,6 +399,13 @@ public class PhyTableInsertSharder {
             dataTypes.add(columnMeta.getDataType());
         }
 
+        PartitionInfoManager partitionInfoManager =
+            executionContext.getSchemaManager(parent.getSchemaName()).getTddlRuleManager().getPartitionInfoManager();
+        if (partitionInfoManager.isNewPartDbTable(logicalTableName)) {
+            return getShardResultByTupleRouting(logicalTableName, executionContext, iterSize, isBatch, params,
+                isGetShardResultForReplicationTable);
+        }
+
         ExecutionContext tmpEc = executionContext.copy();
         for (int i = 0; i < iterSize; i++) {
 
@@ -431,6 +442,69 @@ public class PhyTableInsertSharder {
         return phyTableShardResults;
     }
 
+    /**
+     * Eval the search datums of all rows first and route them in one pass,
+     * then group the rows by partition, the rows of each partition keep the insert order
+     */
+    private List<PhyTableShardResult> getShardResultByTupleRouting(String logicalTableName,
+                                                                   ExecutionContext executionContext,
+                                                                   int iterSize,
+                                                                   boolean isBatch,
+                                                                   Map<Integer, ParameterContext> params,
+                                                                   boolean isGetShardResultForReplicationTable) {
+        TableMeta tableMeta =
+            executionContext.getSchemaManager(parent.getSchemaName()).getTable(logicalTableName);
+        assert tableMeta.getNewPartitionInfo() != null;
+        PartitionTupleRouteInfo tupleRouting =
+            isGetShardResultForReplicationTable ?
+                parent.getReplicationTupleRoutingInfo(tableMeta.getNewPartitionInfo()) :
+                parent.getTupleRoutingInfo();
+
+        ExecutionContext tmpEc = executionContext.copy();
+        PartPruneStepPruningContext pruningCtx = PartPruneStepPruningContext.initPruningContext(tmpEc);
+        /**
+         * disable const expr eval cache
+         */
+        pruningCtx.setEnableConstExprEvalCache(false);
+        SearchDatumInfo[] datumArr = new SearchDatumInfo[iterSize];
+        for (int i = 0; i < iterSize; i++) {
+            int tupleTemplateIdx = i;
+            if (isBatch) {
+                params = parameterSettings.getBatchParameters().get(i);
+                tupleTemplateIdx = 0;
+            }
+            tmpEc.setParams(new Parameters(params));
+            datumArr[i] = tupleRouting.buildTupleSearchDatum(tupleTemplateIdx, tmpEc, pruningCtx);
+        }
+        int[] partIdxArr = tupleRouting.routeTupleDatums(tmpEc, datumArr, iterSize);
+
+        List<PartitionSpec> partitions = tupleRouting.getPartInfo().getPartitionBy().getPartitions();
+        int[] rowCntOfParts = new int[partitions.size()];
+        for (int i = 0; i < iterSize; i++) {
+            if (partIdxArr[i] < 0) {
+                throw new NoFoundPartitionsException();
+            }
+            rowCntOfParts[partIdxArr[i]]++;
+        }
+
+        List<Integer>[] rowsOfParts = new List[partitions.size()];
+        List<PhyTableShardResult> phyTableShardResults = new ArrayList<>();
+        for (int partIdx = 0; partIdx < rowCntOfParts.length; partIdx++) {
+            if (rowCntOfParts[partIdx] == 0) {
+                continue;
+            }
+            rowsOfParts[partIdx] = new ArrayList<>(rowCntOfParts[partIdx]);
+            PartitionLocation location = partitions.get(partIdx).getLocation();
+            phyTableShardResults.add(new PhyTableShardResult(location.getGroupKey(),
+                location.getPhyTableName(),
+                rowsOfParts[partIdx]));
+        }
+        for (int i = 0; i < iterSize; i++) {
+            rowsOfParts[partIdxArr[i]].add(i);
+        }
+        return phyTableShardResults;
+    }
+
     private <T extends RexNode> Pair<String, String> doInsertSharding(
         LogicalInsert parent,
         List<Pair<Integer, RelDataTypeField>> shardColumns,
@@ -102,15 +102,39 @@ public class PhyTableScanBuilder extends PhyOperationBuilderCommon {
     protected UnionOptHelper unionOptHelper;
     protected ExecutionContext executionContext;
 
+    /**
+     * Native sql of the template, null until build() if it was not given by the caller
+     */
+    protected NativeSql nativeSql;
+
+    /**
+     * Whether the native sql does not depend on this execution, that is the template was neither rewritten for
+     * correlated fields nor had its fetch computed from the parameters
+     */
+    protected boolean reusableNativeSql;
+
     public PhyTableScanBuilder(SqlSelect sqlTemplate, Map<String, List<List<String>>> targetTables,
                                ExecutionContext executionContext, RelNode parent, DbType dbType,
                                RelDataType rowType, String schemaName, List<String> logicalTableNames) {
+        this(sqlTemplate, targetTables, executionContext, parent, dbType, rowType, schemaName, logicalTableNames,
+            null);
+    }
+
+    /**
+     * @param nativeSql native sql built by a previous execution of the same template, it is used only when this
+     * execution does not rewrite the template
+     */
+    public PhyTableScanBuilder(SqlSelect sqlTemplate, Map<String, List<List<String>>> targetTables,
+                               ExecutionContext executionContext, RelNode parent, DbType dbType,
+                               RelDataType rowType, String schemaName, List<String> logicalTableNames,
+                               NativeSql nativeSql) {
         this.executionContext = executionContext;
+        SqlSelect template;
         if (executionContext.getCorrelateFieldInViewMap() == null
             || executionContext.getCorrelateFieldInViewMap().isEmpty()) {
-            this.sqlTemplate = sqlTemplate;
+            template = sqlTemplate;
         } else {
-            this.sqlTemplate = (SqlSelect) sqlTemplate.accept(
+            template = (SqlSelect) sqlTemplate.accept(
                 new ReplaceTableNameWithSomethingVisitor(executionContext.getCorrelateFieldInViewMap(), schemaName,
                     executionContext) {
                     @Override
@@ -125,8 +149,19 @@ public class PhyTableScanBuilder extends PhyOperationBuilderCommon {
         this.parent = parent;
         this.dbType = dbType;
         this.rowType = rowType;
-        this.sqlTemplate.accept(new FetchPreprocessor(params));
-        this.dynamicParamList = PlannerUtils.getDynamicParamInfoList(this.sqlTemplate);
+        if (nativeSql != null && template == sqlTemplate) {
+            // A reusable native sql has no fetch to compute and its dynamic params are known.
+            this.nativeSql = nativeSql;
+            this.reusableNativeSql = true;
+            this.dynamicParamList = nativeSql.dynamicParams;
+        } else {
+            FetchPreprocessor fetchPreprocessor = new FetchPreprocessor(params);
+            this.reusableNativeSql = template == sqlTemplate;
+            template = (SqlSelect) template.accept(fetchPreprocessor);
+            this.reusableNativeSql &= !fetchPreprocessor.changed;
+            this.dynamicParamList = PlannerUtils.getDynamicParamInfoList(template);
+        }
+        this.sqlTemplate = template;
         this.schemaName = schemaName;
         this.logicalTableNames = logicalTableNames;
     }
@@ -141,48 +176,78 @@ public class PhyTableScanBuilder extends PhyOperationBuilderCommon {
     private static class FetchPreprocessor extends SqlShuttle {
 
         protected final Map<Integer, ParameterContext> params;
+        protected boolean changed = false;
 
         private FetchPreprocessor(Map<Integer, ParameterContext> params) {
             this.params = params;
         }
 
+        /**
+         * The template may be shared by all executions of a cached plan, so a select is copied instead of being
+         * changed in place.
+         */
         @Override
         public SqlNode visit(SqlCall call) {
-            final SqlNode visited = super.visit(call);
+            if (!(call instanceof SqlSelect)) {
+                return super.visit(call);
+            }
 
-            if (visited instanceof SqlSelect) {
-                preProcessFetch((SqlSelect) visited);
+            final SqlSelect select = (SqlSelect) call;
+            SqlSelect copy = null;
+            final List<SqlNode> operands = select.getOperandList();
+            for (int i = 0; i < operands.size(); i++) {
+                final SqlNode operand = operands.get(i);
+                if (operand == null) {
+                    continue;
+                }
+                final SqlNode visited = operand.accept(this);
+                if (visited != operand) {
+                    if (copy == null) {
+                        copy = (SqlSelect) select.clone(select.getParserPosition());
+                    }
+                    copy.setOperand(i, visited);
+                }
             }
 
-            return visited;
+            final SqlNode fetch = preProcessFetch(select);
+            if (fetch != null) {
+                if (copy == null) {
+                    copy = (SqlSelect) select.clone(select.getParserPosition());
+                }
+                copy.setFetch(fetch);
+            }
+            return copy == null ? select : copy;
         }
 
         /**
          * If the limit like {@code limit ? +?}, it is a PLUS function and with param,
          * we calculate it, MySQL DO NOT support this format.
+         *
+         * @return the new fetch, or null if the fetch is kept
          */
-        private void preProcessFetch(SqlSelect sqlTemplate) {
+        private SqlNode preProcessFetch(SqlSelect sqlTemplate) {
             SqlNode fetch = sqlTemplate.getFetch();
             if (fetch == null) {
-                return;
+                return null;
             }
 
             if (fetch instanceof SqlLiteral || fetch instanceof SqlDynamicParam) {
-                return;
+                return null;
             }
 
             if (fetch.getKind() == PLUS) {
+                changed = true;
                 long fetchVal = computeFetchValue((SqlCall) fetch);
                 if (fetchVal == -1) {
-                    return;
+                    return null;
                 }
                 /**
                  * Set the new Fetch value. For native sql, we do not parameterized the limit
                  * value.
                  */
-                sqlTemplate
-                    .setFetch(SqlLiteral.createExactNumeric(String.valueOf(fetchVal), fetch.getParserPosition()));
+                return SqlLiteral.createExactNumeric(String.valueOf(fetchVal), fetch.getParserPosition());
             }
+            return null;
         }
 
         private long computeFetchValue(SqlCall fetch) {
@@ -214,21 +279,26 @@ public class PhyTableScanBuilder extends PhyOperationBuilderCommon {
         List<RelNode> phyTableScans = new ArrayList<>();
         CursorMeta cursorMeta = CursorMeta.build(CalciteUtils.buildColumnMeta(rowType, "TableScan"));
 
-        String sqlTemplateStr;
-        if (parent instanceof LogicalView
-            && ((LogicalView) parent).getSqlTemplate() == sqlTemplate) {
-            sqlTemplateStr = ((LogicalView) parent).getSqlTemplateStr();
-        } else {
-            sqlTemplateStr = RelUtils.toNativeSql(sqlTemplate, dbType);
-        }
+        if (nativeSql == null) {
+            String str;
+            if (parent instanceof LogicalView
+                && ((LogicalView) parent).getSqlTemplate() == sqlTemplate) {
+                str = ((LogicalView) parent).getSqlTemplateStr();
+            } else {
+                str = RelUtils.toNativeSql(sqlTemplate, dbType);
+            }
 
-        ByteString sqlTemplateDigest = null;
-        // Init sql digest.
-        try {
-            sqlTemplateDigest = com.google.protobuf.ByteString
-                .copyFrom(MessageDigest.getInstance("md5").digest(sqlTemplateStr.getBytes()));
-        } catch (Exception ignore) {
+            ByteString digest = null;
+            // Init sql digest.
+            try {
+                digest = com.google.protobuf.ByteString
+                    .copyFrom(MessageDigest.getInstance("md5").digest(str.getBytes()));
+            } catch (Exception ignore) {
+            }
+            nativeSql = new NativeSql(str, digest, dynamicParamList);
         }
+        final String sqlTemplateStr = nativeSql.sql;
+        final ByteString sqlTemplateDigest = nativeSql.digest;
 
         ShardPlanMemoryContext shardPlanMemoryContext = buildShardPlanMemoryContext(parent,
             sqlTemplateStr,
@@ -423,6 +493,14 @@ public class PhyTableScanBuilder extends PhyOperationBuilderCommon {
 //        return index;
 //    }
 
+    /**
+     * @return the native sql built for this execution if another execution of the same template may reuse it,
+     * otherwise null
+     */
+    public NativeSql getReusableNativeSql() {
+        return reusableNativeSql ? nativeSql : null;
+    }
+
     public void setUnionSize(int unionSize) {
         this.unionSize = unionSize;
     }
@@ -542,4 +620,24 @@ public class PhyTableScanBuilder extends PhyOperationBuilderCommon {
     public boolean containLimit() {
         return sqlTemplate.getFetch() != null || sqlTemplate.getOffset() != null;
     }
+
+    /**
+     * 参数化模板对应的物理 SQL, 与参数无关, 可以在同一个缓存计划的多次执行之间共享
+     */
+    public static final class NativeSql {
+
+        private final String sql;
+        private final ByteString digest;
+        private final List<DynamicParamInfo> dynamicParams;
+
+        private NativeSql(String sql, ByteString digest, List<DynamicParamInfo> dynamicParams) {
+            this.sql = sql;
+            this.digest = digest;
+            this.dynamicParams = dynamicParams;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+    }
 }
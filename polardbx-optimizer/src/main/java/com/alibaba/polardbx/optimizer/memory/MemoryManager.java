@@ -97,11 +97,19 @@ public class MemoryManager extends AbstractLifecycle {
             queryMemoryLimit = (long) (globalLimit * MemorySetting.DEFAULT_ONE_QUERY_MAX_MEMORY_PROPORTION);
         }
 
+        // the query pool takes memory from the shared pools in leases, so most allocations stop at it
+        long leaseSize = GeneralUtil.getPropertyLong(
+            properties, ConnectionProperties.QUERY_MEMORY_LEASE_SIZE,
+            MemorySetting.DEFAULT_QUERY_MEMORY_LEASE_SIZE);
+
+        MemoryPool queryMemoryPool;
         if (ap) {
-            return apMemoryPool.getOrCreatePool(traceId, queryMemoryLimit, MemoryType.QUERY);
+            queryMemoryPool = apMemoryPool.getOrCreatePool(traceId, queryMemoryLimit, MemoryType.QUERY);
         } else {
-            return tpMemoryPool.getOrCreatePool(traceId, queryMemoryLimit, MemoryType.QUERY);
+            queryMemoryPool = tpMemoryPool.getOrCreatePool(traceId, queryMemoryLimit, MemoryType.QUERY);
         }
+        queryMemoryPool.setLeaseSize(Math.min(leaseSize, queryMemoryLimit));
+        return queryMemoryPool;
     }
 
     public TpMemoryPool getTpMemoryPool() {
@@ -47,6 +47,14 @@ public class MemoryPool {
     protected long reservedBytes;
     protected long revocableBytes;
 
+    /**
+     * Reserved bytes taken from the parent in advance, only a pool with a lease size asks for them.
+     * Allocations that fit in the lease are served without going up to the shared parents. The lease
+     * grows with the usage of the pool and never exceeds it, nor the lease size.
+     */
+    protected volatile long leaseSize = 0L;
+    protected final AtomicLong leasedBytes = new AtomicLong();
+
     protected AtomicBoolean destroyed = new AtomicBoolean(false);
 
     public MemoryPool(String name, long maxLimit, MemoryType memoryType) {
@@ -94,13 +102,13 @@ public class MemoryPool {
         ListenableFuture<?> future = null;
         synchronized (this) {
             if (parent != null) {
-                future = parent.allocateReserveMemory(size);
+                future = acquireReserveFromParent(size);
             }
             long nowReservedBytes = reservedBytes + size;
             long nowTotalUsage = nowReservedBytes + revocableBytes;
             if (nowTotalUsage > maxLimit) {
                 if (parent != null) {
-                    parent.freeReserveMemory(size);
+                    releaseReserveToParent(size);
                 }
                 outOfMemory(fullName, getMemoryUsage(), size, maxLimit, true);
             }
@@ -123,7 +131,7 @@ public class MemoryPool {
         checkArgument(size >= 0, "bytes is negative");
         synchronized (this) {
             if (parent != null) {
-                if (!parent.tryAllocateReserveMemory(size, allocFuture)) {
+                if (!tryAcquireReserveFromParent(size, allocFuture)) {
                     return false;
                 }
             }
@@ -132,7 +140,7 @@ public class MemoryPool {
 
             if (nowTotalUsage > getTryMaxLimit()) {
                 if (parent != null) {
-                    parent.freeReserveMemory(size);
+                    releaseReserveToParent(size);
                 }
                 tryBlock(allocFuture, size, true);
                 return false;
@@ -242,7 +250,7 @@ public class MemoryPool {
             long releaseSize = Math.min(reservedBytes, size);
             reservedBytes -= releaseSize;
             if (parent != null) {
-                parent.freeReserveMemory(releaseSize);
+                releaseReserveToParent(releaseSize);
             }
             notifyBlockedQuery();
         }
@@ -267,6 +275,171 @@ public class MemoryPool {
     protected synchronized void freeMemory() {
         freeReserveMemory(reservedBytes);
         freeRevocableMemory(revocableBytes);
+        returnLease();
+    }
+
+    // --------------------------------- for lease ------------------------------------------------
+
+    /**
+     * Let this pool take reserved memory from its parent in grants of at most leaseSize bytes, 0 to disable
+     */
+    public void setLeaseSize(long leaseSize) {
+        checkArgument(leaseSize >= 0, "lease size is negative");
+        this.leaseSize = leaseSize;
+    }
+
+    public long getLeaseSize() {
+        return leaseSize;
+    }
+
+    public long getLeasedBytes() {
+        return leasedBytes.get();
+    }
+
+    /**
+     * Takes up to size bytes from the lease
+     *
+     * @return the bytes still missing
+     */
+    private long takeLease(long size) {
+        while (true) {
+            long leased = leasedBytes.get();
+            long taken = Math.min(leased, size);
+            if (leasedBytes.compareAndSet(leased, leased - taken)) {
+                return size - taken;
+            }
+        }
+    }
+
+    private ListenableFuture<?> acquireReserveFromParent(long size) {
+        if (leaseSize <= 0) {
+            return parent.allocateReserveMemory(size);
+        }
+        long missing = takeLease(size);
+        if (missing == 0) {
+            return null;
+        }
+        long grant = leaseGrant();
+        if (grant > 0) {
+            try {
+                ListenableFuture<?> future = parent.allocateReserveMemory(missing + grant);
+                leasedBytes.addAndGet(grant);
+                return future;
+            } catch (MemoryNotEnoughException e) {
+                // the parent can not afford a whole grant, ask for the missing bytes only
+            }
+        }
+        try {
+            try {
+                return parent.allocateReserveMemory(missing);
+            } catch (MemoryNotEnoughException e) {
+                if (reclaimLeases(getRoot()) == 0) {
+                    throw e;
+                }
+                return parent.allocateReserveMemory(missing);
+            }
+        } catch (MemoryNotEnoughException e) {
+            leasedBytes.addAndGet(size - missing);
+            throw e;
+        }
+    }
+
+    /**
+     * Try allocations never ask for more than the missing bytes: a failed grant would block the caller or
+     * request memory revoking while the allocation itself fits. Like allocateReserveMemory, the unused
+     * leases are reclaimed and the allocation is retried once before giving up.
+     */
+    private boolean tryAcquireReserveFromParent(long size, MemoryAllocateFuture allocFuture) {
+        if (leaseSize <= 0) {
+            return parent.tryAllocateReserveMemory(size, allocFuture);
+        }
+        long missing = takeLease(size);
+        if (missing == 0) {
+            allocFuture.setAllocateFuture(NOT_BLOCKED);
+            return true;
+        }
+        boolean success = false;
+        try {
+            try {
+                success = parent.tryAllocateReserveMemory(missing, allocFuture);
+            } catch (MemoryNotEnoughException e) {
+                if (reclaimLeases(getRoot()) == 0) {
+                    throw e;
+                }
+                success = parent.tryAllocateReserveMemory(missing, allocFuture);
+                return success;
+            }
+            if (!success && reclaimLeases(getRoot()) > 0) {
+                success = parent.tryAllocateReserveMemory(missing, allocFuture);
+            }
+        } finally {
+            if (!success) {
+                leasedBytes.addAndGet(size - missing);
+            }
+        }
+        return success;
+    }
+
+    private void releaseReserveToParent(long size) {
+        if (leaseSize <= 0) {
+            parent.freeReserveMemory(size);
+            return;
+        }
+        leasedBytes.addAndGet(size);
+        // keep one grant for the next allocations, return the rest
+        long keep = leaseGrant();
+        while (true) {
+            long leased = leasedBytes.get();
+            if (leased <= keep) {
+                return;
+            }
+            if (leasedBytes.compareAndSet(leased, keep)) {
+                parent.freeReserveMemory(leased - keep);
+                return;
+            }
+        }
+    }
+
+    /**
+     * A grant is as large as the memory the pool already holds, so a small query never takes the whole
+     * lease size and the bytes counted in the shared pools are at most twice the real usage.
+     * Called with the monitor of this pool held.
+     */
+    private long leaseGrant() {
+        return Math.min(leaseSize, reservedBytes);
+    }
+
+    /**
+     * Gives the unused lease back to the parent
+     *
+     * @return the returned bytes
+     */
+    protected long returnLease() {
+        long leased = leasedBytes.getAndSet(0);
+        if (leased > 0) {
+            parent.freeReserveMemory(leased);
+        }
+        return leased;
+    }
+
+    /**
+     * Returns the unused leases of the pool and all its descendants, used when memory runs short.
+     * Leases are plain atomics, so no lock of the visited pools is taken except those of their parents.
+     */
+    protected static long reclaimLeases(MemoryPool pool) {
+        long reclaimed = pool.parent != null ? pool.returnLease() : 0;
+        for (MemoryPool child : pool.children.values()) {
+            reclaimed += reclaimLeases(child);
+        }
+        return reclaimed;
+    }
+
+    private MemoryPool getRoot() {
+        MemoryPool root = this;
+        while (root.parent != null) {
+            root = root.parent;
+        }
+        return root;
     }
 
     /**
@@ -397,6 +570,9 @@ public class MemoryPool {
         StringBuilder builder = new StringBuilder();
         String self = "Name=" + name + ", reservedBytes=" + reservedBytes +
             ", revocableBytes=" + revocableBytes;
+        if (leaseSize > 0) {
+            self += ", leasedBytes=" + leasedBytes.get();
+        }
         builder.append(self);
         String blankStr = " ";
         for (int i = 0; i < level; i++) {
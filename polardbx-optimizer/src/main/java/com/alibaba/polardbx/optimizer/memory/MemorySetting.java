@@ -59,4 +59,9 @@ public class MemorySetting {
      * 设置查询最大使用内存比例
      */
     public static final double DEFAULT_ONE_QUERY_MAX_MEMORY_PROPORTION = 0.50;
+
+    /**
+     * 查询内存池向TP/AP内存池预留内存的最大粒度，实际粒度不超过查询已使用的内存
+     */
+    public static final long DEFAULT_QUERY_MEMORY_LEASE_SIZE = 8 * 1024 * 1024L;
 }
@@ -0,0 +1,258 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.parse;
+
+import com.alibaba.polardbx.common.TddlConstants;
+import com.alibaba.polardbx.druid.sql.ast.SQLExpr;
+import com.alibaba.polardbx.druid.sql.ast.SQLObject;
+import com.alibaba.polardbx.druid.sql.ast.SQLStatement;
+import com.alibaba.polardbx.druid.sql.ast.expr.SQLAllColumnExpr;
+import com.alibaba.polardbx.druid.sql.ast.expr.SQLIdentifierExpr;
+import com.alibaba.polardbx.druid.sql.ast.expr.SQLLiteralExpr;
+import com.alibaba.polardbx.druid.sql.ast.expr.SQLPropertyExpr;
+import com.alibaba.polardbx.druid.sql.ast.statement.SQLSelectItem;
+import com.alibaba.polardbx.druid.sql.dialect.mysql.parser.MySqlLexer;
+import com.alibaba.polardbx.druid.sql.dialect.mysql.visitor.MySqlASTVisitorAdapter;
+import com.alibaba.polardbx.druid.sql.parser.ByteString;
+import com.alibaba.polardbx.druid.sql.parser.Lexer;
+import com.alibaba.polardbx.druid.sql.parser.ParserException;
+import com.alibaba.polardbx.druid.sql.parser.SQLParserFeature;
+import com.alibaba.polardbx.druid.sql.parser.Token;
+import com.alibaba.polardbx.druid.util.FnvHash;
+import com.alibaba.polardbx.optimizer.parse.bean.SqlParameterized;
+import com.alibaba.polardbx.optimizer.parse.visitor.DrdsParameterizeSqlVisitor;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cache of parameterized sql templates keyed by the lexer fingerprint of the raw sql.
+ * <p>
+ * The fingerprint is the token stream with all the literals taken out, so statements of
+ * the same shape share one template and only need to be tokenized, the full ast is built
+ * only when the fingerprint misses. The token stream is kept in the key and compared on
+ * lookup, its hash is only used to pick the bucket.
+ * <p>
+ * A template is cached only if its parameters are exactly the literals of the sql in
+ * text order, and no literal is printed into the parameterized sql (e.g. the generated
+ * alias of a select item), otherwise the shape always goes through the full parsing.
+ */
+public class SqlFingerprintCache {
+
+    private static final SqlFingerprintCache INSTANCE = new SqlFingerprintCache();
+
+    private final Cache<Key, SqlParameterized> cache = CacheBuilder.newBuilder()
+        .maximumSize(TddlConstants.DEFAULT_OPTIMIZER_CACHE_SIZE)
+        .build();
+
+    public static SqlFingerprintCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Tokenize the sql and take out the literals
+     *
+     * @return null if the sql contains any token that can not be fingerprinted, e.g. comments, hints,
+     * variables, hex or national strings, placeholders or multi statements
+     */
+    public static Fingerprint fingerprint(ByteString sql, SQLParserFeature... features) {
+        Lexer lexer = new MySqlLexer(sql, features);
+        List<Object> literals = new ArrayList<>();
+        StringBuilder shape = new StringBuilder(sql.length());
+        long hash = FnvHash.BASIC;
+        try {
+            for (lexer.nextToken(); lexer.token() != Token.EOF; lexer.nextToken()) {
+                Token token = lexer.token();
+                String text = null;
+                switch (token) {
+                case LITERAL_INT:
+                    Number number = lexer.integerValue();
+                    if (number instanceof BigInteger) {
+                        number = DrdsParameterizeSqlVisitor.normalizeBigInteger((BigInteger) number);
+                    }
+                    literals.add(number);
+                    break;
+                case LITERAL_FLOAT:
+                    literals.add(lexer.decimalValue());
+                    break;
+                case LITERAL_CHARS:
+                    literals.add(lexer.stringVal());
+                    break;
+                case IDENTIFIER:
+                    text = lexer.stringVal();
+                    break;
+                case SEMI:
+                case QUES:
+                    return null;
+                default:
+                    if (token.name == null) {
+                        return null;
+                    }
+                    if (Character.isLetter(token.name.charAt(0))) {
+                        // keep the case of keywords, they may be used as names
+                        text = lexer.stringVal();
+                    }
+                    break;
+                }
+
+                // the text is prefixed by its length so that token boundaries can not be confused
+                shape.append(token.ordinal()).append(',');
+                hash = (hash ^ token.ordinal()) * FnvHash.PRIME;
+                if (text != null) {
+                    shape.append(text.length()).append(':').append(text);
+                    for (int i = 0; i < text.length(); i++) {
+                        hash = (hash ^ text.charAt(i)) * FnvHash.PRIME;
+                    }
+                }
+            }
+        } catch (ParserException | NumberFormatException e) {
+            return null;
+        }
+        if (lexer.hasComment()) {
+            return null;
+        }
+        return new Fingerprint(new Key(hash, shape.toString()), literals);
+    }
+
+    /**
+     * @return the parameterized sql built from the template of the same shape, null if miss
+     */
+    public SqlParameterized get(Fingerprint fingerprint, ByteString sql) {
+        SqlParameterized template = cache.getIfPresent(fingerprint.key);
+        if (template == null) {
+            return null;
+        }
+        return new SqlParameterized(sql, new ArrayList<>(fingerprint.literals), template);
+    }
+
+    /**
+     * Cache the result of the full parameterizing as the template of the fingerprint if possible
+     */
+    public void put(Fingerprint fingerprint, SqlParameterized parameterized) {
+        if (!parameterized.needCache() || !fingerprint.literals.equals(parameterized.getParameters())) {
+            return;
+        }
+        if (hasLiteralInSelectAlias(parameterized.getStmt())) {
+            return;
+        }
+        cache.put(fingerprint.key, parameterized);
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * The select item without alias is printed with an alias of its expr text,
+     * see DrdsParameterizeSqlVisitor.visit(SQLSelectItem)
+     */
+    private static boolean hasLiteralInSelectAlias(SQLStatement stmt) {
+        SelectAliasLiteralFinder finder = new SelectAliasLiteralFinder();
+        stmt.accept(finder);
+        return finder.found;
+    }
+
+    private static class SelectAliasLiteralFinder extends MySqlASTVisitorAdapter {
+
+        private boolean found = false;
+
+        @Override
+        public boolean visit(SQLSelectItem x) {
+            String alias = x.getAlias();
+            SQLExpr expr = x.getExpr();
+            if ((alias == null || alias.isEmpty())
+                && !(expr instanceof SQLIdentifierExpr
+                || expr instanceof SQLPropertyExpr
+                || expr instanceof SQLAllColumnExpr)) {
+                LiteralFinder literalFinder = new LiteralFinder();
+                expr.accept(literalFinder);
+                found |= literalFinder.found;
+            }
+            return !found;
+        }
+    }
+
+    private static class LiteralFinder extends MySqlASTVisitorAdapter {
+
+        private boolean found = false;
+
+        @Override
+        public void preVisit(SQLObject x) {
+            if (x instanceof SQLLiteralExpr) {
+                found = true;
+            }
+        }
+    }
+
+    public static class Fingerprint {
+
+        private final Key key;
+
+        /**
+         * the literals in text order, which are the parameters if the template hits
+         */
+        private final List<Object> literals;
+
+        private Fingerprint(Key key, List<Object> literals) {
+            this.key = key;
+            this.literals = literals;
+        }
+
+        public List<Object> getLiterals() {
+            return literals;
+        }
+    }
+
+    private static class Key {
+
+        private final long hash;
+
+        /**
+         * the tokens of the sql with the literals taken out
+         */
+        private final String shape;
+
+        private Key(long hash, String shape) {
+            this.hash = hash;
+            this.shape = shape;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hash == key.hash && shape.equals(key.shape);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hash);
+        }
+    }
+}
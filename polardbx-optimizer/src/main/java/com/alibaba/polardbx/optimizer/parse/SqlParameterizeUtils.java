@@ -31,6 +31,7 @@ import com.alibaba.polardbx.druid.sql.visitor.VisitorFeature;
 import com.alibaba.polardbx.druid.util.JdbcConstants;
 import com.google.common.collect.Lists;
 import com.alibaba.polardbx.common.jdbc.ParameterContext;
+import com.alibaba.polardbx.common.properties.ConnectionParams;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.parse.bean.SqlParameterized;
 import com.alibaba.polardbx.optimizer.parse.visitor.DrdsParameterizeSqlVisitor;
@@ -90,6 +91,37 @@ public class SqlParameterizeUtils {
         return parameterize(sql, statement, parameters, executionContext, forPrepare);
     }
 
+    /**
+     * Same as parameterize, but lookup the template of the same statement shape by the lexer
+     * fingerprint first, so that the full parsing is skipped for the repeated statements.
+     * <p>
+     * The ast of the result may be shared with other statements of the same shape,
+     * which is fine for planning but must not be used to read the literals.
+     */
+    public static SqlParameterized parameterizeByFingerprint(ByteString sql,
+                                                             Map<Integer, ParameterContext> parameters,
+                                                             ExecutionContext executionContext,
+                                                             boolean forPrepare) {
+        if (forPrepare || (parameters != null && !parameters.isEmpty())
+            || !executionContext.getParamManager().getBoolean(ConnectionParams.SQL_FINGERPRINT_CACHE)) {
+            return parameterize(sql, parameters, executionContext, forPrepare);
+        }
+
+        SqlFingerprintCache.Fingerprint fingerprint =
+            SqlFingerprintCache.fingerprint(sql, SqlParameterizeUtils.parserFeatures);
+        if (fingerprint == null) {
+            return parameterize(sql, parameters, executionContext, forPrepare);
+        }
+        SqlParameterized result = SqlFingerprintCache.getInstance().get(fingerprint, sql);
+        if (result == null) {
+            result = parameterize(sql, parameters, executionContext, forPrepare);
+            if (result != null) {
+                SqlFingerprintCache.getInstance().put(fingerprint, result);
+            }
+        }
+        return result;
+    }
+
     public static SqlParameterized parameterize(ByteString sql, SQLStatement statement,
                                                 Map<Integer, ParameterContext> parameters,
                                                 ExecutionContext executionContext,
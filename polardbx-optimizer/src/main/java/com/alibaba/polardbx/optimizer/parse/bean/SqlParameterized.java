@@ -70,6 +70,18 @@ public class SqlParameterized {
         this.tables = collector.getTables();
     }
 
+    /**
+     * Build from a parameterized template of the same statement shape,
+     * the ast and tables are shared with the template
+     */
+    public SqlParameterized(ByteString originSql, List<Object> parameters, SqlParameterized template) {
+        this.originSql = originSql;
+        this.sql = template.sql;
+        this.parameters = parameters;
+        this.stmt = template.stmt;
+        this.tables = template.tables;
+    }
+
     public SQLStatement getAst() {
         return this.stmt;
     }
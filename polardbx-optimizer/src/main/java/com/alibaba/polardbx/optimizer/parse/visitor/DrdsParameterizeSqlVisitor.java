@@ -389,22 +389,27 @@ public class DrdsParameterizeSqlVisitor extends MySqlOutputVisitor {
     @Override
     protected void printInteger(SQLIntegerExpr x, boolean parameterized) {
         if (parameterized && x.getNumber() instanceof BigInteger) {
-            BigInteger number = (BigInteger) x.getNumber();
-
-            // The boundary value of bigint is min value of longlong and max value of ulonglong.
-            // otherwise, the big integer number will be recognized as decimal value.
-            if (number.compareTo(MAX_UNSIGNED_INT64) > 0 || number.compareTo(MIN_SIGNED_INT64) < 0) {
-                BigDecimal decimalNumber = new BigDecimal(number);
-                x.setNumber(decimalNumber);
-            } else if (number.compareTo(MAX_SIGNED_INT64) <= 0) {
-                // for -9223372036854775808 ~ 9223372036854775807, use normal long value.
-                x.setNumber(x.getNumber().longValue());
-            }
+            x.setNumber(normalizeBigInteger((BigInteger) x.getNumber()));
         }
 
         super.printInteger(x, parameterized);
     }
 
+    /**
+     * Convert the big integer literal to the parameter value
+     */
+    public static Number normalizeBigInteger(BigInteger number) {
+        // The boundary value of bigint is min value of longlong and max value of ulonglong.
+        // otherwise, the big integer number will be recognized as decimal value.
+        if (number.compareTo(MAX_UNSIGNED_INT64) > 0 || number.compareTo(MIN_SIGNED_INT64) < 0) {
+            return new BigDecimal(number);
+        } else if (number.compareTo(MAX_SIGNED_INT64) <= 0) {
+            // for -9223372036854775808 ~ 9223372036854775807, use normal long value.
+            return number.longValue();
+        }
+        return number;
+    }
+
     private String getAliasNew(String alias) {
         if (alias != null && alias.length() != 0) {
             char first = alias.charAt(0);
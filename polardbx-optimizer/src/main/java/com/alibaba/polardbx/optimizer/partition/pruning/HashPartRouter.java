@@ -47,4 +47,22 @@ public class HashPartRouter extends RangePartRouter {
         return rs;
     }
 
+    @Override
+    public void routeEqualBatch(ExecutionContext ec, Object[] searchValArr, int count, int[] partPosiArr) {
+        if (sortedLongBoundArr == null) {
+            for (int i = 0; i < count; i++) {
+                partPosiArr[i] = routeEqual(ec, searchValArr[i]);
+            }
+            return;
+        }
+        // Hash all the values first, then search the hash bounds without boxing
+        long[] hashVals = new long[count];
+        for (int i = 0; i < count; i++) {
+            hashVals[i] = hasher.calcHashCode(ec, (SearchDatumInfo) searchValArr[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            partPosiArr[i] = routeEqualLong(hashVals[i]);
+        }
+    }
+
 }
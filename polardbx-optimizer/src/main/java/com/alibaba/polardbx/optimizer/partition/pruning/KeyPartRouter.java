@@ -78,4 +78,21 @@ public class KeyPartRouter extends RangePartRouter {
         rs.strategy = PartitionStrategy.KEY;
         return rs;
     }
+
+    @Override
+    public void routeEqualBatch(ExecutionContext ec, Object[] searchValArr, int count, int[] partPosiArr) {
+        for (int i = 0; i < count; i++) {
+            SearchDatumInfo queryValDatum = (SearchDatumInfo) searchValArr[i];
+            Long hashVal = null;
+            if (sortedLongBoundArr != null && queryValDatum.datumInfo.length == 1) {
+                hashVal = hasher.calcHashCodeForKey(queryValDatum)[0];
+            }
+            if (hashVal != null) {
+                partPosiArr[i] = routeEqualLong(hashVal);
+            } else {
+                // multi-columns key partition or null value, the bounds are compared by boundComparator
+                partPosiArr[i] = routeEqual(ec, queryValDatum);
+            }
+        }
+    }
 }
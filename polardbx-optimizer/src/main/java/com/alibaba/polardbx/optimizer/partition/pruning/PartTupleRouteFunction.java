@@ -50,11 +50,35 @@ public class PartTupleRouteFunction extends PartRouteFunction {
     @Override
     public BitSet routePartitions(ExecutionContext ec, PartPruneStepPruningContext pruningCtx) {
 
-        BitSet partBitSet = PartitionPrunerUtils.buildEmptyPartitionsBitSet(partInfo);
-
         // build the datum of the search value
         SearchDatumInfo finalVal = buildSearchDatumInfoForTupleData(ec, pruningCtx);
 
+        return routeSearchDatum(ec, finalVal);
+    }
+
+    /**
+     * Route a batch of tuples whose search datums have been built by buildTupleSearchDatumInfo,
+     * partIdxArr[i] will be set to the partition bitset index of datumArr[i], or -1 if no partition matches.
+     */
+    public void routeTupleBatch(ExecutionContext ec, SearchDatumInfo[] datumArr, int count, int[] partIdxArr) {
+        if (cmpKind == ComparisonKind.EQUAL && matchLevel == PartKeyLevel.PARTITION_KEY && subPartCount <= 0) {
+            // Without subpartition, the bitset index is just (partition position - 1)
+            router.routeEqualBatch(ec, datumArr, count, partIdxArr);
+            for (int i = 0; i < count; i++) {
+                int partPosi = partIdxArr[i];
+                partIdxArr[i] = partPosi == PartitionRouter.RouterResult.NO_FOUND_PARTITION_IDX ? -1 : partPosi - 1;
+            }
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            partIdxArr[i] = routeSearchDatum(ec, datumArr[i]).nextSetBit(0);
+        }
+    }
+
+    protected BitSet routeSearchDatum(ExecutionContext ec, SearchDatumInfo finalVal) {
+
+        BitSet partBitSet = PartitionPrunerUtils.buildEmptyPartitionsBitSet(partInfo);
+
         // Route and build bitset by tuple value
         PartitionRouter.RouterResult result = router.routePartitions(ec, cmpKind, finalVal);
 
@@ -80,6 +80,28 @@ public abstract class PartitionRouter {
      */
     public abstract RouterResult routePartitions(ExecutionContext ec, ComparisonKind comp, Object searchVal);
 
+    /**
+     * Route a batch of search values by equality ( e.g. the tuples of insert values ) in one pass,
+     * partPosiArr[i] will be set to the partition position (start from 1) of searchValArr[i],
+     * or NO_FOUND_PARTITION_IDX if no partition matches.
+     * <p>
+     * If a value matches more than one partition, the first one is returned, the same as tuple routing.
+     */
+    public void routeEqualBatch(ExecutionContext ec, Object[] searchValArr, int count, int[] partPosiArr) {
+        for (int i = 0; i < count; i++) {
+            partPosiArr[i] = routeEqual(ec, searchValArr[i]);
+        }
+    }
+
+    protected int routeEqual(ExecutionContext ec, Object searchVal) {
+        RouterResult rs = routePartitions(ec, ComparisonKind.EQUAL, searchVal);
+        if (rs.strategy == PartitionStrategy.LIST || rs.strategy == PartitionStrategy.LIST_COLUMNS) {
+            return rs.partPosiSet.isEmpty() ? RouterResult.NO_FOUND_PARTITION_IDX :
+                ((TreeSet<Integer>) rs.partPosiSet).first();
+        }
+        return rs.partStartPosi;
+    }
+
     // TODO(moyi) change type Object to SeaarchDatumInfo/PartitionField
     public static PartitionRouter createByHasher(PartitionStrategy strategy,
                                                  Object[] bounds,
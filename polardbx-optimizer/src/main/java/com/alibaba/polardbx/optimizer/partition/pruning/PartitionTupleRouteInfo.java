@@ -51,6 +51,28 @@ public class PartitionTupleRouteInfo {
         return tupleDispatchFuncInfos.get(tupleTempleIdx).routeTuple(ec, pruningCtx);
     }
 
+    /**
+     * Eval the search datum of one tuple by the params of ec, the datums of all tuples
+     * can then be routed in one pass by routeTupleDatums
+     */
+    public SearchDatumInfo buildTupleSearchDatum(int tupleTempleIdx, ExecutionContext ec,
+                                                 PartPruneStepPruningContext pruningCtx) {
+        return tupleDispatchFuncInfos.get(tupleTempleIdx).getPartDispatchFunc()
+            .buildTupleSearchDatumInfo(ec, pruningCtx);
+    }
+
+    /**
+     * Route the search datums of a batch of tuples in one pass
+     *
+     * @return the partition bitset index of each tuple, -1 if no partition matches
+     */
+    public int[] routeTupleDatums(ExecutionContext ec, SearchDatumInfo[] datumArr, int count) {
+        int[] partIdxArr = new int[count];
+        // All tuple templates share the same partition router
+        tupleDispatchFuncInfos.get(0).getPartDispatchFunc().routeTupleBatch(ec, datumArr, count, partIdxArr);
+        return partIdxArr;
+    }
+
     public String getSchemaName() {
         return schemaName;
     }
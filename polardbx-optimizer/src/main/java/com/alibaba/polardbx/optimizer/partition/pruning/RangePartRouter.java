@@ -37,10 +37,65 @@ public class RangePartRouter extends PartitionRouter {
     protected Comparator boundComparator;
     protected int partitionCount = 0;
 
+    /**
+     * the primitive copy of sortedBoundObjArr if all the bounds are long values (e.g. the hash bounds),
+     * so that the batch routing can do binary search without boxing, otherwise it is null
+     */
+    protected long[] sortedLongBoundArr;
+
     public RangePartRouter(Object[] sortedBoundObjArr, Comparator comparator) {
         this.sortedBoundObjArr = sortedBoundObjArr;
         this.partitionCount = sortedBoundObjArr.length;
         this.boundComparator = comparator;
+        this.sortedLongBoundArr = buildLongBounds(sortedBoundObjArr);
+    }
+
+    private static long[] buildLongBounds(Object[] sortedBoundObjArr) {
+        long[] longBounds = new long[sortedBoundObjArr.length];
+        for (int i = 0; i < sortedBoundObjArr.length; i++) {
+            if (!(sortedBoundObjArr[i] instanceof Long)) {
+                return null;
+            }
+            longBounds[i] = (Long) sortedBoundObjArr[i];
+        }
+        return longBounds;
+    }
+
+    /**
+     * Map the binary search result k of an equal search value to the partition position,
+     * see the case (3) of routePartitions
+     */
+    protected int getEqualPartPosi(int k) {
+        int partCnt = this.partitionCount;
+        if (k >= 0) {
+            if (k <= partCnt - 2) {
+                return k + 2;
+            }
+            return RouterResult.NO_FOUND_PARTITION_IDX;
+        }
+        int minusK = -k;
+        if (minusK <= partCnt) {
+            return minusK;
+        } else if (minusK == partCnt + 1) {
+            return RouterResult.NO_FOUND_PARTITION_IDX;
+        } else {
+            throw new NotSupportException("Invalid binary search index");
+        }
+    }
+
+    /**
+     * Route an equal search value that is already in the long space of sortedLongBoundArr
+     */
+    protected int routeEqualLong(long searchVal) {
+        return getEqualPartPosi(Arrays.binarySearch(sortedLongBoundArr, searchVal));
+    }
+
+    @Override
+    public void routeEqualBatch(ExecutionContext ec, Object[] searchValArr, int count, int[] partPosiArr) {
+        for (int i = 0; i < count; i++) {
+            int k = Arrays.binarySearch(sortedBoundObjArr, searchValArr[i], boundComparator);
+            partPosiArr[i] = getEqualPartPosi(k);
+        }
     }
 
     /**
@@ -238,24 +293,7 @@ public class RangePartRouter extends PartitionRouter {
              *              pset={1}
              */
             int k = Arrays.binarySearch(sortedBoundObjArr, searchVal, boundComparator);
-            if (k >= 0) {
-                if (k <= partCnt - 2) {
-                    tarPartStart = tarPartEnd = k + 2;
-                } else if (k == partCnt - 1) {
-                    tarPartStart = tarPartEnd = RouterResult.NO_FOUND_PARTITION_IDX;
-                }
-            } else if (k < 0) {
-                int minusK = -k;
-                if (minusK <= partCnt) {
-                    tarPartStart = tarPartEnd = minusK;
-                } else if (minusK == partCnt + 1) {
-                    tarPartStart = tarPartEnd = RouterResult.NO_FOUND_PARTITION_IDX;
-                } else if (minusK == 1) {
-                    tarPartStart = tarPartEnd = 1;
-                } else {
-                    throw new NotSupportException("Invalid binary search index");
-                }
-            }
+            tarPartStart = tarPartEnd = getEqualPartPosi(k);
         } else if (comp == ComparisonKind.GREATER_THAN_OR_EQUAL) {
             /**
              *      (4) col >= val
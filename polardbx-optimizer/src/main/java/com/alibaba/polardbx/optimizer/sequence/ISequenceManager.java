@@ -94,6 +94,13 @@ public interface ISequenceManager extends Lifecycle {
      */
     long getMinValueFromCurrentSeqRange(String schemaName, String seqName);
 
+    /**
+     * Get refill statistics of a cached group sequence: refill count, total refill
+     * time (ns), stall count and total stall time (ns). Return null if the sequence
+     * is not a group sequence or has not been loaded on this node.
+     */
+    long[] getGroupSeqRefillStats(String schemaName, String seqName);
+
     /**
      * Check if CustomUnitGroupSequence is supported.
      */
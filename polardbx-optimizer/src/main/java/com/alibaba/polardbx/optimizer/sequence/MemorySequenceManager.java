@@ -127,6 +127,11 @@ public class MemorySequenceManager extends AbstractLifecycle implements ISequenc
         return 1L;
     }
 
+    @Override
+    public long[] getGroupSeqRefillStats(String schemaName, String seqName) {
+        return null;
+    }
+
     @Override
     public boolean isCustomUnitGroupSeqSupported(String schemaName) {
         return false;
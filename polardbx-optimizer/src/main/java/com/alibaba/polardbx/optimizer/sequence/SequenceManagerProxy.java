@@ -124,6 +124,11 @@ public class SequenceManagerProxy extends AbstractLifecycle implements ISequence
         return delegate.getMinValueFromCurrentSeqRange(schemaName, seqName);
     }
 
+    @Override
+    public long[] getGroupSeqRefillStats(String schemaName, String seqName) {
+        return delegate.getGroupSeqRefillStats(schemaName, seqName);
+    }
+
     @Override
     public boolean isCustomUnitGroupSeqSupported(String schemaName) {
         return delegate.isCustomUnitGroupSeqSupported(schemaName);
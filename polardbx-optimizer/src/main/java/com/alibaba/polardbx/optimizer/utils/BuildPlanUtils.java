@@ -40,10 +40,15 @@ import com.alibaba.polardbx.optimizer.core.rel.LogicalInsert;
 import com.alibaba.polardbx.optimizer.hint.util.HintUtil;
 import com.alibaba.polardbx.optimizer.partition.PartitionInfo;
 import com.alibaba.polardbx.optimizer.partition.PartitionInfoManager;
+import com.alibaba.polardbx.optimizer.partition.PartitionLocation;
+import com.alibaba.polardbx.optimizer.partition.PartitionSpec;
+import com.alibaba.polardbx.optimizer.partition.exception.NoFoundPartitionsException;
+import com.alibaba.polardbx.optimizer.partition.pruning.PartPruneStepPruningContext;
 import com.alibaba.polardbx.optimizer.partition.pruning.PartPrunedResult;
 import com.alibaba.polardbx.optimizer.partition.pruning.PartitionPruner;
 import com.alibaba.polardbx.optimizer.partition.pruning.PartitionTupleRouteInfo;
 import com.alibaba.polardbx.optimizer.partition.pruning.PhysicalPartitionInfo;
+import com.alibaba.polardbx.optimizer.partition.pruning.SearchDatumInfo;
 import com.alibaba.polardbx.optimizer.rule.TddlRuleManager;
 import com.alibaba.polardbx.rule.TableRule;
 import com.alibaba.polardbx.rule.model.TargetDB;
@@ -577,23 +582,21 @@ public class BuildPlanUtils {
         List<List<Object>> multiValues) {
 
         Map<String, Map<String, List<Pair<Integer, List<Object>>>>> shardResults = new HashMap<>();
-        boolean isBatch = executionContext.getParams().isBatch();
-
-        // Ust tmp ExecutionContext to dynamic update the info of params for part pruning
-        ExecutionContext tmpEc = executionContext.copy();
+        List<Integer>[] rowsOfParts = routeMultiValueRowToParts(tupleRouteInfo, executionContext, multiValues);
 
-        int tupleTemplateIdx = 0;
-        for (int i = 0; i < multiValues.size(); i++) {
-            if (!isBatch) {
-                tupleTemplateIdx = i;
+        List<PartitionSpec> partitions = tupleRouteInfo.getPartInfo().getPartitionBy().getPartitions();
+        for (int partIdx = 0; partIdx < rowsOfParts.length; partIdx++) {
+            List<Integer> rows = rowsOfParts[partIdx];
+            if (rows == null) {
+                continue;
             }
-            List<Object> singleValue = multiValues.get(i);
-            Pair<String, String> dbAndTable =
-                routeSingleValueRow(tupleRouteInfo, tmpEc, false, tupleTemplateIdx, singleValue);
-
-            shardResults.computeIfAbsent(dbAndTable.getKey(), b -> new HashMap<>())
-                .computeIfAbsent(dbAndTable.getValue(), b -> new ArrayList<>())
-                .add(Pair.of(i, singleValue));
+            List<Pair<Integer, List<Object>>> rowWithValues = new ArrayList<>(rows.size());
+            for (Integer rowIdx : rows) {
+                rowWithValues.add(Pair.of(rowIdx, multiValues.get(rowIdx)));
+            }
+            PartitionLocation location = partitions.get(partIdx).getLocation();
+            shardResults.computeIfAbsent(location.getGroupKey(), b -> new HashMap<>())
+                .put(location.getPhyTableName(), rowWithValues);
         }
         return shardResults;
     }
@@ -609,24 +612,78 @@ public class BuildPlanUtils {
         List<List<Object>> multiValues) {
 
         Map<String, Map<String, List<Integer>>> shardResults = new HashMap<>();
+        List<Integer>[] rowsOfParts = routeMultiValueRowToParts(tupleRouteInfo, executionContext, multiValues);
+
+        List<PartitionSpec> partitions = tupleRouteInfo.getPartInfo().getPartitionBy().getPartitions();
+        for (int partIdx = 0; partIdx < rowsOfParts.length; partIdx++) {
+            if (rowsOfParts[partIdx] == null) {
+                continue;
+            }
+            PartitionLocation location = partitions.get(partIdx).getLocation();
+            shardResults.computeIfAbsent(location.getGroupKey(), b -> new HashMap<>())
+                .put(location.getPhyTableName(), rowsOfParts[partIdx]);
+        }
+        return shardResults;
+    }
+
+    /**
+     * Eval the search datums of all rows first and then route them in one pass,
+     * so the router can compare / hash the whole batch without building
+     * a PartPrunedResult for each row
+     *
+     * @return the row indexes (in ascending order) of each partition, null if no row goes to the partition
+     */
+    protected static List<Integer>[] routeMultiValueRowToParts(
+        PartitionTupleRouteInfo tupleRouteInfo,
+        ExecutionContext executionContext,
+        List<List<Object>> multiValues) {
+
         boolean isBatch = executionContext.getParams().isBatch();
 
         // Ust tmp ExecutionContext to dynamic update the info of params for part pruning
         ExecutionContext tmpEc = executionContext.copy();
+        PartPruneStepPruningContext pruningCtx = PartPruneStepPruningContext.initPruningContext(tmpEc);
+        pruningCtx.setEnableConstExprEvalCache(false);
 
+        int rowCount = multiValues.size();
+        SearchDatumInfo[] datumArr = new SearchDatumInfo[rowCount];
         int tupleTemplateIdx = 0;
-        for (int i = 0; i < multiValues.size(); i++) {
+        for (int i = 0; i < rowCount; i++) {
             if (!isBatch) {
                 tupleTemplateIdx = i;
             }
-            List<Object> singleValue = multiValues.get(i);
-            Pair<String, String> dbAndTable =
-                routeSingleValueRow(tupleRouteInfo, tmpEc, false, tupleTemplateIdx, singleValue);
-            shardResults.computeIfAbsent(dbAndTable.getKey(), b -> new HashMap<>())
-                .computeIfAbsent(dbAndTable.getValue(), b -> new ArrayList<>())
-                .add(i);
+            tmpEc.setParams(buildSingleValueRowParams(multiValues.get(i)));
+            datumArr[i] = tupleRouteInfo.buildTupleSearchDatum(tupleTemplateIdx, tmpEc, pruningCtx);
         }
-        return shardResults;
+        int[] partIdxArr = tupleRouteInfo.routeTupleDatums(tmpEc, datumArr, rowCount);
+
+        int partCnt = tupleRouteInfo.getPartInfo().getPartitionBy().getPartitions().size();
+        List<Integer>[] rowsOfParts = new List[partCnt];
+        for (int i = 0; i < rowCount; i++) {
+            int partIdx = partIdxArr[i];
+            if (partIdx < 0) {
+                throw new NoFoundPartitionsException();
+            }
+            if (rowsOfParts[partIdx] == null) {
+                rowsOfParts[partIdx] = new ArrayList<>();
+            }
+            rowsOfParts[partIdx].add(i);
+        }
+        return rowsOfParts;
+    }
+
+    /**
+     * Build the params for one RowVal
+     */
+    protected static Parameters buildSingleValueRowParams(List<Object> singleValue) {
+        int valSize = singleValue.size();
+        Map<Integer, ParameterContext> tmpParams = new HashMap<>();
+        for (int j = 0; j < valSize; j++) {
+            Object val = singleValue.get(j);
+            ParameterContext pc = new ParameterContext(ParameterMethod.setObject1, new Object[] {j + 1, val});
+            tmpParams.put(j + 1, pc);
+        }
+        return new Parameters(tmpParams);
     }
 
     /**
@@ -646,17 +703,8 @@ public class BuildPlanUtils {
         } else {
             tmpEc = ec;
         }
-        // Get one row values
-        int valSize = shardingKeyValueList.size();
         // Build the params for one RowVal;
-        Map<Integer, ParameterContext> tmpParams = new HashMap<>();
-        for (int j = 0; j < valSize; j++) {
-            Object val = shardingKeyValueList.get(j);
-            ParameterContext pc = new ParameterContext(ParameterMethod.setObject1, new Object[] {j + 1, val});
-            tmpParams.put(j + 1, pc);
-        }
-        Parameters allParams = new Parameters(tmpParams);
-        tmpEc.setParams(allParams);
+        tmpEc.setParams(buildSingleValueRowParams(shardingKeyValueList));
 
         // Execute tuple routing and fetch route result.
         PartPrunedResult routeResult =
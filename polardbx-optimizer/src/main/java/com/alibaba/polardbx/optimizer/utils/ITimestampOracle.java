@@ -31,6 +31,15 @@ public interface ITimestampOracle extends Lifecycle {
 
     long nextTimestamp();
 
+    /**
+     * Timestamp only used as a read-only snapshot. Implementations may serve it from
+     * timestamps reserved in advance, as long as it is not smaller than any commit
+     * timestamp already returned by this oracle.
+     */
+    default long nextSnapshotTimestamp() {
+        return nextTimestamp();
+    }
+
     static long getLogicalTime(final long logicalClock) {
         return (logicalClock & LOGICAL_TIME_MASK);
     }
@@ -51,6 +51,8 @@ public class InformationSchemaPlanCache extends VirtualView {
         columns.add(new RelDataTypeFieldImpl("HIT_COUNT", 4, typeFactory.createSqlType(SqlTypeName.BIGINT)));
         columns.add(new RelDataTypeFieldImpl("SQL", 5, typeFactory.createSqlType(SqlTypeName.VARCHAR)));
         columns.add(new RelDataTypeFieldImpl("PLAN", 6, typeFactory.createSqlType(SqlTypeName.VARCHAR)));
+        columns.add(new RelDataTypeFieldImpl("PLANNING_TIME_US", 7, typeFactory.createSqlType(SqlTypeName.BIGINT)));
+        columns.add(new RelDataTypeFieldImpl("SAVED_TIME_US", 8, typeFactory.createSqlType(SqlTypeName.BIGINT)));
 
         return typeFactory.createStructType(columns);
     }
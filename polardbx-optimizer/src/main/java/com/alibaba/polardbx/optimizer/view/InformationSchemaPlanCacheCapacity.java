@@ -48,6 +48,10 @@ public class InformationSchemaPlanCacheCapacity extends VirtualView {
         columns.add(new RelDataTypeFieldImpl("SCHEMA_NAME", 1, typeFactory.createSqlType(SqlTypeName.VARCHAR)));
         columns.add(new RelDataTypeFieldImpl("CACHE_KEY_CNT", 2, typeFactory.createSqlType(SqlTypeName.BIGINT)));
         columns.add(new RelDataTypeFieldImpl("CAPACITY", 3, typeFactory.createSqlType(SqlTypeName.BIGINT)));
+        columns.add(new RelDataTypeFieldImpl("HIT_COUNT", 4, typeFactory.createSqlType(SqlTypeName.BIGINT)));
+        columns.add(new RelDataTypeFieldImpl("MISS_COUNT", 5, typeFactory.createSqlType(SqlTypeName.BIGINT)));
+        columns.add(new RelDataTypeFieldImpl("EVICTION_COUNT", 6, typeFactory.createSqlType(SqlTypeName.BIGINT)));
+        columns.add(new RelDataTypeFieldImpl("SAVED_TIME_US", 7, typeFactory.createSqlType(SqlTypeName.BIGINT)));
 
         return typeFactory.createStructType(columns);
     }
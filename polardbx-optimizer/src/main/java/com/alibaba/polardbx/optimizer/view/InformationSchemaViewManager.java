@@ -1262,14 +1262,20 @@ public class InformationSchemaViewManager extends ViewManager {
             "ID",
             "HIT_COUNT",
             "SQL",
-            "PLAN"
+            "PLAN",
+            "PLANNING_TIME_US",
+            "SAVED_TIME_US"
         });
 
         defineVirtualView(VirtualViewType.PLAN_CACHE_CAPACITY, new String[] {
             "COMPUTE_NODE",
             "SCHEMA_NAME",
             "CACHE_KEY_CNT",
-            "CAPACITY"
+            "CAPACITY",
+            "HIT_COUNT",
+            "MISS_COUNT",
+            "EVICTION_COUNT",
+            "SAVED_TIME_US"
         });
 
         defineVirtualView(VirtualViewType.SPM, new String[] {
@@ -0,0 +1,87 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.chunk;
+
+import io.airlift.slice.DynamicSliceOutput;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class NumericEncoderUtilTest {
+
+    @Test
+    public void testRle() {
+        long[] values = new long[] {7, 7, 7, 7, 7, 7, 7, 7, 7, 7};
+        DynamicSliceOutput output = check(values, Long.BYTES);
+        assertEquals(NumericEncoderUtil.RLE, output.slice().getByte(0));
+        assertEquals(1 + Long.BYTES, output.size());
+    }
+
+    @Test
+    public void testDictionary() {
+        long[] values = new long[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i % 3) * 1_000_000_000_000L;
+        }
+        DynamicSliceOutput output = check(values, Long.BYTES);
+        assertEquals(NumericEncoderUtil.DICTIONARY, output.slice().getByte(0));
+    }
+
+    @Test
+    public void testBitPacked() {
+        Random random = new Random(42);
+        for (int width = 1; width < 63; width++) {
+            long[] values = new long[257];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = -1000 + (random.nextLong() >>> (Long.SIZE - width));
+            }
+            DynamicSliceOutput output = check(values, Long.BYTES);
+            if (width < 32) {
+                assertEquals(NumericEncoderUtil.BIT_PACKED, output.slice().getByte(0));
+            }
+        }
+    }
+
+    @Test
+    public void testPlain() {
+        long[] values = new long[] {Long.MIN_VALUE, Long.MAX_VALUE, 0, 1, -1};
+        DynamicSliceOutput output = check(values, Long.BYTES);
+        assertEquals(NumericEncoderUtil.PLAIN, output.slice().getByte(0));
+
+        int[] ints = new int[] {Integer.MIN_VALUE, Integer.MAX_VALUE, 0, 1, -1, 12345, -54321, 17, 1 << 20};
+        long[] widened = new long[ints.length];
+        for (int i = 0; i < ints.length; i++) {
+            widened[i] = ints[i];
+        }
+        check(widened, Integer.BYTES);
+    }
+
+    @Test
+    public void testEmpty() {
+        check(new long[0], Long.BYTES);
+    }
+
+    private static DynamicSliceOutput check(long[] values, int plainBytes) {
+        DynamicSliceOutput output = new DynamicSliceOutput(64);
+        NumericEncoderUtil.writeValues(output, values, values.length, plainBytes);
+        assertArrayEquals(values, NumericEncoderUtil.readValues(output.slice().getInput(), values.length, plainBytes));
+        return output;
+    }
+}
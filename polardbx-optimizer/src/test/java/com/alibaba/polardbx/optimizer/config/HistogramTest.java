@@ -16,12 +16,25 @@
 
 package com.alibaba.polardbx.optimizer.config;
 
+import com.alibaba.polardbx.common.datatype.Decimal;
+import com.alibaba.polardbx.common.datatype.UInt64;
 import com.alibaba.polardbx.optimizer.config.table.statistic.Histogram;
+import com.alibaba.polardbx.optimizer.config.table.statistic.HistogramBuilder;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.datatype.DateTimeType;
 import com.alibaba.polardbx.optimizer.core.datatype.IntegerType;
+import com.alibaba.polardbx.optimizer.core.datatype.TimeType;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 
 /**
@@ -54,4 +67,293 @@ public class HistogramTest {
             Assert.assertTrue(Double.parseDouble(bucket.getUpper().toString()) >= i);
         }
     }
+
+    @Test
+    public void testCompactRangeCount() {
+        Integer[] data = randomInts(20000, 1000000, 1);
+        Histogram h = new Histogram(64, DataTypes.IntegerType, 1);
+        h.buildFromData(data.clone());
+        Assert.assertTrue(h.isCompact());
+
+        int tolerance = 2 * (int) Math.ceil(data.length / 64.0);
+        Random r = new Random(2);
+        for (int i = 0; i < 200; i++) {
+            int a = r.nextInt(1100000) - 50000;
+            int b = a + r.nextInt(300000);
+            long exact = Arrays.stream(data).filter(v -> v >= a && v < b).count();
+            long estimated = h.rangeCount(a, true, b, false);
+            Assert.assertTrue(a + ", " + b + ": " + exact + " vs " + estimated,
+                Math.abs(exact - estimated) <= tolerance);
+        }
+        Assert.assertEquals(data.length, h.rangeCount(null, true, null, true));
+        Assert.assertEquals(0, h.rangeCount(2000000, true, null, true));
+    }
+
+    @Test
+    public void testStreamingBuilderMatchesBatchBuild() {
+        Integer[] data = randomInts(3 * 4096 + 123, 5000, 3);
+        Histogram batch = new Histogram(32, DataTypes.IntegerType, 0.5f);
+        batch.buildFromData(data.clone());
+
+        HistogramBuilder builder = new HistogramBuilder(32, DataTypes.IntegerType, 0.5f);
+        for (Integer v : data) {
+            builder.offer(v);
+        }
+        builder.offer(null);
+        Histogram streamed = builder.build();
+
+        assertSameBuckets(batch, streamed);
+        Assert.assertEquals(batch.rangeCount(100, true, 4000, true), streamed.rangeCount(100, true, 4000, true));
+    }
+
+    @Test
+    public void testDoubleKeysKeepOrder() {
+        Random r = new Random(4);
+        Double[] data = new Double[10000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = r.nextGaussian() * 100;
+        }
+        Histogram h = new Histogram(50, DataTypes.DoubleType, 1);
+        h.buildFromData(data.clone());
+        Assert.assertTrue(h.isCompact());
+
+        List<Histogram.Bucket> buckets = h.getBuckets();
+        for (int i = 1; i < buckets.size(); i++) {
+            Assert.assertTrue((Double) buckets.get(i - 1).getUpper() < (Double) buckets.get(i).getLower());
+        }
+        long exact = Arrays.stream(data).filter(v -> v < 0).count();
+        Assert.assertEquals(exact, h.rangeCount(null, true, 0d, false), 2 * 200);
+        long exactRange = Arrays.stream(data).filter(v -> v >= -50.5 && v <= 20.25).count();
+        Assert.assertEquals(exactRange, h.rangeCount(-50.5, true, 20.25, true), 2 * 200);
+    }
+
+    @Test
+    public void testMergeShards() {
+        Integer[] data = randomInts(40000, 100000, 5);
+        List<Histogram> shards = new ArrayList<>();
+        for (int s = 0; s < 4; s++) {
+            // 每个分片只采样部分数据, 且采样率不同
+            int step = s + 1;
+            List<Integer> sample = new ArrayList<>();
+            for (int i = s; i < data.length; i += 4 * step) {
+                sample.add(data[i]);
+            }
+            Histogram shard = new Histogram(64, DataTypes.IntegerType, 1f / step);
+            shard.buildFromData(sample.toArray());
+            shards.add(shard);
+        }
+
+        Histogram merged = Histogram.merge(shards, 64);
+        Assert.assertTrue(merged.isCompact());
+        Assert.assertTrue(merged.getBuckets().size() <= 64);
+        Assert.assertEquals(data.length, merged.rangeCount(null, true, null, true), data.length * 0.02);
+
+        int tolerance = 3 * (int) Math.ceil(data.length / 64.0);
+        Random r = new Random(6);
+        for (int i = 0; i < 100; i++) {
+            int a = r.nextInt(100000);
+            int b = a + r.nextInt(40000);
+            long exact = Arrays.stream(data).filter(v -> v > a && v <= b).count();
+            long estimated = merged.rangeCount(a, false, b, true);
+            Assert.assertTrue(a + ", " + b + ": " + exact + " vs " + estimated,
+                Math.abs(exact - estimated) <= tolerance);
+        }
+
+        // 合并单个直方图不应改变分布
+        Histogram single = Histogram.merge(shards.subList(0, 1), 64);
+        Assert.assertEquals(shards.get(0).rangeCount(null, true, null, true),
+            single.rangeCount(null, true, null, true));
+        Assert.assertEquals(shards.get(0).rangeCount(20000, true, 60000, true),
+            single.rangeCount(20000, true, 60000, true), 2 * Math.ceil(10000 / 64.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeObjectHistogram() {
+        Histogram h = new Histogram(8, DataTypes.StringType, 1);
+        h.buildFromData(new Object[] {"a", "b", "c"});
+        Assert.assertFalse(h.isCompact());
+        Histogram.merge(Arrays.asList(h, h), 8);
+    }
+
+    @Test
+    public void testSerializeKeepsCompact() {
+        Integer[] data = randomInts(5000, 100000, 7);
+        Histogram h = new Histogram(16, DataTypes.IntegerType, 0.25f);
+        h.buildFromData(data.clone());
+
+        Histogram restored = Histogram.deserializeFromJson(Histogram.serializeToJson(h));
+        Assert.assertNotNull(restored);
+        Assert.assertTrue(restored.isCompact());
+        assertSameBuckets(h, restored);
+        Assert.assertEquals(h.rangeCount(1000, true, 50000, false), restored.rangeCount(1000, true, 50000, false));
+    }
+
+    @Test
+    public void testDecimalKeepsExactBounds() {
+        // 超出 double 精度的 decimal 不能编码为 long
+        Decimal[] data = new Decimal[1000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = Decimal.fromString("12345678901234567." + String.format("%03d", i));
+        }
+        Histogram h = new Histogram(10, DataTypes.DecimalType, 1);
+        h.buildFromData(data.clone());
+        Assert.assertFalse(h.isCompact());
+
+        List<Histogram.Bucket> buckets = h.getBuckets();
+        Assert.assertEquals(data[0], buckets.get(0).getLower());
+        Assert.assertEquals(data[data.length - 1], buckets.get(buckets.size() - 1).getUpper());
+        Assert.assertEquals(1, h.rangeCount(data[500], true, data[500], true));
+        Assert.assertEquals(100, h.rangeCount(data[100], true, data[200], false));
+    }
+
+    @Test
+    public void testDatetimeKeepsMicroseconds() {
+        DataType type = new DateTimeType(6);
+        Timestamp[] data = new Timestamp[1000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = Timestamp.valueOf("2021-01-01 00:00:00." + String.format("%06d", i));
+        }
+        Histogram h = new Histogram(10, type, 1);
+        h.buildFromData(data.clone());
+        Assert.assertTrue(h.isCompact());
+
+        List<Histogram.Bucket> buckets = h.getBuckets();
+        Assert.assertTrue(buckets.get(0).getLower() instanceof Timestamp);
+        Assert.assertEquals(0, type.compare(data[0], buckets.get(0).getLower()));
+        Assert.assertEquals(0, type.compare(data[999], buckets.get(buckets.size() - 1).getUpper()));
+        Assert.assertEquals(0, type.compare(data[99], buckets.get(0).getUpper()));
+        Assert.assertEquals(100, h.rangeCount(data[100], true, data[200], false));
+        Assert.assertEquals(1, h.rangeCount("2021-01-01 00:00:00.000500", true, "2021-01-01 00:00:00.000500", true));
+
+        Histogram restored = Histogram.deserializeFromJson(Histogram.serializeToJson(h));
+        Assert.assertNotNull(restored);
+        Assert.assertTrue(restored.isCompact());
+        Assert.assertEquals(buckets.size(), restored.getBuckets().size());
+        for (int i = 0; i < buckets.size(); i++) {
+            Assert.assertEquals(buckets.get(i).getLower().toString(),
+                restored.getBuckets().get(i).getLower().toString());
+            Assert.assertEquals(buckets.get(i).getUpper().toString(),
+                restored.getBuckets().get(i).getUpper().toString());
+        }
+        Assert.assertEquals(100, restored.rangeCount(data[100], true, data[200], false));
+    }
+
+    @Test
+    public void testDateKeys() {
+        DataType type = DataTypes.DateType;
+        String[] data = new String[365];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = LocalDate.of(2021, 1, 1).plusDays(i).toString();
+        }
+        Histogram h = new Histogram(12, type, 1);
+        h.buildFromData(data.clone());
+        Assert.assertTrue(h.isCompact());
+
+        List<Histogram.Bucket> buckets = h.getBuckets();
+        Assert.assertEquals("2021-01-01", buckets.get(0).getLower().toString());
+        Assert.assertEquals("2021-12-31", buckets.get(buckets.size() - 1).getUpper().toString());
+        Assert.assertEquals(31, h.rangeCount("2021-03-01", true, "2021-04-01", false));
+        // datetime 条件按 date 比较时截断时间部分
+        Assert.assertEquals(1, h.rangeCount("2021-06-01 12:00:00", true, "2021-06-01", true));
+        // 不合法的条件值与 compare 一致, 视为最小
+        Assert.assertEquals(0, h.rangeCount(null, true, "not a date", true));
+
+        // 时间类型的 compact 直方图可以合并
+        Histogram merged = Histogram.merge(Arrays.asList(h, h), 12);
+        Assert.assertEquals(h.rangeCount(null, true, null, true), merged.rangeCount(null, true, null, true));
+        Assert.assertEquals(31, merged.rangeCount("2021-03-01", true, "2021-04-01", false), 10);
+    }
+
+    @Test
+    public void testFractionalTime() {
+        DataType type = new TimeType(6);
+        String[] data = new String[600];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = String.format("12:00:%02d.%06d", i / 10, i % 10 * 100000);
+        }
+        HistogramBuilder builder = new HistogramBuilder(6, type, 1);
+        for (String v : data) {
+            builder.offer(v);
+        }
+        Histogram h = builder.build();
+        Assert.assertTrue(h.isCompact());
+
+        List<Histogram.Bucket> buckets = h.getBuckets();
+        Assert.assertEquals(6, buckets.size());
+        Assert.assertEquals(data[0], buckets.get(0).getLower().toString());
+        Assert.assertEquals(data[99], buckets.get(0).getUpper().toString());
+        Assert.assertEquals(data[599], buckets.get(5).getUpper().toString());
+        Assert.assertEquals(100, h.rangeCount(data[100], true, data[200], false));
+    }
+
+    @Test
+    public void testUnsignedBigintAboveLongMax() {
+        UInt64[] data = new UInt64[1000];
+        for (int i = 0; i < data.length; i++) {
+            // 一半小于 Long.MAX_VALUE, 一半大于
+            data[i] = UInt64.fromLong(Long.MAX_VALUE - 499 + i);
+        }
+        Histogram h = new Histogram(10, DataTypes.ULongType, 1);
+        h.buildFromData(data.clone());
+        Assert.assertFalse(h.isCompact());
+
+        List<Histogram.Bucket> buckets = h.getBuckets();
+        Assert.assertEquals(data[0], buckets.get(0).getLower());
+        Assert.assertEquals(data[999], buckets.get(buckets.size() - 1).getUpper());
+        Assert.assertEquals(500, h.rangeCount(data[500], true, null, true));
+        Assert.assertEquals(data.length, h.rangeCount(null, true, null, true));
+    }
+
+    @Test
+    public void testIntegralDecodeKeepsType() {
+        Integer[] data = randomInts(1000, 100000, 8);
+        Histogram h = new Histogram(10, DataTypes.IntegerType, 1);
+        h.buildFromData(data.clone());
+        Assert.assertTrue(h.isCompact());
+        for (Histogram.Bucket bucket : h.getBuckets()) {
+            Assert.assertTrue(bucket.getLower() instanceof Integer);
+            Assert.assertTrue(bucket.getUpper() instanceof Integer);
+        }
+
+        Float[] floats = new Float[] {1.5f, -2.25f, 3.1f};
+        Histogram fh = new Histogram(10, DataTypes.FloatType, 1);
+        fh.buildFromData(floats);
+        Assert.assertTrue(fh.isCompact());
+        Assert.assertEquals(-2.25f, fh.getBuckets().get(0).getLower());
+        Assert.assertEquals(3.1f, fh.getBuckets().get(2).getUpper());
+    }
+
+    @Test
+    public void testBigintProbeOutOfRange() {
+        Long[] data = new Long[] {Long.MIN_VALUE, -1L, 0L, 1L, Long.MAX_VALUE};
+        Histogram h = new Histogram(5, DataTypes.LongType, 1);
+        h.buildFromData(data);
+        Assert.assertTrue(h.isCompact());
+        Assert.assertEquals(data.length, h.rangeCount(new BigDecimal("-1e30"), true, new BigDecimal("1e30"), true));
+        Assert.assertEquals(0, h.rangeCount(null, true, new BigDecimal("-1e30"), false));
+    }
+
+    private static Integer[] randomInts(int n, int bound, long seed) {
+        Random r = new Random(seed);
+        Integer[] data = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            data[i] = r.nextInt(bound);
+        }
+        return data;
+    }
+
+    private static void assertSameBuckets(Histogram expected, Histogram actual) {
+        List<Histogram.Bucket> a = expected.getBuckets();
+        List<Histogram.Bucket> b = actual.getBuckets();
+        Assert.assertEquals(a.size(), b.size());
+        for (int i = 0; i < a.size(); i++) {
+            Assert.assertEquals(((Number) a.get(i).getLower()).longValue(),
+                ((Number) b.get(i).getLower()).longValue());
+            Assert.assertEquals(((Number) a.get(i).getUpper()).longValue(),
+                ((Number) b.get(i).getUpper()).longValue());
+            Assert.assertEquals(a.get(i).getCount(), b.get(i).getCount());
+            Assert.assertEquals(a.get(i).getPreSum(), b.get(i).getPreSum());
+            Assert.assertEquals(a.get(i).getNdv(), b.get(i).getNdv());
+        }
+    }
 }
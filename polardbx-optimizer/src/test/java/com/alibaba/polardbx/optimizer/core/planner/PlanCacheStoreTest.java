@@ -0,0 +1,194 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.core.planner;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PlanCacheStoreTest {
+
+    /**
+     * key 形如 "sql@t1,t2"
+     */
+    private static Collection<String> tablesOf(String key) {
+        int at = key.indexOf('@');
+        if (at < 0) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(key.substring(at + 1).split(","));
+    }
+
+    private static final Map<String, Long> COSTS = new HashMap<>();
+
+    private static PlanCacheStore<String, String> newStore(long size, AtomicLong ticker) {
+        return new PlanCacheStore<>(size, 1, TimeUnit.HOURS, PlanCacheStoreTest::tablesOf,
+            v -> COSTS.getOrDefault(v, 0L), ticker::get);
+    }
+
+    @Test
+    public void testInvalidateByTable() {
+        PlanCacheStore<String, String> store = newStore(100, new AtomicLong());
+        store.put("q1@t1", "p1");
+        store.put("q2@t1,t2", "p2");
+        store.put("q3@t2", "p3");
+        store.put("q4", "p4");
+
+        Assert.assertEquals(2, store.invalidateTable("t1"));
+        Assert.assertNull(store.getIfPresent("q1@t1"));
+        Assert.assertNull(store.getIfPresent("q2@t1,t2"));
+        Assert.assertEquals("p3", store.getIfPresent("q3@t2"));
+        Assert.assertEquals("p4", store.getIfPresent("q4"));
+        Assert.assertTrue(store.getIndexedKeys("t1").isEmpty());
+        Assert.assertEquals(Collections.singleton("q3@t2"), store.getIndexedKeys("t2"));
+
+        store.invalidate("q3@t2");
+        Assert.assertTrue(store.getIndexedKeys("t2").isEmpty());
+        Assert.assertEquals(0, store.invalidateTable("t2"));
+        Assert.assertEquals(1, store.size());
+    }
+
+    @Test
+    public void testHitMissAndSavedTime() throws ExecutionException {
+        PlanCacheStore<String, String> store = newStore(100, new AtomicLong());
+        COSTS.put("expensive", TimeUnit.MILLISECONDS.toNanos(5));
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals("expensive", store.get("join@t1,t2", () -> {
+                loads.incrementAndGet();
+                return "expensive";
+            }));
+        }
+        Assert.assertEquals(1, loads.get());
+        Assert.assertEquals(3, store.getHitCount());
+        Assert.assertEquals(1, store.getMissCount());
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(15), store.getSavedNanos());
+    }
+
+    @Test
+    public void testExpireAfterWrite() {
+        AtomicLong ticker = new AtomicLong();
+        PlanCacheStore<String, String> store = newStore(100, ticker);
+        store.put("q1@t1", "p1");
+        ticker.addAndGet(TimeUnit.MINUTES.toNanos(59));
+        Assert.assertEquals("p1", store.getIfPresent("q1@t1"));
+        ticker.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        Assert.assertNull(store.getIfPresent("q1@t1"));
+        Assert.assertEquals(0, store.size());
+        Assert.assertTrue(store.getIndexedKeys("t1").isEmpty());
+    }
+
+    @Test
+    public void testFrequentAndExpensivePlansSurviveScan() {
+        final int capacity = 100;
+        PlanCacheStore<String, String> store = newStore(capacity, new AtomicLong());
+        COSTS.put("hot", TimeUnit.MILLISECONDS.toNanos(50));
+
+        for (int i = 0; i < 20; i++) {
+            store.put("hot" + i + "@t", "hot");
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 20; i++) {
+                store.getIfPresent("hot" + i + "@t");
+            }
+        }
+        // 一次性的廉价查询扫过缓存, 不应把热点计划挤出去
+        for (int i = 0; i < 10 * capacity; i++) {
+            String key = "cold" + i + "@t";
+            store.getIfPresent(key);
+            store.put(key, "cold");
+        }
+
+        int survived = 0;
+        for (int i = 0; i < 20; i++) {
+            if (store.getIfPresent("hot" + i + "@t") != null) {
+                survived++;
+            }
+        }
+        Assert.assertEquals(20, survived);
+        Assert.assertTrue(store.size() <= capacity);
+        Assert.assertEquals(store.size(), store.getIndexedKeys("t").size());
+        Assert.assertTrue(store.getEvictionCount() > 0);
+    }
+
+    @Test
+    public void testConcurrentLoadRunsOnce() throws Exception {
+        PlanCacheStore<String, String> store = newStore(100, new AtomicLong());
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread loader = new Thread(() -> {
+            try {
+                store.get("q@t", () -> {
+                    loads.incrementAndGet();
+                    started.countDown();
+                    release.await();
+                    return "p";
+                });
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        loader.start();
+        started.await();
+
+        Thread waiter = new Thread(() -> {
+            try {
+                Assert.assertEquals("p", store.get("q@t", () -> {
+                    loads.incrementAndGet();
+                    return "other";
+                }));
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        waiter.start();
+        Thread.sleep(50);
+        release.countDown();
+        loader.join();
+        waiter.join();
+
+        Assert.assertEquals(1, loads.get());
+        Assert.assertEquals("p", store.getIfPresent("q@t"));
+    }
+
+    @Test
+    public void testLoaderExceptionIsNotCached() throws ExecutionException {
+        PlanCacheStore<String, String> store = newStore(100, new AtomicLong());
+        try {
+            store.get("q@t", () -> {
+                throw new IllegalStateException("plan failed");
+            });
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("plan failed", e.getMessage());
+        }
+        Assert.assertEquals("p", store.get("q@t", () -> "p"));
+    }
+}
@@ -150,6 +150,109 @@ public class MemoryPoolTest {
         Assert.assertTrue(root.isDestoryed());
     }
 
+    @Test
+    public void testLeaseAllocation() {
+        MemoryPool root = new MemoryPool("root", 1024, MemoryType.OTHER);
+        MemoryPool query = root.getOrCreatePool("query", 1024, MemoryType.OTHER);
+        query.setLeaseSize(100);
+
+        // nothing is leased before the pool holds any memory
+        query.allocateReserveMemory(10);
+        Assert.assertEquals(10L, query.getReservedBytes());
+        Assert.assertEquals(0L, query.getLeasedBytes());
+        Assert.assertEquals(10L, root.getReservedBytes());
+
+        // grants follow the usage of the pool
+        query.allocateReserveMemory(90);
+        Assert.assertEquals(100L, query.getReservedBytes());
+        Assert.assertEquals(10L, query.getLeasedBytes());
+        Assert.assertEquals(110L, root.getReservedBytes());
+
+        // and are capped by the lease size
+        query.allocateReserveMemory(50);
+        Assert.assertEquals(150L, query.getReservedBytes());
+        Assert.assertEquals(100L, query.getLeasedBytes());
+        Assert.assertEquals(250L, root.getReservedBytes());
+
+        // served by the lease
+        query.allocateReserveMemory(100);
+        Assert.assertEquals(250L, query.getReservedBytes());
+        Assert.assertEquals(0L, query.getLeasedBytes());
+        Assert.assertEquals(250L, root.getReservedBytes());
+
+        query.freeReserveMemory(100);
+        Assert.assertEquals(100L, query.getLeasedBytes());
+        Assert.assertEquals(250L, root.getReservedBytes());
+
+        // the kept lease shrinks with the usage
+        query.freeReserveMemory(140);
+        Assert.assertEquals(10L, query.getReservedBytes());
+        Assert.assertEquals(10L, query.getLeasedBytes());
+        Assert.assertEquals(20L, root.getReservedBytes());
+
+        query.freeReserveMemory(10);
+        Assert.assertEquals(0L, query.getLeasedBytes());
+        Assert.assertEquals(0L, root.getReservedBytes());
+
+        query.allocateReserveMemory(10);
+        query.allocateReserveMemory(10);
+        Assert.assertEquals(10L, query.getLeasedBytes());
+        query.destroy();
+        Assert.assertEquals(0L, query.getLeasedBytes());
+        Assert.assertEquals(0L, root.getMemoryUsage());
+    }
+
+    @Test
+    public void testLeaseReclaimedUnderPressure() {
+        MemoryPool root = new MemoryPool("root", 1024, MemoryType.OTHER);
+        MemoryPool first = root.getOrCreatePool("first", 1024, MemoryType.OTHER);
+        MemoryPool second = root.getOrCreatePool("second", 1024, MemoryType.OTHER);
+        first.setLeaseSize(500);
+        second.setLeaseSize(500);
+
+        first.allocateReserveMemory(10);
+        first.allocateReserveMemory(10);
+        first.allocateReserveMemory(200);
+        first.allocateReserveMemory(300);
+        Assert.assertEquals(520L, first.getReservedBytes());
+        Assert.assertEquals(220L, first.getLeasedBytes());
+        Assert.assertEquals(740L, root.getReservedBytes());
+
+        // fits only once the unused lease of the first pool is given back
+        second.allocateReserveMemory(400);
+        Assert.assertEquals(400L, second.getReservedBytes());
+        Assert.assertEquals(0L, first.getLeasedBytes());
+        Assert.assertEquals(920L, root.getReservedBytes());
+
+        first.freeReserveMemory(420);
+        Assert.assertEquals(100L, first.getLeasedBytes());
+        Assert.assertEquals(600L, root.getReservedBytes());
+
+        // try allocations reclaim the leases as well
+        Assert.assertTrue(second.tryAllocateReserveMemory(450, new MemoryAllocateFuture()));
+        Assert.assertEquals(850L, second.getReservedBytes());
+        Assert.assertEquals(0L, first.getLeasedBytes());
+        Assert.assertEquals(950L, root.getReservedBytes());
+
+        try {
+            second.tryAllocateReserveMemory(100, new MemoryAllocateFuture());
+            throw new AssertionError();
+        } catch (MemoryNotEnoughException t) {
+            //ignore
+        }
+        Assert.assertEquals(850L, second.getReservedBytes());
+        Assert.assertEquals(950L, root.getReservedBytes());
+
+        try {
+            first.allocateReserveMemory(500);
+            throw new AssertionError();
+        } catch (MemoryNotEnoughException t) {
+            //ignore
+        }
+        Assert.assertEquals(100L, first.getReservedBytes());
+        Assert.assertEquals(950L, root.getReservedBytes());
+    }
+
     public long testAllocateMemory(MemoryPool pool, boolean reserved) {
         long allocatedSize = 0L;
         if (reserved) {
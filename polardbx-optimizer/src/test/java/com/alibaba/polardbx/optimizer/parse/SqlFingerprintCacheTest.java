@@ -0,0 +1,120 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.parse;
+
+import com.alibaba.polardbx.druid.sql.parser.ByteString;
+import com.alibaba.polardbx.optimizer.parse.bean.SqlParameterized;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SqlFingerprintCacheTest {
+
+    private final SqlFingerprintCache cache = SqlFingerprintCache.getInstance();
+
+    @Before
+    public void setUp() {
+        cache.invalidateAll();
+    }
+
+    @Test
+    public void testSameShapeHit() {
+        Assert.assertNull(lookup("select a, b from t1 where id in (1, 2) and name = 'x'"));
+
+        SqlParameterized hit = lookup("select a, b from t1 where id in (3,4) and name='y'");
+        Assert.assertNotNull(hit);
+        SqlParameterized expected =
+            SqlParameterizeUtils.parameterize("select a, b from t1 where id in (3,4) and name='y'");
+        Assert.assertEquals(expected.getSql(), hit.getSql());
+        Assert.assertEquals(expected.getParameters(), hit.getParameters());
+        Assert.assertEquals("select a, b from t1 where id in (3,4) and name='y'",
+            hit.getOriginSql().toString());
+    }
+
+    @Test
+    public void testDifferentShapeMiss() {
+        Assert.assertNull(lookup("insert into t1 (a, b) values (1, 'x')"));
+        Assert.assertNull(lookup("insert into t1 (a, b) values (1, 'x'), (2, 'y')"));
+        Assert.assertNull(lookup("insert into t2 (a, b) values (1, 'x')"));
+        Assert.assertNull(lookup("insert into t1 (a, c) values (1, 'x')"));
+        Assert.assertNull(lookup("insert into t1 (a, b) values ('x', 1)"));
+        Assert.assertNotNull(lookup("insert into t1 (a, b) values (3, 'z')"));
+    }
+
+    @Test
+    public void testSameHashDifferentNameMiss() {
+        // "Aa" and "BB" have the same polynomial string hash
+        Assert.assertNull(lookup("select Aa from t1 where id = 1"));
+        Assert.assertNull(lookup("select BB from t1 where id = 1"));
+        Assert.assertNull(lookup("select a from AaBB where id = 1"));
+        Assert.assertNull(lookup("select a from BBAa where id = 1"));
+        SqlParameterized hit = lookup("select BB from t1 where id = 2");
+        Assert.assertNotNull(hit);
+        Assert.assertEquals(SqlParameterizeUtils.parameterize("select BB from t1 where id = 2").getSql(), hit.getSql());
+    }
+
+    @Test
+    public void testLiteralInSelectAlias() {
+        // the alias of select item is generated from the literals
+        Assert.assertNull(lookup("select 1 + 2 from t1"));
+        Assert.assertNull(lookup("select 3 + 4 from t1"));
+        Assert.assertNull(lookup("select a, 'x' from t1"));
+        Assert.assertNull(lookup("select a, 'y' from t1"));
+
+        Assert.assertNull(lookup("select a + 1 as b from t1"));
+        Assert.assertNotNull(lookup("select a + 2 as b from t1"));
+    }
+
+    @Test
+    public void testNotParameterizedLiteral() {
+        // the negative number, order by position and hex string are not parameterized as the lexer literals
+        Assert.assertNull(lookup("select a from t1 where id = -1"));
+        Assert.assertNull(lookup("select a from t1 where id = -2"));
+        Assert.assertNull(lookup("select a from t1 where id = 1 order by 1"));
+        Assert.assertNull(lookup("select a from t1 where id = 2 order by 2"));
+        Assert.assertNull(lookup("select a from t1 where id = x'1f'"));
+        Assert.assertNull(lookup("select a from t1 where id = x'2f'"));
+    }
+
+    @Test
+    public void testNoFingerprint() {
+        Assert.assertNull(fingerprint("/*+TDDL:node(0)*/ select a from t1 where id = 1"));
+        Assert.assertNull(fingerprint("select a from t1 where id = 1 -- comment"));
+        Assert.assertNull(fingerprint("select a from t1 where id = @x"));
+        Assert.assertNull(fingerprint("select a from t1 where id = ?"));
+        Assert.assertNull(fingerprint("select a from t1 where id = 1; select 1"));
+        Assert.assertNotNull(fingerprint("select a from t1 where id = 1"));
+    }
+
+    private static SqlFingerprintCache.Fingerprint fingerprint(String sql) {
+        return SqlFingerprintCache.fingerprint(ByteString.from(sql));
+    }
+
+    /**
+     * Lookup the cache, and put the template of the sql if miss
+     */
+    private SqlParameterized lookup(String sql) {
+        ByteString byteSql = ByteString.from(sql);
+        SqlFingerprintCache.Fingerprint fingerprint = SqlFingerprintCache.fingerprint(byteSql);
+        Assert.assertNotNull(fingerprint);
+        SqlParameterized hit = cache.get(fingerprint, byteSql);
+        if (hit == null) {
+            cache.put(fingerprint, SqlParameterizeUtils.parameterize(sql));
+        }
+        return hit;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.partition.pruning;
+
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class HashPartRouterBatchTest {
+
+    static final List<DataType> LONG_TYPE = Collections.singletonList(DataTypes.LongType);
+
+    /**
+     * Upper bounds of a hash space evenly split into the given power of two number of partitions
+     */
+    static Object[] hashBounds(int partitionCount) {
+        Object[] bounds = new Object[partitionCount];
+        for (int i = 0; i < partitionCount - 1; i++) {
+            bounds[i] = Long.MIN_VALUE / partitionCount * (partitionCount - 2 - 2 * i);
+        }
+        bounds[partitionCount - 1] = Long.MAX_VALUE;
+        return bounds;
+    }
+
+    static Object[] searchDatums(int count) {
+        Object[] searchVals = new Object[count];
+        for (int i = 0; i < count; i++) {
+            long value = i % 2 == 0 ? i * 7919L : -i * 104729L;
+            searchVals[i] = SearchDatumInfo.createFromObjects(LONG_TYPE, Collections.<Object>singletonList(value));
+        }
+        return searchVals;
+    }
+
+    @Test
+    public void testRouteEqualBatchMatchesPerRow() {
+        HashPartRouter router = new HashPartRouter(hashBounds(8), new SearchDatumHasher());
+        Assert.assertNotNull(router.sortedLongBoundArr);
+
+        Object[] searchVals = searchDatums(1000);
+        int[] partPosiArr = new int[searchVals.length];
+        router.routeEqualBatch(null, searchVals, searchVals.length, partPosiArr);
+
+        boolean[] hitPartitions = new boolean[9];
+        for (int i = 0; i < searchVals.length; i++) {
+            PartitionRouter.RouterResult rs = router.routePartitions(null, ComparisonKind.EQUAL, searchVals[i]);
+            Assert.assertEquals(rs.partStartPosi.intValue(), partPosiArr[i]);
+            hitPartitions[partPosiArr[i]] = true;
+        }
+        // every hash value is below the last bound, so all the partitions are reachable
+        for (int p = 1; p <= 8; p++) {
+            Assert.assertTrue("partition " + p, hitPartitions[p]);
+        }
+    }
+
+    @Test
+    public void testRouteEqualBatchOnlyRoutesCount() {
+        HashPartRouter router = new HashPartRouter(hashBounds(4), new SearchDatumHasher());
+        Object[] searchVals = searchDatums(10);
+        int[] partPosiArr = new int[searchVals.length];
+        Arrays.fill(partPosiArr, -2);
+        router.routeEqualBatch(null, searchVals, 5, partPosiArr);
+        for (int i = 0; i < searchVals.length; i++) {
+            if (i < 5) {
+                Assert.assertEquals(router.routeEqual(null, searchVals[i]), partPosiArr[i]);
+            } else {
+                Assert.assertEquals(-2, partPosiArr[i]);
+            }
+        }
+    }
+}
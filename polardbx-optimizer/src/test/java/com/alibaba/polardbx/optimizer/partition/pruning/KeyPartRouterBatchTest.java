@@ -0,0 +1,58 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.partition.pruning;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static com.alibaba.polardbx.optimizer.partition.pruning.HashPartRouterBatchTest.LONG_TYPE;
+import static com.alibaba.polardbx.optimizer.partition.pruning.HashPartRouterBatchTest.hashBounds;
+import static com.alibaba.polardbx.optimizer.partition.pruning.HashPartRouterBatchTest.searchDatums;
+
+public class KeyPartRouterBatchTest {
+
+    @Test
+    public void testRouteEqualBatchMatchesPerRow() {
+        KeyPartRouter router = new KeyPartRouter(hashBounds(8), new SearchDatumHasher(), null);
+        Assert.assertNotNull(router.sortedLongBoundArr);
+
+        Object[] searchVals = searchDatums(1000);
+        int[] partPosiArr = new int[searchVals.length];
+        router.routeEqualBatch(null, searchVals, searchVals.length, partPosiArr);
+
+        for (int i = 0; i < searchVals.length; i++) {
+            PartitionRouter.RouterResult rs = router.routePartitions(null, ComparisonKind.EQUAL, searchVals[i]);
+            Assert.assertEquals(rs.partStartPosi.intValue(), partPosiArr[i]);
+        }
+    }
+
+    @Test
+    public void testNullKeyMatchesPerRow() {
+        KeyPartRouter router = new KeyPartRouter(hashBounds(4), new SearchDatumHasher(), null);
+        Object[] searchVals = new Object[] {
+            SearchDatumInfo.createFromObjects(LONG_TYPE, Collections.<Object>singletonList(null)),
+            SearchDatumInfo.createFromObjects(LONG_TYPE, Collections.<Object>singletonList(1L))};
+        int[] partPosiArr = new int[searchVals.length];
+        router.routeEqualBatch(null, searchVals, searchVals.length, partPosiArr);
+        for (int i = 0; i < searchVals.length; i++) {
+            PartitionRouter.RouterResult rs = router.routePartitions(null, ComparisonKind.EQUAL, searchVals[i]);
+            Assert.assertEquals(rs.partStartPosi.intValue(), partPosiArr[i]);
+        }
+    }
+}
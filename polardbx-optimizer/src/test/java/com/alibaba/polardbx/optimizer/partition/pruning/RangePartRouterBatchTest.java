@@ -0,0 +1,52 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.partition.pruning;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RangePartRouterBatchTest {
+
+    @Test
+    public void testRouteEqualBatch() {
+        Object[] bounds = new Object[] {20L, 40L, 60L, 80L, 100L};
+        RangePartRouter router = new RangePartRouter(bounds, new PartitionRouter.LongComparator());
+
+        Object[] searchVals = new Object[] {-5L, 20L, 21L, 59L, 60L, 99L, 100L, 150L};
+        int[] partPosiArr = new int[searchVals.length];
+        router.routeEqualBatch(null, searchVals, searchVals.length, partPosiArr);
+
+        Assert.assertArrayEquals(new int[] {1, 2, 2, 3, 4, 5, -1, -1}, partPosiArr);
+        for (int i = 0; i < searchVals.length; i++) {
+            PartitionRouter.RouterResult rs = router.routePartitions(null, ComparisonKind.EQUAL, searchVals[i]);
+            Assert.assertEquals(rs.partStartPosi.intValue(), partPosiArr[i]);
+            Assert.assertEquals(rs.partStartPosi.intValue(), router.routeEqualLong((Long) searchVals[i]));
+        }
+    }
+
+    @Test
+    public void testNonLongBounds() {
+        Object[] bounds = new Object[] {"b", "d"};
+        RangePartRouter router = new RangePartRouter(bounds, String.CASE_INSENSITIVE_ORDER);
+        Assert.assertNull(router.sortedLongBoundArr);
+
+        Object[] searchVals = new Object[] {"a", "B", "c", "e"};
+        int[] partPosiArr = new int[searchVals.length];
+        router.routeEqualBatch(null, searchVals, searchVals.length, partPosiArr);
+        Assert.assertArrayEquals(new int[] {1, 2, 2, -1}, partPosiArr);
+    }
+}
@@ -75,13 +75,17 @@ public abstract class ParameterizedTestCommon extends PlanTestCommon {
         processParameter(sqlParameterized, executionContext);
         PlannerContext plannerContext = PlannerContext.fromExecutionContext(executionContext);
         ExecutionPlan executionPlan = Planner.getInstance().getPlan(ast, plannerContext);
-        executionPlan = PostPlanner.getInstance().optimize(executionPlan, executionContext);
+        executionPlan = postPlan(executionPlan, executionContext);
         String planStr = RelUtils
             .toString(executionPlan.getPlan(), param, RexUtils.getEvalFunc(executionContext), executionContext);
 
         return removeSubqueryHashCode(planStr, executionPlan.getPlan(), param);
     }
 
+    protected ExecutionPlan postPlan(ExecutionPlan executionPlan, ExecutionContext executionContext) {
+        return PostPlanner.getInstance().optimize(executionPlan, executionContext);
+    }
+
     private void processParameter(SqlParameterized sqlParameterized, ExecutionContext executionContext) {
         if (sqlParameterized != null) {
             List<Object> p = sqlParameterized.getParameters();
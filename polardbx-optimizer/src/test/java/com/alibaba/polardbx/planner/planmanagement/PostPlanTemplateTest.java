@@ -0,0 +1,94 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.planner.planmanagement;
+
+import com.alibaba.polardbx.common.jdbc.ParameterContext;
+import com.alibaba.polardbx.common.properties.ConnectionProperties;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.planner.ExecutionPlan;
+import com.alibaba.polardbx.optimizer.core.planner.PostPlanTemplate;
+import com.alibaba.polardbx.optimizer.core.planner.PostPlanner;
+import com.alibaba.polardbx.optimizer.core.rel.PhyTableScanBuilder;
+import com.alibaba.polardbx.optimizer.utils.RelUtils;
+import com.alibaba.polardbx.optimizer.utils.RexUtils;
+import com.alibaba.polardbx.planner.common.ParameterizedTestCommon;
+import org.apache.calcite.sql.SqlKind;
+import org.junit.Assert;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Post plans every statement with ENABLE_POST_PLAN_TEMPLATE off, then twice with it on, as a cached plan is
+ * executed again, and expects the same physical plan every time.
+ */
+public class PostPlanTemplateTest extends ParameterizedTestCommon {
+
+    public PostPlanTemplateTest(String caseName, int sqlIndex, String sql, String expectedPlan, String lineNum) {
+        super(caseName, sqlIndex, sql, expectedPlan, lineNum);
+    }
+
+    @Parameters(name = "{0}:{1}")
+    public static List<Object[]> prepare() {
+        return loadSqls(PostPlanTemplateTest.class);
+    }
+
+    @Override
+    protected ExecutionPlan postPlan(ExecutionPlan executionPlan, ExecutionContext executionContext) {
+        executionContext.getExtraCmds().put(ConnectionProperties.ENABLE_POST_PLAN_TEMPLATE, false);
+        final ExecutionPlan withoutTemplate = optimize(executionPlan, executionContext);
+        Assert.assertNull(executionPlan.getPostPlanTemplate());
+
+        executionContext.getExtraCmds().put(ConnectionProperties.ENABLE_POST_PLAN_TEMPLATE, true);
+        final ExecutionPlan first = optimize(executionPlan, executionContext);
+        final PostPlanTemplate template = executionPlan.getPostPlanTemplate();
+        Assert.assertNotNull(template);
+        Assert.assertFalse(template.isSkip());
+        // the physical plan does not share the template of the logical one
+        Assert.assertNull(first.getPostPlanTemplate());
+        final String sqlTemplate = template.getSqlTemplate().toString();
+        final PhyTableScanBuilder.NativeSql nativeSql = template.getNativeSql();
+        if (executionPlan.getAst().getKind() == SqlKind.SELECT) {
+            Assert.assertNotNull(nativeSql);
+        }
+
+        final ExecutionPlan second = optimize(executionPlan, executionContext);
+        Assert.assertSame(template, executionPlan.getPostPlanTemplate());
+        Assert.assertSame(nativeSql, template.getNativeSql());
+        // executions must not change the shared sql template
+        Assert.assertEquals(sqlTemplate, template.getSqlTemplate().toString());
+
+        final String expected = planString(withoutTemplate, executionContext);
+        Assert.assertEquals(expected, planString(first, executionContext));
+        Assert.assertEquals(expected, planString(second, executionContext));
+        return second;
+    }
+
+    /**
+     * Every execution of a cached plan post plans its own copy
+     */
+    private static ExecutionPlan optimize(ExecutionPlan executionPlan, ExecutionContext executionContext) {
+        return PostPlanner.getInstance().optimize(executionPlan.copy(executionPlan.getPlan()), executionContext);
+    }
+
+    private static String planString(ExecutionPlan executionPlan, ExecutionContext executionContext) {
+        final Map<Integer, ParameterContext> params = executionContext.getParams().getCurrentParameter();
+        return RelUtils.toString(executionPlan.getPlan(), params, RexUtils.getEvalFunc(executionContext),
+            executionContext);
+    }
+}
@@ -80,6 +80,9 @@ public final class SystemConfig {
     private volatile int timerTaskExecutor = DEFAULT_PROCESSOR;
     private volatile int metaDbExecutor = DEFAULT_PROCESSOR;
     private volatile long processorCheckPeriod = 15 * 1000L;
+    // processor是否使用堆外缓存池
+    @Immutable
+    private volatile boolean directBufferPool = false;
 
     private volatile int sqlRecordCount = 100;
 
@@ -706,6 +709,14 @@ public final class SystemConfig {
         this.retryErrorSqlOnOldServer = retryErrorSqlOnOldServer;
     }
 
+    public boolean isDirectBufferPool() {
+        return directBufferPool;
+    }
+
+    public void setDirectBufferPool(boolean directBufferPool) {
+        this.directBufferPool = directBufferPool;
+    }
+
     public boolean isSslEnable() {
         return sslEnable;
     }
@@ -465,6 +465,11 @@ public final class ServerLoader extends AbstractLifecycle implements Lifecycle {
             this.system.setProcessorCheckPeriod(Integer.parseInt(processorCheckPeriod));
         }
 
+        String directBufferPool = serverProps.getProperty("directBufferPool");
+        if (!StringUtil.isEmpty(directBufferPool)) {
+            this.system.setDirectBufferPool(Boolean.parseBoolean(directBufferPool));
+        }
+
         String txIsolation = serverProps.getProperty("txIsolation");
         if (!StringUtil.isEmpty(txIsolation)) {
             Integer tx = Integer.valueOf(txIsolation);
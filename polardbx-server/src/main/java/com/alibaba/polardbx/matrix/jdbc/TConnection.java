@@ -71,6 +71,7 @@ import com.alibaba.polardbx.optimizer.config.schema.MysqlSchema;
 import com.alibaba.polardbx.optimizer.config.schema.PerformanceSchema;
 import com.alibaba.polardbx.optimizer.config.table.ScaleOutPlanUtil;
 import com.alibaba.polardbx.optimizer.config.table.TableMeta;
+import com.alibaba.polardbx.optimizer.config.table.statistic.StatisticManager;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.context.MultiDdlContext;
 import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
@@ -78,6 +79,7 @@ import com.alibaba.polardbx.optimizer.core.planner.ExecutionPlan;
 import com.alibaba.polardbx.optimizer.core.planner.Planner;
 import com.alibaba.polardbx.optimizer.core.rel.BroadcastTableModify;
 import com.alibaba.polardbx.optimizer.core.rel.DirectTableOperation;
+import com.alibaba.polardbx.optimizer.core.rel.LogicalDynamicValues;
 import com.alibaba.polardbx.optimizer.core.rel.LogicalInsert;
 import com.alibaba.polardbx.optimizer.core.rel.LogicalModifyView;
 import com.alibaba.polardbx.optimizer.core.rel.SingleTableOperation;
@@ -94,6 +96,8 @@ import com.alibaba.polardbx.optimizer.utils.IConnectionHolder;
 import com.alibaba.polardbx.optimizer.utils.IDistributedTransaction;
 import com.alibaba.polardbx.optimizer.utils.ITransaction;
 import com.alibaba.polardbx.optimizer.utils.InventoryMode;
+import com.alibaba.polardbx.optimizer.utils.RelUtils;
+import com.alibaba.polardbx.optimizer.utils.RexLiteralTypeUtils;
 import com.alibaba.polardbx.repo.mysql.cursor.ResultSetCursor;
 import com.alibaba.polardbx.statistics.RuntimeStatHelper;
 import com.alibaba.polardbx.statistics.RuntimeStatistics;
@@ -102,6 +106,9 @@ import com.alibaba.polardbx.transaction.ITsoTransaction;
 import com.alibaba.polardbx.transaction.ReadOnlyTsoTransaction;
 import org.apache.calcite.rel.AbstractRelNode;
 import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rex.RexDynamicParam;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.sql.OptimizerHint;
 import org.apache.calcite.sql.SqlKind;
 import org.apache.commons.lang.BooleanUtils;
@@ -786,6 +793,75 @@ public class TConnection implements IConnection {
             OptimizerContext.getContext(executionContext.getSchemaName()).getStatisticManager()
                 .addUpdateRowCount(logicalTableName, -affectRow);
         }
+        if (executionContext.getParamManager().getBoolean(ConnectionParams.ENABLE_NDV_SKETCH_INCREMENTAL)) {
+            offerNdvSketchDml(plan, sqlKind, logicalTableName, affectRow, executionContext);
+        }
+    }
+
+    /**
+     * feed dml into the incremental ndv sketches, only values of INSERT ... VALUES can be hashed,
+     * DELETE/UPDATE only count towards drift detection. At most STATISTIC_NDV_SKETCH_DML_MAX_ROWS rows of an insert
+     * are taken here, hashing is done by the statistic manager off this thread. Rows beyond the limit, and the
+     * columns whose values are not plain parameters or literals (e.g. NOW(), UUID(), casts), are left to the drift
+     * detection as well.
+     */
+    private void offerNdvSketchDml(RelNode plan, SqlKind sqlKind, String logicalTableName, long affectRow,
+                                   ExecutionContext executionContext) {
+        if (affectRow <= 0) {
+            return;
+        }
+        StatisticManager statisticManager =
+            OptimizerContext.getContext(executionContext.getSchemaName()).getStatisticManager();
+        if (sqlKind == SqlKind.INSERT && plan instanceof LogicalInsert) {
+            LogicalInsert insert = (LogicalInsert) plan;
+            if (insert.isSourceSelect() || !(RelUtils.getRelInput(insert) instanceof LogicalDynamicValues)) {
+                return;
+            }
+            LogicalDynamicValues values = RelUtils.getRelInput(insert);
+            List<Map<Integer, ParameterContext>> batchParams = executionContext.getParams().getBatchParameters();
+            List<String> fieldNames = insert.getInsertRowType().getFieldNames();
+            long totalRows = (long) batchParams.size() * values.tuples.size();
+            int maxRows = (int) Math.min(totalRows,
+                executionContext.getParamManager().getInt(ConnectionParams.STATISTIC_NDV_SKETCH_DML_MAX_ROWS));
+
+            // columns with any value that can not be evaluated here
+            BitSet unknown = new BitSet(fieldNames.size());
+            List<Object[]> taken = new ArrayList<>(maxRows);
+            for (int r = 0; r < maxRows; r++) {
+                Map<Integer, ParameterContext> params = batchParams.get(r / values.tuples.size());
+                List<RexNode> tuple = values.tuples.get(r % values.tuples.size());
+                Object[] row = new Object[fieldNames.size()];
+                for (int i = 0; i < row.length; i++) {
+                    RexNode node = tuple.get(i);
+                    ParameterContext param = node instanceof RexDynamicParam && params != null ?
+                        params.get(((RexDynamicParam) node).getIndex() + 1) : null;
+                    if (param != null) {
+                        row[i] = param.getValue();
+                    } else if (node instanceof RexLiteral) {
+                        row[i] = RexLiteralTypeUtils.getJavaObjectFromRexLiteral((RexLiteral) node, true);
+                    } else {
+                        unknown.set(i);
+                    }
+                }
+                taken.add(row);
+            }
+
+            List<String> columnNames = new ArrayList<>(fieldNames.size() - unknown.cardinality());
+            for (int i = unknown.nextClearBit(0); i < fieldNames.size(); i = unknown.nextClearBit(i + 1)) {
+                columnNames.add(fieldNames.get(i));
+            }
+            List<List<Object>> rows = new ArrayList<>(taken.size());
+            for (Object[] row : taken) {
+                List<Object> known = new ArrayList<>(columnNames.size());
+                for (int i = unknown.nextClearBit(0); i < row.length; i = unknown.nextClearBit(i + 1)) {
+                    known.add(row[i]);
+                }
+                rows.add(known);
+            }
+            statisticManager.offerNdvSketchDml(logicalTableName, columnNames, rows, totalRows - rows.size());
+        } else if (sqlKind == SqlKind.DELETE || sqlKind == SqlKind.UPDATE) {
+            statisticManager.offerNdvSketchDml(logicalTableName, null, null, affectRow);
+        }
     }
 
     /**
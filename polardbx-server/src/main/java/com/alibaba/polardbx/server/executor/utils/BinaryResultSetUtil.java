@@ -31,6 +31,8 @@ import com.alibaba.druid.proxy.jdbc.ResultSetMetaDataProxy;
 import com.mysql.jdbc.CharsetMapping;
 import com.mysql.jdbc.Field;
 import com.alibaba.polardbx.common.exception.NotSupportException;
+import com.alibaba.polardbx.common.properties.DynamicConfig;
+import com.alibaba.polardbx.matrix.jdbc.TResultSet;
 import com.alibaba.polardbx.matrix.jdbc.TResultSetMetaData;
 import com.alibaba.polardbx.optimizer.config.table.ColumnMeta;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
@@ -157,9 +159,18 @@ public class BinaryResultSetUtil {
             proxy = packet.write(proxy);
         }
 
+        final ChunkRowEncoder chunkEncoder =
+            rs instanceof TResultSet && DynamicConfig.getInstance().isEnableChunkResultEncoder() ?
+                ChunkRowEncoder.forBinary(metaData, packet.fieldPackets, charset) : null;
+
         List<BinaryRowDataPacket> lazyRaws = new ArrayList<BinaryRowDataPacket>();
         if (existNext) {
             do {
+                if (chunkEncoder != null && !existUndecidedType && chunkEncoder.write((TResultSet) rs, proxy)) {
+                    // 直接从chunk编码输出，不再构造BinaryRowDataPacket
+                    affectRow.incrementAndGet();
+                    continue;
+                }
                 BinaryRowDataPacket row = new BinaryRowDataMultiPacket(colunmCount);
                 for (int i = 0; i < colunmCount; i++) {
                     int j = i + 1;
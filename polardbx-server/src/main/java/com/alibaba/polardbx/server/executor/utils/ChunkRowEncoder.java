@@ -0,0 +1,488 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.server.executor.utils;
+
+import com.alibaba.polardbx.common.charset.CharsetName;
+import com.alibaba.polardbx.common.datatype.DecimalConverter;
+import com.alibaba.polardbx.common.datatype.DecimalStructure;
+import com.alibaba.polardbx.matrix.jdbc.TResultSet;
+import com.alibaba.polardbx.matrix.jdbc.TResultSetMetaData;
+import com.alibaba.polardbx.net.compress.IPacketOutputProxy;
+import com.alibaba.polardbx.net.packet.FieldPacket;
+import com.alibaba.polardbx.net.util.BufferUtil;
+import com.alibaba.polardbx.optimizer.chunk.Block;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.DecimalBlock;
+import com.alibaba.polardbx.optimizer.chunk.DoubleBlock;
+import com.alibaba.polardbx.optimizer.chunk.IntegerBlock;
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
+import com.alibaba.polardbx.optimizer.chunk.SliceBlock;
+import com.alibaba.polardbx.optimizer.config.table.ColumnMeta;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypeUtil;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.row.Row;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 直接从Chunk的Block中把结果行编码到输出buffer
+ * <p>
+ * 通用路径对每个单元格都要生成一个byte[]（数值类型还要经过装箱和String），再攒成RowDataPacket输出。
+ * 对于Block布局已知的列，这里直接读取原始值并格式化到每列复用的scratch buffer中，行与行之间没有额外分配；
+ * 不认识的单元格仍然通过TResultSet获取，因此输出的字节与通用路径完全一致。
+ * <p>
+ * 行依然通过rs.next()推进，Chunk.ChunkRow只用来定位(chunk, position)。非线程安全，每个结果集一个实例。
+ */
+public class ChunkRowEncoder {
+
+    private static final byte NULL_MARK = (byte) 251;
+
+    /**
+     * 超过一个packet的行交给RowDataMultiPacket拆包
+     */
+    private static final int MAX_PACKET_PAYLOAD_LENGTH = 0xFFFFFF;
+
+    private static final int CELL_NULL = -1;
+
+    private final boolean binary;
+    private final int columnCount;
+    private final FieldPacket[] fields;
+    private final String charset;
+
+    /**
+     * null表示该列总是走通用路径
+     */
+    private final ColumnEncoder[] encoders;
+
+    private final int[] lengths;
+    private final byte[][] fallbackValues;
+    private final byte[] nullBitmap;
+
+    private ChunkRowEncoder(boolean binary, FieldPacket[] fields, String charset, ColumnEncoder[] encoders) {
+        this.binary = binary;
+        this.columnCount = encoders.length;
+        this.fields = fields;
+        this.charset = charset;
+        this.encoders = encoders;
+        this.lengths = new int[columnCount];
+        this.fallbackValues = new byte[columnCount][];
+        this.nullBitmap = binary ? new byte[(columnCount + 7 + 2) / 8] : null;
+    }
+
+    /**
+     * Text protocol (COM_QUERY), returns null if no column can be encoded from blocks
+     */
+    public static ChunkRowEncoder forText(ResultSetMetaData metaData, FieldPacket[] fields, String charset) {
+        return create(metaData, fields, charset, false);
+    }
+
+    /**
+     * Binary protocol (COM_STMT_EXECUTE), returns null if no column can be encoded from blocks
+     */
+    public static ChunkRowEncoder forBinary(ResultSetMetaData metaData, FieldPacket[] fields, String charset) {
+        return create(metaData, fields, charset, true);
+    }
+
+    private static ChunkRowEncoder create(ResultSetMetaData metaData, FieldPacket[] fields, String charset,
+                                          boolean binary) {
+        if (!(metaData instanceof TResultSetMetaData) || fields == null) {
+            return null;
+        }
+        List<ColumnMeta> metas = ((TResultSetMetaData) metaData).getColumnMetas();
+        if (metas == null || metas.size() != fields.length) {
+            return null;
+        }
+
+        ColumnEncoder[] encoders = new ColumnEncoder[fields.length];
+        boolean any = false;
+        for (int i = 0; i < fields.length; i++) {
+            encoders[i] = binary ? binaryEncoder(fields[i]) : textEncoder(metas.get(i), fields[i], charset);
+            any |= encoders[i] != null;
+        }
+        return any ? new ChunkRowEncoder(binary, fields, charset, encoders) : null;
+    }
+
+    private static ColumnEncoder textEncoder(ColumnMeta meta, FieldPacket field, String charset) {
+        DataType dataType = meta.getDataType();
+        if (dataType == null || field.type == MysqlDefs.FIELD_TYPE_BIT) {
+            return null;
+        }
+        if (meta.getField() != null
+            && DataTypeUtil.equalsSemantically(meta.getField().getDataType(), DataTypes.BitType)) {
+            // bit(1)的0/1以原始字节输出
+            return null;
+        }
+
+        if (DataTypeUtil.equalsSemantically(dataType, DataTypes.LongType)) {
+            return new LongTextEncoder();
+        } else if (DataTypeUtil.equalsSemantically(dataType, DataTypes.IntegerType)) {
+            return new IntegerTextEncoder();
+        } else if (DataTypeUtil.equalsSemantically(dataType, DataTypes.DecimalType)) {
+            return new DecimalTextEncoder();
+        } else if (DataTypeUtil.isStringType(dataType) && CharsetName.isUTF8(charset)) {
+            // utf8连接直接输出chunk中的原始字节
+            return new SliceTextEncoder();
+        }
+        return null;
+    }
+
+    private static ColumnEncoder binaryEncoder(FieldPacket field) {
+        if (ResultSetUtil.isUnsigned(field.flags)) {
+            return null;
+        }
+
+        switch (MysqlDefs.MySQLTypeUInt(field.type)) {
+        case MysqlDefs.FIELD_TYPE_LONGLONG:
+            return new LongBinaryEncoder();
+        case MysqlDefs.FIELD_TYPE_LONG:
+            return new IntegerBinaryEncoder();
+        case MysqlDefs.FIELD_TYPE_DOUBLE:
+            return new DoubleBinaryEncoder();
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * 把当前行写成一个完整的row packet
+     *
+     * @return false 如果当前行不是chunk行或者需要拆包，此时没有写出任何数据，调用方需要走通用路径
+     */
+    public boolean write(TResultSet rs, IPacketOutputProxy proxy) throws SQLException {
+        final Row row = rs.getCurrentKVPair();
+        if (!(row instanceof Chunk.ChunkRow)) {
+            return false;
+        }
+        final Chunk chunk = ((Chunk.ChunkRow) row).getChunk();
+        final int position = ((Chunk.ChunkRow) row).getPosition();
+        if (chunk.getBlockCount() < columnCount) {
+            return false;
+        }
+
+        long size = binary ? 1 + nullBitmap.length : 0;
+        if (binary) {
+            Arrays.fill(nullBitmap, (byte) 0);
+        }
+
+        for (int i = 0; i < columnCount; i++) {
+            fallbackValues[i] = null;
+
+            int len = CELL_NULL;
+            boolean encoded = false;
+            final ColumnEncoder encoder = encoders[i];
+            if (encoder != null) {
+                final Block block = chunk.getBlock(i);
+                if (block.isNull(position)) {
+                    encoded = true;
+                } else if ((len = encoder.prepare(block, position)) >= 0) {
+                    encoded = true;
+                }
+            }
+
+            if (!encoded) {
+                final byte[] bytes = fallback(rs, i);
+                if (bytes == null) {
+                    len = CELL_NULL;
+                } else if (binary && bytes.length == 0) {
+                    // BinaryRowDataPacket对空值的长度计算另有处理，交给它
+                    return false;
+                } else {
+                    fallbackValues[i] = bytes;
+                    len = bytes.length;
+                }
+            }
+
+            lengths[i] = len;
+            if (len == CELL_NULL) {
+                if (binary) {
+                    // 前两个bit保留，参考BinaryRowDataPacket
+                    nullBitmap[(i + 2) >>> 3] |= (byte) (1 << ((i + 2) & 7));
+                } else {
+                    size += 1;
+                }
+            } else {
+                size += binary ? len : BufferUtil.getLength(len) + len;
+            }
+        }
+
+        if (size >= MAX_PACKET_PAYLOAD_LENGTH) {
+            return false;
+        }
+
+        proxy.packetBegin();
+        proxy.checkWriteCapacity(proxy.getConnection().getPacketHeaderSize());
+        proxy.writeUB3((int) size);
+        proxy.write(proxy.getConnection().getNewPacketId());
+
+        if (binary) {
+            proxy.checkWriteCapacity(1 + nullBitmap.length);
+            proxy.write((byte) 0);
+            proxy.write(nullBitmap);
+        }
+
+        for (int i = 0; i < columnCount; i++) {
+            final int len = lengths[i];
+            if (len == CELL_NULL) {
+                if (!binary) {
+                    proxy.checkWriteCapacity(1);
+                    proxy.write(NULL_MARK);
+                }
+                continue;
+            }
+
+            if (binary) {
+                proxy.checkWriteCapacity(len);
+            } else {
+                proxy.checkWriteCapacity(BufferUtil.getLength(len) + len);
+                proxy.writeLength(len);
+            }
+            final byte[] bytes = fallbackValues[i];
+            if (bytes != null) {
+                proxy.write(bytes);
+                fallbackValues[i] = null;
+            } else {
+                encoders[i].write(proxy);
+            }
+        }
+
+        proxy.packetEnd();
+        return true;
+    }
+
+    private byte[] fallback(TResultSet rs, int i) throws SQLException {
+        final int j = i + 1;
+        if (binary) {
+            return MysqlDefs.resultSetToByte(rs,
+                j,
+                MysqlDefs.MySQLTypeUInt(fields[i].type),
+                ResultSetUtil.isUnsigned(fields[i].flags),
+                charset);
+        }
+        return rs.getBytes(j, charset);
+    }
+
+    /**
+     * 把long的十进制表示写入buffer，返回长度；buffer至少20字节
+     */
+    static int formatLong(long v, byte[] buffer) {
+        if (v == Long.MIN_VALUE) {
+            final byte[] min = MIN_LONG_BYTES;
+            System.arraycopy(min, 0, buffer, 0, min.length);
+            return min.length;
+        }
+
+        int pos = 0;
+        if (v < 0) {
+            buffer[pos++] = '-';
+            v = -v;
+        }
+        final int start = pos;
+        do {
+            long q = v / 10;
+            buffer[pos++] = (byte) ('0' + (int) (v - q * 10));
+            v = q;
+        } while (v != 0);
+
+        // 反转数字部分
+        for (int lo = start, hi = pos - 1; lo < hi; lo++, hi--) {
+            byte t = buffer[lo];
+            buffer[lo] = buffer[hi];
+            buffer[hi] = t;
+        }
+        return pos;
+    }
+
+    private static final byte[] MIN_LONG_BYTES = Long.toString(Long.MIN_VALUE).getBytes();
+
+    static abstract class ColumnEncoder {
+
+        /**
+         * 准备当前单元格，返回编码后的长度（不含长度前缀），Block类型不符时返回-1走通用路径
+         */
+        abstract int prepare(Block block, int position);
+
+        abstract void write(IPacketOutputProxy proxy);
+    }
+
+    static abstract class ScratchEncoder extends ColumnEncoder {
+
+        protected byte[] scratch;
+        protected int length;
+
+        ScratchEncoder(int initialSize) {
+            this.scratch = new byte[initialSize];
+        }
+
+        protected void ensureCapacity(int size) {
+            if (scratch.length < size) {
+                scratch = new byte[Math.max(size, scratch.length * 2)];
+            }
+        }
+
+        @Override
+        void write(IPacketOutputProxy proxy) {
+            proxy.write(scratch, 0, length);
+        }
+    }
+
+    static class LongTextEncoder extends ScratchEncoder {
+
+        LongTextEncoder() {
+            super(20);
+        }
+
+        @Override
+        int prepare(Block block, int position) {
+            if (!(block instanceof LongBlock)) {
+                return -1;
+            }
+            return length = formatLong(block.getLong(position), scratch);
+        }
+    }
+
+    static class IntegerTextEncoder extends ScratchEncoder {
+
+        IntegerTextEncoder() {
+            super(20);
+        }
+
+        @Override
+        int prepare(Block block, int position) {
+            if (!(block instanceof IntegerBlock)) {
+                return -1;
+            }
+            return length = formatLong(block.getInt(position), scratch);
+        }
+    }
+
+    static class DecimalTextEncoder extends ScratchEncoder {
+
+        DecimalTextEncoder() {
+            super(70);
+        }
+
+        @Override
+        int prepare(Block block, int position) {
+            if (!(block instanceof DecimalBlock)) {
+                return -1;
+            }
+            DecimalStructure decimal = ((DecimalBlock) block).getDecimal(position).getDecimalStructure();
+            ensureCapacity(DecimalConverter.maxStringSize(decimal));
+            return length = DecimalConverter.decimal2String(decimal, scratch, 0);
+        }
+    }
+
+    static class SliceTextEncoder extends ScratchEncoder {
+
+        /**
+         * 超大的值不常驻scratch，避免一个大字段让buffer一直占着内存
+         */
+        private static final int MAX_RETAINED_SIZE = 1 << 16;
+
+        SliceTextEncoder() {
+            super(256);
+        }
+
+        @Override
+        int prepare(Block block, int position) {
+            if (!(block instanceof SliceBlock)) {
+                return -1;
+            }
+            SliceBlock sliceBlock = (SliceBlock) block;
+            int size = sliceBlock.getByteLength(position);
+            if (size > MAX_RETAINED_SIZE && size > scratch.length) {
+                byte[] value = new byte[size];
+                sliceBlock.copyBytesTo(position, value, 0);
+                scratch = value;
+            } else {
+                ensureCapacity(size);
+                sliceBlock.copyBytesTo(position, scratch, 0);
+            }
+            return length = size;
+        }
+
+        @Override
+        void write(IPacketOutputProxy proxy) {
+            super.write(proxy);
+            if (scratch.length > MAX_RETAINED_SIZE) {
+                scratch = new byte[256];
+            }
+        }
+    }
+
+    static class LongBinaryEncoder extends ColumnEncoder {
+
+        private long value;
+
+        @Override
+        int prepare(Block block, int position) {
+            if (!(block instanceof LongBlock)) {
+                return -1;
+            }
+            value = block.getLong(position);
+            return Long.BYTES;
+        }
+
+        @Override
+        void write(IPacketOutputProxy proxy) {
+            proxy.writeLong(value);
+        }
+    }
+
+    static class IntegerBinaryEncoder extends ColumnEncoder {
+
+        private int value;
+
+        @Override
+        int prepare(Block block, int position) {
+            if (!(block instanceof IntegerBlock)) {
+                return -1;
+            }
+            value = block.getInt(position);
+            return Integer.BYTES;
+        }
+
+        @Override
+        void write(IPacketOutputProxy proxy) {
+            proxy.writeInt(value);
+        }
+    }
+
+    static class DoubleBinaryEncoder extends ColumnEncoder {
+
+        private double value;
+
+        @Override
+        int prepare(Block block, int position) {
+            if (!(block instanceof DoubleBlock)) {
+                return -1;
+            }
+            value = block.getDouble(position);
+            return Double.BYTES;
+        }
+
+        @Override
+        void write(IPacketOutputProxy proxy) {
+            proxy.writeDouble(value);
+        }
+    }
+}
@@ -30,6 +30,7 @@ import com.alibaba.polardbx.server.util.StringUtil;
 import com.alibaba.druid.proxy.jdbc.ResultSetMetaDataProxy;
 import com.mysql.jdbc.Field;
 import com.alibaba.polardbx.common.exception.NotSupportException;
+import com.alibaba.polardbx.common.properties.DynamicConfig;
 import com.alibaba.polardbx.common.utils.GeneralUtil;
 import com.alibaba.polardbx.executor.Xprotocol.XRowSet;
 import com.alibaba.polardbx.matrix.jdbc.TResultSet;
@@ -235,6 +236,10 @@ public class ResultSetUtil {
             }
         }
 
+        final ChunkRowEncoder chunkEncoder =
+            rs instanceof TResultSet && DynamicConfig.getInstance().isEnableChunkResultEncoder() ?
+                ChunkRowEncoder.forText(metaData, packet.fieldPackets, charset) : null;
+
         IPacketOutputProxy proxy = null;
 
         // 如果未出现未决类型，先输出header
@@ -251,11 +256,18 @@ public class ResultSetUtil {
                 // 不存在记录，直接退出
                 break;
             }
-            RowDataPacket row = null;
-            row = new RowDataMultiPacket(colunmCount, c::getNewPacketId);
             final XRowSet xRowSet =
                 (rs instanceof TResultSet && ((TResultSet) rs).getCurrentKVPair() instanceof XRowSet) ?
                     (XRowSet) ((TResultSet) rs).getCurrentKVPair() : null;
+            if (chunkEncoder != null && !existUndecidedType && xRowSet == null
+                && chunkEncoder.write((TResultSet) rs, proxy)) {
+                // 直接从chunk编码输出，不再构造RowDataPacket
+                affectRow.incrementAndGet();
+                existNext = rs.next();
+                continue;
+            }
+            RowDataPacket row = null;
+            row = new RowDataMultiPacket(colunmCount, c::getNewPacketId);
             for (int i = 0; i < colunmCount; i++) {
                 int j = i + 1;
                 if (existUndecidedType && undecidedTypeIndexs.contains(i)) {
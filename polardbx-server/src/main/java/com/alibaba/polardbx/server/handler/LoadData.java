@@ -165,11 +165,11 @@ public class LoadData implements Serializable {
         this.enclose = enclose;
     }
 
-    public void incrementEmptyLine() {
+    public synchronized void incrementEmptyLine() {
         skippedEmptyLines += 1;
     }
 
-    public long getSkippedEmptyLines() {
+    public synchronized long getSkippedEmptyLines() {
         return skippedEmptyLines;
     }
 
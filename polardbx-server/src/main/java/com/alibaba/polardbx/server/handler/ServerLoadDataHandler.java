@@ -33,6 +33,7 @@ import com.alibaba.polardbx.druid.sql.ast.SQLCommentHint;
 import com.alibaba.polardbx.druid.sql.ast.SQLStatement;
 import com.alibaba.polardbx.druid.sql.dialect.mysql.ast.statement.MySqlHintStatement;
 import com.alibaba.polardbx.druid.sql.parser.ByteString;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Splitter;
 import com.alibaba.polardbx.common.exception.TddlNestableRuntimeException;
 import com.alibaba.polardbx.common.properties.ConnectionParams;
@@ -66,13 +67,17 @@ import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.sql.ResultSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
@@ -90,6 +95,7 @@ public final class ServerLoadDataHandler implements LoadDataHandler {
     private static String UPPER_LOAD_DATA = "LOAD DATA";
     private static String LOWER_LOAD_DATA = "load data";
     private static byte[] END_BYTE = new byte[4];
+    private static final long PARSER_POLL_INTERVAL_MS = 50L;
 
     private ServerConnection serverConnection;
     private String fileName;
@@ -103,6 +109,8 @@ public final class ServerLoadDataHandler implements LoadDataHandler {
 
     private AtomicBoolean isClosed = new AtomicBoolean(false);
 
+    private final AtomicBoolean errorReported = new AtomicBoolean(false);
+
     private HashMap<String, Object> cmdObjects = new HashMap<>();
 
     private long startTime = System.nanoTime();
@@ -111,7 +119,26 @@ public final class ServerLoadDataHandler implements LoadDataHandler {
 
     private BlockingQueue<byte[]> cacheData = new LinkedBlockingQueue<>();
 
-    private List<String> lines = new ArrayList<>();
+    /**
+     * 按行切分后的数据块, 由多个解析线程并行消费; 解析并发度为1时为null, 在当前线程直接解析
+     */
+    private BlockingQueue<byte[]> lineBlocks;
+
+    private LineParser inlineParser;
+
+    private int parserParallelism = 1;
+
+    private AtomicInteger runningParsers;
+
+    private byte[] lineTerminatedBy;
+
+    private Splitter lineSplitter;
+
+    private Charset charset;
+
+    private long progressIntervalNanos;
+
+    private long lastProgressTime = System.nanoTime();
 
     public ServerLoadDataHandler(ServerConnection serverConnection) {
         this.serverConnection = serverConnection;
@@ -144,8 +171,7 @@ public final class ServerLoadDataHandler implements LoadDataHandler {
             dataContext.getDataCacheManager().allocateMemory(data.length);
             dataContext.getDataCacheManager().settableFuture();
         } catch (Throwable e) {
-            String sql = loadData != null ? loadData.getSql() : "";
-            handler.handleError(ErrorCode.ERR_HANDLE_DATA, e, sql, false);
+            reportError(e);
         }
     }
 
@@ -157,8 +183,7 @@ public final class ServerLoadDataHandler implements LoadDataHandler {
         try {
             cacheData.put(END_BYTE);
         } catch (Throwable t) {
-            String sql = loadData != null ? loadData.getSql() : "";
-            handler.handleError(ErrorCode.ERR_HANDLE_DATA, t, sql, false);
+            reportError(t);
         }
     }
 
@@ -181,8 +206,7 @@ public final class ServerLoadDataHandler implements LoadDataHandler {
             }
             end();
         } catch (Exception e) {
-            String sql = loadData != null ? loadData.getSql() : "";
-            handler.handleError(ErrorCode.ERR_HANDLE_DATA, e, sql, false);
+            reportError(e);
         } finally {
             if (is != null) {
                 try {
@@ -202,22 +226,114 @@ public final class ServerLoadDataHandler implements LoadDataHandler {
                     throw dataContext.getThrowable();
                 }
                 byte[] data = cacheData.take();
-                if (data == END_BYTE) {
-                    parser(data, loadData, true);
-                    break;
-                } else {
-                    parser(data, loadData, false);
+                boolean isEnd = data == END_BYTE;
+                byte[] block = cutLines(data, isEnd);
+                if (block != null && block.length > 0) {
+                    dataContext.getDataCacheManager().allocateMemory(block.length);
+                }
+                if (!isEnd) {
+                    dataContext.addParsedBytes(data.length - 4);
                     dataContext.getDataCacheManager().releaseMemory(data.length);
                 }
+                if (block != null && block.length > 0) {
+                    dispatch(block);
+                }
+                if (isEnd) {
+                    endParsers();
+                    logger.info("Load data parse finished, " + dataContext.getProgress());
+                    break;
+                }
+                reportProgress();
             }
         } catch (Throwable t) {
-            String sql = loadData != null ? loadData.getSql() : "";
-            dataContext.finish(t);
-            handler.handleError(ErrorCode.ERR_HANDLE_DATA, t, sql, false);
+            reportError(t);
         }
         return null;
     }
 
+    /**
+     * 解析线程, 从lineBlocks中获取按行切分好的数据块进行解析
+     */
+    Object runParser() {
+        LineParser parser = new LineParser(lineBlocks);
+        try {
+            while (true) {
+                if (dataContext.getThrowable() != null) {
+                    throw dataContext.getThrowable();
+                }
+                byte[] block = lineBlocks.poll(PARSER_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (block == null) {
+                    if (dataContext.isFinish()) {
+                        break;
+                    }
+                    // 上游暂时没有数据, 先把攒下的行交给下游, 避免占着内存不释放
+                    parser.flush();
+                    continue;
+                }
+                if (block == END_BYTE) {
+                    parser.flush();
+                    if (runningParsers.decrementAndGet() == 0) {
+                        dataContext.getParameters().add(END);
+                    }
+                    break;
+                }
+                parser.parse(block);
+            }
+        } catch (Throwable t) {
+            reportError(t);
+        }
+        return null;
+    }
+
+    /**
+     * 接收线程和各解析线程都可能失败, 只把第一个错误回给客户端
+     */
+    private void reportError(Throwable t) {
+        Throwable first = t;
+        if (dataContext != null) {
+            dataContext.finish(t);
+            first = dataContext.getThrowable();
+        }
+        if (errorReported.compareAndSet(false, true)) {
+            String sql = loadData != null ? loadData.getSql() : "";
+            handler.handleError(ErrorCode.ERR_HANDLE_DATA, first, sql, false);
+        }
+    }
+
+    private void dispatch(byte[] block) throws InterruptedException {
+        if (lineBlocks == null) {
+            inlineParser.parse(block);
+            return;
+        }
+        while (!lineBlocks.offer(block, PARSER_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+            if (dataContext.isFinish()) {
+                throw new RuntimeException("DataContext is finished!");
+            }
+        }
+    }
+
+    private void endParsers() throws InterruptedException {
+        if (lineBlocks == null) {
+            inlineParser.flush();
+            dataContext.getParameters().add(END);
+            return;
+        }
+        for (int i = 0; i < parserParallelism; i++) {
+            dispatch(END_BYTE);
+        }
+    }
+
+    private void reportProgress() {
+        if (progressIntervalNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now - lastProgressTime >= progressIntervalNanos) {
+            lastProgressTime = now;
+            logger.info("Load data progress of " + tableName + ", " + dataContext.getProgress());
+        }
+    }
+
     private int bytesLastIndexOf(byte[] source, byte[] target) {
         if (source.length < target.length) {
             return -1;
@@ -239,155 +355,199 @@ public final class ServerLoadDataHandler implements LoadDataHandler {
         return -1;
     }
 
-    public void parser(byte[] data, LoadData loadData, boolean isEnd) {
-        // 如果RestData数据量过大，也即单条数据很长，则直接抛弃并报错
-        byte[] tempRestData = new byte[0];
-        byte[] lineTerminatedBy = loadData.getOriginLineTerminatedBy().getBytes();
-        int lastIndex = bytesLastIndexOf(data, lineTerminatedBy);
-        int startPoint = lastIndex == -1 ? 4 : lastIndex;
+    private int bytesIndexOf(byte[] source, byte[] target, int from) {
+        outer:
+        for (int idx = from; idx <= source.length - target.length; idx++) {
+            for (int i = 0; i < target.length; i++) {
+                if (source[idx + i] != target[i]) {
+                    continue outer;
+                }
+            }
+            return idx;
+        }
+        return -1;
+    }
 
+    /**
+     * 按行结束符切分收到的数据包, 返回由完整行组成的数据块, 不完整的尾部留在restData中与下一个包拼接.
+     * 只做字节扫描和拷贝, 字符解码与字段切分交给解析线程.
+     */
+    private byte[] cutLines(byte[] data, boolean isEnd) {
+        // 如果RestData数据量过大，也即单条数据很长，则直接抛弃并报错
         if (restData.length > dataContext.getDataCacheManager().getNotFullThreshold()) {
             throw new RuntimeException("RestData is more than notFullThreshold!");
         }
-        if (lastIndex == -1) {
-            if (!isEnd) {
-                tempRestData = new byte[data.length - startPoint + restData.length];
-                System.arraycopy(restData, 0, tempRestData, 0, restData.length);
-                System.arraycopy(data, startPoint, tempRestData, restData.length, data.length - startPoint);
-                restData = tempRestData;
-                return;
-            }
+        int lastIndex = bytesLastIndexOf(data, lineTerminatedBy);
+        if (lastIndex == -1 && !isEnd) {
+            byte[] tempRestData = new byte[data.length - 4 + restData.length];
+            System.arraycopy(restData, 0, tempRestData, 0, restData.length);
+            System.arraycopy(data, 4, tempRestData, restData.length, data.length - 4);
+            restData = tempRestData;
+            return null;
         }
-        tempRestData = new byte[data.length - startPoint];
+        int startPoint = lastIndex == -1 ? 4 : lastIndex;
+
+        // 上一条记录中不完整的记录，与本次记录进行合并
+        byte[] block = new byte[restData.length + startPoint - 4];
+        System.arraycopy(restData, 0, block, 0, restData.length);
+        System.arraycopy(data, 4, block, restData.length, startPoint - 4);
+
+        byte[] tempRestData = new byte[data.length - startPoint];
         System.arraycopy(data, startPoint, tempRestData, 0, data.length - startPoint);
+        restData = tempRestData;
+        if (isEnd && restData.length > 0) {
+            throw new TddlNestableRuntimeException("restData should be empty here!");
+        }
+        return skipIgnoredLines(block);
+    }
 
-        String content;
-        if (restData.length == 0) {
-            content = new String(
-                data, 4, startPoint - 4, Charset.forName(CharsetUtil.getJavaCharset(loadData.getCharset())));
-        } else {
-            // 上一条记录中不完整的记录，与本次记录进行合并
-            byte[] currentBytes = new byte[restData.length + startPoint - 4];
-            System.arraycopy(restData, 0, currentBytes, 0, restData.length);
-            System.arraycopy(data, 4, currentBytes, restData.length, startPoint - 4);
-            content =
-                new String(currentBytes, 0, currentBytes.length,
-                    Charset.forName(CharsetUtil.getJavaCharset(loadData.getCharset())));
+    /**
+     * IGNORE n LINES 依赖行的先后顺序, 必须在分发给解析线程之前处理
+     */
+    private byte[] skipIgnoredLines(byte[] block) {
+        int ignoreLineNumber = loadData.getIgnoreLineNumber();
+        if (ignoreLineNumber == 0) {
+            return block;
+        }
+        int pos = 0;
+        while (ignoreLineNumber > 0 && pos < block.length) {
+            int idx = bytesIndexOf(block, lineTerminatedBy, pos);
+            pos = idx == -1 ? block.length : idx + lineTerminatedBy.length;
+            ignoreLineNumber--;
         }
+        loadData.setIgnoreLineNumber(ignoreLineNumber);
+        return Arrays.copyOfRange(block, pos, block.length);
+    }
+
+    /**
+     * 把完整行组成的数据块解析成待插入的行, 攒够一批后交给LogicalLoadDataHandler.
+     * 每个解析线程持有一个实例.
+     */
+    private final class LineParser {
 
-        List<String> lineContents = Splitter.on(loadData.getOriginLineTerminatedBy()).splitToList(content);
+        private final BlockingQueue<byte[]> input;
 
-        int realLineNumber = lineContents.size();
+        private List<String> lines = new ArrayList<>();
 
-        for (int lineNumber = 0; lineNumber < realLineNumber; lineNumber++) {
-            if (dataContext.isFinish()) {
-                throw new RuntimeException("DataContext is finished!");
-            }
-            if (loadData.getIgnoreLineNumber() != 0) {
-                loadData.setIgnoreLineNumber(loadData.getIgnoreLineNumber() - 1);
-                continue;
+        LineParser(BlockingQueue<byte[]> input) {
+            this.input = input;
+        }
+
+        void parse(byte[] block) {
+            int rows;
+            try {
+                rows = parseLines(new String(block, charset));
+            } finally {
+                dataContext.getDataCacheManager().releaseMemory(block.length);
             }
-            if (lineContents.get(lineNumber).equals("")) {
-                // 与Mysql的处理略有不同，mysql处理时可以会插入默认值，mysql支持insert into table values (); 而我们目前不支持
-                loadData.incrementEmptyLine();
-                continue;
+            dataContext.addParsedRows(rows);
+            if (input.isEmpty() && dataContext.getDataCacheManager().isFull() && lines.size() > 0) {
+                flush();
             }
+        }
+
+        private int parseLines(String content) {
+            List<String> lineContents = lineSplitter.splitToList(content);
+            Splitter fieldSplitter = dataContext.getFieldSplitter();
 
-            String realLine = lineContents.get(lineNumber);
-            // 处理 starting by条件
-            if (loadData.getLinesStartingBy() != null) {
-                int lineStartIndex = realLine.indexOf(loadData.getLinesStartingBy());
-                if (lineStartIndex == -1 || (lineStartIndex + loadData.getLinesStartingBy().length() == realLine
-                    .length())) {
+            int rows = 0;
+            int realLineNumber = lineContents.size();
+            for (int lineNumber = 0; lineNumber < realLineNumber; lineNumber++) {
+                if (dataContext.isFinish()) {
+                    throw new RuntimeException("DataContext is finished!");
+                }
+                if (lineContents.get(lineNumber).equals("")) {
+                    // 与Mysql的处理略有不同，mysql处理时可以会插入默认值，mysql支持insert into table values (); 而我们目前不支持
                     loadData.incrementEmptyLine();
                     continue;
-                } else {
-                    realLine =
-                        realLine.substring(lineStartIndex + loadData.getLinesStartingBy().length());
                 }
-            }
 
-            String[] fields = null;
-            if (loadData.getEnclose() != null) {
-                List<String> stringList = Splitter.on(loadData.getOriginFieldTerminatedBy()).splitToList(realLine);
-                fields = new String[stringList.size()];
-                for (int fieldIndex = 0; fieldIndex < stringList.size(); fieldIndex++) {
-                    fields[fieldIndex] = stringList.get(fieldIndex);
-                    // 如果有enclosed by，则进行处理
-                    if (!"".equals(loadData.getEnclose())) {
-                        if (fields[fieldIndex].length() < 2) {
-                            continue;
-                        }
-                        if ((fields[fieldIndex].startsWith(loadData.getEnclose())) && fields[fieldIndex]
-                            .endsWith(loadData.getEnclose())) {
-                            fields[fieldIndex] = fields[fieldIndex].substring(1, fields[fieldIndex].length() - 1);
-                        }
+                String realLine = lineContents.get(lineNumber);
+                // 处理 starting by条件
+                if (loadData.getLinesStartingBy() != null) {
+                    int lineStartIndex = realLine.indexOf(loadData.getLinesStartingBy());
+                    if (lineStartIndex == -1 || (lineStartIndex + loadData.getLinesStartingBy().length() == realLine
+                        .length())) {
+                        loadData.incrementEmptyLine();
+                        continue;
+                    } else {
+                        realLine =
+                            realLine.substring(lineStartIndex + loadData.getLinesStartingBy().length());
                     }
                 }
-            }
 
-            if (loadData.getEscape() != null) {
-                if (fields == null) {
-                    List<String> stringList = Splitter.on(loadData.getOriginFieldTerminatedBy()).splitToList(realLine);
+                String[] fields = null;
+                if (loadData.getEnclose() != null) {
+                    List<String> stringList = fieldSplitter.splitToList(realLine);
                     fields = new String[stringList.size()];
                     for (int fieldIndex = 0; fieldIndex < stringList.size(); fieldIndex++) {
-                        fields[fieldIndex] = StringEscapeUtils.unescapeJava(stringList.get(fieldIndex));
-                    }
-                } else {
-                    for (int fieldIndex = 0; fieldIndex < fields.length; fieldIndex++) {
-                        fields[fieldIndex] = StringEscapeUtils.unescapeJava(fields[fieldIndex]);
+                        fields[fieldIndex] = stringList.get(fieldIndex);
+                        // 如果有enclosed by，则进行处理
+                        if (!"".equals(loadData.getEnclose())) {
+                            if (fields[fieldIndex].length() < 2) {
+                                continue;
+                            }
+                            if ((fields[fieldIndex].startsWith(loadData.getEnclose())) && fields[fieldIndex]
+                                .endsWith(loadData.getEnclose())) {
+                                fields[fieldIndex] = fields[fieldIndex].substring(1, fields[fieldIndex].length() - 1);
+                            }
+                        }
                     }
                 }
-            }
 
-            if (loadData.getOutputColumnsIndex() == null || loadData.getOutputColumnsIndex().size() == 0) {
-                if (fields != null) {
-                    realLine = String.join(loadData.getOriginFieldTerminatedBy(), fields);
-                }
-            } else {
-                if (fields == null) {
-                    List<String> stringList = Splitter.on(loadData.getOriginFieldTerminatedBy()).splitToList(realLine);
-                    fields = new String[stringList.size()];
-                    for (int fieldIndex = 0; fieldIndex < stringList.size(); fieldIndex++) {
-                        fields[fieldIndex] = stringList.get(fieldIndex);
+                if (loadData.getEscape() != null) {
+                    if (fields == null) {
+                        List<String> stringList = fieldSplitter.splitToList(realLine);
+                        fields = new String[stringList.size()];
+                        for (int fieldIndex = 0; fieldIndex < stringList.size(); fieldIndex++) {
+                            fields[fieldIndex] = StringEscapeUtils.unescapeJava(stringList.get(fieldIndex));
+                        }
+                    } else {
+                        for (int fieldIndex = 0; fieldIndex < fields.length; fieldIndex++) {
+                            fields[fieldIndex] = StringEscapeUtils.unescapeJava(fields[fieldIndex]);
+                        }
                     }
                 }
-                List<Integer> outColumnsIndex = loadData.getOutputColumnsIndex();
-                boolean isFirst = true;
-                StringBuilder tempLine = new StringBuilder("");
-                for (Integer columnIndex : outColumnsIndex) {
-                    if (isFirst) {
-                        tempLine.append(fields[columnIndex]);
-                        isFirst = false;
-                    } else {
-                        tempLine.append(loadData.getOriginFieldTerminatedBy()).append(fields[columnIndex]);
+
+                if (loadData.getOutputColumnsIndex() == null || loadData.getOutputColumnsIndex().size() == 0) {
+                    if (fields != null) {
+                        realLine = String.join(loadData.getOriginFieldTerminatedBy(), fields);
+                    }
+                } else {
+                    if (fields == null) {
+                        List<String> stringList = fieldSplitter.splitToList(realLine);
+                        fields = stringList.toArray(new String[stringList.size()]);
+                    }
+                    List<Integer> outColumnsIndex = loadData.getOutputColumnsIndex();
+                    boolean isFirst = true;
+                    StringBuilder tempLine = new StringBuilder(realLine.length());
+                    for (Integer columnIndex : outColumnsIndex) {
+                        if (isFirst) {
+                            tempLine.append(fields[columnIndex]);
+                            isFirst = false;
+                        } else {
+                            tempLine.append(loadData.getOriginFieldTerminatedBy()).append(fields[columnIndex]);
+                        }
                     }
+                    realLine = tempLine.toString();
                 }
-                realLine = tempLine.toString();
-            }
 
-            long length = SizeOf.sizeOfCharArray(realLine.length());
-            dataContext.getDataCacheManager().allocateMemory(length);
-            lines.add(realLine);
-            if (lines.size() >= dataContext.getBatchInsertNum()) {
-                dataContext.getParameters().add(lines);
-                lines = new ArrayList<>();
+                long length = SizeOf.sizeOfCharArray(realLine.length());
+                dataContext.getDataCacheManager().allocateMemory(length);
+                lines.add(realLine);
+                rows++;
+                if (lines.size() >= dataContext.getBatchInsertNum()) {
+                    flush();
+                }
             }
+            return rows;
         }
-        if (cacheData.isEmpty() && dataContext.getDataCacheManager().isFull() && lines.size() > 0) {
-            dataContext.getParameters().add(lines);
-            lines = new ArrayList<>();
-        }
-        if (isEnd) {
+
+        void flush() {
             if (lines.size() > 0) {
                 dataContext.getParameters().add(lines);
                 lines = new ArrayList<>();
             }
-            dataContext.getParameters().add(END);
-        }
-        restData = tempRestData;
-        if (isEnd && restData.length > 0) {
-            throw new TddlNestableRuntimeException("restData should be empty here!");
         }
     }
 
@@ -641,6 +801,9 @@ public final class ServerLoadDataHandler implements LoadDataHandler {
                     Collectors.toList()).indexOf(true));
         }
         dataContext.setSwapColumns(loadData.isSwapColumns());
+        this.progressIntervalNanos =
+            TimeUnit.MILLISECONDS.toNanos(paramManager.getLong(ConnectionParams.LOAD_DATA_PROGRESS_INTERVAL));
+        initParsers(dataContext, paramManager.getInt(ConnectionParams.LOAD_DATA_PARSER_PARALLELISM));
         if (loadData.isLocal()) {
             handler.sendRequestFilePacket(strSql);
         }
@@ -652,6 +815,13 @@ public final class ServerLoadDataHandler implements LoadDataHandler {
                     MDC.setContextMap(mdcContext);
                     return handle();
                 }, null);
+            for (int i = 0; lineBlocks != null && i < parserParallelism; i++) {
+                serverConnection.getSchemaConfig().getDataSource().borrowExecutorService().submitListenableFuture(
+                    serverConnection.getSchema(), serverConnection.getTraceId(), -1, () -> {
+                        MDC.setContextMap(mdcContext);
+                        return runParser();
+                    }, null);
+            }
             if (!loadData.isLocal()) {
                 serverConnection.getSchemaConfig().getDataSource().borrowExecutorService().submitListenableFuture(
                     serverConnection.getSchema(), serverConnection.getTraceId(), -1, () -> {
@@ -667,6 +837,34 @@ public final class ServerLoadDataHandler implements LoadDataHandler {
         }
     }
 
+    /**
+     * 并发度大于1时由runParser线程解析, 否则在handle线程中直接解析
+     */
+    @VisibleForTesting
+    void initParsers(LoadDataContext dataContext, int parserParallelism) {
+        this.dataContext = dataContext;
+        this.charset = dataContext.getCharset();
+        this.lineTerminatedBy = loadData.getOriginLineTerminatedBy().getBytes();
+        this.lineSplitter = Splitter.on(loadData.getOriginLineTerminatedBy());
+        this.parserParallelism = parserParallelism;
+        if (parserParallelism > 1) {
+            this.lineBlocks = new ArrayBlockingQueue<>(parserParallelism * 2);
+            this.runningParsers = new AtomicInteger(parserParallelism);
+        } else {
+            this.inlineParser = new LineParser(cacheData);
+        }
+    }
+
+    @VisibleForTesting
+    void setLoadData(LoadData loadData) {
+        this.loadData = loadData;
+    }
+
+    @VisibleForTesting
+    void setResultHandler(LoadDataResultHandler handler) {
+        this.handler = handler;
+    }
+
     /**
      * 不停的从buffer中获取拼接好的batch insert sql 执行
      */
@@ -691,7 +889,9 @@ public final class ServerLoadDataHandler implements LoadDataHandler {
         if (dataContext != null) {
             this.dataContext.clear();
         }
-        this.lines.clear();
+        if (this.lineBlocks != null) {
+            this.lineBlocks.clear();
+        }
         this.cacheData.clear();
         this.cacheData.add(END_BYTE);
         restData = null;
@@ -772,6 +972,9 @@ public final class ServerLoadDataHandler implements LoadDataHandler {
             ok.warningCount = serverConnection.getTddlConnection().getWarningCount();
             ok.message = ServerConnection.encodeString(
                 "skipped lines: " + skippedEmptyLines, serverConnection.getCharset());
+            if (dataContext != null) {
+                logger.info("Load data finished, affected rows: " + affectedRows + ", " + dataContext.getProgress());
+            }
         }
 
         @Override
@@ -0,0 +1,217 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.server.executor.utils;
+
+import com.alibaba.polardbx.common.charset.CharsetName;
+import com.alibaba.polardbx.common.charset.CollationName;
+import com.alibaba.polardbx.common.datatype.Decimal;
+import com.alibaba.polardbx.net.FrontendConnection;
+import com.alibaba.polardbx.net.compress.PacketStreamOutputProxy;
+import com.alibaba.polardbx.optimizer.chunk.Block;
+import com.alibaba.polardbx.optimizer.chunk.DecimalBlockBuilder;
+import com.alibaba.polardbx.optimizer.chunk.DoubleBlockBuilder;
+import com.alibaba.polardbx.optimizer.chunk.IntegerBlockBuilder;
+import com.alibaba.polardbx.optimizer.chunk.LongBlockBuilder;
+import com.alibaba.polardbx.optimizer.chunk.SliceBlockBuilder;
+import com.alibaba.polardbx.optimizer.core.datatype.SliceType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class ChunkRowEncoderTest {
+
+    @Test
+    public void testFormatLong() {
+        long[] values = {
+            0, 1, -1, 9, 10, -10, 123456789, -987654321,
+            Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1};
+        byte[] buffer = new byte[20];
+        for (long v : values) {
+            int len = ChunkRowEncoder.formatLong(v, buffer);
+            Assert.assertEquals(Long.toString(v), new String(buffer, 0, len));
+        }
+    }
+
+    @Test
+    public void testLongText() {
+        long[] values = {0, -1, 42, Long.MAX_VALUE, Long.MIN_VALUE};
+        LongBlockBuilder builder = new LongBlockBuilder(values.length);
+        for (long v : values) {
+            builder.writeLong(v);
+        }
+        Block block = builder.build();
+        ChunkRowEncoder.ColumnEncoder encoder = new ChunkRowEncoder.LongTextEncoder();
+        for (int i = 0; i < values.length; i++) {
+            Assert.assertEquals(Long.toString(values[i]), new String(encode(encoder, block, i)));
+        }
+    }
+
+    @Test
+    public void testIntegerText() {
+        int[] values = {0, -7, 123456, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        IntegerBlockBuilder builder = new IntegerBlockBuilder(values.length);
+        for (int v : values) {
+            builder.writeInt(v);
+        }
+        Block block = builder.build();
+        ChunkRowEncoder.ColumnEncoder encoder = new ChunkRowEncoder.IntegerTextEncoder();
+        for (int i = 0; i < values.length; i++) {
+            Assert.assertEquals(Integer.toString(values[i]), new String(encode(encoder, block, i)));
+        }
+    }
+
+    @Test
+    public void testDecimalText() {
+        String[] values = {
+            "0", "-0.5", "123.450", "-98765432109876543210.0123456789", "0.000000000000000000000000000001"};
+        DecimalBlockBuilder builder = new DecimalBlockBuilder(values.length);
+        for (String v : values) {
+            builder.writeDecimal(Decimal.fromString(v));
+        }
+        Block block = builder.build();
+        ChunkRowEncoder.ColumnEncoder encoder = new ChunkRowEncoder.DecimalTextEncoder();
+        for (int i = 0; i < values.length; i++) {
+            // 与通用路径的Decimal.toString一致
+            Assert.assertEquals(Decimal.fromString(values[i]).toString(), new String(encode(encoder, block, i)));
+        }
+    }
+
+    @Test
+    public void testSliceText() {
+        char[] large = new char[(1 << 16) + 10];
+        Arrays.fill(large, 'x');
+        String[] values = {"", "abc", "中文字符串", new String(large), "after large"};
+        SliceBlockBuilder builder =
+            new SliceBlockBuilder(new SliceType(CharsetName.UTF8MB4, CollationName.UTF8MB4_GENERAL_CI), 16);
+        for (String v : values) {
+            builder.writeString(v);
+        }
+        Block block = builder.build();
+        ChunkRowEncoder.ColumnEncoder encoder = new ChunkRowEncoder.SliceTextEncoder();
+        for (int i = 0; i < values.length; i++) {
+            Assert.assertArrayEquals(values[i].getBytes(StandardCharsets.UTF_8), encode(encoder, block, i));
+        }
+    }
+
+    @Test
+    public void testBinary() {
+        LongBlockBuilder longs = new LongBlockBuilder(2);
+        longs.writeLong(Long.MIN_VALUE);
+        longs.writeLong(0x0102030405060708L);
+        IntegerBlockBuilder ints = new IntegerBlockBuilder(2);
+        ints.writeInt(-2);
+        ints.writeInt(0x01020304);
+        DoubleBlockBuilder doubles = new DoubleBlockBuilder(2);
+        doubles.writeDouble(-1.5d);
+        doubles.writeDouble(Double.MAX_VALUE);
+
+        Block longBlock = longs.build();
+        Block intBlock = ints.build();
+        Block doubleBlock = doubles.build();
+        ChunkRowEncoder.ColumnEncoder longEncoder = new ChunkRowEncoder.LongBinaryEncoder();
+        ChunkRowEncoder.ColumnEncoder intEncoder = new ChunkRowEncoder.IntegerBinaryEncoder();
+        ChunkRowEncoder.ColumnEncoder doubleEncoder = new ChunkRowEncoder.DoubleBinaryEncoder();
+        for (int i = 0; i < 2; i++) {
+            Assert.assertArrayEquals(littleEndian(Long.BYTES).putLong(longBlock.getLong(i)).array(),
+                encode(longEncoder, longBlock, i));
+            Assert.assertArrayEquals(littleEndian(Integer.BYTES).putInt(intBlock.getInt(i)).array(),
+                encode(intEncoder, intBlock, i));
+            Assert.assertArrayEquals(littleEndian(Double.BYTES).putDouble(doubleBlock.getDouble(i)).array(),
+                encode(doubleEncoder, doubleBlock, i));
+        }
+    }
+
+    @Test
+    public void testUnexpectedBlockFallsBack() {
+        IntegerBlockBuilder ints = new IntegerBlockBuilder(1);
+        ints.writeInt(1);
+        Block intBlock = ints.build();
+        LongBlockBuilder longs = new LongBlockBuilder(1);
+        longs.writeLong(1);
+        Block longBlock = longs.build();
+
+        Assert.assertEquals(-1, new ChunkRowEncoder.LongTextEncoder().prepare(intBlock, 0));
+        Assert.assertEquals(-1, new ChunkRowEncoder.IntegerTextEncoder().prepare(longBlock, 0));
+        Assert.assertEquals(-1, new ChunkRowEncoder.DecimalTextEncoder().prepare(longBlock, 0));
+        Assert.assertEquals(-1, new ChunkRowEncoder.SliceTextEncoder().prepare(longBlock, 0));
+        Assert.assertEquals(-1, new ChunkRowEncoder.LongBinaryEncoder().prepare(intBlock, 0));
+        Assert.assertEquals(-1, new ChunkRowEncoder.IntegerBinaryEncoder().prepare(longBlock, 0));
+        Assert.assertEquals(-1, new ChunkRowEncoder.DoubleBinaryEncoder().prepare(longBlock, 0));
+    }
+
+    private static byte[] encode(ChunkRowEncoder.ColumnEncoder encoder, Block block, int position) {
+        int len = encoder.prepare(block, position);
+        Assert.assertTrue(len >= 0);
+        CapturingProxy proxy = new CapturingProxy();
+        encoder.write(proxy);
+        byte[] bytes = proxy.toByteArray();
+        Assert.assertEquals(len, bytes.length);
+        return bytes;
+    }
+
+    private static ByteBuffer littleEndian(int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * 收集写出的字节，MySQL协议中的整数为小端
+     */
+    private static class CapturingProxy extends PacketStreamOutputProxy {
+
+        CapturingProxy() {
+            super(null);
+            this.waitForCompressStream = new ByteArrayOutputStream();
+        }
+
+        byte[] toByteArray() {
+            return waitForCompressStream.toByteArray();
+        }
+
+        @Override
+        public FrontendConnection getConnection() {
+            return null;
+        }
+
+        @Override
+        public void write(byte[] src) {
+            waitForCompressStream.write(src, 0, src.length);
+        }
+
+        @Override
+        public void write(byte[] src, int off, int len) {
+            waitForCompressStream.write(src, off, len);
+        }
+
+        @Override
+        public void checkWriteCapacity(int capacity) {
+        }
+
+        @Override
+        public void packetBegin() {
+        }
+
+        @Override
+        public void packetEnd() {
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.server.handler;
+
+import com.alibaba.polardbx.optimizer.context.LoadDataContext;
+import com.alibaba.polardbx.optimizer.memory.MemoryPool;
+import com.alibaba.polardbx.optimizer.memory.MemoryType;
+import com.alibaba.polardbx.optimizer.utils.LoadDataCacheManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.alibaba.polardbx.optimizer.context.LoadDataContext.END;
+
+public class ServerLoadDataHandlerTest {
+
+    /**
+     * Small enough that most lines are cut across two packets
+     */
+    private static final int PACKET_SIZE = 7;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final AtomicInteger reportedErrors = new AtomicInteger();
+
+    private LoadDataContext dataContext;
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testInlineParseKeepsOrder() throws Exception {
+        List<String> rows = load(newLoadData(2), 1, "a,1\nb,2\n\nc,3\nd,4\ne,5\n");
+        Assert.assertEquals(Arrays.asList("c,3", "d,4", "e,5"), rows);
+        Assert.assertEquals(0, reportedErrors.get());
+    }
+
+    @Test
+    public void testParallelParse() throws Exception {
+        StringBuilder content = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            String line = "k" + i + "," + i;
+            content.append(line).append('\n');
+            // IGNORE n LINES is applied before the lines are handed to the parsers
+            if (i >= 3) {
+                expected.add(line);
+            }
+        }
+        List<String> rows = load(newLoadData(3), 4, content.toString());
+        Assert.assertEquals(expected.size(), rows.size());
+        Assert.assertEquals(new HashSet<>(expected), new HashSet<>(rows));
+        Assert.assertEquals(0, reportedErrors.get());
+    }
+
+    @Test
+    public void testParserErrorReportedOnce() throws Exception {
+        LoadData loadData = newLoadData(0);
+        // every parser fails on the missing column
+        loadData.setOutputColumnsIndex(Collections.singletonList(5));
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append("k").append(i).append(',').append(i).append('\n');
+        }
+        List<String> rows = load(loadData, 4, content.toString());
+        Assert.assertTrue(rows.isEmpty());
+        Assert.assertEquals(1, reportedErrors.get());
+        Assert.assertTrue(dataContext.getThrowable() instanceof ArrayIndexOutOfBoundsException);
+    }
+
+    private static LoadData newLoadData(int ignoreLineNumber) {
+        LoadData loadData = new LoadData("load data local infile 'test.csv' into table t");
+        loadData.setOriginLineTerminatedBy("\n");
+        loadData.setOriginFieldTerminatedBy(",");
+        loadData.setIgnoreLineNumber(ignoreLineNumber);
+        return loadData;
+    }
+
+    private List<String> load(LoadData loadData, int parserParallelism, String content) throws Exception {
+        ServerLoadDataHandler loadDataHandler = new ServerLoadDataHandler(null);
+        loadDataHandler.setLoadData(loadData);
+        loadDataHandler.setResultHandler(loadDataHandler.new LoadDataResultHandler() {
+            @Override
+            public void handleError(int errCode, Throwable ex, String sql, boolean fatal) {
+                reportedErrors.incrementAndGet();
+            }
+        });
+        dataContext = new LoadDataContext(
+            new LoadDataCacheManager(new MemoryPool("load_data_test", Long.MAX_VALUE, MemoryType.OTHER), 1L << 30),
+            new LinkedBlockingQueue<>(), 100, loadData.getSql(), Collections.emptyList(), ",",
+            StandardCharsets.UTF_8, Collections.emptyList(), "t");
+        loadDataHandler.initParsers(dataContext, parserParallelism);
+
+        List<Future<?>> futures = new ArrayList<>();
+        futures.add(executor.submit(loadDataHandler::handle));
+        for (int i = 0; parserParallelism > 1 && i < parserParallelism; i++) {
+            futures.add(executor.submit(loadDataHandler::runParser));
+        }
+
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        for (int offset = 0; offset < bytes.length; offset += PACKET_SIZE) {
+            int length = Math.min(PACKET_SIZE, bytes.length - offset);
+            byte[] packet = new byte[4 + length];
+            System.arraycopy(bytes, offset, packet, 4, length);
+            loadDataHandler.putData(packet);
+        }
+        loadDataHandler.end();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+
+        List<String> rows = new ArrayList<>();
+        List<String> batch;
+        while ((batch = dataContext.getParameters().poll(30, TimeUnit.SECONDS)) != END) {
+            Assert.assertNotNull("missing end of load data", batch);
+            rows.addAll(batch);
+        }
+        return rows;
+    }
+}
@@ -35,6 +35,13 @@ public interface ITsoTransaction extends IMppTsoTransaction {
         return getManager().getTimestampOracle().nextTimestamp();
     }
 
+    /**
+     * Timestamp for a read-only snapshot, may come from a prefetched window
+     */
+    default long nextSnapshotTimestamp() {
+        return getManager().getTimestampOracle().nextSnapshotTimestamp();
+    }
+
     default void updateSnapshotTimestamp() {
         // do nothing
     }
@@ -59,7 +59,7 @@ public class ReadOnlyTsoTransaction extends AutoCommitTransaction implements ITs
     @Override
     public long getSnapshotSeq() {
         if (snapshotTimestamp < 0) {
-            snapshotTimestamp = nextTimestamp();
+            snapshotTimestamp = nextSnapshotTimestamp();
         }
         return snapshotTimestamp;
     }
@@ -67,7 +67,7 @@ public class ReadOnlyTsoTransaction extends AutoCommitTransaction implements ITs
     @Override
     public void updateSnapshotTimestamp() {
         if (!this.autoCommit && isolationLevel == Connection.TRANSACTION_READ_COMMITTED) {
-            snapshotTimestamp = nextTimestamp();
+            snapshotTimestamp = nextSnapshotTimestamp();
         }
     }
 
@@ -34,6 +34,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.SQLIntegrityConstraintViolationException;
 import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
 
 /**
  * TSO Transaction, with global MVCC support
@@ -157,6 +158,14 @@ public class TsoTransaction extends ShareReadViewTransaction implements ITsoTran
             commitTimestamp, logConn);
     }
 
+    private void writeCommitLogGrouped() throws SQLException {
+        globalTxLogManager.appendGroupCommit(primaryGroup, id, getType(), TransactionState.SUCCEED,
+            connectionContext, commitTimestamp,
+            TimeUnit.MICROSECONDS.toNanos(
+                executionContext.getParamManager().getLong(ConnectionParams.GLOBAL_TX_LOG_GROUP_COMMIT_WINDOW)),
+            executionContext.getParamManager().getInt(ConnectionParams.GLOBAL_TX_LOG_GROUP_COMMIT_MAX_BATCH));
+    }
+
     @Override
     protected void prepareConnections() {
         forEachHeldConnection((group, conn, participated) -> {
@@ -228,12 +237,20 @@ public class TsoTransaction extends ShareReadViewTransaction implements ITsoTran
             commitTimestamp = nextTimestamp();
 
             if (!executionContext.getParamManager().getBoolean(ConnectionParams.TSO_OMIT_GLOBAL_TX_LOG)) {
-                try (IConnection logConn = dataSourceCache.get(primaryGroup).getConnection(MasterSlave.MASTER_ONLY)) {
+                final boolean groupCommit =
+                    executionContext.getParamManager().getBoolean(ConnectionParams.ENABLE_GLOBAL_TX_LOG_GROUP_COMMIT);
+                // Group commit writes the log via connections of its own
+                try (IConnection logConn = groupCommit ? null :
+                    dataSourceCache.get(primaryGroup).getConnection(MasterSlave.MASTER_ONLY)) {
                     beforePrimaryCommit();
                     commitState = TransactionCommitState.UNKNOWN;
 
                     duringPrimaryCommit();
-                    writeCommitLog(logConn);
+                    if (groupCommit) {
+                        writeCommitLogGrouped();
+                    } else {
+                        writeCommitLog(logConn);
+                    }
 
                     afterPrimaryCommit();
                 } catch (SQLIntegrityConstraintViolationException ex) {
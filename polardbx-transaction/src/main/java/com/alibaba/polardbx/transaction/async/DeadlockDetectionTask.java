@@ -32,13 +32,20 @@ import com.alibaba.polardbx.transaction.TransactionExecutor;
 import com.alibaba.polardbx.transaction.TransactionLogger;
 import com.alibaba.polardbx.transaction.sync.FetchTransForDeadlockDetectionSyncAction;
 import com.alibaba.polardbx.transaction.utils.DiGraph;
+import org.apache.calcite.util.Pair;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiConsumer;
 
 /**
@@ -54,6 +61,26 @@ public class DeadlockDetectionTask implements Runnable {
 
     private final TransactionExecutor executor;
 
+    /**
+     * Max deadlocks resolved in one round
+     */
+    private static final int MAX_VICTIMS_PER_ROUND = 16;
+
+    /**
+     * Wait-for graph kept between rounds, only the edges changed since the last round are applied to it
+     */
+    private DiGraph<Long> graph = new DiGraph<>();
+
+    /**
+     * Edges of the last round by group
+     */
+    private Map<String, Set<Pair<Long, Long>>> lastEdges = new HashMap<>();
+
+    /**
+     * Vertices to start cycle detection from: sources of new edges and vertices of unresolved deadlocks
+     */
+    private Set<Long> dirty = new HashSet<>();
+
     private static Class killSyncActionClass;
 
     static {
@@ -71,17 +98,28 @@ public class DeadlockDetectionTask implements Runnable {
         this.executor = executor;
     }
 
+    public interface LockWaitConsumer {
+
+        void accept(long waiting, long blocking, long waitingRowsModified, long blockingRowsModified);
+    }
+
     public void fetchLockWaits(String group, IDataSource dataSource, BiConsumer<Long, Long> consumer) {
+        fetchLockWaits(group, dataSource,
+            (waiting, blocking, waitingRowsModified, blockingRowsModified) -> consumer.accept(waiting, blocking));
+    }
+
+    public void fetchLockWaits(String group, IDataSource dataSource, LockWaitConsumer consumer) {
         try (IConnection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
             ResultSet rs = stmt.executeQuery(
-                "SELECT trx_a.trx_mysql_thread_id AS waiting, trx_b.trx_mysql_thread_id AS blocking " +
+                "SELECT trx_a.trx_mysql_thread_id AS waiting, trx_b.trx_mysql_thread_id AS blocking, " +
+                    "trx_a.trx_rows_modified AS waiting_rows, trx_b.trx_rows_modified AS blocking_rows " +
                     "FROM information_schema.innodb_lock_waits, information_schema.INNODB_TRX AS trx_a, information_schema.INNODB_TRX AS trx_b "
                     +
                     "WHERE trx_a.trx_id = requesting_trx_id AND trx_b.trx_id = blocking_trx_id;");
             while (rs.next()) {
                 final long waiting = rs.getLong(1);
                 final long blocking = rs.getLong(2);
-                consumer.accept(waiting, blocking);
+                consumer.accept(waiting, blocking, rs.getLong(3), rs.getLong(4));
             }
         } catch (SQLException ex) {
             throw new RuntimeException("Failed to fetch lock waits on group " + group, ex);
@@ -123,53 +161,144 @@ public class DeadlockDetectionTask implements Runnable {
         SyncManagerHelper.sync(killSyncAction);
     }
 
+    /**
+     * Apply the lock waits of a group found in this round to the graph, and add up the rows modified by each
+     * waiting or blocking transaction.
+     */
+    private void applyLockWaits(String group, IDataSource dataSource,
+                                InformationSchemaInnodbTrxHandler.LookupSet lookupSet,
+                                Map<Long, Long> rowsModified) {
+        final Set<Pair<Long, Long>> edges = new HashSet<>();
+        final Map<Long, Long> groupRowsModified = new HashMap<>();
+        fetchLockWaits(group, dataSource, (waiting, blocking, waitingRows, blockingRows) -> {
+            final Long waitingTrx = lookupSet.connGroup2Tran
+                .get(new InformationSchemaInnodbTrxHandler.GroupConnPair(group, waiting));
+            final Long blockingTrx = lookupSet.connGroup2Tran
+                .get(new InformationSchemaInnodbTrxHandler.GroupConnPair(group, blocking));
+            if (waitingTrx == null || blockingTrx == null) {
+                return;
+            }
+            edges.add(Pair.of(waitingTrx, blockingTrx));
+            groupRowsModified.put(waitingTrx, waitingRows);
+            groupRowsModified.put(blockingTrx, blockingRows);
+        });
+        groupRowsModified.forEach((trx, rows) -> rowsModified.merge(trx, rows, Long::sum));
+
+        final Set<Pair<Long, Long>> previous = lastEdges.getOrDefault(group, Collections.emptySet());
+        for (Pair<Long, Long> edge : edges) {
+            if (!previous.contains(edge)) {
+                graph.addDiEdge(edge.getKey(), edge.getValue());
+                // A new cycle must contain a new edge.
+                dirty.add(edge.getKey());
+            }
+        }
+        for (Pair<Long, Long> edge : previous) {
+            if (!edges.contains(edge)) {
+                graph.removeDiEdge(edge.getKey(), edge.getValue());
+            }
+        }
+        if (edges.isEmpty()) {
+            lastEdges.remove(group);
+        } else {
+            lastEdges.put(group, edges);
+        }
+    }
+
+    /**
+     * Choose the transaction cheapest to roll back: the one modified the fewest rows, then the youngest one.
+     */
+    static long chooseVictim(List<Long> cycle, Map<Long, Long> rowsModified) {
+        long victim = cycle.get(0);
+        long victimRows = rowsModified.getOrDefault(victim, 0L);
+        for (int i = 1; i < cycle.size(); i++) {
+            final long trx = cycle.get(i);
+            final long rows = rowsModified.getOrDefault(trx, 0L);
+            // Transaction id grows with its begin time.
+            if (rows < victimRows || (rows == victimRows && trx > victim)) {
+                victim = trx;
+                victimRows = rows;
+            }
+        }
+        return victim;
+    }
+
+    private void reset() {
+        graph = new DiGraph<>();
+        lastEdges = new HashMap<>();
+        dirty = new HashSet<>();
+    }
+
     @Override
     public void run() {
 
         boolean hasLeadership = ExecUtils.hasLeadership(db);
 
         if (!hasLeadership) {
+            if (!lastEdges.isEmpty()) {
+                reset();
+            }
             TransactionLogger.getLogger().debug("Skip deadlock detection task since I am not the leader");
             return;
         }
         logger.debug("Deadlock detection task starts.");
         try {
-            final DiGraph<Long> graph = new DiGraph<>();
             final InformationSchemaInnodbTrxHandler.LookupSet lookupSet = fetchTransInfo(db);
-            for (String group : executor.getGroupList()) {
-                final IDataSource dataSource = executor.getGroupExecutor(group).getDataSource();
-                fetchLockWaits(group, dataSource, (waiting, blocking) -> {
-                    final Long waitingTrx = lookupSet.connGroup2Tran
-                        .get(new InformationSchemaInnodbTrxHandler.GroupConnPair(group, waiting));
-                    final Long blockingTrx = lookupSet.connGroup2Tran
-                        .get(new InformationSchemaInnodbTrxHandler.GroupConnPair(group, blocking));
-                    if (waitingTrx == null || blockingTrx == null) {
-                        return;
+            final Map<Long, Long> rowsModified = new HashMap<>();
+            final List<String> groups = executor.getGroupList();
+            // Groups no longer listed leave their edges in the graph unless removed here.
+            final Iterator<Map.Entry<String, Set<Pair<Long, Long>>>> it = lastEdges.entrySet().iterator();
+            while (it.hasNext()) {
+                final Map.Entry<String, Set<Pair<Long, Long>>> entry = it.next();
+                if (!groups.contains(entry.getKey())) {
+                    for (Pair<Long, Long> edge : entry.getValue()) {
+                        graph.removeDiEdge(edge.getKey(), edge.getValue());
                     }
-                    graph.addDiEdge(waitingTrx, blockingTrx);
-                });
+                    it.remove();
+                }
             }
-            graph.detect().ifPresent((cycle) -> {
+            for (String group : groups) {
+                final IDataSource dataSource = executor.getGroupExecutor(group).getDataSource();
+                applyLockWaits(group, dataSource, lookupSet, rowsModified);
+            }
+
+            final Set<Long> victims = new HashSet<>();
+            final Set<Long> unresolved = new HashSet<>();
+            while (victims.size() < MAX_VICTIMS_PER_ROUND) {
+                final Optional<ArrayList<Long>> detected = graph.detectFrom(dirty, victims);
+                if (!detected.isPresent()) {
+                    break;
+                }
+                final ArrayList<Long> cycle = detected.get();
                 assert cycle.size() >= 2;
                 StringBuilder sb = new StringBuilder();
                 sb.append("Deadlock detected, ");
-                for (int i = 0; i < cycle.size() - 1; i++) {
+                for (int i = 0; i < cycle.size(); i++) {
                     long u = cycle.get(i);
-                    long v = cycle.get(i + 1);
+                    long v = cycle.get((i + 1) % cycle.size());
                     sb.append(Long.toHexString(u)).append(" waiting ").append(Long.toHexString(v)).append(", ");
                 }
 
-                // TODO: kill transaction by some priority, such as create time, or prefer to kill internal transaction.
-                Long toKill = cycle.get(0);
+                final long toKill = chooseVictim(cycle, rowsModified);
+                victims.add(toKill);
+                // Check again next round in case the victim has not been rolled back by then.
+                unresolved.addAll(cycle);
+
                 sb.append("Will rollback ").append(Long.toHexString(toKill)).append('.');
                 String errorDetail = sb.toString();
                 TransactionLogger.getLogger().warn(errorDetail);
                 logger.warn(errorDetail);
                 EventLogger.log(EventType.DEAD_LOCK_DETECTION, errorDetail);
 
-                long toKillFrontendConnId = lookupSet.tran2FrontendConnId.get(toKill);
-                killByFrontendConnId(toKillFrontendConnId);
-            });
+                Long toKillFrontendConnId = lookupSet.tran2FrontendConnId.get(toKill);
+                if (toKillFrontendConnId != null) {
+                    killByFrontendConnId(toKillFrontendConnId);
+                }
+            }
+            if (victims.size() >= MAX_VICTIMS_PER_ROUND) {
+                // Not all changed vertices are checked yet.
+                unresolved.addAll(dirty);
+            }
+            dirty = unresolved;
         } catch (Throwable ex) {
             logger.error("Failed to do deadlock detection", ex);
         }
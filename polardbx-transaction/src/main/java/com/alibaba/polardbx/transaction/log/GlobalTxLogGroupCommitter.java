@@ -0,0 +1,251 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.transaction.log;
+
+import com.alibaba.polardbx.common.utils.logger.Logger;
+import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
+import com.alibaba.polardbx.transaction.TransactionState;
+import com.alibaba.polardbx.transaction.TransactionType;
+import com.alibaba.polardbx.transaction.tso.TsoLatencyHistogram;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Group commit of global tx log records.
+ * <p>
+ * Records appended concurrently for the same primary group are written by one multi-row INSERT. The first
+ * appender of a group becomes the leader: it optionally waits for a short window, takes every pending record and
+ * writes them, while the others wait. Records arriving during a write queue up for the next leader. Every appender
+ * returns only after its own record is written, or throws the error of its own record.
+ */
+public class GlobalTxLogGroupCommitter {
+
+    private static final Logger logger = LoggerFactory.getLogger(GlobalTxLogGroupCommitter.class);
+
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    static final int BATCH_SIZE_BUCKETS = 14;
+
+    /**
+     * Writes a batch of records to the global tx log of a group in one statement
+     */
+    public interface Writer {
+
+        void write(String group, List<Record> records) throws SQLException;
+    }
+
+    public static final class Record {
+
+        final long txid;
+        final TransactionType type;
+        final TransactionState state;
+        final ConnectionContext context;
+        final long commitTimestamp;
+
+        /**
+         * Guarded by the lock of the group
+         */
+        private boolean done;
+        private SQLException error;
+
+        public Record(long txid, TransactionType type, TransactionState state, ConnectionContext context,
+                      long commitTimestamp) {
+            this.txid = txid;
+            this.type = type;
+            this.state = state;
+            this.context = context;
+            this.commitTimestamp = commitTimestamp;
+        }
+    }
+
+    private static final class GroupQueue {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition written = lock.newCondition();
+        private final Condition batchFull = lock.newCondition();
+        private List<Record> pending = new ArrayList<>();
+        private boolean writing = false;
+    }
+
+    private final Writer writer;
+    private final ConcurrentHashMap<String, GroupQueue> queues = new ConcurrentHashMap<>();
+
+    private final TsoLatencyHistogram waitLatency = new TsoLatencyHistogram();
+    private final LongAdder[] batchSizes = new LongAdder[BATCH_SIZE_BUCKETS];
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder recordCount = new LongAdder();
+    private volatile long lastReportNanos = System.nanoTime();
+
+    public GlobalTxLogGroupCommitter(Writer writer) {
+        this.writer = writer;
+        for (int i = 0; i < BATCH_SIZE_BUCKETS; i++) {
+            batchSizes[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Append a record and wait until it is written
+     *
+     * @param windowNanos how long a leader waits for more records before writing, 0 for not waiting
+     * @param maxBatchSize max records written by one statement, a full batch also ends the window
+     */
+    public void append(String group, Record record, long windowNanos, int maxBatchSize) throws SQLException {
+        final long startNanos = System.nanoTime();
+        final GroupQueue queue = queues.computeIfAbsent(group, g -> new GroupQueue());
+
+        List<Record> batch = null;
+        queue.lock.lock();
+        try {
+            queue.pending.add(record);
+            if (queue.pending.size() >= maxBatchSize) {
+                queue.batchFull.signal();
+            }
+            while (!record.done && queue.writing) {
+                queue.written.awaitUninterruptibly();
+            }
+            if (!record.done) {
+                // Become the leader of the next batch.
+                queue.writing = true;
+                waitForBatch(queue, windowNanos, maxBatchSize);
+                batch = queue.pending;
+                queue.pending = new ArrayList<>();
+            }
+        } finally {
+            queue.lock.unlock();
+        }
+
+        if (batch != null) {
+            try {
+                writeAll(group, batch, maxBatchSize);
+            } finally {
+                queue.lock.lock();
+                try {
+                    for (Record r : batch) {
+                        r.done = true;
+                    }
+                    queue.writing = false;
+                    queue.written.signalAll();
+                } finally {
+                    queue.lock.unlock();
+                }
+            }
+            report(System.nanoTime());
+        }
+
+        waitLatency.record(System.nanoTime() - startNanos);
+        if (record.error != null) {
+            throw record.error;
+        }
+    }
+
+    private static void waitForBatch(GroupQueue queue, long windowNanos, int maxBatchSize) {
+        long remaining = windowNanos;
+        boolean interrupted = false;
+        while (remaining > 0 && queue.pending.size() < maxBatchSize) {
+            try {
+                remaining = queue.batchFull.awaitNanos(remaining);
+            } catch (InterruptedException e) {
+                // Waiting is only an optimization, write what we have and keep the interrupt.
+                interrupted = true;
+                break;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeAll(String group, List<Record> batch, int maxBatchSize) {
+        for (int from = 0; from < batch.size(); from += maxBatchSize) {
+            writeBatch(group, batch.subList(from, Math.min(from + maxBatchSize, batch.size())));
+        }
+    }
+
+    private void writeBatch(String group, List<Record> records) {
+        try {
+            writer.write(group, records);
+            recordBatch(records.size());
+        } catch (SQLIntegrityConstraintViolationException e) {
+            if (records.size() == 1) {
+                records.get(0).error = e;
+                return;
+            }
+            // Some txid already exists, usually aborted by the recover task. Nothing of the batch was written,
+            // so write them one by one to tell which transaction lost.
+            for (Record r : records) {
+                writeBatch(group, Collections.singletonList(r));
+            }
+        } catch (SQLException e) {
+            for (Record r : records) {
+                r.error = e;
+            }
+        } catch (Throwable t) {
+            for (Record r : records) {
+                r.error = new SQLException("Failed to write global tx log on group " + group, t);
+            }
+        }
+    }
+
+    private void recordBatch(int size) {
+        batchSizes[Math.min(32 - Integer.numberOfLeadingZeros(size - 1), BATCH_SIZE_BUCKETS - 1)].increment();
+        batchCount.increment();
+        recordCount.add(size);
+    }
+
+    private void report(long nowNanos) {
+        if (nowNanos - lastReportNanos > REPORT_INTERVAL_NANOS) {
+            lastReportNanos = nowNanos;
+            logger.info(report());
+        }
+    }
+
+    public String report() {
+        StringBuilder sb = new StringBuilder("Global tx log group commit: batches=").append(batchCount.sum())
+            .append(", records=").append(recordCount.sum()).append(", batch sizes:");
+        for (int i = 0; i < BATCH_SIZE_BUCKETS; i++) {
+            long count = batchSizes[i].sum();
+            if (count > 0) {
+                sb.append(" <=").append(1 << i).append(':').append(count);
+            }
+        }
+        return sb.append(", wait: ").append(waitLatency).toString();
+    }
+
+    /**
+     * Bucket i counts batches of size in (2^(i-1), 2^i], bucket 0 counts single-record batches
+     */
+    public long[] getBatchSizes() {
+        final long[] counts = new long[BATCH_SIZE_BUCKETS];
+        for (int i = 0; i < BATCH_SIZE_BUCKETS; i++) {
+            counts[i] = batchSizes[i].sum();
+        }
+        return counts;
+    }
+
+    public TsoLatencyHistogram getWaitLatency() {
+        return waitLatency;
+    }
+}
@@ -22,6 +22,7 @@ import com.alibaba.polardbx.common.exception.TddlRuntimeException;
 import com.alibaba.polardbx.common.exception.code.ErrorCode;
 import com.alibaba.polardbx.common.jdbc.IConnection;
 import com.alibaba.polardbx.common.jdbc.IDataSource;
+import com.alibaba.polardbx.common.jdbc.MasterSlave;
 import com.alibaba.polardbx.common.model.lifecycle.AbstractLifecycle;
 import com.alibaba.polardbx.common.utils.TStringUtil;
 import com.alibaba.polardbx.common.utils.logger.Logger;
@@ -32,6 +33,7 @@ import com.alibaba.polardbx.transaction.TransactionState;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.List;
 
 public class GlobalTxLogManager extends AbstractLifecycle {
 
@@ -100,6 +102,8 @@ public class GlobalTxLogManager extends AbstractLifecycle {
     private static final String APPEND_TRX_WITH_TS = "INSERT INTO `" + GLOBAL_TX_LOG_TABLE
         + "` (`TXID`, `TYPE`, `STATE`, `SERVER_ADDR`, `CONTEXT`, `COMMIT_TS`) VALUES (?, ?, ?, ?, ?, ?)";
 
+    private static final String APPEND_TRX_WITH_TS_VALUES = ", (?, ?, ?, ?, ?, ?)";
+
     private static final String SELECT_BY_ID =
         "SELECT `TYPE`, `STATE`, `SERVER_ADDR`, `CONTEXT`, `COMMIT_TS` FROM `" + GLOBAL_TX_LOG_TABLE
             + "` WHERE `TXID` = ?";
@@ -110,6 +114,8 @@ public class GlobalTxLogManager extends AbstractLifecycle {
 
     private TransactionExecutor executor;
 
+    private final GlobalTxLogGroupCommitter groupCommitter = new GlobalTxLogGroupCommitter(this::appendBatch);
+
     @Override
     public void doInit() {
         if (currentServerAddr == null) {
@@ -159,6 +165,45 @@ public class GlobalTxLogManager extends AbstractLifecycle {
         }
     }
 
+    /**
+     * Append with a commit timestamp via group commit: concurrent appends on the same primary group are written
+     * by one auto-committed multi-row INSERT. Returns after the record is written.
+     */
+    public void appendGroupCommit(String primaryGroup, long txid, TransactionType type, TransactionState state,
+                                  ConnectionContext context, long commitTimestamp, long windowNanos,
+                                  int maxBatchSize) throws SQLException {
+        groupCommitter.append(primaryGroup,
+            new GlobalTxLogGroupCommitter.Record(txid, type, state, context, commitTimestamp),
+            windowNanos,
+            maxBatchSize);
+    }
+
+    private void appendBatch(String primaryGroup, List<GlobalTxLogGroupCommitter.Record> records)
+        throws SQLException {
+        StringBuilder sql = new StringBuilder(APPEND_TRX_WITH_TS);
+        for (int i = 1; i < records.size(); i++) {
+            sql.append(APPEND_TRX_WITH_TS_VALUES);
+        }
+        IDataSource dataSource = executor.getGroupExecutor(primaryGroup).getDataSource();
+        try (IConnection conn = dataSource.getConnection(MasterSlave.MASTER_ONLY);
+            PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            int index = 0;
+            for (GlobalTxLogGroupCommitter.Record record : records) {
+                ps.setLong(++index, record.txid);
+                ps.setString(++index, record.type.name());
+                ps.setString(++index, record.state.name());
+                ps.setString(++index, currentServerAddr);
+                ps.setString(++index, JSON.toJSONString(record.context));
+                ps.setLong(++index, record.commitTimestamp);
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    public GlobalTxLogGroupCommitter getGroupCommitter() {
+        return groupCommitter;
+    }
+
     public GlobalTxLog get(String primaryGroup, long txid) throws SQLException {
         IDataSource dataSource = executor.getGroupExecutor(primaryGroup).getDataSource();
         try (IConnection conn = dataSource.getConnection();
@@ -0,0 +1,75 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.transaction.tso;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process stand-in of the GMS TSO service, used to measure TSO throughput
+ * without a MetaDB. Every call costs a simulated round trip, the physical part
+ * follows the same layout as the real one (ms << 22, 6 low bits reserved).
+ */
+public class LocalTsoServer implements TsoSource {
+
+    private static final int LOGICAL_BITS = 22;
+
+    private final AtomicLong last = new AtomicLong(0);
+    private final AtomicLong calls = new AtomicLong(0);
+    private final long roundTripNanos;
+
+    public LocalTsoServer() {
+        this(0);
+    }
+
+    public LocalTsoServer(long roundTripMicros) {
+        this.roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+    }
+
+    @Override
+    public long fetch(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Bad TSO count " + count);
+        }
+        if (roundTripNanos > 0) {
+            final long deadline = System.nanoTime() + roundTripNanos;
+            long remain;
+            while ((remain = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(remain);
+            }
+        }
+        calls.incrementAndGet();
+
+        final long step = 1L << TsoFetcher.BIT_RESERVED;
+        while (true) {
+            final long prev = last.get();
+            final long physical = System.currentTimeMillis() << LOGICAL_BITS;
+            final long base = Math.max(prev, physical);
+            if (last.compareAndSet(prev, base + count * step)) {
+                return base;
+            }
+        }
+    }
+
+    /**
+     * @return number of round trips served
+     */
+    public long getCalls() {
+        return calls.get();
+    }
+}
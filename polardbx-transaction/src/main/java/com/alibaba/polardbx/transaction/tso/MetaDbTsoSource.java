@@ -0,0 +1,77 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.transaction.tso;
+
+import com.alibaba.polardbx.common.exception.TddlRuntimeException;
+import com.alibaba.polardbx.common.exception.code.ErrorCode;
+import com.alibaba.polardbx.gms.util.MetaDbUtil;
+import com.alibaba.polardbx.rpc.pool.XConnection;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Allocate TSO from the GMS (MetaDB) leader via dbms_tso.
+ */
+public class MetaDbTsoSource implements TsoSource {
+
+    private static final int FETCH_TIMEOUT = 10000; // 10s
+
+    @Override
+    public long fetch(int count) throws Exception {
+        // Get TSO.
+        final long startTime = System.currentTimeMillis();
+        while (true) {
+            try (Connection metaDbConn = MetaDbUtil.getConnection()) {
+                if (metaDbConn.isWrapperFor(XConnection.class)) {
+                    final XConnection xConnection = metaDbConn.unwrap(XConnection.class);
+                    final int oldTimeout = xConnection.getNetworkTimeout();
+                    try {
+                        xConnection.setNetworkTimeout(null, FETCH_TIMEOUT);
+                        return xConnection.getTSO(count);
+                    } finally {
+                        xConnection.setNetworkTimeout(null, oldTimeout);
+                    }
+                } else {
+                    // JDBC.
+                    try (Statement statement = metaDbConn.createStatement()) {
+                        statement.setQueryTimeout(FETCH_TIMEOUT / 1000);
+                        try (ResultSet rs = statement.executeQuery(
+                            "call dbms_tso.get_timestamp('mysql', 'gts_base'," + count + ")")) {
+                            if (rs.next()) {
+                                return rs.getLong(1);
+                            }
+                            throw new TddlRuntimeException(ErrorCode.ERR_GMS_UNEXPECTED,
+                                "Cannot get TSO with unexpected column.");
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                // Retry if HA occurs and not timeout.
+                if (e instanceof SQLException || e.getMessage().contains("Failed to get TSO") || e.getMessage()
+                    .contains("channel inactive")) {
+                    if (System.currentTimeMillis() - startTime < FETCH_TIMEOUT) {
+                        continue;
+                    }
+                }
+                throw e;
+            }
+        }
+    }
+}
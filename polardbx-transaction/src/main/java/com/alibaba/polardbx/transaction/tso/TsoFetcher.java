@@ -0,0 +1,235 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.transaction.tso;
+
+import com.alibaba.polardbx.common.properties.DynamicConfig;
+import com.alibaba.polardbx.common.utils.logger.Logger;
+import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Group TSO requests into batches and fetch them with a single round trip.
+ * <p>
+ * Callers enqueue into a lock-free queue and the fetcher thread drains everything
+ * pending into one {@link TsoSource#fetch(int)}. When a snapshot lease is configured,
+ * each batch also reserves some extra timestamps which are served lock-free to
+ * read-only snapshots until the lease expires.
+ * <p>
+ * Prefetched timestamps are only handed to snapshot reads, never to commits.
+ * The window of a batch is published before any commit timestamp of the same batch
+ * is returned, so a snapshot taken after a local commit finished is always larger
+ * than that commit timestamp. Commits on other CN are seen at most one lease late.
+ */
+public class TsoFetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TsoFetcher.class);
+
+    static final int BIT_RESERVED = 6;
+
+    static final long STEP = 1L << BIT_RESERVED;
+
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final TsoSource source;
+    private final LongSupplier prefetchCount;
+    private final LongSupplier leaseMillis;
+
+    private final ConcurrentLinkedQueue<CompletableFuture<Long>> waiters = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private volatile boolean parked = false;
+    private volatile boolean stopped = false;
+
+    private volatile SnapshotWindow window = null;
+
+    private final TsoLatencyHistogram fetchLatency = new TsoLatencyHistogram();
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder timestampCount = new LongAdder();
+    private final LongAdder snapshotHitCount = new LongAdder();
+    private long lastReportNanos = System.nanoTime();
+
+    public TsoFetcher(TsoSource source, String name) {
+        this(source, name,
+            () -> DynamicConfig.getInstance().getTsoPrefetchCount(),
+            () -> DynamicConfig.getInstance().getTsoSnapshotLeaseMillis());
+    }
+
+    public TsoFetcher(TsoSource source, String name, LongSupplier prefetchCount, LongSupplier leaseMillis) {
+        this.source = source;
+        this.prefetchCount = prefetchCount;
+        this.leaseMillis = leaseMillis;
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    private static final class SnapshotWindow {
+        private final AtomicLong next;
+        private final long last;
+        private final long expireNanos;
+
+        SnapshotWindow(long first, long last, long expireNanos) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+            this.expireNanos = expireNanos;
+        }
+    }
+
+    /**
+     * Fetch a fresh timestamp, suitable for commit and for strongly consistent snapshots.
+     */
+    public long next(long timeoutMillis) throws Exception {
+        final CompletableFuture<Long> future = new CompletableFuture<>();
+        waiters.offer(future);
+        if (parked) {
+            LockSupport.unpark(thread);
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        } catch (TimeoutException e) {
+            throw new TimeoutException("Fetch TSO timeout.");
+        }
+    }
+
+    /**
+     * Fetch a timestamp for a read-only snapshot, served from the prefetched window
+     * when the lease is still valid, otherwise same as {@link #next(long)}.
+     */
+    public long nextSnapshot(long timeoutMillis) throws Exception {
+        final SnapshotWindow w = window;
+        if (w != null && System.nanoTime() - w.expireNanos < 0) {
+            final long tso = w.next.getAndAdd(STEP);
+            if (tso <= w.last) {
+                snapshotHitCount.increment();
+                return tso;
+            }
+        }
+        return next(timeoutMillis);
+    }
+
+    private void run() {
+        while (!stopped) {
+            try {
+                fetchOnce();
+            } catch (Throwable t) {
+                logger.error(t);
+            }
+        }
+    }
+
+    private void fetchOnce() {
+        CompletableFuture<Long> first = waiters.poll();
+        while (first == null) {
+            parked = true;
+            first = waiters.poll();
+            if (first == null) {
+                LockSupport.park(this);
+                if (stopped) {
+                    parked = false;
+                    return;
+                }
+                first = waiters.poll();
+            }
+            parked = false;
+        }
+
+        final List<CompletableFuture<Long>> batch = new ArrayList<>();
+        batch.add(first);
+        CompletableFuture<Long> future;
+        while ((future = waiters.poll()) != null) {
+            batch.add(future);
+        }
+
+        final long lease = leaseMillis.getAsLong();
+        final int prefetch = lease > 0 ? (int) prefetchCount.getAsLong() : 0;
+        final int size = batch.size();
+
+        final long startNanos = System.nanoTime();
+        final long tsoBase;
+        try {
+            tsoBase = source.fetch(size + prefetch);
+        } catch (Exception e) {
+            for (CompletableFuture<Long> waiter : batch) {
+                waiter.completeExceptionally(e);
+            }
+            return;
+        }
+        final long endNanos = System.nanoTime();
+        fetchLatency.record(endNanos - startNanos);
+        batchCount.increment();
+        timestampCount.add(size);
+
+        // Publish window before completing any waiter of this batch.
+        if (prefetch > 0) {
+            window = new SnapshotWindow(tsoBase + (size + 1) * STEP, tsoBase + (size + prefetch) * STEP,
+                startNanos + TimeUnit.MILLISECONDS.toNanos(lease));
+        } else if (window != null) {
+            window = null;
+        }
+
+        long tso = tsoBase;
+        for (CompletableFuture<Long> waiter : batch) {
+            waiter.complete(tso += STEP);
+        }
+
+        if (endNanos - lastReportNanos > REPORT_INTERVAL_NANOS) {
+            lastReportNanos = endNanos;
+            logger.info(report());
+        }
+    }
+
+    public String report() {
+        return "TSO fetch: batches=" + batchCount.sum() + ", timestamps=" + timestampCount.sum()
+            + ", snapshot hits=" + snapshotHitCount.sum() + ", latency: " + fetchLatency;
+    }
+
+    public TsoLatencyHistogram getFetchLatency() {
+        return fetchLatency;
+    }
+
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    public long getTimestampCount() {
+        return timestampCount.sum();
+    }
+
+    public long getSnapshotHitCount() {
+        return snapshotHitCount.sum();
+    }
+
+    public void stop() {
+        stopped = true;
+        LockSupport.unpark(thread);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.transaction.tso;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log2 histogram of TSO fetch latency in microseconds.
+ * Bucket i counts latencies in [2^(i-1), 2^i) us, bucket 0 counts those below 1us.
+ */
+public class TsoLatencyHistogram {
+
+    static final int BUCKETS = 24;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder totalMicros = new LongAdder();
+
+    public TsoLatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        final long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(nanos, 0));
+        final int idx = Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+        buckets[idx].increment();
+        totalMicros.add(micros);
+    }
+
+    public long[] snapshot() {
+        final long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    public long count() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public long averageMicros() {
+        final long count = count();
+        return count == 0 ? 0 : totalMicros.sum() / count;
+    }
+
+    /**
+     * @return upper bound (us) of the bucket holding the given percentile, 0 if nothing recorded
+     */
+    public long percentileMicros(double percentile) {
+        final long[] counts = snapshot();
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return 1L << i;
+            }
+        }
+        return 1L << (BUCKETS - 1);
+    }
+
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        totalMicros.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count() + ", avg=" + averageMicros() + "us, p50<" + percentileMicros(50) + "us, p99<"
+            + percentileMicros(99) + "us, p999<" + percentileMicros(99.9) + "us";
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.transaction.tso;
+
+/**
+ * Where {@link TsoFetcher} allocates timestamps from
+ */
+public interface TsoSource {
+
+    /**
+     * Reserve {@code count} consecutive timestamps.
+     *
+     * @return the base timestamp, the reserved ones are {@code base + i * (1 << BIT_RESERVED)} for i in [1, count]
+     */
+    long fetch(int count) throws Exception;
+}
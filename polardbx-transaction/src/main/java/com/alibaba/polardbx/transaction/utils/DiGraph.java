@@ -37,11 +37,26 @@ public class DiGraph<T> {
         this.edges.computeIfAbsent(from, (ignored) -> new ArrayList<>()).add(to);
     }
 
+    /**
+     * Remove one edge added by addDiEdge, a vertex without out edges is removed as well.
+     */
+    public void removeDiEdge(T from, T to) {
+        final ArrayList<T> targets = this.edges.get(from);
+        if (targets != null && targets.remove(to) && targets.isEmpty()) {
+            this.edges.remove(from);
+        }
+    }
+
+    public boolean isEmpty() {
+        return edges.isEmpty();
+    }
+
     private static class Detector<T> {
         final private HashMap<T, ArrayList<T>> edges;
         final private HashSet<T> discovered;
         final private HashSet<T> finished;
         private ArrayList<T> curPath;
+        private T cycleEntry;
 
         Detector(HashMap<T, ArrayList<T>> edges) {
             this.edges = edges;
@@ -63,10 +78,31 @@ public class DiGraph<T> {
             return Optional.empty();
         }
 
+        /**
+         * Search only what is reachable from the given vertices, the result starts at the cycle entry so every
+         * vertex of it is on the cycle.
+         */
+        private Optional<ArrayList<T>> detectFrom(Collection<T> starts, Set<T> ignored) {
+            finished.addAll(ignored);
+            for (T u : starts) {
+                if (!finished.contains(u) && edges.containsKey(u)) {
+                    curPath = new ArrayList<>(1);
+                    curPath.add(u);
+                    Optional<ArrayList<T>> result = dfs(u);
+                    if (result.isPresent()) {
+                        final ArrayList<T> path = result.get();
+                        return Optional.of(new ArrayList<>(path.subList(path.indexOf(cycleEntry), path.size())));
+                    }
+                }
+            }
+            return Optional.empty();
+        }
+
         private Optional<ArrayList<T>> dfs(T u) {
             discovered.add(u);
             for (T v : Optional.ofNullable(edges.get(u)).orElse(new ArrayList<>())) {
                 if (discovered.contains(v)) {
+                    cycleEntry = v;
                     return Optional.of(new ArrayList<>(curPath));
                 }
                 if (!finished.contains(v)) {
@@ -92,4 +128,14 @@ public class DiGraph<T> {
     public Optional<ArrayList<T>> detect() {
         return (new Detector<T>(this.edges).detect());
     }
+
+    /**
+     * Detect a cycle reachable from the given vertices, e.g. the sources of edges added since the last detection.
+     * Any cycle containing a vertex in ignored is skipped.
+     *
+     * @return vertices of one cycle in order, or empty if no such cycle
+     */
+    public Optional<ArrayList<T>> detectFrom(Collection<T> starts, Set<T> ignored) {
+        return (new Detector<T>(this.edges).detectFrom(starts, ignored));
+    }
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.transaction.log;
+
+import com.alibaba.polardbx.transaction.TransactionState;
+import com.alibaba.polardbx.transaction.TransactionType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class GlobalTxLogGroupCommitterTest {
+
+    private static GlobalTxLogGroupCommitter.Record record(long txid) {
+        return new GlobalTxLogGroupCommitter.Record(txid, TransactionType.TSO, TransactionState.SUCCEED,
+            new ConnectionContext(), txid);
+    }
+
+    @Test
+    public void testConcurrentAppendsAreBatched() throws Exception {
+        final Set<Long> written = Collections.synchronizedSet(new HashSet<>());
+        final AtomicInteger statements = new AtomicInteger();
+        final GlobalTxLogGroupCommitter committer = new GlobalTxLogGroupCommitter((group, records) -> {
+            statements.incrementAndGet();
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException ignore) {
+            }
+            for (GlobalTxLogGroupCommitter.Record r : records) {
+                Assert.assertTrue(written.add(r.txid));
+            }
+        });
+
+        final int threads = 16;
+        final int perThread = 50;
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            final int base = t * perThread;
+            new Thread(() -> {
+                try {
+                    for (int i = 0; i < perThread; i++) {
+                        final long txid = base + i;
+                        committer.append("g1", record(txid), TimeUnit.MICROSECONDS.toNanos(100), 64);
+                        // The record must be written when append returns.
+                        Assert.assertTrue(written.contains(txid));
+                    }
+                } catch (Throwable e) {
+                    error.set(e);
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        done.await();
+        Assert.assertNull(error.get());
+        Assert.assertEquals(threads * perThread, written.size());
+        Assert.assertTrue(statements.get() < threads * perThread);
+        Assert.assertEquals(threads * perThread, committer.getWaitLatency().count());
+    }
+
+    @Test
+    public void testDuplicateTxidFailsOnlyItsOwner() throws Exception {
+        final long existing = 7;
+        final GlobalTxLogGroupCommitter committer = new GlobalTxLogGroupCommitter((group, records) -> {
+            for (GlobalTxLogGroupCommitter.Record r : records) {
+                if (r.txid == existing) {
+                    throw new SQLIntegrityConstraintViolationException("Duplicate entry");
+                }
+            }
+        });
+
+        final int threads = 8;
+        final AtomicInteger failed = new AtomicInteger();
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            final long txid = t + 3;
+            new Thread(() -> {
+                try {
+                    committer.append("g1", record(txid), TimeUnit.MILLISECONDS.toNanos(5), threads);
+                } catch (SQLIntegrityConstraintViolationException e) {
+                    if (txid != existing) {
+                        error.set(e);
+                    }
+                    failed.incrementAndGet();
+                } catch (Throwable e) {
+                    error.set(e);
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        done.await();
+        Assert.assertNull(error.get());
+        Assert.assertEquals(1, failed.get());
+    }
+
+    @Test
+    public void testWriteErrorReachesEveryRecordOfBatch() {
+        final GlobalTxLogGroupCommitter committer = new GlobalTxLogGroupCommitter((group, records) -> {
+            throw new SQLException("lost connection");
+        });
+        try {
+            committer.append("g1", record(1), 0, 16);
+            Assert.fail();
+        } catch (SQLException e) {
+            Assert.assertEquals("lost connection", e.getMessage());
+        }
+        Assert.assertEquals(0, committer.getBatchSizes()[0]);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.transaction.tso;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TsoFetcherTest {
+
+    @Test
+    public void testBatchedTimestampsAreUnique() throws Exception {
+        final LocalTsoServer server = new LocalTsoServer(200);
+        final TsoFetcher fetcher = new TsoFetcher(server, "TsoFetcherTest", () -> 0, () -> 0);
+        try {
+            final int threads = 16;
+            final int perThread = 200;
+            final long[][] results = new long[threads][perThread];
+            final AtomicReference<Throwable> error = new AtomicReference<>();
+            final CountDownLatch done = new CountDownLatch(threads);
+            for (int t = 0; t < threads; t++) {
+                final long[] out = results[t];
+                new Thread(() -> {
+                    try {
+                        for (int i = 0; i < perThread; i++) {
+                            out[i] = fetcher.next(10000);
+                        }
+                    } catch (Throwable e) {
+                        error.set(e);
+                    } finally {
+                        done.countDown();
+                    }
+                }).start();
+            }
+            done.await();
+            Assert.assertNull(error.get());
+
+            final List<Long> all = new ArrayList<>();
+            for (long[] out : results) {
+                for (int i = 1; i < perThread; i++) {
+                    Assert.assertTrue(out[i] > out[i - 1]);
+                }
+                for (long tso : out) {
+                    Assert.assertEquals(0, tso & (TsoFetcher.STEP - 1));
+                    all.add(tso);
+                }
+            }
+            Assert.assertEquals(threads * perThread, all.stream().distinct().count());
+            // Concurrent callers must share round trips.
+            Assert.assertTrue(server.getCalls() < threads * perThread);
+            Assert.assertEquals(server.getCalls(), fetcher.getBatchCount());
+            Assert.assertEquals(server.getCalls(), fetcher.getFetchLatency().count());
+        } finally {
+            fetcher.stop();
+        }
+    }
+
+    @Test
+    public void testSnapshotAfterCommitIsNewer() throws Exception {
+        final LocalTsoServer server = new LocalTsoServer();
+        final TsoFetcher fetcher = new TsoFetcher(server, "TsoFetcherTest", () -> 16, () -> 1000);
+        try {
+            long lastCommit = 0;
+            for (int i = 0; i < 100; i++) {
+                final long snapshot = fetcher.nextSnapshot(10000);
+                Assert.assertTrue(snapshot > lastCommit);
+                lastCommit = fetcher.next(10000);
+                Assert.assertTrue(lastCommit > snapshot);
+            }
+            // Snapshots between two commits come from the window.
+            fetcher.next(10000);
+            final long calls = server.getCalls();
+            for (int i = 0; i < 16; i++) {
+                fetcher.nextSnapshot(10000);
+            }
+            Assert.assertEquals(calls, server.getCalls());
+            Assert.assertTrue(fetcher.getSnapshotHitCount() > 0);
+        } finally {
+            fetcher.stop();
+        }
+    }
+
+    @Test
+    public void testSnapshotWithoutLease() throws Exception {
+        final LocalTsoServer server = new LocalTsoServer();
+        final TsoFetcher fetcher = new TsoFetcher(server, "TsoFetcherTest", () -> 16, () -> 0);
+        try {
+            for (int i = 0; i < 10; i++) {
+                fetcher.nextSnapshot(10000);
+            }
+            Assert.assertEquals(10, server.getCalls());
+            Assert.assertEquals(0, fetcher.getSnapshotHitCount());
+        } finally {
+            fetcher.stop();
+        }
+    }
+
+    @Test
+    public void testFetchError() throws Exception {
+        final TsoFetcher fetcher = new TsoFetcher(count -> {
+            throw new IllegalStateException("Failed to get TSO");
+        }, "TsoFetcherTest", () -> 0, () -> 0);
+        try {
+            fetcher.next(10000);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("Failed to get TSO", e.getMessage());
+        } finally {
+            fetcher.stop();
+        }
+    }
+
+    @Test
+    public void testLatencyHistogram() {
+        final TsoLatencyHistogram histogram = new TsoLatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100_000); // 100us
+        }
+        histogram.record(50_000_000); // 50ms
+        Assert.assertEquals(100, histogram.count());
+        Assert.assertEquals(128, histogram.percentileMicros(50));
+        Assert.assertEquals(128, histogram.percentileMicros(99));
+        Assert.assertEquals(65536, histogram.percentileMicros(100));
+    }
+}
@@ -20,6 +20,7 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Optional;
 
 import static org.junit.Assert.*;
@@ -101,4 +102,34 @@ public class DiGraphTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void detectFrom() {
+        DiGraph<Integer> graph = new DiGraph<>();
+        graph.addDiEdge(0, 1);
+        graph.addDiEdge(1, 2);
+        graph.addDiEdge(2, 3);
+        assertFalse(graph.detectFrom(Arrays.asList(0, 1, 2), Collections.emptySet()).isPresent());
+
+        // The new edge closes a cycle, the path from 0 is not part of it.
+        graph.addDiEdge(3, 1);
+        Optional<ArrayList<Integer>> result = graph.detectFrom(Collections.singletonList(0), Collections.emptySet());
+        assertTrue(result.isPresent());
+        assertEquals(Arrays.asList(1, 2, 3), result.get());
+
+        // Unreachable from the start.
+        assertFalse(graph.detectFrom(Collections.singletonList(4), Collections.emptySet()).isPresent());
+        assertFalse(graph.detectFrom(Collections.singletonList(0), Collections.singleton(2)).isPresent());
+
+        graph.addDiEdge(3, 1);
+        graph.removeDiEdge(3, 1);
+        assertTrue(graph.detectFrom(Collections.singletonList(3), Collections.emptySet()).isPresent());
+        graph.removeDiEdge(3, 1);
+        assertFalse(graph.detectFrom(Collections.singletonList(3), Collections.emptySet()).isPresent());
+
+        graph.removeDiEdge(0, 1);
+        graph.removeDiEdge(1, 2);
+        graph.removeDiEdge(2, 3);
+        assertTrue(graph.isEmpty());
+    }
+}